@@ -0,0 +1,40 @@
+package benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Startet die Benchmarks nacheinander mit verschiedenen Thread-Anzahlen
+ * (JMH kann die Thread-Anzahl nicht als @Param variieren).
+ * Aufruf: BenchmarkRunner [Threads, kommagetrennt, Standard 1,4,16] [Regex für Benchmark-Namen] [Tabellengrößen]
+ * Beispiel: java -cp target/benchmarks.jar benchmark.BenchmarkRunner 1,8 getById|update 1000,10000
+ * Die Ergebnisse landen zusätzlich je Thread-Anzahl in results-&lt;threads&gt;-threads.json.
+ */
+public class BenchmarkRunner
+{
+    public static void main(String[] args) throws RunnerException
+    {
+        String[] threadCounts = (args.length > 0 ? args[0] : "1,4,16").split(",");
+        String include = args.length > 1 ? args[1] : "";
+        String[] tableSizes = args.length > 2 ? args[2].split(",") : null;
+
+        for(String threadCount : threadCounts)
+        {
+            int threads = Integer.parseInt(threadCount.trim());
+            OptionsBuilder builder = new OptionsBuilder();
+            builder.include(CourseRepositoryBenchmark.class.getSimpleName() + "\\.(" + (include.isEmpty() ? ".*" : include) + ")$")
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("results-" + threads + "-threads.json");
+            if(tableSizes != null)
+            {
+                builder.param("tableSize", tableSizes);
+            }
+            Options options = builder.build();
+            new Runner(options).run();
+        }
+    }
+}
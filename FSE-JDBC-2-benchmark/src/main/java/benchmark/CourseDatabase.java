@@ -0,0 +1,169 @@
+package benchmark;
+
+import dataaccess.InMemoryCourseSearchIndex;
+import dataaccess.MySqlCourseRepository;
+import dataaccess.PooledConnectionProvider;
+import domain.Course;
+import domain.CourseType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Eine H2-Datenbank im MySQL-Modus mit der Tabelle `courses`, befüllt mit Testkursen.
+ * Jede Instanz verwendet eine eigene In-Memory-Datenbank, damit sich die Benchmarks nicht gegenseitig beeinflussen.
+ */
+class CourseDatabase implements AutoCloseable
+{
+    private static final String CREATE_TABLE_SQL =
+            "CREATE TABLE `courses` (" +
+            "`id` BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+            "`name` VARCHAR(200) NOT NULL, " +
+            "`description` TEXT NOT NULL, " +
+            "`hours` INT NOT NULL, " +
+            "`begindate` DATE NOT NULL, " +
+            "`enddate` DATE NOT NULL, " +
+            "`coursetype` VARCHAR(2) NOT NULL, " +
+            "`version` BIGINT NOT NULL DEFAULT 0)";
+
+    // Die Index-Migration aus FSE-JDBC-2 (liegt dort im Klassenpfad); den FULLTEXT-Index (V1) gibt es in H2 nicht.
+    private static final String INDEX_MIGRATION = "/db/migration/V2__add_course_lookup_indexes.sql";
+
+    // H2 lehnt die negative Fetch-Size ab, mit der Connector/J streamt.
+    private static final int FETCH_SIZE = 1000;
+
+    private static final AtomicInteger DATABASE_COUNTER = new AtomicInteger();
+
+    private static final String[] TOPICS = {
+            "Java", "Python", "Datenbanken", "Netzwerke", "Webentwicklung", "Mathematik", "Englisch", "Projektmanagement"
+    };
+
+    private final String url;
+    private final Connection keepAlive;
+    private final PooledConnectionProvider connectionPool;
+    private final MySqlCourseRepository repository;
+    private final List<Long> ids;
+
+    /**
+     * @param tableSize Die Anzahl der Kurse, mit der die Tabelle befüllt wird.
+     * @param maxConnections Die Größe des Connection-Pools; sollte mindestens der Anzahl der Threads entsprechen.
+     */
+    CourseDatabase(int tableSize, int maxConnections) throws SQLException, IOException
+    {
+        this.url = "jdbc:h2:mem:kurssystem" + DATABASE_COUNTER.incrementAndGet() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+
+        // Hält die In-Memory-Datenbank am Leben, solange der Benchmark läuft.
+        this.keepAlive = DriverManager.getConnection(url, "sa", "");
+        try(Statement statement = keepAlive.createStatement())
+        {
+            statement.execute(CREATE_TABLE_SQL);
+            for(String sql : readMigration())
+            {
+                statement.execute(sql);
+            }
+        }
+
+        this.connectionPool = new PooledConnectionProvider(url, "sa", "", 1, maxConnections,
+                PooledConnectionProvider.DEFAULT_IDLE_TIMEOUT_MILLIS, PooledConnectionProvider.DEFAULT_ACQUIRE_TIMEOUT_MILLIS);
+        this.repository = new MySqlCourseRepository(connectionPool, false, MySqlCourseRepository.DEFAULT_BATCH_SIZE, FETCH_SIZE);
+
+        List<Course> courses = new ArrayList<>(tableSize);
+        for(int i = 0; i < tableSize; i++)
+        {
+            courses.add(newCourse(i));
+        }
+        this.ids = new ArrayList<>(tableSize);
+        for(Course course : repository.insertAll(courses).getSuccessful())
+        {
+            ids.add(course.getId());
+        }
+    }
+
+    MySqlCourseRepository getRepository()
+    {
+        return repository;
+    }
+
+    /**
+     * @return Die IDs der beim Befüllen eingefügten Kurse.
+     */
+    List<Long> getIds()
+    {
+        return ids;
+    }
+
+    /**
+     * @return Ein In-Memory-Suchindex über den aktuellen Tabelleninhalt.
+     */
+    InMemoryCourseSearchIndex buildSearchIndex()
+    {
+        InMemoryCourseSearchIndex searchIndex = new InMemoryCourseSearchIndex();
+        try(Stream<Course> allCourses = repository.streamAll())
+        {
+            searchIndex.rebuild(allCourses);
+        }
+        return searchIndex;
+    }
+
+    /**
+     * Erzeugt einen Testkurs; etwa die Hälfte der Kurse läuft zum aktuellen Zeitpunkt.
+     */
+    static Course newCourse(int number)
+    {
+        String topic = TOPICS[number % TOPICS.length];
+        LocalDate begin = LocalDate.now().minusDays(365).plusDays(number % 730);
+        return new Course(
+                topic + " " + number,
+                "Kurs " + number + " zum Thema " + topic + " für Einsteiger und Fortgeschrittene",
+                1 + number % 9,
+                Date.valueOf(begin),
+                Date.valueOf(begin.plusDays(90)),
+                CourseType.values()[number % CourseType.values().length]
+        );
+    }
+
+    private static List<String> readMigration() throws IOException
+    {
+        List<String> statements = new ArrayList<>();
+        try(InputStream in = CourseDatabase.class.getResourceAsStream(INDEX_MIGRATION))
+        {
+            if(in == null)
+            {
+                return statements;
+            }
+            String script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            for(String sql : script.replaceAll("--[^\n]*", "").split(";"))
+            {
+                if(!sql.isBlank())
+                {
+                    statements.add(sql.trim());
+                }
+            }
+        }
+        return statements;
+    }
+
+    @Override
+    public void close() throws SQLException
+    {
+        connectionPool.close();
+        keepAlive.close();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CourseDatabase{" + url + ", rows=" + ids.size() + '}';
+    }
+}
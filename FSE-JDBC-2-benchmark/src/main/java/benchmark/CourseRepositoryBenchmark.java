@@ -0,0 +1,252 @@
+package benchmark;
+
+import dataaccess.InMemoryCourseSearchIndex;
+import dataaccess.MySqlCourseRepository;
+import dataaccess.OptimisticLockException;
+import domain.Course;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH-Benchmarks für MySqlCourseRepository.
+ * Gemessen werden Durchsatz (Throughput) und die Verteilung der Laufzeiten (SampleTime, mit p50/p90/p99/p99.9).
+ * Die Tabellengröße ist ein Parameter; die Anzahl der Threads wird über -t bzw. BenchmarkRunner gesetzt.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseRepositoryBenchmark
+{
+    // Obergrenze für die Poolgröße; mehr Threads als Verbindungen messen nur das Warten auf den Pool.
+    private static final int MAX_CONNECTIONS = 64;
+
+    /**
+     * Die Datenbank; wird pro Trial (Kombination der Parameter) neu erstellt und befüllt.
+     */
+    @State(Scope.Benchmark)
+    public static class Database
+    {
+        @Param({"1000", "10000", "100000"})
+        public int tableSize;
+
+        CourseDatabase database;
+        MySqlCourseRepository repository;
+        InMemoryCourseSearchIndex searchIndex;
+        List<Long> ids;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception
+        {
+            database = new CourseDatabase(tableSize, MAX_CONNECTIONS);
+            repository = database.getRepository();
+            searchIndex = database.buildSearchIndex();
+            ids = database.getIds();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception
+        {
+            database.close();
+        }
+
+        Long randomId()
+        {
+            return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        }
+    }
+
+    /**
+     * Kurse, die ein Thread im update-Benchmark ändert. Jeder Thread bekommt einen eigenen Ausschnitt der IDs und liest
+     * seine Kurse einmal vor der Messung; danach arbeitet er mit den vom Update zurückgegebenen Kursen (aktuelle Version)
+     * weiter. So misst update nur das Schreiben, und zwischen den Threads gibt es keine Versionskonflikte.
+     */
+    @State(Scope.Thread)
+    public static class UpdatableCourses
+    {
+        Course[] courses;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(Database database, ThreadParams threadParams)
+        {
+            List<Long> slice = new ArrayList<>();
+            for(int i = threadParams.getThreadIndex(); i < database.ids.size(); i += threadParams.getThreadCount())
+            {
+                slice.add(database.ids.get(i));
+            }
+            courses = database.repository.getAllById(slice).values().toArray(new Course[0]);
+        }
+
+        /**
+         * Liefert den nächsten Kurs des Threads, mit neuen Werten aus newCourse (alle Felder geändert).
+         */
+        Course nextChanged()
+        {
+            Course course = courses[next];
+            Course changed = CourseDatabase.newCourse(ThreadLocalRandom.current().nextInt(1_000_000));
+            course.setName(changed.getName());
+            course.setDescription(changed.getDescription());
+            course.setHours(changed.getHours());
+            course.setPeriod(changed.getBeginDate(), changed.getEndDate());
+            course.setCourseType(changed.getCourseType());
+            return course;
+        }
+
+        void updated(Course course)
+        {
+            courses[next] = course;
+            next = (next + 1) % courses.length;
+        }
+    }
+
+    /**
+     * Kurse, die deleteById löschen kann. Sie werden vor jeder Messiteration gesammelt per insertAll angelegt
+     * (so viele, wie in der vorherigen Iteration gebraucht wurden, mit Reserve); übrig gebliebene werden danach gelöscht.
+     * Nur wenn der Vorrat während einer Iteration ausgeht, wird innerhalb der Messung nachgelegt.
+     */
+    @State(Scope.Thread)
+    public static class DeletableCourses
+    {
+        private static final int MIN_BATCH = 1_000;
+
+        Database database;
+        final ArrayDeque<Long> ids = new ArrayDeque<>();
+        int batchSize = MIN_BATCH;
+        int used;
+
+        @Setup(Level.Iteration)
+        public void setUp(Database database)
+        {
+            this.database = database;
+            used = 0;
+            refill();
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown()
+        {
+            if(!ids.isEmpty())
+            {
+                database.repository.deleteAllById(new ArrayList<>(ids));
+                ids.clear();
+            }
+            batchSize = Math.max(MIN_BATCH, 2 * used);
+        }
+
+        Long nextId()
+        {
+            if(ids.isEmpty())
+            {
+                refill();
+            }
+            used++;
+            return ids.poll();
+        }
+
+        private void refill()
+        {
+            List<Course> courses = new ArrayList<>(batchSize);
+            for(int i = 0; i < batchSize; i++)
+            {
+                courses.add(CourseDatabase.newCourse(ThreadLocalRandom.current().nextInt(1_000_000)));
+            }
+            for(Course course : database.repository.insertAll(courses).getSuccessful())
+            {
+                ids.add(course.getId());
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<Course> insert(Database database)
+    {
+        return database.repository.insert(CourseDatabase.newCourse(ThreadLocalRandom.current().nextInt(1_000_000)));
+    }
+
+    @Benchmark
+    public Optional<Course> getById(Database database)
+    {
+        return database.repository.getById(database.randomId());
+    }
+
+    @Benchmark
+    public Map<Long, Course> getAllById100(Database database)
+    {
+        List<Long> ids = new ArrayList<>(100);
+        for(int i = 0; i < 100; i++)
+        {
+            ids.add(database.randomId());
+        }
+        return database.repository.getAllById(ids);
+    }
+
+    @Benchmark
+    public Optional<Course> update(Database database, UpdatableCourses courses)
+    {
+        Course course = courses.nextChanged();
+        try
+        {
+            Optional<Course> updated = database.repository.update(course);
+            updated.ifPresent(courses::updated);
+            return updated;
+        }
+        catch(OptimisticLockException optimisticLockException)
+        {
+            // Kommt nur vor, wenn ein anderer Prozess die Tabelle ändert; der Kurs wird dann neu gelesen.
+            database.repository.getById(course.getId()).ifPresent(courses::updated);
+            return Optional.empty();
+        }
+    }
+
+    @Benchmark
+    public boolean deleteById(Database database, DeletableCourses courses)
+    {
+        return database.repository.deleteById(courses.nextId());
+    }
+
+    @Benchmark
+    public List<Course> getAll(Database database)
+    {
+        return database.repository.getAll();
+    }
+
+    @Benchmark
+    public List<Course> searchLike(Database database)
+    {
+        return database.repository.findAllCoursesByNameOrDescription("netzwerk");
+    }
+
+    @Benchmark
+    public Object searchInMemoryIndex(Database database)
+    {
+        return database.searchIndex.search("netzwerk", 20);
+    }
+
+    @Benchmark
+    public List<Course> runningCourses(Database database)
+    {
+        return database.repository.findAllRunningCourses();
+    }
+}
@@ -0,0 +1,128 @@
+package analytics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ergebnis von CourseCatalogSnapshot.aggregate: Anzahl und Summe pro Gruppe, in der Reihenfolge der Gruppennummern.
+ * Enthält auch leere Gruppen (Anzahl 0).
+ */
+public class AggregateResult
+{
+    private final String[] labels;
+    private final long[] counts;
+    private final long[] sums;
+
+    AggregateResult(String[] labels, long[] counts, long[] sums)
+    {
+        this.labels = labels;
+        this.counts = counts;
+        this.sums = sums;
+    }
+
+    /**
+     * @return Anzahl der Gruppen.
+     */
+    public int size()
+    {
+        return labels.length;
+    }
+
+    public String getLabel(int group)
+    {
+        return labels[group];
+    }
+
+    /**
+     * @return Anzahl der Zeilen in der Gruppe, die den Filter erfüllen.
+     */
+    public long getCount(int group)
+    {
+        return counts[group];
+    }
+
+    /**
+     * @return Summe des Werts über diese Zeilen.
+     */
+    public long getSum(int group)
+    {
+        return sums[group];
+    }
+
+    /**
+     * @return Durchschnitt des Werts in der Gruppe; 0 bei einer leeren Gruppe.
+     */
+    public double getAverage(int group)
+    {
+        return counts[group] == 0 ? 0 : (double) sums[group] / counts[group];
+    }
+
+    public long getTotalCount()
+    {
+        long total = 0;
+        for(long count : counts)
+        {
+            total += count;
+        }
+        return total;
+    }
+
+    public long getTotalSum()
+    {
+        long total = 0;
+        for(long sum : sums)
+        {
+            total += sum;
+        }
+        return total;
+    }
+
+    /**
+     * @return Bezeichnung -> Anzahl für alle nicht leeren Gruppen.
+     */
+    public Map<String, Long> countsByLabel()
+    {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for(int group = 0; group < labels.length; group++)
+        {
+            if(counts[group] > 0)
+            {
+                result.put(labels[group], counts[group]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return Bezeichnung -> Summe für alle nicht leeren Gruppen.
+     */
+    public Map<String, Long> sumsByLabel()
+    {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for(int group = 0; group < labels.length; group++)
+        {
+            if(counts[group] > 0)
+            {
+                result.put(labels[group], sums[group]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Eine Zeile pro nicht leerer Gruppe: Bezeichnung, Anzahl und Summe.
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder text = new StringBuilder();
+        for(int group = 0; group < labels.length; group++)
+        {
+            if(counts[group] > 0)
+            {
+                text.append(labels[group]).append(": Anzahl=").append(counts[group]).append(", Summe=").append(sums[group]).append('\n');
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,499 @@
+package analytics;
+
+import dataaccess.ConnectionProvider;
+import dataaccess.CourseRowMapper;
+import dataaccess.DatabaseException;
+import domain.CourseType;
+import util.Assert;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Unveränderliche Momentaufnahme der Tabelle courses für Auswertungen über den ganzen Katalog
+ * (z.B. Stunden pro Kurstyp, Kurse pro Monat), ohne pro Kurs ein Course- und zwei Date-Objekte zu erzeugen.
+ *
+ * Die Daten liegen spaltenweise außerhalb des Java-Heaps (Direct Buffer, ca. 29 Byte pro Kurs):
+ * ID als long, Stunden als int, Anfangs- und Enddatum als Tage seit 1970-01-01 (int), Kurstyp als Ordinalzahl (byte),
+ * Name und Beschreibung als int-Code in ein Wörterbuch, das jeden unterschiedlichen Text einmal als UTF-8 enthält
+ * (ebenfalls außerhalb des Heaps; getName und getDescription erzeugen den String erst beim Aufruf).
+ *
+ * Abfragen (count, sum, aggregate) arbeiten mit RowFilter, GroupBy und RowMeasure über die Zeilennummer und erzeugen
+ * pro Zeile keine Objekte. Ab MIN_ROWS_PER_TASK Zeilen wird der Scan auf die Kerne (ForkJoinPool.commonPool) verteilt;
+ * jeder Teil aggregiert in eigene Arrays, die am Ende addiert werden. Threadsicher, da nach dem Laden nur gelesen wird.
+ *
+ * Der Speicher außerhalb des Heaps wird freigegeben, sobald die Momentaufnahme nicht mehr referenziert und vom
+ * Garbage Collector entfernt wird; die Obergrenze setzt -XX:MaxDirectMemorySize. Für aktuelle Zahlen neu laden.
+ */
+public final class CourseCatalogSnapshot
+{
+    private static final String LOAD_SQL =
+            "SELECT `id`, `name`, `description`, `hours`, `begindate`, `enddate`, `coursetype` FROM `courses`";
+
+    // Ab so vielen Zeilen pro Teil lohnt sich die Verteilung auf mehrere Threads.
+    private static final int MIN_ROWS_PER_TASK = 64 * 1024;
+
+    private static final CourseType[] COURSE_TYPES = CourseType.values();
+
+    private final int rowCount;
+    private final LongBuffer ids;
+    private final IntBuffer hours;
+    private final IntBuffer beginDays;
+    private final IntBuffer endDays;
+    private final ByteBuffer courseTypes;
+    private final IntBuffer nameCodes;
+    private final IntBuffer descriptionCodes;
+    private final StringDictionary names;
+    private final StringDictionary descriptions;
+
+    // Kleinster und größter Monat (Jahr * 12 + Monat - 1) für die Gruppierung nach Monat.
+    private final int minBeginMonth;
+    private final int maxBeginMonth;
+    private final int minEndMonth;
+    private final int maxEndMonth;
+
+    private CourseCatalogSnapshot(Loader loader)
+    {
+        this.rowCount = loader.rows;
+        this.ids = loader.ids.asLongBuffer();
+        this.hours = loader.hours.asIntBuffer();
+        this.beginDays = loader.beginDays.asIntBuffer();
+        this.endDays = loader.endDays.asIntBuffer();
+        this.courseTypes = loader.courseTypes;
+        this.nameCodes = loader.nameCodes.asIntBuffer();
+        this.descriptionCodes = loader.descriptionCodes.asIntBuffer();
+        this.names = loader.names;
+        this.descriptions = loader.descriptions;
+        this.minBeginMonth = loader.rows == 0 ? 0 : epochMonth(loader.minBeginDay);
+        this.maxBeginMonth = loader.rows == 0 ? -1 : epochMonth(loader.maxBeginDay);
+        this.minEndMonth = loader.rows == 0 ? 0 : epochMonth(loader.minEndDay);
+        this.maxEndMonth = loader.rows == 0 ? -1 : epochMonth(loader.maxEndDay);
+    }
+
+    /**
+     * Liest die ganze Tabelle courses in einem Durchgang (über eine Leseverbindung) in eine neue Momentaufnahme.
+     * @param connectionProvider Liefert die Verbindung zur Datenbank.
+     * @param fetchSize Fetch-Size für die Abfrage, z.B. DatabaseSettings.getFetchSize() (Streaming bei MySQL).
+     * @return Die Momentaufnahme.
+     * @throws DatabaseException bei Fehlern beim Lesen.
+     */
+    public static CourseCatalogSnapshot load(ConnectionProvider connectionProvider, int fetchSize)
+    {
+        Assert.notNull(connectionProvider);
+        try(Connection con = connectionProvider.getReadConnection();
+            PreparedStatement preparedStatement = con.prepareStatement(LOAD_SQL))
+        {
+            preparedStatement.setFetchSize(fetchSize);
+            try(ResultSet resultSet = preparedStatement.executeQuery())
+            {
+                Loader loader = new Loader();
+                while(resultSet.next())
+                {
+                    loader.add(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3), resultSet.getInt(4),
+                            resultSet.getDate(5).toLocalDate(), resultSet.getDate(6).toLocalDate(),
+                            CourseRowMapper.toCourseType(resultSet.getString(7)));
+                }
+                return new CourseCatalogSnapshot(loader);
+            }
+        }
+        catch(SQLException sqlException)
+        {
+            throw new DatabaseException(sqlException.getMessage(), sqlException);
+        }
+    }
+
+    /**
+     * @return Anzahl der Kurse in der Momentaufnahme.
+     */
+    public int getRowCount()
+    {
+        return rowCount;
+    }
+
+    public long getId(int row)
+    {
+        return ids.get(row);
+    }
+
+    public int getHours(int row)
+    {
+        return hours.get(row);
+    }
+
+    public LocalDate getBeginDate(int row)
+    {
+        return LocalDate.ofEpochDay(beginDays.get(row));
+    }
+
+    public LocalDate getEndDate(int row)
+    {
+        return LocalDate.ofEpochDay(endDays.get(row));
+    }
+
+    public CourseType getCourseType(int row)
+    {
+        return COURSE_TYPES[courseTypes.get(row)];
+    }
+
+    public String getName(int row)
+    {
+        return names.decode(nameCodes.get(row));
+    }
+
+    public String getDescription(int row)
+    {
+        return descriptions.decode(descriptionCodes.get(row));
+    }
+
+    // ---------------------------------------------------------------- Filter
+
+    /**
+     * @return Ein Filter, der alle Zeilen akzeptiert.
+     */
+    public RowFilter all()
+    {
+        return row -> true;
+    }
+
+    public RowFilter courseTypeIs(CourseType courseType)
+    {
+        Assert.notNull(courseType);
+        byte ordinal = (byte) courseType.ordinal();
+        return row -> courseTypes.get(row) == ordinal;
+    }
+
+    /**
+     * @return Kurse mit Anfangsdatum von from (inklusive) bis to (exklusive).
+     */
+    public RowFilter beginsBetween(LocalDate from, LocalDate to)
+    {
+        Assert.notNull(from);
+        Assert.notNull(to);
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        return row -> {
+            int day = beginDays.get(row);
+            return day >= fromDay && day < toDay;
+        };
+    }
+
+    /**
+     * @return Kurse, die am angegebenen Tag laufen (Anfangsdatum am oder vor dem Tag, Enddatum danach).
+     */
+    public RowFilter runningOn(LocalDate date)
+    {
+        Assert.notNull(date);
+        int day = (int) date.toEpochDay();
+        return row -> beginDays.get(row) <= day && endDays.get(row) > day;
+    }
+
+    /**
+     * @return Kurse mit min bis max (jeweils inklusive) Stunden.
+     */
+    public RowFilter hoursBetween(int min, int max)
+    {
+        return row -> {
+            int value = hours.get(row);
+            return value >= min && value <= max;
+        };
+    }
+
+    /**
+     * @return Kurse mit genau diesem Namen; der Vergleich läuft über den Wörterbuch-Code.
+     */
+    public RowFilter nameIs(String name)
+    {
+        Assert.notNull(name);
+        int code = names.codeOf(name);
+        if(code < 0)
+        {
+            return row -> false;
+        }
+        return row -> nameCodes.get(row) == code;
+    }
+
+    // ---------------------------------------------------------------- Werte
+
+    public RowMeasure hours()
+    {
+        return hours::get;
+    }
+
+    /**
+     * @return Dauer des Kurses in Tagen (Enddatum minus Anfangsdatum).
+     */
+    public RowMeasure durationDays()
+    {
+        return row -> endDays.get(row) - beginDays.get(row);
+    }
+
+    // ---------------------------------------------------------------- Gruppierungen
+
+    public GroupBy byCourseType()
+    {
+        return new GroupBy()
+        {
+            @Override
+            public int groupCount()
+            {
+                return COURSE_TYPES.length;
+            }
+
+            @Override
+            public int groupOf(int row)
+            {
+                return courseTypes.get(row);
+            }
+
+            @Override
+            public String label(int group)
+            {
+                return COURSE_TYPES[group].name();
+            }
+        };
+    }
+
+    /**
+     * @return Gruppierung nach Jahr und Monat des Anfangsdatums, vom frühesten bis zum spätesten Monat.
+     */
+    public GroupBy byBeginMonth()
+    {
+        return byMonth(beginDays, minBeginMonth, maxBeginMonth);
+    }
+
+    /**
+     * @return Gruppierung nach Jahr und Monat des Enddatums, vom frühesten bis zum spätesten Monat.
+     */
+    public GroupBy byEndMonth()
+    {
+        return byMonth(endDays, minEndMonth, maxEndMonth);
+    }
+
+    /**
+     * @return Gruppierung nach Name (eine Gruppe pro unterschiedlichem Namen).
+     */
+    public GroupBy byName()
+    {
+        return new GroupBy()
+        {
+            @Override
+            public int groupCount()
+            {
+                return names.size();
+            }
+
+            @Override
+            public int groupOf(int row)
+            {
+                return nameCodes.get(row);
+            }
+
+            @Override
+            public String label(int group)
+            {
+                return names.decode(group);
+            }
+        };
+    }
+
+    private static GroupBy byMonth(IntBuffer days, int minMonth, int maxMonth)
+    {
+        return new GroupBy()
+        {
+            @Override
+            public int groupCount()
+            {
+                return maxMonth - minMonth + 1;
+            }
+
+            @Override
+            public int groupOf(int row)
+            {
+                return epochMonth(days.get(row)) - minMonth;
+            }
+
+            @Override
+            public String label(int group)
+            {
+                int month = minMonth + group;
+                return YearMonth.of(Math.floorDiv(month, 12), Math.floorMod(month, 12) + 1).toString();
+            }
+        };
+    }
+
+    // ---------------------------------------------------------------- Abfragen
+
+    /**
+     * @return Anzahl der Zeilen, die den Filter erfüllen.
+     */
+    public long count(RowFilter filter)
+    {
+        return aggregate(filter, null, null).getCount(0);
+    }
+
+    /**
+     * @return Summe des Werts über alle Zeilen, die den Filter erfüllen.
+     */
+    public long sum(RowFilter filter, RowMeasure measure)
+    {
+        Assert.notNull(measure);
+        return aggregate(filter, null, measure).getSum(0);
+    }
+
+    /**
+     * Zählt und summiert pro Gruppe alle Zeilen, die den Filter erfüllen.
+     * @param filter Welche Zeilen berücksichtigt werden, z.B. all() oder courseTypeIs(...).and(beginsBetween(...)).
+     * @param groupBy Die Gruppierung; null für eine einzige Gruppe "alle".
+     * @param measure Der summierte Wert; null, wenn nur gezählt wird (Summe dann 0).
+     * @return Anzahl und Summe pro Gruppe.
+     */
+    public AggregateResult aggregate(RowFilter filter, GroupBy groupBy, RowMeasure measure)
+    {
+        Assert.notNull(filter);
+        int groupCount = groupBy == null ? 1 : groupBy.groupCount();
+        int tasks = (int) Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism(), (long) rowCount / MIN_ROWS_PER_TASK));
+
+        long[][] counts = new long[tasks][];
+        long[][] sums = new long[tasks][];
+        IntStream taskIndexes = IntStream.range(0, tasks);
+        (tasks > 1 ? taskIndexes.parallel() : taskIndexes).forEach(task -> {
+            int from = (int) ((long) rowCount * task / tasks);
+            int to = (int) ((long) rowCount * (task + 1) / tasks);
+            long[] taskCounts = new long[groupCount];
+            long[] taskSums = new long[groupCount];
+            for(int row = from; row < to; row++)
+            {
+                if(filter.test(row))
+                {
+                    int group = groupBy == null ? 0 : groupBy.groupOf(row);
+                    taskCounts[group]++;
+                    if(measure != null)
+                    {
+                        taskSums[group] += measure.valueOf(row);
+                    }
+                }
+            }
+            counts[task] = taskCounts;
+            sums[task] = taskSums;
+        });
+
+        long[] totalCounts = counts[0];
+        long[] totalSums = sums[0];
+        for(int task = 1; task < tasks; task++)
+        {
+            for(int group = 0; group < groupCount; group++)
+            {
+                totalCounts[group] += counts[task][group];
+                totalSums[group] += sums[task][group];
+            }
+        }
+        String[] labels = new String[groupCount];
+        for(int group = 0; group < groupCount; group++)
+        {
+            labels[group] = groupBy == null ? "alle" : groupBy.label(group);
+        }
+        return new AggregateResult(labels, totalCounts, totalSums);
+    }
+
+    /**
+     * Jahr * 12 + Monat - 1 zu einem Tag seit 1970-01-01, ohne LocalDate-Objekt (Umrechnung nach H. Hinnant,
+     * "chrono-Compatible Low-Level Date Algorithms", civil_from_days).
+     */
+    static int epochMonth(int epochDay)
+    {
+        int z = epochDay + 719468;
+        int era = Math.floorDiv(z, 146097);
+        int dayOfEra = z - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 12 + month - 1;
+    }
+
+    /**
+     * Sammelt die Zeilen beim Laden in wachsenden Direct Buffern (Verdopplung bei Bedarf).
+     */
+    private static final class Loader
+    {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        int capacity = INITIAL_CAPACITY;
+        int rows;
+        ByteBuffer ids = allocate(capacity * Long.BYTES);
+        ByteBuffer hours = allocate(capacity * Integer.BYTES);
+        ByteBuffer beginDays = allocate(capacity * Integer.BYTES);
+        ByteBuffer endDays = allocate(capacity * Integer.BYTES);
+        ByteBuffer courseTypes = allocate(capacity);
+        ByteBuffer nameCodes = allocate(capacity * Integer.BYTES);
+        ByteBuffer descriptionCodes = allocate(capacity * Integer.BYTES);
+        final StringDictionary names = new StringDictionary();
+        final StringDictionary descriptions = new StringDictionary();
+        int minBeginDay = Integer.MAX_VALUE;
+        int maxBeginDay = Integer.MIN_VALUE;
+        int minEndDay = Integer.MAX_VALUE;
+        int maxEndDay = Integer.MIN_VALUE;
+
+        void add(long id, String name, String description, int courseHours, LocalDate beginDate, LocalDate endDate, CourseType courseType)
+        {
+            if(rows == capacity)
+            {
+                grow();
+            }
+            int beginDay = (int) beginDate.toEpochDay();
+            int endDay = (int) endDate.toEpochDay();
+            ids.putLong(rows * Long.BYTES, id);
+            hours.putInt(rows * Integer.BYTES, courseHours);
+            beginDays.putInt(rows * Integer.BYTES, beginDay);
+            endDays.putInt(rows * Integer.BYTES, endDay);
+            courseTypes.put(rows, (byte) courseType.ordinal());
+            nameCodes.putInt(rows * Integer.BYTES, names.encode(name));
+            descriptionCodes.putInt(rows * Integer.BYTES, descriptions.encode(description));
+            minBeginDay = Math.min(minBeginDay, beginDay);
+            maxBeginDay = Math.max(maxBeginDay, beginDay);
+            minEndDay = Math.min(minEndDay, endDay);
+            maxEndDay = Math.max(maxEndDay, endDay);
+            rows++;
+        }
+
+        private void grow()
+        {
+            if(capacity > Integer.MAX_VALUE / (2 * Long.BYTES))
+            {
+                throw new IllegalStateException("Zu viele Kurse für eine Momentaufnahme: " + rows);
+            }
+            capacity *= 2;
+            ids = copy(ids, capacity * Long.BYTES);
+            hours = copy(hours, capacity * Integer.BYTES);
+            beginDays = copy(beginDays, capacity * Integer.BYTES);
+            endDays = copy(endDays, capacity * Integer.BYTES);
+            courseTypes = copy(courseTypes, capacity);
+            nameCodes = copy(nameCodes, capacity * Integer.BYTES);
+            descriptionCodes = copy(descriptionCodes, capacity * Integer.BYTES);
+        }
+
+        private static ByteBuffer allocate(int bytes)
+        {
+            return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+        }
+
+        private static ByteBuffer copy(ByteBuffer old, int bytes)
+        {
+            ByteBuffer copy = allocate(bytes);
+            copy.put(old.duplicate().clear());
+            copy.clear();
+            return copy;
+        }
+    }
+}
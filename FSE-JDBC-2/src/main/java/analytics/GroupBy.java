@@ -0,0 +1,25 @@
+package analytics;
+
+/**
+ * Einteilung der Zeilen eines CourseCatalogSnapshot in Gruppen mit fortlaufenden Nummern 0 bis groupCount() - 1.
+ * Dadurch kann pro Gruppe in ein Array aggregiert werden, ohne eine Map und ohne Objekte pro Zeile.
+ * Fertige Einteilungen liefert CourseCatalogSnapshot (z.B. byCourseType, byBeginMonth).
+ */
+public interface GroupBy
+{
+    /**
+     * @return Anzahl der möglichen Gruppen.
+     */
+    int groupCount();
+
+    /**
+     * @param row Die Zeilennummer (0 bis rowCount - 1).
+     * @return Die Gruppe der Zeile (0 bis groupCount() - 1).
+     */
+    int groupOf(int row);
+
+    /**
+     * @return Die Bezeichnung der Gruppe für die Ausgabe, z.B. "OE" oder "2024-03".
+     */
+    String label(int group);
+}
@@ -0,0 +1,31 @@
+package analytics;
+
+/**
+ * Bedingung auf eine Zeile eines CourseCatalogSnapshot, angegeben über die Zeilennummer.
+ * Implementierungen lesen nur aus den Spalten und erzeugen pro Zeile keine Objekte.
+ * Fertige Bedingungen liefert CourseCatalogSnapshot (z.B. courseTypeIs, beginsBetween).
+ */
+@FunctionalInterface
+public interface RowFilter
+{
+    /**
+     * @param row Die Zeilennummer (0 bis rowCount - 1).
+     * @return True, wenn die Zeile berücksichtigt werden soll.
+     */
+    boolean test(int row);
+
+    default RowFilter and(RowFilter other)
+    {
+        return row -> test(row) && other.test(row);
+    }
+
+    default RowFilter or(RowFilter other)
+    {
+        return row -> test(row) || other.test(row);
+    }
+
+    default RowFilter negate()
+    {
+        return row -> !test(row);
+    }
+}
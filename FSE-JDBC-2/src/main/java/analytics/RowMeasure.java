@@ -0,0 +1,15 @@
+package analytics;
+
+/**
+ * Zahlenwert einer Zeile eines CourseCatalogSnapshot, der pro Gruppe summiert wird (z.B. Stunden).
+ * Fertige Werte liefert CourseCatalogSnapshot (hours, durationDays).
+ */
+@FunctionalInterface
+public interface RowMeasure
+{
+    /**
+     * @param row Die Zeilennummer (0 bis rowCount - 1).
+     * @return Der Wert der Zeile.
+     */
+    long valueOf(int row);
+}
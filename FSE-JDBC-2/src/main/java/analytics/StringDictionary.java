@@ -0,0 +1,192 @@
+package analytics;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wörterbuch für die Textspalten eines CourseCatalogSnapshot: jeder unterschiedliche Text bekommt einen fortlaufenden
+ * Code ab 0, in der Spalte steht nur noch der Code. Nach dem Laden wird das Wörterbuch nur noch gelesen.
+ *
+ * Wie die Spalten liegt auch das Wörterbuch außerhalb des Java-Heaps: die Texte hintereinander als UTF-8,
+ * dazu der Anfang jedes Textes (int) und eine Hashtabelle mit offener Adressierung, die auf die Codes verweist.
+ * decode() erzeugt daher bei jedem Aufruf einen neuen String.
+ */
+final class StringDictionary
+{
+    private static final int INITIAL_BYTES = 16 * 1024;
+    private static final int INITIAL_CODES = 1024;
+    private static final int EMPTY = -1;
+
+    // UTF-8 aller Texte; Text n liegt von offsets[n] bis offsets[n + 1].
+    private ByteBuffer bytes = allocate(INITIAL_BYTES);
+    private ByteBuffer offsets = allocate((INITIAL_CODES + 1) * Integer.BYTES);
+    // Hashtabelle: Codes oder EMPTY; die Größe ist eine Zweierpotenz und höchstens zur Hälfte belegt.
+    private ByteBuffer table = emptyTable(2 * INITIAL_CODES);
+    private int tableMask = 2 * INITIAL_CODES - 1;
+    private int size;
+    private int byteCount;
+
+    /**
+     * @return Der Code des Textes; ein neuer Text bekommt den nächsten freien Code.
+     */
+    int encode(String value)
+    {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        int slot = find(utf8);
+        int code = table.getInt(slot * Integer.BYTES);
+        if(code != EMPTY)
+        {
+            return code;
+        }
+        if(byteCount > Integer.MAX_VALUE - utf8.length)
+        {
+            throw new IllegalStateException("Wörterbuch zu groß: " + size + " Texte");
+        }
+        code = size;
+        bytes = ensureCapacity(bytes, byteCount + utf8.length);
+        offsets = ensureCapacity(offsets, (code + 2) * Integer.BYTES);
+        bytes.put(byteCount, utf8);
+        byteCount += utf8.length;
+        offsets.putInt(code * Integer.BYTES, byteCount - utf8.length);
+        offsets.putInt((code + 1) * Integer.BYTES, byteCount);
+        table.putInt(slot * Integer.BYTES, code);
+        size++;
+        if(size * 2 > tableMask + 1)
+        {
+            rehash();
+        }
+        return code;
+    }
+
+    /**
+     * @return Der Code des Textes oder -1, wenn er nicht vorkommt.
+     */
+    int codeOf(String value)
+    {
+        return table.getInt(find(value.getBytes(StandardCharsets.UTF_8)) * Integer.BYTES);
+    }
+
+    String decode(int code)
+    {
+        if(code < 0 || code >= size)
+        {
+            throw new IndexOutOfBoundsException("Code " + code + ", Größe " + size);
+        }
+        int start = offsets.getInt(code * Integer.BYTES);
+        byte[] utf8 = new byte[offsets.getInt((code + 1) * Integer.BYTES) - start];
+        bytes.get(start, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return Der Platz in der Hashtabelle, an dem der Text steht oder eingefügt würde.
+     */
+    private int find(byte[] utf8)
+    {
+        int slot = hash(utf8) & tableMask;
+        while(true)
+        {
+            int code = table.getInt(slot * Integer.BYTES);
+            if(code == EMPTY || equalsAt(code, utf8))
+            {
+                return slot;
+            }
+            slot = (slot + 1) & tableMask;
+        }
+    }
+
+    private boolean equalsAt(int code, byte[] utf8)
+    {
+        int start = offsets.getInt(code * Integer.BYTES);
+        int end = offsets.getInt((code + 1) * Integer.BYTES);
+        if(end - start != utf8.length)
+        {
+            return false;
+        }
+        for(int i = 0; i < utf8.length; i++)
+        {
+            if(bytes.get(start + i) != utf8[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void rehash()
+    {
+        int slots = (tableMask + 1) * 2;
+        table = emptyTable(slots);
+        tableMask = slots - 1;
+        byte[] utf8 = new byte[0];
+        for(int code = 0; code < size; code++)
+        {
+            int start = offsets.getInt(code * Integer.BYTES);
+            int length = offsets.getInt((code + 1) * Integer.BYTES) - start;
+            if(utf8.length < length)
+            {
+                utf8 = new byte[length];
+            }
+            bytes.get(start, utf8, 0, length);
+            int slot = hash(utf8, length) & tableMask;
+            while(table.getInt(slot * Integer.BYTES) != EMPTY)
+            {
+                slot = (slot + 1) & tableMask;
+            }
+            table.putInt(slot * Integer.BYTES, code);
+        }
+    }
+
+    private static int hash(byte[] utf8)
+    {
+        return hash(utf8, utf8.length);
+    }
+
+    private static int hash(byte[] utf8, int length)
+    {
+        int hash = 1;
+        for(int i = 0; i < length; i++)
+        {
+            hash = 31 * hash + utf8[i];
+        }
+        // Obere Bits einmischen, da nur die unteren für den Platz verwendet werden.
+        return hash ^ (hash >>> 16);
+    }
+
+    private static ByteBuffer emptyTable(int slots)
+    {
+        ByteBuffer buffer = allocate(slots * Integer.BYTES);
+        for(int slot = 0; slot < slots; slot++)
+        {
+            buffer.putInt(slot * Integer.BYTES, EMPTY);
+        }
+        return buffer;
+    }
+
+    /**
+     * @return Der Buffer selbst oder eine Kopie mit mindestens doppelter Größe, falls required nicht hineinpasst.
+     */
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int required)
+    {
+        if(required <= buffer.capacity())
+        {
+            return buffer;
+        }
+        int capacity = (int) Math.min(Integer.MAX_VALUE, Math.max((long) buffer.capacity() * 2, required));
+        ByteBuffer copy = allocate(capacity);
+        copy.put(buffer.duplicate().clear());
+        copy.clear();
+        return copy;
+    }
+
+    private static ByteBuffer allocate(int bytes)
+    {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+}
@@ -0,0 +1,18 @@
+package config;
+
+/**
+ * Wird geworfen, wenn die Konfiguration nicht gelesen werden kann oder ein Wert ungültig ist.
+ * Die Nachricht nennt den betroffenen Schlüssel und, wenn bekannt, die Quelle des Werts.
+ */
+public class ConfigException extends RuntimeException
+{
+    public ConfigException(String message)
+    {
+        super(message);
+    }
+
+    public ConfigException(String message, Throwable cause)
+    {
+        super(message, cause);
+    }
+}
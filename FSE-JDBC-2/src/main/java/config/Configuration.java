@@ -0,0 +1,434 @@
+package config;
+
+import util.Assert;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Schlüssel-Wert-Konfiguration mit typisierten Zugriffen und mehreren Quellen.
+ * Ein Wert wird in dieser Reihenfolge gesucht (die erste Quelle, die ihn enthält, gewinnt):
+ * 1. System-Property mit dem Schlüssel (z.B. -Ddb.pool.maxSize=20)
+ * 2. Umgebungsvariable KURSSYSTEM_ + Schlüssel in Großbuchstaben, Punkte als Unterstriche (z.B. KURSSYSTEM_DB_POOL_MAXSIZE)
+ * 3. Konfigurationsdatei (.properties oder .yml/.yaml), angegeben über kurssystem.config bzw. KURSSYSTEM_CONFIG
+ * 4. application.properties im Klassenpfad
+ * 5. Der Standardwert des Aufrufers
+ *
+ * YAML wird nur in der einfachen Form "schluessel: wert" mit Einrückung für verschachtelte Schlüssel
+ * und "- wert" für Listen (werden zu einer kommagetrennten Liste) unterstützt.
+ */
+public class Configuration
+{
+    public static final String CONFIG_FILE_PROPERTY = "kurssystem.config";
+    public static final String ENV_PREFIX = "KURSSYSTEM_";
+
+    private static final String CLASSPATH_RESOURCE = "application.properties";
+
+    // Werte aus Datei und Klassenpfad, nach Schlüssel; die Datei überschreibt den Klassenpfad.
+    private final Map<String, String> values;
+
+    // Quelle je Schlüssel aus 'values', für Fehlermeldungen.
+    private final Map<String, String> sources;
+
+    private final Map<String, String> environment;
+    private final Properties systemProperties;
+
+    /**
+     * @param values Die Werte aus Dateien (ohne Umgebungsvariablen und System-Properties).
+     * @param sources Die Quelle je Schlüssel, für Fehlermeldungen.
+     * @param environment Die Umgebungsvariablen.
+     * @param systemProperties Die System-Properties.
+     */
+    Configuration(Map<String, String> values, Map<String, String> sources, Map<String, String> environment, Properties systemProperties)
+    {
+        this.values = values;
+        this.sources = sources;
+        this.environment = environment;
+        this.systemProperties = systemProperties;
+    }
+
+    /**
+     * Lädt die Konfiguration aus allen Quellen (siehe Klassenbeschreibung).
+     * @throws ConfigException wenn eine angegebene Datei nicht gelesen werden kann.
+     */
+    public static Configuration load()
+    {
+        String file = System.getProperty(CONFIG_FILE_PROPERTY, System.getenv(ENV_PREFIX + "CONFIG"));
+        return load(file == null ? null : Paths.get(file));
+    }
+
+    /**
+     * Lädt die Konfiguration mit der angegebenen Datei statt der über kurssystem.config angegebenen.
+     * @param file Eine .properties- oder .yml/.yaml-Datei; null, wenn nur der Klassenpfad verwendet werden soll.
+     * @throws ConfigException wenn die Datei nicht gelesen werden kann.
+     */
+    public static Configuration load(Path file)
+    {
+        Map<String, String> values = new LinkedHashMap<>();
+        Map<String, String> sources = new LinkedHashMap<>();
+
+        try(InputStream in = Configuration.class.getClassLoader().getResourceAsStream(CLASSPATH_RESOURCE))
+        {
+            if(in != null)
+            {
+                Properties properties = new Properties();
+                properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+                putAll(values, sources, properties, "classpath:" + CLASSPATH_RESOURCE);
+            }
+        }
+        catch(IOException e)
+        {
+            throw new ConfigException("Konfiguration " + CLASSPATH_RESOURCE + " kann nicht gelesen werden: " + e.getMessage(), e);
+        }
+
+        if(file != null)
+        {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            try
+            {
+                if(name.endsWith(".yml") || name.endsWith(".yaml"))
+                {
+                    Map<String, String> yaml = parseYaml(Files.readAllLines(file, StandardCharsets.UTF_8), file.toString());
+                    for(Map.Entry<String, String> entry : yaml.entrySet())
+                    {
+                        values.put(entry.getKey(), entry.getValue());
+                        sources.put(entry.getKey(), file.toString());
+                    }
+                }
+                else
+                {
+                    try(Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8))
+                    {
+                        Properties properties = new Properties();
+                        properties.load(reader);
+                        putAll(values, sources, properties, file.toString());
+                    }
+                }
+            }
+            catch(IOException e)
+            {
+                throw new ConfigException("Konfigurationsdatei " + file + " kann nicht gelesen werden: " + e.getMessage(), e);
+            }
+        }
+
+        return new Configuration(values, sources, System.getenv(), System.getProperties());
+    }
+
+    /**
+     * Erstellt eine Konfiguration nur aus den übergebenen Werten, ohne Umgebungsvariablen und System-Properties.
+     */
+    public static Configuration of(Map<String, String> values)
+    {
+        Assert.notNull(values);
+        Map<String, String> sources = new LinkedHashMap<>();
+        for(String key : values.keySet())
+        {
+            sources.put(key, "Parameter");
+        }
+        return new Configuration(new LinkedHashMap<>(values), sources, Collections.emptyMap(), new Properties());
+    }
+
+    private static void putAll(Map<String, String> values, Map<String, String> sources, Properties properties, String source)
+    {
+        for(String key : properties.stringPropertyNames())
+        {
+            values.put(key, properties.getProperty(key).trim());
+            sources.put(key, source);
+        }
+    }
+
+    /**
+     * Liest einfaches YAML und liefert die Werte mit Punkt-getrennten Schlüsseln (db: / pool: / maxSize: 20 -> db.pool.maxSize).
+     */
+    static Map<String, String> parseYaml(List<String> lines, String source)
+    {
+        Map<String, String> result = new LinkedHashMap<>();
+        // Offene Abschnitte mit ihrer Einrückung.
+        Deque<String> sectionKeys = new ArrayDeque<>();
+        Deque<Integer> sectionIndents = new ArrayDeque<>();
+        String lastKey = null;
+
+        for(int lineNumber = 1; lineNumber <= lines.size(); lineNumber++)
+        {
+            String line = stripComment(lines.get(lineNumber - 1));
+            if(line.isBlank() || line.trim().equals("---"))
+            {
+                continue;
+            }
+            int indent = 0;
+            while(indent < line.length() && line.charAt(indent) == ' ')
+            {
+                indent++;
+            }
+            String content = line.trim();
+
+            if(content.startsWith("- "))
+            {
+                // Listeneintrag des zuletzt geöffneten Abschnitts.
+                if(lastKey == null)
+                {
+                    throw new ConfigException(source + ":" + lineNumber + ": Listeneintrag ohne Schlüssel");
+                }
+                String item = unquote(content.substring(2).trim());
+                result.merge(lastKey, item, (existing, added) -> existing.isEmpty() ? added : existing + "," + added);
+                continue;
+            }
+
+            int colon = content.indexOf(':');
+            if(colon <= 0)
+            {
+                throw new ConfigException(source + ":" + lineNumber + ": Erwartet 'schluessel: wert', gefunden '" + content + "'");
+            }
+            while(!sectionIndents.isEmpty() && sectionIndents.peek() >= indent)
+            {
+                sectionIndents.pop();
+                sectionKeys.pop();
+            }
+            String key = content.substring(0, colon).trim();
+            String value = content.substring(colon + 1).trim();
+            StringBuilder fullKey = new StringBuilder();
+            for(Iterator<String> parents = sectionKeys.descendingIterator(); parents.hasNext(); )
+            {
+                fullKey.append(parents.next()).append('.');
+            }
+            fullKey.append(key);
+
+            if(value.isEmpty())
+            {
+                // Beginn eines Abschnitts oder einer Liste.
+                sectionKeys.push(key);
+                sectionIndents.push(indent);
+                lastKey = fullKey.toString();
+                result.remove(lastKey);
+            }
+            else
+            {
+                result.put(fullKey.toString(), unquote(value));
+                lastKey = null;
+            }
+        }
+        // Abschnitte ohne Werte (leere Listen) werden nicht übernommen.
+        return result;
+    }
+
+    private static String stripComment(String line)
+    {
+        boolean quoted = false;
+        char quote = 0;
+        for(int i = 0; i < line.length(); i++)
+        {
+            char c = line.charAt(i);
+            if(quoted)
+            {
+                quoted = c != quote;
+            }
+            else if(c == '"' || c == '\'')
+            {
+                quoted = true;
+                quote = c;
+            }
+            else if(c == '#' && (i == 0 || Character.isWhitespace(line.charAt(i - 1))))
+            {
+                return line.substring(0, i);
+            }
+        }
+        return line;
+    }
+
+    private static String unquote(String value)
+    {
+        if(value.length() >= 2 && (value.charAt(0) == '"' || value.charAt(0) == '\'') && value.charAt(value.length() - 1) == value.charAt(0))
+        {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    /**
+     * @return Der Name der Umgebungsvariable für einen Schlüssel, z.B. KURSSYSTEM_DB_POOL_MAXSIZE für db.pool.maxSize.
+     */
+    public static String environmentName(String key)
+    {
+        return ENV_PREFIX + key.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_');
+    }
+
+    /**
+     * @return Der Wert des Schlüssels aus der ersten Quelle, die ihn enthält, oder null.
+     */
+    public String get(String key)
+    {
+        Assert.notNull(key);
+        String value = systemProperties.getProperty(key);
+        if(value == null)
+        {
+            value = environment.get(environmentName(key));
+        }
+        if(value == null)
+        {
+            value = values.get(key);
+        }
+        return value == null ? null : value.trim();
+    }
+
+    /**
+     * @return Die Quelle des aktuellen Werts eines Schlüssels, für Fehlermeldungen.
+     */
+    public String sourceOf(String key)
+    {
+        if(systemProperties.getProperty(key) != null)
+        {
+            return "System-Property " + key;
+        }
+        if(environment.get(environmentName(key)) != null)
+        {
+            return "Umgebungsvariable " + environmentName(key);
+        }
+        return sources.getOrDefault(key, "Standardwert");
+    }
+
+    public String getString(String key, String defaultValue)
+    {
+        String value = get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * @throws ConfigException wenn der Schlüssel in keiner Quelle gesetzt ist.
+     */
+    public String getRequiredString(String key)
+    {
+        String value = get(key);
+        if(value == null || value.isEmpty())
+        {
+            throw new ConfigException("Konfigurationswert " + key + " fehlt (oder " + environmentName(key) + " setzen)");
+        }
+        return value;
+    }
+
+    /**
+     * @param min Kleinster erlaubter Wert.
+     * @param max Größter erlaubter Wert.
+     * @throws ConfigException wenn der Wert keine Zahl ist oder außerhalb von [min, max] liegt.
+     */
+    public int getInt(String key, int defaultValue, int min, int max)
+    {
+        return (int) getLong(key, defaultValue, min, max);
+    }
+
+    /**
+     * @throws ConfigException wenn der Wert keine Zahl ist oder außerhalb von [min, max] liegt.
+     */
+    public long getLong(String key, long defaultValue, long min, long max)
+    {
+        String value = get(key);
+        long result;
+        if(value == null || value.isEmpty())
+        {
+            result = defaultValue;
+        }
+        else
+        {
+            try
+            {
+                result = Long.parseLong(value.replace("_", ""));
+            }
+            catch(NumberFormatException e)
+            {
+                throw invalid(key, value, "keine ganze Zahl");
+            }
+        }
+        if(result < min || result > max)
+        {
+            throw invalid(key, String.valueOf(result), "erlaubt ist " + min + " bis " + max);
+        }
+        return result;
+    }
+
+    /**
+     * @throws ConfigException wenn der Wert nicht true/false (bzw. yes/no, on/off) ist.
+     */
+    public boolean getBoolean(String key, boolean defaultValue)
+    {
+        String value = get(key);
+        if(value == null || value.isEmpty())
+        {
+            return defaultValue;
+        }
+        switch(value.toLowerCase(Locale.ROOT))
+        {
+            case "true":
+            case "yes":
+            case "on":
+                return true;
+            case "false":
+            case "no":
+            case "off":
+                return false;
+            default:
+                throw invalid(key, value, "erwartet true oder false");
+        }
+    }
+
+    /**
+     * @return Die kommagetrennten Einträge des Werts ohne Leerzeichen; eine leere Liste, wenn der Schlüssel fehlt.
+     */
+    public List<String> getList(String key)
+    {
+        String value = get(key);
+        if(value == null || value.isBlank())
+        {
+            return Collections.emptyList();
+        }
+        List<String> items = new ArrayList<>();
+        for(String item : value.split(","))
+        {
+            if(!item.isBlank())
+            {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+
+    /**
+     * @throws ConfigException wenn der Wert keine Konstante der Enum ist (Groß-/Kleinschreibung egal).
+     */
+    public <E extends Enum<E>> E getEnum(String key, Class<E> type, E defaultValue)
+    {
+        String value = get(key);
+        if(value == null || value.isEmpty())
+        {
+            return defaultValue;
+        }
+        try
+        {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+        catch(IllegalArgumentException e)
+        {
+            throw invalid(key, value, "erlaubt ist " + Arrays.toString(type.getEnumConstants()));
+        }
+    }
+
+    ConfigException invalid(String key, String value, String reason)
+    {
+        return new ConfigException("Ungültiger Wert '" + value + "' für " + key + " (" + sourceOf(key) + "): " + reason);
+    }
+}
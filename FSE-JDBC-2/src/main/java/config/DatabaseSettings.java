@@ -0,0 +1,296 @@
+package config;
+
+import dataaccess.ConnectionProvider;
+import dataaccess.MySqlCourseRepository;
+import dataaccess.MySqlDatabaseConnection;
+import dataaccess.PooledConnectionProvider;
+import dataaccess.RoutingConnectionProvider;
+import util.Assert;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Geprüfte Einstellungen für Datenbank, Connection-Pool, Repository und Cache.
+ * Alle Werte werden beim Erstellen aus der Configuration gelesen und auf gültige Bereiche geprüft;
+ * fehlende Werte erhalten die Standardwerte unten. Eine vollständige Liste der Schlüssel steht in application.properties.
+ */
+public class DatabaseSettings
+{
+    public static final String DEFAULT_URL = "jdbc:mysql://localhost:3306/kurssystem";
+    public static final String DEFAULT_USER = "root";
+
+    // Fetch-Size, wenn useCursorFetch aktiv ist und repository.fetchSize nicht gesetzt wurde.
+    private static final int DEFAULT_CURSOR_FETCH_SIZE = 1000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+
+    // Treiber-Eigenschaften von Connector/J.
+    private final boolean rewriteBatchedStatements;
+    private final boolean cachePrepStmts;
+    private final boolean useServerPrepStmts;
+    private final boolean useCursorFetch;
+    private final boolean allowLoadLocalInfile;
+    private final int prepStmtCacheSize;
+    private final int prepStmtCacheSqlLimit;
+
+    private final int poolMinSize;
+    private final int poolMaxSize;
+    private final long poolIdleTimeoutMillis;
+    private final long poolAcquireTimeoutMillis;
+    private final int statementCacheSize;
+
+    private final List<String> replicaUrls;
+    private final RoutingConnectionProvider.SelectionStrategy routingStrategy;
+    private final long routingStickyMillis;
+    private final long routingHealthCheckIntervalMillis;
+
+    private final boolean reloadAfterWrite;
+    private final int batchSize;
+    private final int fetchSize;
+
+    private final int cacheMaxSize;
+    private final long cacheTtlMillis;
+
+    private DatabaseSettings(Configuration config)
+    {
+        url = config.getString("db.url", DEFAULT_URL);
+        if(!url.startsWith("jdbc:"))
+        {
+            throw config.invalid("db.url", url, "muss mit jdbc: beginnen");
+        }
+        user = config.getString("db.user", DEFAULT_USER);
+        password = config.getString("db.password", "");
+
+        rewriteBatchedStatements = config.getBoolean("db.driver.rewriteBatchedStatements", true);
+        cachePrepStmts = config.getBoolean("db.driver.cachePrepStmts", false);
+        useServerPrepStmts = config.getBoolean("db.driver.useServerPrepStmts", false);
+        // Eine im URL angegebene Eigenschaft hat Vorrang, da sie nicht überschrieben wird.
+        String urlCursorFetch = urlProperty(url, "useCursorFetch");
+        useCursorFetch = urlCursorFetch != null ? Boolean.parseBoolean(urlCursorFetch) : config.getBoolean("db.driver.useCursorFetch", false);
+        allowLoadLocalInfile = config.getBoolean("db.driver.allowLoadLocalInfile", false);
+        prepStmtCacheSize = config.getInt("db.driver.prepStmtCacheSize", 250, 1, 100_000);
+        prepStmtCacheSqlLimit = config.getInt("db.driver.prepStmtCacheSqlLimit", 2048, 1, 1_000_000);
+
+        poolMinSize = config.getInt("db.pool.minSize", PooledConnectionProvider.DEFAULT_MIN_SIZE, 0, 10_000);
+        poolMaxSize = config.getInt("db.pool.maxSize", PooledConnectionProvider.DEFAULT_MAX_SIZE, 1, 10_000);
+        if(poolMinSize > poolMaxSize)
+        {
+            throw config.invalid("db.pool.minSize", String.valueOf(poolMinSize), "darf nicht größer als db.pool.maxSize (" + poolMaxSize + ") sein");
+        }
+        poolIdleTimeoutMillis = config.getLong("db.pool.idleTimeoutMillis", PooledConnectionProvider.DEFAULT_IDLE_TIMEOUT_MILLIS, 1, Long.MAX_VALUE);
+        poolAcquireTimeoutMillis = config.getLong("db.pool.acquireTimeoutMillis", PooledConnectionProvider.DEFAULT_ACQUIRE_TIMEOUT_MILLIS, 0, Long.MAX_VALUE);
+        statementCacheSize = config.getInt("db.pool.statementCacheSize", PooledConnectionProvider.DEFAULT_STATEMENT_CACHE_SIZE, 0, 100_000);
+
+        replicaUrls = config.getList("db.replicas");
+        for(String replicaUrl : replicaUrls)
+        {
+            if(!replicaUrl.startsWith("jdbc:"))
+            {
+                throw config.invalid("db.replicas", replicaUrl, "muss mit jdbc: beginnen");
+            }
+        }
+        routingStrategy = config.getEnum("db.routing.strategy", RoutingConnectionProvider.SelectionStrategy.class,
+                RoutingConnectionProvider.SelectionStrategy.ROUND_ROBIN);
+        routingStickyMillis = config.getLong("db.routing.stickyMillis", RoutingConnectionProvider.DEFAULT_STICKY_MILLIS, 0, Long.MAX_VALUE);
+        routingHealthCheckIntervalMillis = config.getLong("db.routing.healthCheckIntervalMillis",
+                RoutingConnectionProvider.DEFAULT_HEALTH_CHECK_INTERVAL_MILLIS, 1, Long.MAX_VALUE);
+
+        reloadAfterWrite = config.getBoolean("repository.reloadAfterWrite", false);
+        batchSize = config.getInt("repository.batchSize", MySqlCourseRepository.DEFAULT_BATCH_SIZE, 1, 100_000);
+        // 0 = automatisch: mit useCursorFetch eine positive Fetch-Size, sonst zeilenweises Streaming.
+        int configuredFetchSize = config.getInt("repository.fetchSize", 0, 0, 1_000_000);
+        if(configuredFetchSize > 0 && !useCursorFetch)
+        {
+            throw config.invalid("repository.fetchSize", String.valueOf(configuredFetchSize),
+                    "eine positive Fetch-Size wirkt bei MySQL nur mit db.driver.useCursorFetch=true");
+        }
+        if(configuredFetchSize > 0)
+        {
+            fetchSize = configuredFetchSize;
+        }
+        else
+        {
+            fetchSize = useCursorFetch ? DEFAULT_CURSOR_FETCH_SIZE : MySqlCourseRepository.STREAMING_FETCH_SIZE;
+        }
+
+        cacheMaxSize = config.getInt("cache.maxSize", 10_000, 1, Integer.MAX_VALUE);
+        cacheTtlMillis = config.getLong("cache.ttlMillis", 30_000, 1, Long.MAX_VALUE);
+    }
+
+    /**
+     * Liest und prüft die Einstellungen.
+     * @throws ConfigException wenn ein Wert ungültig ist.
+     */
+    public static DatabaseSettings from(Configuration config)
+    {
+        Assert.notNull(config);
+        return new DatabaseSettings(config);
+    }
+
+    /**
+     * @return Der URL des Primarys mit den konfigurierten Treiber-Eigenschaften.
+     */
+    public String getJdbcUrl()
+    {
+        return withDriverProperties(url);
+    }
+
+    /**
+     * @return Die URLs der Replikate mit den konfigurierten Treiber-Eigenschaften.
+     */
+    public List<String> getReplicaJdbcUrls()
+    {
+        List<String> urls = new ArrayList<>(replicaUrls.size());
+        for(String replicaUrl : replicaUrls)
+        {
+            urls.add(withDriverProperties(replicaUrl));
+        }
+        return urls;
+    }
+
+    /**
+     * Hängt die Treiber-Eigenschaften an; bereits im URL angegebene Eigenschaften haben Vorrang.
+     * Die Eigenschaften gelten nur für Connector/J, andere URLs (z.B. H2 für Tests) bleiben unverändert.
+     */
+    private String withDriverProperties(String baseUrl)
+    {
+        if(!baseUrl.startsWith("jdbc:mysql:"))
+        {
+            return baseUrl;
+        }
+        String result = baseUrl;
+        result = withProperty(result, "rewriteBatchedStatements", rewriteBatchedStatements);
+        result = withProperty(result, "cachePrepStmts", cachePrepStmts);
+        result = withProperty(result, "useServerPrepStmts", useServerPrepStmts);
+        result = withProperty(result, "useCursorFetch", useCursorFetch);
+        result = withProperty(result, "allowLoadLocalInfile", allowLoadLocalInfile);
+        if(cachePrepStmts)
+        {
+            result = withProperty(result, "prepStmtCacheSize", prepStmtCacheSize);
+            result = withProperty(result, "prepStmtCacheSqlLimit", prepStmtCacheSqlLimit);
+        }
+        return result;
+    }
+
+    private static String withProperty(String url, String key, Object value)
+    {
+        if(urlProperty(url, key) != null)
+        {
+            return url;
+        }
+        return MySqlDatabaseConnection.withUrlProperty(url, key, String.valueOf(value));
+    }
+
+    /**
+     * @return Der Wert einer Eigenschaft im Query-Teil des URLs oder null, wenn sie nicht angegeben ist.
+     */
+    private static String urlProperty(String url, String key)
+    {
+        int query = url.indexOf('?');
+        if(query < 0)
+        {
+            return null;
+        }
+        for(String parameter : url.substring(query + 1).split("&"))
+        {
+            if(parameter.startsWith(key + "="))
+            {
+                return parameter.substring(key.length() + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Erstellt den Connection-Pool für den Primary und, falls Replikate konfiguriert sind,
+     * je einen Pool pro Replikat hinter einem RoutingConnectionProvider.
+     * @throws SQLException wenn die initialen Verbindungen nicht hergestellt werden können.
+     */
+    public ConnectionProvider createConnectionProvider() throws SQLException
+    {
+        PooledConnectionProvider primary = createPool(getJdbcUrl());
+        if(replicaUrls.isEmpty())
+        {
+            return primary;
+        }
+        List<PooledConnectionProvider> replicas = new ArrayList<>();
+        try
+        {
+            for(String replicaUrl : getReplicaJdbcUrls())
+            {
+                replicas.add(createPool(replicaUrl));
+            }
+        }
+        catch(SQLException e)
+        {
+            replicas.forEach(PooledConnectionProvider::close);
+            primary.close();
+            throw e;
+        }
+        return new RoutingConnectionProvider(primary, replicas, routingStrategy, routingStickyMillis, routingHealthCheckIntervalMillis);
+    }
+
+    private PooledConnectionProvider createPool(String jdbcUrl) throws SQLException
+    {
+        return new PooledConnectionProvider(jdbcUrl, user, password, poolMinSize, poolMaxSize,
+                poolIdleTimeoutMillis, poolAcquireTimeoutMillis, statementCacheSize);
+    }
+
+    /**
+     * Erstellt das Repository mit den konfigurierten Werten für Batch- und Fetch-Size.
+     */
+    public MySqlCourseRepository createRepository(ConnectionProvider connectionProvider)
+    {
+        return new MySqlCourseRepository(connectionProvider, reloadAfterWrite, batchSize, fetchSize);
+    }
+
+    public String getUser()
+    {
+        return user;
+    }
+
+    public int getPoolMinSize()
+    {
+        return poolMinSize;
+    }
+
+    public int getPoolMaxSize()
+    {
+        return poolMaxSize;
+    }
+
+    public int getBatchSize()
+    {
+        return batchSize;
+    }
+
+    public int getFetchSize()
+    {
+        return fetchSize;
+    }
+
+    public int getCacheMaxSize()
+    {
+        return cacheMaxSize;
+    }
+
+    public long getCacheTtlMillis()
+    {
+        return cacheTtlMillis;
+    }
+
+    /**
+     * Das Passwort wird nicht ausgegeben.
+     */
+    @Override
+    public String toString()
+    {
+        return "DatabaseSettings{url=" + getJdbcUrl() + ", user=" + user + ", replicas=" + replicaUrls.size()
+                + ", pool=" + poolMinSize + ".." + poolMaxSize + ", batchSize=" + batchSize + ", fetchSize=" + fetchSize
+                + ", cache=" + cacheMaxSize + "/" + cacheTtlMillis + "ms}";
+    }
+}
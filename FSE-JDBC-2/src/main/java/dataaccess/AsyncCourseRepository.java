@@ -0,0 +1,358 @@
+package dataaccess;
+
+import domain.Course;
+import domain.CourseSummary;
+import domain.CourseType;
+import util.Assert;
+
+import java.lang.reflect.Method;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Asynchrone Variante von MyCourseRepository: jede Methode liefert sofort ein CompletableFuture
+ * und führt den blockierenden Aufruf des umhüllten Repositorys in einem eigenen Thread aus.
+ *
+ * Läuft die JVM ab Java 21, wird pro Aufruf ein virtueller Thread gestartet (zur Laufzeit per Reflection erkannt,
+ * unabhängig vom Compile-Ziel), sonst ein fester Pool aus Plattform-Threads.
+ * Gleichzeitig laufen höchstens maxConcurrency Aufrufe (normalerweise die Größe des Connection-Pools),
+ * damit die Threads nicht auf Verbindungen warten. Sind zusätzlich maxPending Aufrufe in der Warteschlange,
+ * blockiert der Aufrufer beim Absenden (Backpressure), bis wieder Platz ist.
+ *
+ * Die Stream-Methoden gibt es hier nicht, da ein Stream seine Verbindung bis zum Schließen festhält.
+ */
+public class AsyncCourseRepository implements AutoCloseable
+{
+    // Anzahl der IDs, die getAllById pro parallelem Aufruf lädt.
+    private static final int GET_ALL_CHUNK_SIZE = 500;
+
+    // Standard-Länge der Warteschlange je gleichzeitig laufendem Aufruf.
+    private static final int DEFAULT_PENDING_PER_SLOT = 4;
+
+    private final MyCourseRepository delegate;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final int maxConcurrency;
+    private final int maxInFlight;
+
+    // Begrenzt die gleichzeitig laufenden Aufrufe.
+    private final Semaphore running;
+
+    // Begrenzt die abgesendeten, aber noch nicht beendeten Aufrufe (laufend + wartend).
+    private final Semaphore inFlight;
+
+    /**
+     * Begrenzt die Aufrufe auf die Größe des Connection-Pools.
+     * @param delegate Das blockierende Repository.
+     * @param connectionPool Der Pool, den das Repository verwendet.
+     */
+    public AsyncCourseRepository(MyCourseRepository delegate, PooledConnectionProvider connectionPool)
+    {
+        this(delegate, connectionPool.getMaxSize(), connectionPool.getMaxSize() * DEFAULT_PENDING_PER_SLOT);
+    }
+
+    /**
+     * @param delegate Das blockierende Repository.
+     * @param maxConcurrency Maximale Anzahl gleichzeitig laufender Aufrufe.
+     * @param maxPending Maximale Anzahl abgesendeter Aufrufe, die auf einen freien Platz warten.
+     */
+    public AsyncCourseRepository(MyCourseRepository delegate, int maxConcurrency, int maxPending)
+    {
+        Assert.notNull(delegate);
+        if(maxConcurrency < 1 || maxPending < 0)
+        {
+            throw new IllegalArgumentException("Ungültige Grenzen: maxConcurrency=" + maxConcurrency + ", maxPending=" + maxPending);
+        }
+        this.delegate = delegate;
+        this.maxConcurrency = maxConcurrency;
+        this.maxInFlight = maxConcurrency + maxPending;
+        this.running = new Semaphore(maxConcurrency, true);
+        this.inFlight = new Semaphore(maxInFlight, true);
+
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtualThreads ? virtual : Executors.newFixedThreadPool(maxConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "async-course-repository");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Erzeugt per Reflection Executors.newVirtualThreadPerTaskExecutor(), damit der Code auch mit Java 17 kompiliert.
+     * @return Der Executor oder null, wenn die Laufzeitumgebung keine virtuellen Threads kennt.
+     */
+    private static ExecutorService newVirtualThreadExecutor()
+    {
+        try
+        {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        }
+        catch(ReflectiveOperationException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * @return True, wenn die Aufrufe auf virtuellen Threads laufen.
+     */
+    public boolean isUsingVirtualThreads()
+    {
+        return virtualThreads;
+    }
+
+    public int getMaxConcurrency()
+    {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return Anzahl der abgesendeten Aufrufe, die gerade laufen oder auf einen freien Platz warten.
+     */
+    public int getInFlight()
+    {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    public CompletableFuture<Optional<Course>> insert(Course entity)
+    {
+        return submit(() -> delegate.insert(entity));
+    }
+
+    public CompletableFuture<Optional<Course>> getById(Long id)
+    {
+        return submit(() -> delegate.getById(id));
+    }
+
+    public CompletableFuture<List<Course>> getAll()
+    {
+        return submit(delegate::getAll);
+    }
+
+    public CompletableFuture<Optional<Course>> update(Course entity)
+    {
+        return submit(() -> delegate.update(entity));
+    }
+
+    public CompletableFuture<Boolean> deleteById(Long id)
+    {
+        return submit(() -> delegate.deleteById(id));
+    }
+
+    public CompletableFuture<List<Course>> findAllCoursesByName(String name)
+    {
+        return submit(() -> delegate.findAllCoursesByName(name));
+    }
+
+    public CompletableFuture<List<Course>> findAllCoursesByDescription(String description)
+    {
+        return submit(() -> delegate.findAllCoursesByDescription(description));
+    }
+
+    public CompletableFuture<List<Course>> findAllCoursesByNameOrDescription(String searchText)
+    {
+        return submit(() -> delegate.findAllCoursesByNameOrDescription(searchText));
+    }
+
+    public CompletableFuture<List<Course>> findAllCoursesByCourseType(CourseType courseType)
+    {
+        return submit(() -> delegate.findAllCoursesByCourseType(courseType));
+    }
+
+    public CompletableFuture<List<Course>> findAllCoursesByStartDate(Date startDate)
+    {
+        return submit(() -> delegate.findAllCoursesByStartDate(startDate));
+    }
+
+    public CompletableFuture<List<Course>> findAllRunningCourses()
+    {
+        return submit(delegate::findAllRunningCourses);
+    }
+
+    public CompletableFuture<List<Course>> findAllCourses(CourseCriteria criteria)
+    {
+        return submit(() -> delegate.findAllCourses(criteria));
+    }
+
+    public CompletableFuture<BatchResult<Course>> insertAll(Collection<Course> courses)
+    {
+        return submit(() -> delegate.insertAll(courses));
+    }
+
+    public CompletableFuture<BatchResult<Course>> updateAll(Collection<Course> courses)
+    {
+        return submit(() -> delegate.updateAll(courses));
+    }
+
+    public CompletableFuture<BatchResult<Long>> deleteAllById(Collection<Long> ids)
+    {
+        return submit(() -> delegate.deleteAllById(ids));
+    }
+
+    public CompletableFuture<Page<Course>> getPage(CourseSort sort, PageCursor after, int limit)
+    {
+        return submit(() -> delegate.getPage(sort, after, limit));
+    }
+
+    public CompletableFuture<Page<Course>> findCoursesByNameOrDescriptionPage(String searchText, CourseSort sort, PageCursor after, int limit)
+    {
+        return submit(() -> delegate.findCoursesByNameOrDescriptionPage(searchText, sort, after, limit));
+    }
+
+    public CompletableFuture<Page<Course>> findRunningCoursesPage(CourseSort sort, PageCursor after, int limit)
+    {
+        return submit(() -> delegate.findRunningCoursesPage(sort, after, limit));
+    }
+
+    public CompletableFuture<List<CourseSummary>> findAllSummariesByNameOrDescription(String searchText)
+    {
+        return submit(() -> delegate.findAllSummariesByNameOrDescription(searchText));
+    }
+
+    public CompletableFuture<List<CourseSummary>> findAllRunningCourseSummaries()
+    {
+        return submit(delegate::findAllRunningCourseSummaries);
+    }
+
+    public CompletableFuture<Page<CourseSummary>> getSummaryPage(CourseSort sort, PageCursor after, int limit)
+    {
+        return submit(() -> delegate.getSummaryPage(sort, after, limit));
+    }
+
+    /**
+     * Lädt mehrere Kurse über getAllById des umhüllten Repositorys; große Mengen werden in Blöcke
+     * zu GET_ALL_CHUNK_SIZE IDs geteilt, die parallel geladen werden.
+     * @param ids Die IDs der Kurse; doppelte IDs werden nur einmal geladen.
+     * @return Die gefundenen Kurse nach ID, in der Reihenfolge der übergebenen IDs; nicht gefundene IDs fehlen.
+     */
+    public CompletableFuture<Map<Long, Course>> getAllById(Collection<Long> ids)
+    {
+        Assert.notNull(ids);
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<CompletableFuture<Map<Long, Course>>> chunks = new ArrayList<>();
+        for(int offset = 0; offset < distinctIds.size(); offset += GET_ALL_CHUNK_SIZE)
+        {
+            List<Long> chunk = distinctIds.subList(offset, Math.min(offset + GET_ALL_CHUNK_SIZE, distinctIds.size()));
+            chunks.add(submit(() -> delegate.getAllById(chunk)));
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            Map<Long, Course> found = new HashMap<>();
+            for(CompletableFuture<Map<Long, Course>> chunk : chunks)
+            {
+                found.putAll(chunk.join());
+            }
+            Map<Long, Course> courses = new LinkedHashMap<>();
+            for(Long id : distinctIds)
+            {
+                Course course = found.get(id);
+                if(course != null)
+                {
+                    courses.put(id, course);
+                }
+            }
+            return courses;
+        });
+    }
+
+    /**
+     * Sendet einen Aufruf ab. Blockiert, solange bereits maxConcurrency + maxPending Aufrufe unterwegs sind.
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> call)
+    {
+        try
+        {
+            inFlight.acquire();
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(new CompletionException("Warten auf einen freien Platz wurde unterbrochen!", e));
+        }
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try
+        {
+            executor.execute(() -> run(call, future));
+        }
+        catch(RejectedExecutionException e)
+        {
+            inFlight.release();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private <T> void run(Supplier<T> call, CompletableFuture<T> future)
+    {
+        try
+        {
+            running.acquire();
+            try
+            {
+                future.complete(call.get());
+            }
+            finally
+            {
+                running.release();
+            }
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+        }
+        catch(Throwable e)
+        {
+            // Auch bei einem Error (z.B. AssertionError, OutOfMemoryError) muss das Future abgeschlossen werden,
+            // sonst wartet der Aufrufer für immer; der Error wird danach an den Thread weitergegeben.
+            future.completeExceptionally(e);
+            if(e instanceof Error)
+            {
+                throw (Error) e;
+            }
+        }
+        finally
+        {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Nimmt keine neuen Aufrufe mehr an und wartet bis zu 30 Sekunden auf laufende Aufrufe.
+     */
+    @Override
+    public void close()
+    {
+        executor.shutdown();
+        try
+        {
+            if(!executor.awaitTermination(30, TimeUnit.SECONDS))
+            {
+                executor.shutdownNow();
+            }
+        }
+        catch(InterruptedException e)
+        {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package dataaccess;
 
 import domain.Course;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -26,6 +28,13 @@ public interface BaseRepository<T,I>
      */
     Optional<Course> getById(I id);
 
+    /**
+     * Findet mehrere Entitäten anhand ihrer IDs mit möglichst wenigen Abfragen.
+     * @param ids Die IDs der Entitäten; doppelte IDs werden nur einmal geladen.
+     * @return Die gefundenen Entitäten nach ID, in der Reihenfolge der übergebenen IDs; nicht gefundene IDs fehlen.
+     */
+    Map<I, T> getAllById(Collection<I> ids);
+
     /**
      * Gibt eine Liste aller Entitäten im Repository zurück.
      * @return Eine Liste aller Entitäten.
@@ -0,0 +1,179 @@
+package dataaccess;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ergebnis einer Batch-Operation (insertAll, updateAll, deleteAllById).
+ * Enthält für jede übergebene Zeile, in der ursprünglichen Reihenfolge, ein eigenes Ergebnis.
+ * @param <T> Der Typ der verarbeiteten Zeilen (z.B. Course oder die ID).
+ */
+public class BatchResult<T>
+{
+    /**
+     * Status einer einzelnen Zeile.
+     */
+    public enum Status
+    {
+        SUCCESS, NOT_FOUND, FAILED,
+        // Die Zeile existiert, wurde aber seit dem Lesen geändert (Version veraltet, siehe OptimisticLockException).
+        CONFLICT
+    }
+
+    /**
+     * Ergebnis für eine einzelne Zeile des Batches.
+     * @param <T> Der Typ der verarbeiteten Zeile.
+     */
+    public static class RowResult<T>
+    {
+        private final int index;
+        private final Status status;
+        private final T value;
+        private final String message;
+
+        RowResult(int index, Status status, T value, String message)
+        {
+            this.index = index;
+            this.status = status;
+            this.value = value;
+            this.message = message;
+        }
+
+        /**
+         * @return Die Position der Zeile in der übergebenen Collection (beginnend bei 0).
+         */
+        public int getIndex()
+        {
+            return index;
+        }
+
+        public Status getStatus()
+        {
+            return status;
+        }
+
+        /**
+         * @return Die verarbeitete Zeile; bei erfolgreichen Einfügungen inklusive generierter ID.
+         */
+        public T getValue()
+        {
+            return value;
+        }
+
+        /**
+         * @return Die Fehlermeldung bei Status FAILED bzw. CONFLICT, sonst null.
+         */
+        public String getMessage()
+        {
+            return message;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "RowResult{" +
+                    "index=" + index +
+                    ", status=" + status +
+                    ", value=" + value +
+                    (message != null ? ", message='" + message + '\'' : "") +
+                    '}';
+        }
+    }
+
+    // Ergebnisse nach Index; wird mit der Anzahl der Zeilen vorbelegt.
+    private final List<RowResult<T>> rows;
+
+    BatchResult(int size)
+    {
+        this.rows = new ArrayList<>(Collections.nCopies(size, null));
+    }
+
+    void success(int index, T value)
+    {
+        rows.set(index, new RowResult<>(index, Status.SUCCESS, value, null));
+    }
+
+    void notFound(int index, T value)
+    {
+        rows.set(index, new RowResult<>(index, Status.NOT_FOUND, value, null));
+    }
+
+    void failed(int index, T value, String message)
+    {
+        rows.set(index, new RowResult<>(index, Status.FAILED, value, message));
+    }
+
+    void conflict(int index, T value, String message)
+    {
+        rows.set(index, new RowResult<>(index, Status.CONFLICT, value, message));
+    }
+
+    /**
+     * @return Die Ergebnisse aller Zeilen in der ursprünglichen Reihenfolge.
+     */
+    public List<RowResult<T>> getRows()
+    {
+        return Collections.unmodifiableList(rows);
+    }
+
+    /**
+     * @return Die Werte aller erfolgreich verarbeiteten Zeilen.
+     */
+    public List<T> getSuccessful()
+    {
+        List<T> successful = new ArrayList<>();
+        for(RowResult<T> row : rows)
+        {
+            if(row.getStatus() == Status.SUCCESS)
+            {
+                successful.add(row.getValue());
+            }
+        }
+        return successful;
+    }
+
+    public int getSuccessCount()
+    {
+        return count(Status.SUCCESS);
+    }
+
+    public int getNotFoundCount()
+    {
+        return count(Status.NOT_FOUND);
+    }
+
+    public int getFailedCount()
+    {
+        return count(Status.FAILED);
+    }
+
+    public int getConflictCount()
+    {
+        return count(Status.CONFLICT);
+    }
+
+    private int count(Status status)
+    {
+        int count = 0;
+        for(RowResult<T> row : rows)
+        {
+            if(row.getStatus() == status)
+            {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "BatchResult{" +
+                "success=" + getSuccessCount() +
+                ", notFound=" + getNotFoundCount() +
+                ", failed=" + getFailedCount() +
+                ", conflict=" + getConflictCount() +
+                '}';
+    }
+}
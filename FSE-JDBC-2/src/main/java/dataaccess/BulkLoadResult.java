@@ -0,0 +1,73 @@
+package dataaccess;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ergebnis von MySqlCourseRepository.bulkLoad().
+ */
+public class BulkLoadResult
+{
+    private final long rowsSent;
+    private final long rowsLoaded;
+    private final long rowsRejected;
+    private final long elapsedNanos;
+    private final boolean loadData;
+
+    public BulkLoadResult(long rowsSent, long rowsLoaded, long rowsRejected, long elapsedNanos, boolean loadData)
+    {
+        this.rowsSent = rowsSent;
+        this.rowsLoaded = rowsLoaded;
+        this.rowsRejected = rowsRejected;
+        this.elapsedNanos = elapsedNanos;
+        this.loadData = loadData;
+    }
+
+    /**
+     * @return Anzahl der übergebenen Kurse.
+     */
+    public long getRowsSent()
+    {
+        return rowsSent;
+    }
+
+    /**
+     * @return Anzahl der gespeicherten Kurse.
+     */
+    public long getRowsLoaded()
+    {
+        return rowsLoaded;
+    }
+
+    /**
+     * @return Anzahl der Kurse, die nicht gespeichert wurden (null-Einträge, ungültige Kurse oder vom Server verworfene Zeilen).
+     */
+    public long getRowsRejected()
+    {
+        return rowsRejected;
+    }
+
+    public long getElapsedMillis()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    public double getRowsPerSecond()
+    {
+        return elapsedNanos == 0 ? 0 : rowsLoaded * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return True, wenn LOAD DATA LOCAL INFILE verwendet wurde; false bei der Ausweichlösung über insertAll.
+     */
+    public boolean isLoadData()
+    {
+        return loadData;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s: %d gesendet, %d gespeichert, %d abgelehnt in %d ms (%.0f Zeilen/s)",
+                loadData ? "LOAD DATA" : "Batch-INSERT", rowsSent, rowsLoaded, rowsRejected, getElapsedMillis(), getRowsPerSecond());
+    }
+}
@@ -0,0 +1,587 @@
+package dataaccess;
+
+import domain.Course;
+import util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-Through-Cache vor einem MyCourseRepository.
+ * getById() wird aus dem Speicher bedient, solange der Eintrag nicht abgelaufen ist; nur bei einem Fehlschlag wird
+ * das umhüllte Repository gefragt. Auch nicht vorhandene IDs werden (mit eigener, meist kürzerer TTL) gecacht.
+ * Schreibende Methoden gehen immer an das umhüllte Repository und aktualisieren bzw. entfernen danach den Eintrag.
+ * Alle anderen Abfragen werden unverändert weitergereicht.
+ *
+ * Die gecachten Kurse sind Kopien; Änderungen an einem zurückgegebenen Kurs wirken sich nicht auf den Cache aus.
+ */
+public class CachingCourseRepository extends ForwardingCourseRepository
+{
+    /**
+     * Verdrängungsstrategie, wenn der Cache voll ist.
+     */
+    public enum EvictionPolicy
+    {
+        /**
+         * Der am längsten nicht verwendete Eintrag wird verdrängt.
+         */
+        LRU,
+
+        /**
+         * Neue Einträge landen in einem kleinen LRU-Fenster. Wer aus dem Fenster fällt, kommt nur in den Hauptbereich,
+         * wenn er laut Häufigkeitsschätzung öfter verwendet wurde als der Verdrängungskandidat dort (TinyLFU).
+         * Schützt häufig verwendete Kurse davor, durch einmalige Zugriffe (z.B. Durchblättern) verdrängt zu werden.
+         */
+        W_TINY_LFU
+    }
+
+    public static final long DEFAULT_NEGATIVE_TTL_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final EvictionPolicy policy;
+
+    // Kleines Zulassungsfenster (nur bei W_TINY_LFU) und Hauptbereich, beide in Zugriffsreihenfolge.
+    private final LinkedHashMap<Long, Entry> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Long, Entry> main = new LinkedHashMap<>(16, 0.75f, true);
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final FrequencySketch sketch;
+
+    // Wird bei jedem Schreibzugriff erhöht; verhindert, dass ein parallel geladener, veralteter Wert gecacht wird.
+    private long writeGeneration;
+
+    private final Object lock = new Object();
+
+    // Optional: Transaktionen, in denen geschriebene Kurse bei einem Rollback wieder aus dem Cache müssen.
+    private volatile TransactionManager transactionManager;
+    // Die UnitOfWork des Threads, bei der invalidateAll bereits als Rollback-Aktion eingetragen ist.
+    private final ThreadLocal<UnitOfWork> enlistedUnitOfWork = new ThreadLocal<>();
+
+    // Statistik
+    private long hitCount;
+    private long negativeHitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Ein Cache-Eintrag; value ist null bei einem Negativ-Eintrag (Kurs existiert nicht).
+     */
+    private static final class Entry
+    {
+        final Course value;
+        final long expiresAtNanos;
+
+        Entry(Course value, long expiresAtNanos)
+        {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    /**
+     * Erstellt einen Cache mit W-TinyLFU-Verdrängung und Standard-TTL für Negativ-Einträge.
+     * @param delegate Das umhüllte Repository.
+     * @param maxSize Maximale Anzahl gecachter IDs.
+     * @param ttlMillis Lebensdauer eines Eintrags ab dem Laden bzw. Schreiben.
+     */
+    public CachingCourseRepository(MyCourseRepository delegate, int maxSize, long ttlMillis)
+    {
+        this(delegate, maxSize, ttlMillis, Math.min(ttlMillis, DEFAULT_NEGATIVE_TTL_MILLIS), EvictionPolicy.W_TINY_LFU);
+    }
+
+    /**
+     * @param delegate Das umhüllte Repository.
+     * @param maxSize Maximale Anzahl gecachter IDs.
+     * @param ttlMillis Lebensdauer eines Eintrags ab dem Laden bzw. Schreiben.
+     * @param negativeTtlMillis Lebensdauer eines Eintrags für eine nicht vorhandene ID (0 = nicht cachen).
+     * @param policy Die Verdrängungsstrategie.
+     */
+    public CachingCourseRepository(MyCourseRepository delegate, int maxSize, long ttlMillis, long negativeTtlMillis, EvictionPolicy policy)
+    {
+        super(delegate);
+        Assert.notNull(policy);
+        if(maxSize < 1 || ttlMillis <= 0 || negativeTtlMillis < 0)
+        {
+            throw new IllegalArgumentException("Cache-Größe und TTL müssen positiv sein!");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis);
+        this.policy = policy;
+
+        if(policy == EvictionPolicy.W_TINY_LFU && maxSize > 1)
+        {
+            this.windowCapacity = Math.max(1, maxSize / 100);
+            this.sketch = new FrequencySketch(maxSize);
+        }
+        else
+        {
+            this.windowCapacity = 0;
+            this.sketch = null;
+        }
+        this.mainCapacity = maxSize - windowCapacity;
+    }
+
+    /**
+     * Liefert den Kurs aus dem Cache oder lädt ihn über das umhüllte Repository.
+     */
+    @Override
+    public Optional<Course> getById(Long id)
+    {
+        Assert.notNull(id);
+        long generation;
+        synchronized(lock)
+        {
+            if(sketch != null)
+            {
+                sketch.increment(id);
+            }
+            Entry entry = lookup(id);
+            if(entry != null)
+            {
+                if(entry.value == null)
+                {
+                    negativeHitCount++;
+                    return Optional.empty();
+                }
+                hitCount++;
+                return Optional.of(copyOf(entry.value));
+            }
+            missCount++;
+            generation = writeGeneration;
+        }
+
+        // Laden außerhalb der Sperre, damit parallele Zugriffe auf andere IDs nicht warten müssen.
+        Optional<Course> loaded = delegate.getById(id);
+
+        // In einer Transaktion kann der geladene Stand noch nicht committet sein.
+        enlistInTransaction();
+        synchronized(lock)
+        {
+            if(generation == writeGeneration)
+            {
+                if(loaded.isPresent())
+                {
+                    store(id, copyOf(loaded.get()), ttlNanos);
+                }
+                else if(negativeTtlNanos > 0)
+                {
+                    store(id, null, negativeTtlNanos);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Liefert die gecachten Kurse und lädt nur die fehlenden IDs mit einem Aufruf über das umhüllte Repository.
+     */
+    @Override
+    public Map<Long, Course> getAllById(Collection<Long> ids)
+    {
+        Assert.notNull(ids);
+        Map<Long, Course> cached = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        long generation;
+        synchronized(lock)
+        {
+            for(Long id : new LinkedHashSet<>(ids))
+            {
+                Assert.notNull(id);
+                if(sketch != null)
+                {
+                    sketch.increment(id);
+                }
+                Entry entry = lookup(id);
+                if(entry == null)
+                {
+                    missCount++;
+                    missing.add(id);
+                }
+                else if(entry.value == null)
+                {
+                    negativeHitCount++;
+                }
+                else
+                {
+                    hitCount++;
+                    cached.put(id, copyOf(entry.value));
+                }
+            }
+            generation = writeGeneration;
+        }
+
+        Map<Long, Course> loaded = missing.isEmpty() ? Map.of() : delegate.getAllById(missing);
+
+        if(!missing.isEmpty())
+        {
+            enlistInTransaction();
+        }
+        synchronized(lock)
+        {
+            if(generation == writeGeneration)
+            {
+                for(Long id : missing)
+                {
+                    Course course = loaded.get(id);
+                    if(course != null)
+                    {
+                        store(id, copyOf(course), ttlNanos);
+                    }
+                    else if(negativeTtlNanos > 0)
+                    {
+                        store(id, null, negativeTtlNanos);
+                    }
+                }
+            }
+        }
+
+        // Ergebnis in der Reihenfolge der übergebenen IDs.
+        Map<Long, Course> courses = new LinkedHashMap<>();
+        for(Long id : ids)
+        {
+            Course course = cached.containsKey(id) ? cached.get(id) : loaded.get(id);
+            if(course != null)
+            {
+                courses.put(id, course);
+            }
+        }
+        return courses;
+    }
+
+    @Override
+    public Optional<Course> insert(Course entity)
+    {
+        Optional<Course> inserted = delegate.insert(entity);
+        inserted.ifPresent(course -> writeThrough(course.getId(), course));
+        return inserted;
+    }
+
+    @Override
+    public Optional<Course> update(Course entity)
+    {
+        Assert.notNull(entity);
+        Optional<Course> updated;
+        try
+        {
+            updated = delegate.update(entity);
+        }
+        catch(OptimisticLockException optimisticLockException)
+        {
+            // Der Eintrag im Cache ist veraltet; beim nächsten getById wird die aktuelle Version gelesen.
+            invalidate(entity.getId());
+            throw optimisticLockException;
+        }
+        writeThrough(entity.getId(), updated.orElse(null));
+        return updated;
+    }
+
+    @Override
+    public boolean deleteById(Long id)
+    {
+        boolean deleted = delegate.deleteById(id);
+        invalidate(id);
+        return deleted;
+    }
+
+    @Override
+    public BatchResult<Course> insertAll(Collection<Course> courses)
+    {
+        BatchResult<Course> result = delegate.insertAll(courses);
+        for(Course course : result.getSuccessful())
+        {
+            writeThrough(course.getId(), course);
+        }
+        return result;
+    }
+
+    @Override
+    public BatchResult<Course> updateAll(Collection<Course> courses)
+    {
+        BatchResult<Course> result = delegate.updateAll(courses);
+        for(BatchResult.RowResult<Course> row : result.getRows())
+        {
+            if(row.getValue() != null)
+            {
+                invalidate(row.getValue().getId());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public BatchResult<Long> deleteAllById(Collection<Long> ids)
+    {
+        BatchResult<Long> result = delegate.deleteAllById(ids);
+        for(BatchResult.RowResult<Long> row : result.getRows())
+        {
+            invalidate(row.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Entfernt eine ID aus dem Cache.
+     * @param id Die ID; null wird ignoriert.
+     */
+    public void invalidate(Long id)
+    {
+        if(id == null)
+        {
+            return;
+        }
+        enlistInTransaction();
+        synchronized(lock)
+        {
+            writeGeneration++;
+            window.remove(id);
+            main.remove(id);
+        }
+    }
+
+    /**
+     * Macht den Cache transaktionsbewusst: Wird innerhalb einer UnitOfWork dieses TransactionManagers geschrieben,
+     * entfernt oder nach einem Fehlschlag geladen, trägt sich der Cache einmal pro Transaktion mit invalidateAll
+     * als Rollback-Aktion ein. Ohne TransactionManager
+     * bleiben Kurse aus zurückgerollten Transaktionen bis zum Ablauf der TTL im Cache.
+     * Andere Threads sehen die geschriebenen Kurse bereits vor dem Commit.
+     * @param transactionManager Der TransactionManager, über den das umhüllte Repository seine Verbindungen bezieht; null schaltet es ab.
+     */
+    public void setTransactionManager(TransactionManager transactionManager)
+    {
+        this.transactionManager = transactionManager;
+    }
+
+    /**
+     * Entfernt alle Einträge aus dem Cache.
+     */
+    public void invalidateAll()
+    {
+        synchronized(lock)
+        {
+            writeGeneration++;
+            window.clear();
+            main.clear();
+        }
+    }
+
+    /**
+     * Übernimmt den geschriebenen Kurs in den Cache; null entfernt den Eintrag.
+     */
+    private void writeThrough(Long id, Course course)
+    {
+        if(id == null)
+        {
+            return;
+        }
+        enlistInTransaction();
+        synchronized(lock)
+        {
+            writeGeneration++;
+            window.remove(id);
+            main.remove(id);
+            if(course != null)
+            {
+                store(id, copyOf(course), ttlNanos);
+            }
+        }
+    }
+
+    /**
+     * Trägt invalidateAll als Rollback-Aktion der aktuellen UnitOfWork ein, falls noch nicht geschehen.
+     * Am Ende der UnitOfWork wird die Markierung des Threads wieder entfernt, damit sie nicht auf die beendete
+     * UnitOfWork und deren Verbindung verweist.
+     */
+    private void enlistInTransaction()
+    {
+        TransactionManager manager = transactionManager;
+        UnitOfWork unitOfWork = manager == null ? null : manager.currentUnitOfWork();
+        if(unitOfWork != null && unitOfWork.isActive() && enlistedUnitOfWork.get() != unitOfWork)
+        {
+            unitOfWork.onRollback(this::invalidateAll);
+            unitOfWork.onRollback(enlistedUnitOfWork::remove);
+            unitOfWork.onCommit(enlistedUnitOfWork::remove);
+            enlistedUnitOfWork.set(unitOfWork);
+        }
+    }
+
+    /**
+     * Sucht einen nicht abgelaufenen Eintrag; abgelaufene Einträge werden dabei entfernt.
+     */
+    private Entry lookup(Long id)
+    {
+        Entry entry = main.get(id);
+        Map<Long, Entry> segment = main;
+        if(entry == null)
+        {
+            entry = window.get(id);
+            segment = window;
+        }
+        if(entry != null && entry.expiresAtNanos - System.nanoTime() <= 0)
+        {
+            segment.remove(id);
+            return null;
+        }
+        return entry;
+    }
+
+    private void store(Long id, Course value, long lifetimeNanos)
+    {
+        Entry entry = new Entry(value, System.nanoTime() + lifetimeNanos);
+        if(main.containsKey(id))
+        {
+            main.put(id, entry);
+            return;
+        }
+        if(windowCapacity == 0)
+        {
+            main.put(id, entry);
+            evictLru(main, mainCapacity);
+            return;
+        }
+
+        window.put(id, entry);
+        while(window.size() > windowCapacity)
+        {
+            Iterator<Map.Entry<Long, Entry>> windowIterator = window.entrySet().iterator();
+            Map.Entry<Long, Entry> candidate = windowIterator.next();
+            windowIterator.remove();
+            admit(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    /**
+     * TinyLFU-Zulassung: Ein aus dem Fenster verdrängter Kandidat ersetzt den LRU-Eintrag des Hauptbereichs
+     * nur, wenn er häufiger verwendet wurde.
+     */
+    private void admit(Long candidateId, Entry candidate)
+    {
+        if(main.size() < mainCapacity)
+        {
+            main.put(candidateId, candidate);
+            return;
+        }
+        Iterator<Map.Entry<Long, Entry>> mainIterator = main.entrySet().iterator();
+        Map.Entry<Long, Entry> victim = mainIterator.next();
+        if(sketch.frequency(candidateId) > sketch.frequency(victim.getKey()))
+        {
+            mainIterator.remove();
+            main.put(candidateId, candidate);
+        }
+        evictionCount++;
+    }
+
+    private void evictLru(LinkedHashMap<Long, Entry> segment, int capacity)
+    {
+        Iterator<Long> iterator = segment.keySet().iterator();
+        while(segment.size() > capacity && iterator.hasNext())
+        {
+            iterator.next();
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * Die Einträge entsprechen dem gespeicherten Stand; die Kopie enthält daher die Version und keine geänderten Felder.
+     */
+    private static Course copyOf(Course course)
+    {
+        Course copy = course.copy();
+        copy.markClean();
+        return copy;
+    }
+
+    /**
+     * @return Anzahl der getById-Aufrufe, die mit einem gecachten Kurs beantwortet wurden.
+     */
+    public long getHitCount()
+    {
+        synchronized(lock)
+        {
+            return hitCount;
+        }
+    }
+
+    /**
+     * @return Anzahl der getById-Aufrufe, die mit einem gecachten "nicht vorhanden" beantwortet wurden.
+     */
+    public long getNegativeHitCount()
+    {
+        synchronized(lock)
+        {
+            return negativeHitCount;
+        }
+    }
+
+    /**
+     * @return Anzahl der getById-Aufrufe, die an das umhüllte Repository weitergereicht wurden.
+     */
+    public long getMissCount()
+    {
+        synchronized(lock)
+        {
+            return missCount;
+        }
+    }
+
+    /**
+     * @return Anzahl der wegen Platzmangel verdrängten Einträge.
+     */
+    public long getEvictionCount()
+    {
+        synchronized(lock)
+        {
+            return evictionCount;
+        }
+    }
+
+    /**
+     * @return Anteil der aus dem Cache beantworteten Aufrufe (0 bis 1).
+     */
+    public double getHitRate()
+    {
+        synchronized(lock)
+        {
+            long requests = hitCount + negativeHitCount + missCount;
+            return requests == 0 ? 0.0 : (double) (hitCount + negativeHitCount) / requests;
+        }
+    }
+
+    /**
+     * @return Aktuelle Anzahl der Einträge (inklusive noch nicht entfernter abgelaufener Einträge).
+     */
+    public int size()
+    {
+        synchronized(lock)
+        {
+            return window.size() + main.size();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        synchronized(lock)
+        {
+            return "CachingCourseRepository{" +
+                    "policy=" + policy +
+                    ", size=" + (window.size() + main.size()) + "/" + maxSize +
+                    ", hits=" + hitCount +
+                    ", negativeHits=" + negativeHitCount +
+                    ", misses=" + missCount +
+                    ", evictions=" + evictionCount +
+                    '}';
+        }
+    }
+}
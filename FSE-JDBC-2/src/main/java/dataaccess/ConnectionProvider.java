@@ -0,0 +1,37 @@
+package dataaccess;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Abstraktion für die Bereitstellung von Datenbankverbindungen.
+ * Repositories holen sich für jede Operation eine Verbindung und schließen sie danach wieder
+ * (am besten mit try-with-resources). Bei gepoolten Implementierungen wird die Verbindung
+ * durch close() nicht physisch geschlossen, sondern an den Pool zurückgegeben.
+ */
+public interface ConnectionProvider extends AutoCloseable
+{
+    /**
+     * Liefert eine Verbindung, die exklusiv vom aufrufenden Thread verwendet werden darf.
+     * @return Eine gültige Datenbankverbindung.
+     * @throws SQLException wenn keine Verbindung bereitgestellt werden kann (z.B. Timeout beim Warten auf den Pool).
+     */
+    Connection getConnection() throws SQLException;
+
+    /**
+     * Liefert eine Verbindung für reine Lesezugriffe. Implementierungen mit Replikaten dürfen dafür eine
+     * Verbindung zu einem Replikat liefern, dessen Daten leicht veraltet sein können.
+     * @return Eine gültige Datenbankverbindung; standardmäßig dieselbe wie getConnection().
+     * @throws SQLException wenn keine Verbindung bereitgestellt werden kann.
+     */
+    default Connection getReadConnection() throws SQLException
+    {
+        return getConnection();
+    }
+
+    /**
+     * Gibt alle vom Provider gehaltenen Ressourcen frei.
+     */
+    @Override
+    void close();
+}
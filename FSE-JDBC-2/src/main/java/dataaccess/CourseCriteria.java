@@ -0,0 +1,83 @@
+package dataaccess;
+
+import domain.CourseType;
+
+import java.sql.Date;
+
+/**
+ * Suchkriterien für MyCourseRepository.findAllCourses(CourseCriteria).
+ * Alle Kriterien sind optional; gesetzte Kriterien werden mit UND verknüpft.
+ * Beispiel: new CourseCriteria().courseType(CourseType.OE).beginBetween(von, bis).text("java")
+ */
+public class CourseCriteria
+{
+    private CourseType courseType;
+    private Date beginFrom;
+    private Date beginUntil;
+    private String text;
+
+    /**
+     * Nur Kurse dieses Kurstyps.
+     */
+    public CourseCriteria courseType(CourseType courseType)
+    {
+        this.courseType = courseType;
+        return this;
+    }
+
+    /**
+     * Nur Kurse, deren Beginn im angegebenen Zeitraum liegt (jeweils einschließlich).
+     * @param from Frühestes Startdatum oder null für keine Untergrenze.
+     * @param until Spätestes Startdatum oder null für keine Obergrenze.
+     */
+    public CourseCriteria beginBetween(Date from, Date until)
+    {
+        if(from != null && until != null && from.after(until))
+        {
+            throw new IllegalArgumentException("Beginn des Zeitraums liegt nach dem Ende!");
+        }
+        this.beginFrom = from;
+        this.beginUntil = until;
+        return this;
+    }
+
+    /**
+     * Nur Kurse, deren Name oder Beschreibung den Text enthält (ohne Beachtung der Groß-/Kleinschreibung).
+     */
+    public CourseCriteria text(String text)
+    {
+        this.text = text == null || text.isBlank() ? null : text;
+        return this;
+    }
+
+    public CourseType getCourseType()
+    {
+        return courseType;
+    }
+
+    public Date getBeginFrom()
+    {
+        return beginFrom;
+    }
+
+    public Date getBeginUntil()
+    {
+        return beginUntil;
+    }
+
+    public String getText()
+    {
+        return text;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CourseCriteria{" +
+                "courseType=" + courseType +
+                ", beginFrom=" + beginFrom +
+                ", beginUntil=" + beginUntil +
+                ", text='" + text + '\'' +
+                '}';
+    }
+}
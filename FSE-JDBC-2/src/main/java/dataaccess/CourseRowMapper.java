@@ -0,0 +1,70 @@
+package dataaccess;
+
+import domain.Course;
+import domain.CourseType;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * RowMapper für Kurse aus der Tabelle courses.
+ * Die Spaltenpositionen werden einmal pro ResultSet ermittelt; danach wird jede Zeile nur noch über den Index gelesen.
+ * Da die Werte aus der Datenbank stammen, werden sie ohne die Prüfungen der Setter übernommen.
+ */
+public final class CourseRowMapper implements RowMapper<Course>
+{
+    private final int idColumn;
+    private final int nameColumn;
+    private final int descriptionColumn;
+    private final int hoursColumn;
+    private final int beginDateColumn;
+    private final int endDateColumn;
+    private final int courseTypeColumn;
+    private final int versionColumn;
+
+    private CourseRowMapper(ResultSet resultSet) throws SQLException
+    {
+        this.idColumn = resultSet.findColumn("id");
+        this.nameColumn = resultSet.findColumn("name");
+        this.descriptionColumn = resultSet.findColumn("description");
+        this.hoursColumn = resultSet.findColumn("hours");
+        this.beginDateColumn = resultSet.findColumn("begindate");
+        this.endDateColumn = resultSet.findColumn("enddate");
+        this.courseTypeColumn = resultSet.findColumn("coursetype");
+        this.versionColumn = resultSet.findColumn("version");
+    }
+
+    /**
+     * Ermittelt die Spaltenpositionen für das übergebene ResultSet.
+     * @param resultSet Ein ResultSet mit allen Spalten der Tabelle courses.
+     * @return Ein Mapper, der nur für dieses ResultSet (bzw. eines mit gleicher Spaltenreihenfolge) gültig ist.
+     */
+    public static CourseRowMapper forResultSet(ResultSet resultSet) throws SQLException
+    {
+        return new CourseRowMapper(resultSet);
+    }
+
+    @Override
+    public Course mapRow(ResultSet resultSet) throws SQLException
+    {
+        return Course.fromTrustedSource(
+                resultSet.getLong(idColumn),
+                resultSet.getString(nameColumn),
+                resultSet.getString(descriptionColumn),
+                resultSet.getInt(hoursColumn),
+                resultSet.getDate(beginDateColumn),
+                resultSet.getDate(endDateColumn),
+                toCourseType(resultSet.getString(courseTypeColumn)),
+                resultSet.getLong(versionColumn)
+        );
+    }
+
+    /**
+     * Wandelt den gespeicherten Namen eines Kurstyps um; gemeinsame Stelle für alle Mapper und den CourseCatalogSnapshot.
+     * @throws IllegalArgumentException Wenn es keinen Kurstyp mit diesem Namen gibt.
+     */
+    public static CourseType toCourseType(String code)
+    {
+        return CourseType.valueOf(code);
+    }
+}
@@ -0,0 +1,21 @@
+package dataaccess;
+
+import domain.Course;
+
+import java.util.List;
+
+/**
+ * Volltextsuche über Name und Beschreibung der Kurse.
+ * Im Gegensatz zu findAllCoursesByNameOrDescription werden die Treffer nach Relevanz sortiert und begrenzt.
+ */
+public interface CourseSearchEngine
+{
+    /**
+     * Sucht Kurse, deren Name oder Beschreibung die Wörter der Suchanfrage enthalten.
+     * Jedes Wort passt auch auf Wörter, die damit beginnen ("jav" findet "Java").
+     * @param query Die Suchanfrage; Groß-/Kleinschreibung wird ignoriert.
+     * @param limit Die maximale Anzahl an Treffern.
+     * @return Die besten Treffer, absteigend nach Relevanz sortiert.
+     */
+    List<SearchHit<Course>> search(String query, int limit);
+}
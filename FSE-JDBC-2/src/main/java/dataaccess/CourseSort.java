@@ -0,0 +1,67 @@
+package dataaccess;
+
+import domain.Course;
+import domain.CourseSummary;
+
+/**
+ * Sortierreihenfolgen für die seitenweise Abfrage von Kursen (Keyset-Pagination).
+ * Bei gleichen Werten wird immer zusätzlich nach der ID sortiert, damit die Reihenfolge eindeutig ist.
+ */
+public enum CourseSort
+{
+    ID("id"),
+    BEGINDATE("begindate"),
+    NAME("name");
+
+    // Name der Spalte in der Tabelle 'courses'.
+    private final String column;
+
+    CourseSort(String column)
+    {
+        this.column = column;
+    }
+
+    /**
+     * @return Der Name der Spalte, nach der sortiert wird.
+     */
+    public String getColumn()
+    {
+        return column;
+    }
+
+    /**
+     * Liefert den Sortierwert eines Kurses, wie er im Cursor für die nächste Seite gespeichert wird.
+     * @param course Der Kurs.
+     * @return Der Wert der Sortierspalte.
+     */
+    public Object valueOf(Course course)
+    {
+        switch(this)
+        {
+            case BEGINDATE:
+                return course.getBeginDate();
+            case NAME:
+                return course.getName();
+            default:
+                return course.getId();
+        }
+    }
+
+    /**
+     * Liefert den Sortierwert der Kurzform eines Kurses.
+     * @param summary Die Kurzform des Kurses.
+     * @return Der Wert der Sortierspalte.
+     */
+    public Object valueOf(CourseSummary summary)
+    {
+        switch(this)
+        {
+            case BEGINDATE:
+                return summary.beginDate();
+            case NAME:
+                return summary.name();
+            default:
+                return summary.id();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package dataaccess;
+
+import domain.CourseSummary;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * RowMapper für die Kurzform eines Kurses (CourseSummary).
+ * Benötigt nur die Spalten id, name, coursetype, begindate und enddate (siehe MySqlCourseRepository.SUMMARY_COLUMNS).
+ */
+public final class CourseSummaryRowMapper implements RowMapper<CourseSummary>
+{
+    private final int idColumn;
+    private final int nameColumn;
+    private final int courseTypeColumn;
+    private final int beginDateColumn;
+    private final int endDateColumn;
+
+    private CourseSummaryRowMapper(ResultSet resultSet) throws SQLException
+    {
+        this.idColumn = resultSet.findColumn("id");
+        this.nameColumn = resultSet.findColumn("name");
+        this.courseTypeColumn = resultSet.findColumn("coursetype");
+        this.beginDateColumn = resultSet.findColumn("begindate");
+        this.endDateColumn = resultSet.findColumn("enddate");
+    }
+
+    /**
+     * Ermittelt die Spaltenpositionen für das übergebene ResultSet.
+     * @param resultSet Ein ResultSet mit mindestens den Spalten der Kurzform.
+     * @return Ein Mapper, der nur für dieses ResultSet (bzw. eines mit gleicher Spaltenreihenfolge) gültig ist.
+     */
+    public static CourseSummaryRowMapper forResultSet(ResultSet resultSet) throws SQLException
+    {
+        return new CourseSummaryRowMapper(resultSet);
+    }
+
+    @Override
+    public CourseSummary mapRow(ResultSet resultSet) throws SQLException
+    {
+        return new CourseSummary(
+                resultSet.getLong(idColumn),
+                resultSet.getString(nameColumn),
+                CourseRowMapper.toCourseType(resultSet.getString(courseTypeColumn)),
+                resultSet.getDate(beginDateColumn),
+                resultSet.getDate(endDateColumn)
+        );
+    }
+}
@@ -0,0 +1,23 @@
+package dataaccess;
+
+import domain.Course;
+
+/**
+ * Wird von einem ListeningCourseRepository nach jedem erfolgreichen Schreibzugriff benachrichtigt,
+ * z.B. um einen Suchindex aktuell zu halten. Schreibzugriffe innerhalb einer UnitOfWork werden erst nach deren
+ * Commit gemeldet, sofern das ListeningCourseRepository einen TransactionManager kennt.
+ */
+public interface CourseWriteListener
+{
+    /**
+     * Ein Kurs wurde eingefügt oder geändert.
+     * @param course Der gespeicherte Kurs (inklusive ID).
+     */
+    void courseSaved(Course course);
+
+    /**
+     * Ein Kurs wurde gelöscht.
+     * @param id Die ID des gelöschten Kurses.
+     */
+    void courseDeleted(Long id);
+}
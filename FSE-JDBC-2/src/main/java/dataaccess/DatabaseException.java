@@ -1,11 +1,16 @@
 package dataaccess;
 
+import java.sql.SQLException;
+
 /**
  * Benutzerdefinierte Ausnahme für Fehler, die bei Datenbankoperationen auftreten.
  * Erbt von RuntimeException, was bedeutet, dass es sich um eine unchecked Exception handelt.
  */
 public class DatabaseException extends RuntimeException
 {
+    // SQLState der auslösenden SQLException oder null, wenn der Fehler keine SQLException als Ursache hat.
+    private final String sqlState;
+
     /**
      * Konstruktor für DatabaseException.
      * Nimmt eine Nachricht an, die die Ursache der Ausnahme beschreibt.
@@ -14,5 +19,26 @@ public class DatabaseException extends RuntimeException
     public DatabaseException(String message)
     {
         super(message);
+        this.sqlState = null;
+    }
+
+    /**
+     * Konstruktor für DatabaseException mit der auslösenden Ausnahme.
+     * Ist die Ursache eine SQLException, wird deren SQLState übernommen.
+     * @param message Die Fehlermeldung, die die Details des Fehlers angibt.
+     * @param cause Die auslösende Ausnahme.
+     */
+    public DatabaseException(String message, Throwable cause)
+    {
+        super(message, cause);
+        this.sqlState = cause instanceof SQLException ? ((SQLException) cause).getSQLState() : null;
+    }
+
+    /**
+     * @return Der SQLState der auslösenden SQLException (z.B. "23000" bei verletzten Constraints) oder null.
+     */
+    public String getSqlState()
+    {
+        return sqlState;
     }
 }
@@ -0,0 +1,180 @@
+package dataaccess;
+
+import domain.Course;
+import domain.CourseSummary;
+import domain.CourseType;
+import util.Assert;
+
+import java.sql.Date;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Basisklasse für Decorator, die ein anderes MyCourseRepository umhüllen (z.B. Caching).
+ * Alle Methoden werden unverändert an das umhüllte Repository weitergereicht;
+ * Unterklassen überschreiben nur die Methoden, deren Verhalten sie ändern.
+ */
+public abstract class ForwardingCourseRepository implements MyCourseRepository
+{
+    // Das umhüllte Repository.
+    protected final MyCourseRepository delegate;
+
+    protected ForwardingCourseRepository(MyCourseRepository delegate)
+    {
+        Assert.notNull(delegate);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Optional<Course> insert(Course entity)
+    {
+        return delegate.insert(entity);
+    }
+
+    @Override
+    public Optional<Course> getById(Long id)
+    {
+        return delegate.getById(id);
+    }
+
+    @Override
+    public Map<Long, Course> getAllById(Collection<Long> ids)
+    {
+        return delegate.getAllById(ids);
+    }
+
+    @Override
+    public List<Course> getAll()
+    {
+        return delegate.getAll();
+    }
+
+    @Override
+    public Optional<Course> update(Course entity)
+    {
+        return delegate.update(entity);
+    }
+
+    @Override
+    public boolean deleteById(Long id)
+    {
+        return delegate.deleteById(id);
+    }
+
+    @Override
+    public List<Course> findAllCoursesByName(String name)
+    {
+        return delegate.findAllCoursesByName(name);
+    }
+
+    @Override
+    public List<Course> findAllCoursesByDescription(String description)
+    {
+        return delegate.findAllCoursesByDescription(description);
+    }
+
+    @Override
+    public List<Course> findAllCoursesByNameOrDescription(String searchText)
+    {
+        return delegate.findAllCoursesByNameOrDescription(searchText);
+    }
+
+    @Override
+    public List<Course> findAllCoursesByCourseType(CourseType courseType)
+    {
+        return delegate.findAllCoursesByCourseType(courseType);
+    }
+
+    @Override
+    public List<Course> findAllCoursesByStartDate(Date startDate)
+    {
+        return delegate.findAllCoursesByStartDate(startDate);
+    }
+
+    @Override
+    public List<Course> findAllRunningCourses()
+    {
+        return delegate.findAllRunningCourses();
+    }
+
+    @Override
+    public List<Course> findAllCourses(CourseCriteria criteria)
+    {
+        return delegate.findAllCourses(criteria);
+    }
+
+    @Override
+    public BatchResult<Course> insertAll(Collection<Course> courses)
+    {
+        return delegate.insertAll(courses);
+    }
+
+    @Override
+    public BatchResult<Course> updateAll(Collection<Course> courses)
+    {
+        return delegate.updateAll(courses);
+    }
+
+    @Override
+    public BatchResult<Long> deleteAllById(Collection<Long> ids)
+    {
+        return delegate.deleteAllById(ids);
+    }
+
+    @Override
+    public Stream<Course> streamAll()
+    {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Stream<Course> streamAllCoursesByNameOrDescription(String searchText)
+    {
+        return delegate.streamAllCoursesByNameOrDescription(searchText);
+    }
+
+    @Override
+    public Stream<Course> streamAllRunningCourses()
+    {
+        return delegate.streamAllRunningCourses();
+    }
+
+    @Override
+    public Page<Course> getPage(CourseSort sort, PageCursor after, int limit)
+    {
+        return delegate.getPage(sort, after, limit);
+    }
+
+    @Override
+    public Page<Course> findCoursesByNameOrDescriptionPage(String searchText, CourseSort sort, PageCursor after, int limit)
+    {
+        return delegate.findCoursesByNameOrDescriptionPage(searchText, sort, after, limit);
+    }
+
+    @Override
+    public Page<Course> findRunningCoursesPage(CourseSort sort, PageCursor after, int limit)
+    {
+        return delegate.findRunningCoursesPage(sort, after, limit);
+    }
+
+    @Override
+    public List<CourseSummary> findAllSummariesByNameOrDescription(String searchText)
+    {
+        return delegate.findAllSummariesByNameOrDescription(searchText);
+    }
+
+    @Override
+    public List<CourseSummary> findAllRunningCourseSummaries()
+    {
+        return delegate.findAllRunningCourseSummaries();
+    }
+
+    @Override
+    public Page<CourseSummary> getSummaryPage(CourseSort sort, PageCursor after, int limit)
+    {
+        return delegate.getSummaryPage(sort, after, limit);
+    }
+}
@@ -0,0 +1,91 @@
+package dataaccess;
+
+/**
+ * Count-Min-Sketch zur Schätzung, wie oft auf einen Schlüssel zugegriffen wurde (TinyLFU).
+ * Jeder Schlüssel wird auf vier Zähler (je einer pro Zeile) abgebildet, die Schätzung ist das Minimum der vier.
+ * Die Zähler sind auf 15 begrenzt und werden nach sampleSize Zugriffen halbiert,
+ * damit ältere Zugriffe mit der Zeit an Gewicht verlieren.
+ * Nicht threadsicher; der Aufrufer muss synchronisieren.
+ */
+class FrequencySketch
+{
+    private static final int ROWS = 4;
+    private static final int MAX_COUNT = 15;
+
+    // Zufällige ungerade Faktoren für die Hash-Funktionen der einzelnen Zeilen.
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final int[][] counters;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * @param expectedEntries Die erwartete Anzahl unterschiedlicher Schlüssel im Cache.
+     */
+    FrequencySketch(int expectedEntries)
+    {
+        int width = Integer.highestOneBit(Math.max(16, expectedEntries) * 2 - 1);
+        this.counters = new int[ROWS][width];
+        this.mask = width - 1;
+        this.sampleSize = 10 * Math.max(16, expectedEntries);
+    }
+
+    /**
+     * Zählt einen Zugriff auf den Schlüssel.
+     */
+    void increment(long key)
+    {
+        boolean incremented = false;
+        for(int row = 0; row < ROWS; row++)
+        {
+            int index = indexOf(key, row);
+            if(counters[row][index] < MAX_COUNT)
+            {
+                counters[row][index]++;
+                incremented = true;
+            }
+        }
+        if(incremented && ++additions >= sampleSize)
+        {
+            reset();
+        }
+    }
+
+    /**
+     * @return Die geschätzte Zugriffshäufigkeit des Schlüssels.
+     */
+    int frequency(long key)
+    {
+        int frequency = MAX_COUNT;
+        for(int row = 0; row < ROWS; row++)
+        {
+            frequency = Math.min(frequency, counters[row][indexOf(key, row)]);
+        }
+        return frequency;
+    }
+
+    /**
+     * Halbiert alle Zähler ("Aging").
+     */
+    private void reset()
+    {
+        for(int[] row : counters)
+        {
+            for(int i = 0; i < row.length; i++)
+            {
+                row[i] >>>= 1;
+            }
+        }
+        additions /= 2;
+    }
+
+    private int indexOf(long key, int row)
+    {
+        long hash = (key + SEEDS[row]) * SEEDS[row];
+        hash ^= hash >>> 32;
+        return (int) hash & mask;
+    }
+}
@@ -0,0 +1,280 @@
+package dataaccess;
+
+import domain.Course;
+import util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Invertierter Index über Name und Beschreibung aller Kurse im Arbeitsspeicher.
+ * Texte werden in Wörter zerlegt (alles außer Buchstaben und Ziffern trennt) und in Kleinbuchstaben umgewandelt.
+ * Die Wörter liegen sortiert vor, daher findet jedes Suchwort auch alle Wörter, die damit beginnen.
+ * Die Relevanz wird nach BM25 berechnet; Treffer im Namen zählen doppelt, Präfix-Treffer halb so viel wie exakte.
+ *
+ * Der Index wird mit rebuild() befüllt und als CourseWriteListener (siehe ListeningCourseRepository)
+ * bei jedem Schreibzugriff aktualisiert. Threadsicher: Suchen laufen parallel, Änderungen exklusiv.
+ * Der Index speichert und liefert Kopien, damit Änderungen der Aufrufer die indizierten Kurse nicht verändern.
+ */
+public class InMemoryCourseSearchIndex implements CourseSearchEngine, CourseWriteListener
+{
+    // BM25-Parameter: Sättigung der Worthäufigkeit und Gewicht der Textlänge.
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Gewicht eines Wortes im Namen gegenüber der Beschreibung.
+    private static final int NAME_WEIGHT = 2;
+
+    // Gewicht eines Treffers, bei dem das Suchwort nur der Anfang des Wortes ist.
+    private static final double PREFIX_WEIGHT = 0.5;
+
+    // Wort -> (Kurs-ID -> gewichtete Häufigkeit im Kurs); sortiert für die Präfixsuche.
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+    // Kurs-ID -> indizierter Kurs und die Wörter des Kurses (zum Entfernen bei Änderungen).
+    private final Map<Long, Course> courses = new HashMap<>();
+    private final Map<Long, Map<String, Integer>> termsByCourse = new HashMap<>();
+
+    // Kurs-ID -> gewichtete Anzahl der Wörter; Summe über alle Kurse für die durchschnittliche Länge.
+    private final Map<Long, Integer> lengthByCourse = new HashMap<>();
+    private long totalLength;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Ersetzt den Inhalt des Index durch die übergebenen Kurse.
+     * @param allCourses Alle Kurse, z.B. aus MyCourseRepository.streamAll(); der Stream wird hier nicht geschlossen.
+     */
+    public void rebuild(Stream<Course> allCourses)
+    {
+        Assert.notNull(allCourses);
+        lock.writeLock().lock();
+        try
+        {
+            postings.clear();
+            courses.clear();
+            termsByCourse.clear();
+            lengthByCourse.clear();
+            totalLength = 0;
+            allCourses.forEach(this::add);
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void courseSaved(Course course)
+    {
+        Assert.notNull(course);
+        Assert.notNull(course.getId());
+        lock.writeLock().lock();
+        try
+        {
+            remove(course.getId());
+            add(course);
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void courseDeleted(Long id)
+    {
+        lock.writeLock().lock();
+        try
+        {
+            remove(id);
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<SearchHit<Course>> search(String query, int limit)
+    {
+        Assert.notNull(query);
+        if(limit < 1)
+        {
+            throw new IllegalArgumentException("Limit muss mindestens 1 sein!");
+        }
+        List<String> queryTerms = tokenize(query);
+        if(queryTerms.isEmpty())
+        {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try
+        {
+            if(courses.isEmpty())
+            {
+                return Collections.emptyList();
+            }
+            double averageLength = (double) totalLength / courses.size();
+            Map<Long, Double> scores = new HashMap<>();
+
+            for(String queryTerm : queryTerms)
+            {
+                // Alle Wörter, die mit dem Suchwort beginnen (inklusive des Suchworts selbst).
+                // Pro Kurs zählt nur das am besten passende Wort, damit viele Präfix-Treffer einen exakten nicht übertreffen.
+                Map<Long, Double> termScores = new HashMap<>();
+                SortedMap<String, Map<Long, Integer>> matches = postings.subMap(queryTerm, queryTerm + Character.MAX_VALUE);
+                for(Map.Entry<String, Map<Long, Integer>> match : matches.entrySet())
+                {
+                    double weight = match.getKey().equals(queryTerm) ? 1.0 : PREFIX_WEIGHT;
+                    for(Map.Entry<Long, Integer> posting : match.getValue().entrySet())
+                    {
+                        int frequency = posting.getValue();
+                        int length = lengthByCourse.get(posting.getKey());
+                        double tf = frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+                        termScores.merge(posting.getKey(), weight * tf, Math::max);
+                    }
+                }
+
+                // Die Seltenheit (IDF) bezieht sich auf alle Kurse, die das Suchwort als Präfix enthalten.
+                int matchingCourses = termScores.size();
+                double idf = Math.log(1.0 + (courses.size() - matchingCourses + 0.5) / (matchingCourses + 0.5));
+                for(Map.Entry<Long, Double> termScore : termScores.entrySet())
+                {
+                    scores.merge(termScore.getKey(), idf * termScore.getValue(), Double::sum);
+                }
+            }
+
+            // Top-k mit einem Min-Heap der Größe limit, statt alle Treffer zu sortieren.
+            Comparator<Map.Entry<Long, Double>> byScore = Map.Entry.comparingByValue();
+            PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(limit + 1, byScore);
+            for(Map.Entry<Long, Double> score : scores.entrySet())
+            {
+                best.add(score);
+                if(best.size() > limit)
+                {
+                    best.poll();
+                }
+            }
+
+            List<SearchHit<Course>> hits = new ArrayList<>(best.size());
+            while(!best.isEmpty())
+            {
+                Map.Entry<Long, Double> score = best.poll();
+                hits.add(new SearchHit<>(courses.get(score.getKey()).copy(), score.getValue()));
+            }
+            Collections.reverse(hits);
+            return hits;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Anzahl der indizierten Kurse.
+     */
+    public int size()
+    {
+        lock.readLock().lock();
+        try
+        {
+            return courses.size();
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fügt einen Kurs hinzu; der Aufrufer hält die Schreibsperre.
+     */
+    private void add(Course course)
+    {
+        Map<String, Integer> terms = new HashMap<>();
+        for(String term : tokenize(course.getName()))
+        {
+            terms.merge(term, NAME_WEIGHT, Integer::sum);
+        }
+        for(String term : tokenize(course.getDescription()))
+        {
+            terms.merge(term, 1, Integer::sum);
+        }
+
+        int length = 0;
+        for(Map.Entry<String, Integer> term : terms.entrySet())
+        {
+            postings.computeIfAbsent(term.getKey(), key -> new HashMap<>()).put(course.getId(), term.getValue());
+            length += term.getValue();
+        }
+        courses.put(course.getId(), course.copy());
+        termsByCourse.put(course.getId(), terms);
+        lengthByCourse.put(course.getId(), length);
+        totalLength += length;
+    }
+
+    /**
+     * Entfernt einen Kurs; der Aufrufer hält die Schreibsperre.
+     */
+    private void remove(Long id)
+    {
+        Map<String, Integer> terms = termsByCourse.remove(id);
+        courses.remove(id);
+        Integer length = lengthByCourse.remove(id);
+        if(terms == null)
+        {
+            return;
+        }
+        totalLength -= length;
+        for(Map.Entry<String, Integer> term : terms.entrySet())
+        {
+            Map<Long, Integer> frequencies = postings.get(term.getKey());
+            frequencies.remove(id);
+            if(frequencies.isEmpty())
+            {
+                postings.remove(term.getKey());
+            }
+        }
+    }
+
+    /**
+     * Zerlegt einen Text in Wörter aus Buchstaben und Ziffern, in Kleinbuchstaben.
+     */
+    static List<String> tokenize(String text)
+    {
+        List<String> tokens = new ArrayList<>();
+        if(text == null)
+        {
+            return tokens;
+        }
+        int start = -1;
+        for(int i = 0; i <= text.length(); i++)
+        {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if(wordChar && start < 0)
+            {
+                start = i;
+            }
+            else if(!wordChar && start >= 0)
+            {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,257 @@
+package dataaccess;
+
+import domain.Course;
+import domain.CourseSummary;
+import util.Assert;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Alle laufenden Kurse (wie findAllRunningCourses: Enddatum liegt nach jetzt) im Arbeitsspeicher, sortiert nach Enddatum.
+ *
+ * Der Index wird mit rebuild() befüllt und als CourseWriteListener (siehe ListeningCourseRepository) bei jedem
+ * Schreibzugriff aktualisiert. Ein Timer entfernt jeden Kurs, sobald sein Enddatum erreicht ist; geplant wird immer
+ * nur der nächste Ablauf. Änderungen an der Datenbank, die nicht über das Repository laufen, sieht der Index erst
+ * beim nächsten rebuild(). Threadsicher: Lesen läuft parallel, Änderungen exklusiv.
+ */
+public class InMemoryRunningCourseIndex implements CourseWriteListener, AutoCloseable
+{
+    // Nach Enddatum, bei gleichem Enddatum nach ID.
+    private static final Comparator<Course> BY_END_DATE =
+            Comparator.comparingLong((Course course) -> course.getEndDate().getTime()).thenComparing(Course::getId);
+
+    private final TreeSet<Course> byEndDate = new TreeSet<>(BY_END_DATE);
+    private final Map<Long, Course> byId = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ScheduledExecutorService expiryTimer;
+    // Der geplante nächste Ablauf und sein Zeitpunkt (Long.MAX_VALUE, wenn keiner geplant ist).
+    private ScheduledFuture<?> nextExpiry;
+    private long nextExpiryMillis = Long.MAX_VALUE;
+
+    public InMemoryRunningCourseIndex()
+    {
+        this.expiryTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "running-course-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Ersetzt den Inhalt des Index durch die übergebenen Kurse; bereits beendete Kurse werden übersprungen.
+     * @param runningCourses Die laufenden Kurse, z.B. aus MyCourseRepository.streamAllRunningCourses(); der Stream wird hier nicht geschlossen.
+     */
+    public void rebuild(Stream<Course> runningCourses)
+    {
+        Assert.notNull(runningCourses);
+        lock.writeLock().lock();
+        try
+        {
+            byEndDate.clear();
+            byId.clear();
+            long now = System.currentTimeMillis();
+            runningCourses.forEach(course -> add(course, now));
+            scheduleNextExpiry(now);
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void courseSaved(Course course)
+    {
+        Assert.notNull(course);
+        Assert.notNull(course.getId());
+        lock.writeLock().lock();
+        try
+        {
+            long now = System.currentTimeMillis();
+            remove(course.getId());
+            add(course, now);
+            scheduleNextExpiry(now);
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void courseDeleted(Long id)
+    {
+        lock.writeLock().lock();
+        try
+        {
+            remove(id);
+            scheduleNextExpiry(System.currentTimeMillis());
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Kopien aller laufenden Kurse, nach Enddatum sortiert.
+     */
+    public List<Course> getRunningCourses()
+    {
+        lock.readLock().lock();
+        try
+        {
+            List<Course> running = new ArrayList<>(byEndDate.size());
+            long now = System.currentTimeMillis();
+            for(Course course : byEndDate)
+            {
+                // Gerade abgelaufen, aber vom Timer noch nicht entfernt (liegen immer am Anfang).
+                if(course.getEndDate().getTime() > now)
+                {
+                    running.add(course.copy());
+                }
+            }
+            return running;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Die Kurzform aller laufenden Kurse, nach Enddatum sortiert.
+     */
+    public List<CourseSummary> getRunningCourseSummaries()
+    {
+        lock.readLock().lock();
+        try
+        {
+            List<CourseSummary> running = new ArrayList<>(byEndDate.size());
+            long now = System.currentTimeMillis();
+            for(Course course : byEndDate)
+            {
+                // Gerade abgelaufen, aber vom Timer noch nicht entfernt (liegen immer am Anfang).
+                if(course.getEndDate().getTime() > now)
+                {
+                    running.add(CourseSummary.of(course));
+                }
+            }
+            return running;
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Anzahl der Kurse im Index.
+     */
+    public int size()
+    {
+        lock.readLock().lock();
+        try
+        {
+            return byId.size();
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fügt eine Kopie des Kurses hinzu, falls er noch läuft; der Aufrufer hält die Schreibsperre.
+     */
+    private void add(Course course, long now)
+    {
+        if(course.getEndDate().getTime() <= now)
+        {
+            return;
+        }
+        Course copy = course.copy();
+        byEndDate.add(copy);
+        byId.put(copy.getId(), copy);
+    }
+
+    /**
+     * Entfernt einen Kurs; der Aufrufer hält die Schreibsperre.
+     */
+    private void remove(Long id)
+    {
+        Course removed = byId.remove(id);
+        if(removed != null)
+        {
+            byEndDate.remove(removed);
+        }
+    }
+
+    /**
+     * Entfernt alle abgelaufenen Kurse und plant den nächsten Ablauf.
+     */
+    private void expire()
+    {
+        lock.writeLock().lock();
+        try
+        {
+            long now = System.currentTimeMillis();
+            nextExpiry = null;
+            nextExpiryMillis = Long.MAX_VALUE;
+            while(!byEndDate.isEmpty() && byEndDate.first().getEndDate().getTime() <= now)
+            {
+                byId.remove(byEndDate.pollFirst().getId());
+            }
+            scheduleNextExpiry(now);
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Plant den Timer für das früheste Enddatum neu, falls es sich geändert hat; der Aufrufer hält die Schreibsperre.
+     */
+    private void scheduleNextExpiry(long now)
+    {
+        long due = byEndDate.isEmpty() ? Long.MAX_VALUE : byEndDate.first().getEndDate().getTime();
+        if(due == nextExpiryMillis || expiryTimer.isShutdown())
+        {
+            return;
+        }
+        if(nextExpiry != null)
+        {
+            nextExpiry.cancel(false);
+            nextExpiry = null;
+        }
+        nextExpiryMillis = due;
+        if(due != Long.MAX_VALUE)
+        {
+            nextExpiry = expiryTimer.schedule(this::expire, Math.max(0, due - now), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Beendet den Timer; der Index wird danach nicht mehr automatisch bereinigt, Lesezugriffe bleiben korrekt.
+     */
+    @Override
+    public void close()
+    {
+        expiryTimer.shutdownNow();
+    }
+}
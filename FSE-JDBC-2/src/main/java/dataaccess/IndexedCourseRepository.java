@@ -0,0 +1,48 @@
+package dataaccess;
+
+import domain.Course;
+import domain.CourseSummary;
+import util.Assert;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Decorator, der die laufenden Kurse aus einem InMemoryRunningCourseIndex liest statt aus der Datenbank.
+ * Der Index muss als CourseWriteListener an einem ListeningCourseRepository unterhalb dieses Decorators hängen,
+ * damit er alle Schreibzugriffe sieht. Die Ergebnisse sind nach Enddatum sortiert.
+ * findRunningCoursesPage (beliebige Sortierung mit Cursor) und alle anderen Methoden werden unverändert weitergereicht.
+ */
+public class IndexedCourseRepository extends ForwardingCourseRepository
+{
+    private final InMemoryRunningCourseIndex runningCourses;
+
+    /**
+     * @param delegate Das umhüllte Repository.
+     * @param runningCourses Der Index der laufenden Kurse.
+     */
+    public IndexedCourseRepository(MyCourseRepository delegate, InMemoryRunningCourseIndex runningCourses)
+    {
+        super(delegate);
+        Assert.notNull(runningCourses);
+        this.runningCourses = runningCourses;
+    }
+
+    @Override
+    public List<Course> findAllRunningCourses()
+    {
+        return runningCourses.getRunningCourses();
+    }
+
+    @Override
+    public Stream<Course> streamAllRunningCourses()
+    {
+        return runningCourses.getRunningCourses().stream();
+    }
+
+    @Override
+    public List<CourseSummary> findAllRunningCourseSummaries()
+    {
+        return runningCourses.getRunningCourseSummaries();
+    }
+}
@@ -0,0 +1,122 @@
+package dataaccess;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramm für Laufzeiten in Nanosekunden nach dem Vorbild von HdrHistogram.
+ * Jede Zweierpotenz wird in 32 gleich breite Unter-Buckets geteilt; der relative Fehler der Perzentile
+ * liegt damit unter ca. 3 %, unabhängig von der Größenordnung (Mikrosekunden bis Minuten).
+ * record() ist lock-frei und reserviert keinen Speicher; Perzentile werden beim Auslesen berechnet.
+ */
+class LatencyHistogram
+{
+    // 2^5 = 32 Unter-Buckets pro Zweierpotenz.
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    // Werte unter SUB_BUCKET_COUNT landen direkt in einem eigenen Bucket; darüber eine Gruppe je Zweierpotenz.
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    void record(long nanos)
+    {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+        totalCount.increment();
+        totalNanos.add(value);
+        maxNanos.accumulateAndGet(value, Math::max);
+    }
+
+    long getCount()
+    {
+        return totalCount.sum();
+    }
+
+    long getTotalNanos()
+    {
+        return totalNanos.sum();
+    }
+
+    long getMaxNanos()
+    {
+        return maxNanos.get();
+    }
+
+    double getMeanNanos()
+    {
+        long count = totalCount.sum();
+        return count == 0 ? 0.0 : (double) totalNanos.sum() / count;
+    }
+
+    /**
+     * @param percentile Das Perzentil zwischen 0 und 100 (z.B. 99.9).
+     * @return Die obere Grenze des Buckets, in dem das Perzentil liegt (höchstens das gemessene Maximum); 0 ohne Messwerte.
+     */
+    long getValueAtPercentile(double percentile)
+    {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for(int i = 0; i < BUCKET_COUNT; i++)
+        {
+            snapshot[i] = counts.get(i);
+            count += snapshot[i];
+        }
+        if(count == 0)
+        {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for(int i = 0; i < BUCKET_COUNT; i++)
+        {
+            seen += snapshot[i];
+            if(seen >= rank)
+            {
+                return Math.min(upperBoundOf(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    void reset()
+    {
+        for(int i = 0; i < BUCKET_COUNT; i++)
+        {
+            counts.set(i, 0);
+        }
+        totalCount.reset();
+        totalNanos.reset();
+        maxNanos.set(0);
+    }
+
+    private static int indexOf(long value)
+    {
+        if(value < SUB_BUCKET_COUNT)
+        {
+            return (int) value;
+        }
+        // Position des höchsten gesetzten Bits bestimmt die Gruppe, die folgenden 5 Bits den Unter-Bucket.
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+        return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long upperBoundOf(int index)
+    {
+        if(index < SUB_BUCKET_COUNT)
+        {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_COUNT;
+        return ((SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,180 @@
+package dataaccess;
+
+import domain.Course;
+import util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Decorator, der registrierte CourseWriteListener nach jedem erfolgreichen Schreibzugriff benachrichtigt.
+ * Lesende Methoden werden unverändert weitergereicht.
+ *
+ * Mit setTransactionManager() werden Schreibzugriffe innerhalb einer UnitOfWork erst nach deren commit() gemeldet,
+ * in der ursprünglichen Reihenfolge; nach einem rollback() werden sie verworfen.
+ */
+public class ListeningCourseRepository extends ForwardingCourseRepository
+{
+    private final List<CourseWriteListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile TransactionManager transactionManager;
+    // Die UnitOfWork des Threads und die bis zu ihrem Commit zurückgehaltenen Benachrichtigungen.
+    private final ThreadLocal<UnitOfWork> heldUnitOfWork = new ThreadLocal<>();
+    private final ThreadLocal<List<Runnable>> heldNotifications = new ThreadLocal<>();
+
+    /**
+     * @param delegate Das umhüllte Repository.
+     * @param listeners Die Listener, die sofort registriert werden.
+     */
+    public ListeningCourseRepository(MyCourseRepository delegate, CourseWriteListener... listeners)
+    {
+        super(delegate);
+        for(CourseWriteListener listener : listeners)
+        {
+            addListener(listener);
+        }
+    }
+
+    public void addListener(CourseWriteListener listener)
+    {
+        Assert.notNull(listener);
+        listeners.add(listener);
+    }
+
+    public void removeListener(CourseWriteListener listener)
+    {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Macht die Benachrichtigungen transaktionsbewusst: Innerhalb einer UnitOfWork dieses TransactionManagers
+     * werden sie bis zum commit() zurückgehalten und nach einem rollback() verworfen. Ohne TransactionManager
+     * wird sofort nach jedem Schreibzugriff benachrichtigt.
+     * @param transactionManager Der TransactionManager, über den das umhüllte Repository seine Verbindungen bezieht; null schaltet es ab.
+     */
+    public void setTransactionManager(TransactionManager transactionManager)
+    {
+        this.transactionManager = transactionManager;
+    }
+
+    @Override
+    public Optional<Course> insert(Course entity)
+    {
+        Optional<Course> inserted = delegate.insert(entity);
+        inserted.ifPresent(this::fireSaved);
+        return inserted;
+    }
+
+    @Override
+    public Optional<Course> update(Course entity)
+    {
+        Optional<Course> updated = delegate.update(entity);
+        updated.ifPresent(this::fireSaved);
+        return updated;
+    }
+
+    @Override
+    public boolean deleteById(Long id)
+    {
+        boolean deleted = delegate.deleteById(id);
+        if(deleted)
+        {
+            fireDeleted(id);
+        }
+        return deleted;
+    }
+
+    @Override
+    public BatchResult<Course> insertAll(Collection<Course> courses)
+    {
+        BatchResult<Course> result = delegate.insertAll(courses);
+        for(Course course : result.getSuccessful())
+        {
+            fireSaved(course);
+        }
+        return result;
+    }
+
+    @Override
+    public BatchResult<Course> updateAll(Collection<Course> courses)
+    {
+        BatchResult<Course> result = delegate.updateAll(courses);
+        for(Course course : result.getSuccessful())
+        {
+            fireSaved(course);
+        }
+        return result;
+    }
+
+    @Override
+    public BatchResult<Long> deleteAllById(Collection<Long> ids)
+    {
+        BatchResult<Long> result = delegate.deleteAllById(ids);
+        for(Long id : result.getSuccessful())
+        {
+            fireDeleted(id);
+        }
+        return result;
+    }
+
+    private void fireSaved(Course course)
+    {
+        notifyListeners(() -> {
+            for(CourseWriteListener listener : listeners)
+            {
+                listener.courseSaved(course);
+            }
+        });
+    }
+
+    private void fireDeleted(Long id)
+    {
+        notifyListeners(() -> {
+            for(CourseWriteListener listener : listeners)
+            {
+                listener.courseDeleted(id);
+            }
+        });
+    }
+
+    /**
+     * Führt die Benachrichtigung sofort aus oder hält sie bis zum Commit der aktuellen UnitOfWork zurück.
+     */
+    private void notifyListeners(Runnable notification)
+    {
+        TransactionManager manager = transactionManager;
+        UnitOfWork unitOfWork = manager == null ? null : manager.currentUnitOfWork();
+        if(unitOfWork == null || !unitOfWork.isActive())
+        {
+            notification.run();
+            return;
+        }
+        if(heldUnitOfWork.get() != unitOfWork)
+        {
+            heldUnitOfWork.set(unitOfWork);
+            heldNotifications.set(new ArrayList<>());
+            unitOfWork.onCommit(this::releaseNotifications);
+            unitOfWork.onRollback(this::discardNotifications);
+        }
+        heldNotifications.get().add(notification);
+    }
+
+    private void releaseNotifications()
+    {
+        List<Runnable> notifications = heldNotifications.get();
+        discardNotifications();
+        for(Runnable notification : notifications)
+        {
+            notification.run();
+        }
+    }
+
+    private void discardNotifications()
+    {
+        heldUnitOfWork.remove();
+        heldNotifications.remove();
+    }
+}
@@ -0,0 +1,157 @@
+package dataaccess;
+
+import domain.Course;
+import domain.InvalidValueException;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * InputStream, der Kurse erst beim Lesen in das Textformat von LOAD DATA kodiert
+ * (Felder mit Tabulator getrennt, Zeilen mit \n, Sonderzeichen mit \ maskiert).
+ * Es wird immer nur eine Zeile im Speicher gehalten; eine temporäre Datei ist nicht nötig.
+ * Spaltenreihenfolge: name, description, hours, begindate, enddate, coursetype.
+ * Kurse, die die Regeln von Course verletzen (z.B. über fromTrustedSource erzeugt), werden nicht gesendet, sondern
+ * übersprungen: MySQL würde solche Werte bei LOAD DATA ... IGNORE nur mit einer Warnung anpassen und als geladen zählen.
+ */
+class LoadDataInputStream extends InputStream
+{
+    private final Iterator<? extends Course> courses;
+    private final StringBuilder line = new StringBuilder(256);
+    private byte[] buffer = new byte[0];
+    private int position;
+
+    private long rowsSent;
+    private long rowsSkipped;
+
+    LoadDataInputStream(Iterator<? extends Course> courses)
+    {
+        this.courses = courses;
+    }
+
+    @Override
+    public int read()
+    {
+        if(!fill())
+        {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] target, int offset, int length)
+    {
+        if(length == 0)
+        {
+            return 0;
+        }
+        int copied = 0;
+        while(copied < length && fill())
+        {
+            int count = Math.min(length - copied, buffer.length - position);
+            System.arraycopy(buffer, position, target, offset + copied, count);
+            position += count;
+            copied += count;
+        }
+        return copied == 0 ? -1 : copied;
+    }
+
+    /**
+     * Kodiert bei Bedarf den nächsten Kurs.
+     * @return False, wenn alle Kurse gelesen wurden.
+     */
+    private boolean fill()
+    {
+        while(position >= buffer.length)
+        {
+            if(!courses.hasNext())
+            {
+                return false;
+            }
+            Course course = courses.next();
+            if(!isLoadable(course))
+            {
+                rowsSkipped++;
+                continue;
+            }
+            line.setLength(0);
+            appendEscaped(course.getName());
+            line.append('\t');
+            appendEscaped(course.getDescription());
+            line.append('\t').append(course.getHours());
+            line.append('\t').append(course.getBeginDate());
+            line.append('\t').append(course.getEndDate());
+            line.append('\t').append(course.getCourseType().name());
+            line.append('\n');
+            buffer = line.toString().getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            rowsSent++;
+        }
+        return true;
+    }
+
+    /**
+     * Prüft einen Kurs mit den Regeln der Setter von Course, indem eine Kopie über den prüfenden Konstruktor erzeugt wird.
+     * @return False bei null oder ungültigen Werten.
+     */
+    static boolean isLoadable(Course course)
+    {
+        if(course == null)
+        {
+            return false;
+        }
+        try
+        {
+            new Course(course.getId(), course.getName(), course.getDescription(), course.getHours(), course.getBeginDate(),
+                    course.getEndDate(), course.getCourseType());
+            return true;
+        }
+        catch(InvalidValueException e)
+        {
+            return false;
+        }
+    }
+
+    private void appendEscaped(String value)
+    {
+        for(int i = 0; i < value.length(); i++)
+        {
+            char c = value.charAt(i);
+            switch(c)
+            {
+                case '\\': line.append("\\\\"); break;
+                case '\t': line.append("\\t"); break;
+                case '\n': line.append("\\n"); break;
+                case '\r': line.append("\\r"); break;
+                case '\0': line.append("\\0"); break;
+                default: line.append(c);
+            }
+        }
+    }
+
+    /**
+     * @return Anzahl der bisher kodierten Kurse.
+     */
+    long getRowsSent()
+    {
+        return rowsSent;
+    }
+
+    /**
+     * @return Anzahl der übersprungenen null-Einträge und ungültigen Kurse.
+     */
+    long getRowsSkipped()
+    {
+        return rowsSkipped;
+    }
+
+    /**
+     * @return True, wenn bereits Einträge aus dem Iterator entnommen wurden.
+     */
+    boolean isStarted()
+    {
+        return rowsSent > 0 || rowsSkipped > 0;
+    }
+}
@@ -0,0 +1,201 @@
+package dataaccess;
+
+import domain.Course;
+import domain.CourseSummary;
+import domain.CourseType;
+import util.Assert;
+
+import java.sql.Date;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Decorator, der jeden Aufruf des umhüllten Repositorys in RepositoryMetrics misst.
+ * Bei Streams wird nur das Öffnen gemessen; die Zeilen werden beim Konsumieren gezählt.
+ */
+public class MetricsCourseRepository extends ForwardingCourseRepository
+{
+    private final RepositoryMetrics metrics;
+
+    /**
+     * @param delegate Das umhüllte Repository.
+     * @param metrics Die Messwerte, in die alle Aufrufe eingetragen werden.
+     */
+    public MetricsCourseRepository(MyCourseRepository delegate, RepositoryMetrics metrics)
+    {
+        super(delegate);
+        Assert.notNull(metrics);
+        this.metrics = metrics;
+    }
+
+    public RepositoryMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    @Override
+    public Optional<Course> insert(Course entity)
+    {
+        return metrics.record("insert", () -> delegate.insert(entity), MetricsCourseRepository::rows);
+    }
+
+    @Override
+    public Optional<Course> getById(Long id)
+    {
+        return metrics.record("getById", () -> delegate.getById(id), MetricsCourseRepository::rows);
+    }
+
+    @Override
+    public Map<Long, Course> getAllById(Collection<Long> ids)
+    {
+        return metrics.record("getAllById", () -> delegate.getAllById(ids), Map::size);
+    }
+
+    @Override
+    public List<Course> getAll()
+    {
+        return metrics.record("getAll", delegate::getAll, List::size);
+    }
+
+    @Override
+    public Optional<Course> update(Course entity)
+    {
+        return metrics.record("update", () -> delegate.update(entity), MetricsCourseRepository::rows);
+    }
+
+    @Override
+    public boolean deleteById(Long id)
+    {
+        return metrics.record("deleteById", () -> delegate.deleteById(id), deleted -> deleted ? 1 : 0);
+    }
+
+    @Override
+    public List<Course> findAllCoursesByName(String name)
+    {
+        return metrics.record("findAllCoursesByName", () -> delegate.findAllCoursesByName(name), List::size);
+    }
+
+    @Override
+    public List<Course> findAllCoursesByDescription(String description)
+    {
+        return metrics.record("findAllCoursesByDescription", () -> delegate.findAllCoursesByDescription(description), List::size);
+    }
+
+    @Override
+    public List<Course> findAllCoursesByNameOrDescription(String searchText)
+    {
+        return metrics.record("findAllCoursesByNameOrDescription", () -> delegate.findAllCoursesByNameOrDescription(searchText), List::size);
+    }
+
+    @Override
+    public List<Course> findAllCoursesByCourseType(CourseType courseType)
+    {
+        return metrics.record("findAllCoursesByCourseType", () -> delegate.findAllCoursesByCourseType(courseType), List::size);
+    }
+
+    @Override
+    public List<Course> findAllCoursesByStartDate(Date startDate)
+    {
+        return metrics.record("findAllCoursesByStartDate", () -> delegate.findAllCoursesByStartDate(startDate), List::size);
+    }
+
+    @Override
+    public List<Course> findAllRunningCourses()
+    {
+        return metrics.record("findAllRunningCourses", delegate::findAllRunningCourses, List::size);
+    }
+
+    @Override
+    public List<Course> findAllCourses(CourseCriteria criteria)
+    {
+        return metrics.record("findAllCourses", () -> delegate.findAllCourses(criteria), List::size);
+    }
+
+    @Override
+    public BatchResult<Course> insertAll(Collection<Course> courses)
+    {
+        return metrics.record("insertAll", () -> delegate.insertAll(courses), BatchResult::getSuccessCount);
+    }
+
+    @Override
+    public BatchResult<Course> updateAll(Collection<Course> courses)
+    {
+        return metrics.record("updateAll", () -> delegate.updateAll(courses), BatchResult::getSuccessCount);
+    }
+
+    @Override
+    public BatchResult<Long> deleteAllById(Collection<Long> ids)
+    {
+        return metrics.record("deleteAllById", () -> delegate.deleteAllById(ids), BatchResult::getSuccessCount);
+    }
+
+    @Override
+    public Stream<Course> streamAll()
+    {
+        return countRows("streamAll", metrics.record("streamAll", delegate::streamAll, stream -> 0));
+    }
+
+    @Override
+    public Stream<Course> streamAllCoursesByNameOrDescription(String searchText)
+    {
+        return countRows("streamAllCoursesByNameOrDescription",
+                metrics.record("streamAllCoursesByNameOrDescription", () -> delegate.streamAllCoursesByNameOrDescription(searchText), stream -> 0));
+    }
+
+    @Override
+    public Stream<Course> streamAllRunningCourses()
+    {
+        return countRows("streamAllRunningCourses", metrics.record("streamAllRunningCourses", delegate::streamAllRunningCourses, stream -> 0));
+    }
+
+    @Override
+    public Page<Course> getPage(CourseSort sort, PageCursor after, int limit)
+    {
+        return metrics.record("getPage", () -> delegate.getPage(sort, after, limit), page -> page.getItems().size());
+    }
+
+    @Override
+    public Page<Course> findCoursesByNameOrDescriptionPage(String searchText, CourseSort sort, PageCursor after, int limit)
+    {
+        return metrics.record("findCoursesByNameOrDescriptionPage",
+                () -> delegate.findCoursesByNameOrDescriptionPage(searchText, sort, after, limit), page -> page.getItems().size());
+    }
+
+    @Override
+    public Page<Course> findRunningCoursesPage(CourseSort sort, PageCursor after, int limit)
+    {
+        return metrics.record("findRunningCoursesPage", () -> delegate.findRunningCoursesPage(sort, after, limit), page -> page.getItems().size());
+    }
+
+    @Override
+    public List<CourseSummary> findAllSummariesByNameOrDescription(String searchText)
+    {
+        return metrics.record("findAllSummariesByNameOrDescription", () -> delegate.findAllSummariesByNameOrDescription(searchText), List::size);
+    }
+
+    @Override
+    public List<CourseSummary> findAllRunningCourseSummaries()
+    {
+        return metrics.record("findAllRunningCourseSummaries", delegate::findAllRunningCourseSummaries, List::size);
+    }
+
+    @Override
+    public Page<CourseSummary> getSummaryPage(CourseSort sort, PageCursor after, int limit)
+    {
+        return metrics.record("getSummaryPage", () -> delegate.getSummaryPage(sort, after, limit), page -> page.getItems().size());
+    }
+
+    private Stream<Course> countRows(String operation, Stream<Course> stream)
+    {
+        OperationMetrics operationMetrics = metrics.getOperation(operation);
+        return stream.peek(course -> operationMetrics.recordRows(1));
+    }
+
+    private static long rows(Optional<Course> course)
+    {
+        return course.isPresent() ? 1 : 0;
+    }
+}
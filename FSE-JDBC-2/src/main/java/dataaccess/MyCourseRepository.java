@@ -1,9 +1,12 @@
 package dataaccess;
 
 import domain.Course;
+import domain.CourseSummary;
 import domain.CourseType;
 import java.sql.Date;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Interface für das Kurs-Repository, das das BaseRepository für Kurse erweitert.
@@ -13,16 +16,16 @@ public interface MyCourseRepository extends BaseRepository<Course,Long>
 {
     /**
      * Findet alle Kurse basierend auf einem gegebenen Namen.
-     * @param name Der Name der Kurse, nach denen gesucht wird.
-     * @return Eine Liste von Kursen, die dem angegebenen Namen entsprechen.
+     * @param name Der Name (bzw. ein Teil davon) der Kurse, nach denen gesucht wird; % und _ sind normale Zeichen.
+     * @return Eine Liste von Kursen, deren Name den angegebenen Text enthält (ohne Beachtung der Groß-/Kleinschreibung).
      */
     List<Course> findAllCoursesByName(String name);
 
 
     /**
      * Findet alle Kurse basierend auf einer gegebenen Beschreibung.
-     * @param description Die Beschreibung der Kurse, nach denen gesucht wird.
-     * @return Eine Liste von Kursen, die der angegebenen Beschreibung entsprechen.
+     * @param description Die Beschreibung (bzw. ein Teil davon) der Kurse, nach denen gesucht wird; % und _ sind normale Zeichen.
+     * @return Eine Liste von Kursen, deren Beschreibung den angegebenen Text enthält (ohne Beachtung der Groß-/Kleinschreibung).
      */
     List<Course> findAllCoursesByDescription(String description);
 
@@ -56,4 +59,129 @@ public interface MyCourseRepository extends BaseRepository<Course,Long>
      * @return Eine Liste von Kursen, die aktuell laufen.
      */
     List<Course> findAllRunningCourses();
+
+
+    /**
+     * Findet alle Kurse, die alle gesetzten Kriterien erfüllen, mit einer einzigen Abfrage.
+     * @param criteria Die Suchkriterien (Kurstyp, Zeitraum des Beginns, Text in Name oder Beschreibung).
+     * @return Eine Liste der passenden Kurse, sortiert nach Startdatum.
+     */
+    List<Course> findAllCourses(CourseCriteria criteria);
+
+
+    /**
+     * Fügt mehrere Kurse per JDBC-Batch ein. Die Kurse werden in Blöcken (Chunks) verarbeitet,
+     * jeder Block in einer eigenen Transaktion.
+     * @param courses Die einzufügenden Kurse.
+     * @return Ein Ergebnis pro Kurs; erfolgreich eingefügte Kurse enthalten die generierte ID.
+     */
+    BatchResult<Course> insertAll(Collection<Course> courses);
+
+
+    /**
+     * Aktualisiert mehrere Kurse per JDBC-Batch, blockweise in je einer Transaktion.
+     * @param courses Die zu aktualisierenden Kurse (mit ID).
+     * @return Ein Ergebnis pro Kurs; Kurse ohne passenden Datensatz erhalten den Status NOT_FOUND.
+     */
+    BatchResult<Course> updateAll(Collection<Course> courses);
+
+
+    /**
+     * Löscht mehrere Kurse per JDBC-Batch, blockweise in je einer Transaktion.
+     * @param ids Die IDs der zu löschenden Kurse.
+     * @return Ein Ergebnis pro ID; nicht vorhandene IDs erhalten den Status NOT_FOUND.
+     */
+    BatchResult<Long> deleteAllById(Collection<Long> ids);
+
+
+    /**
+     * Liefert alle Kurse als Stream, der die Zeilen erst beim Konsumieren aus der Datenbank liest.
+     * Der Stream hält bis zum Schließen eine Datenbankverbindung und muss daher geschlossen werden
+     * (try-with-resources), sofern er nicht vollständig durchlaufen wird.
+     * @return Ein Stream aller Kurse.
+     */
+    Stream<Course> streamAll();
+
+
+    /**
+     * Streaming-Variante von findAllCoursesByNameOrDescription.
+     * @param searchText Der Text, nach dem in Namen und Beschreibungen der Kurse gesucht wird.
+     * @return Ein Stream der Kurse, die dem Suchtext entsprechen; muss geschlossen werden.
+     */
+    Stream<Course> streamAllCoursesByNameOrDescription(String searchText);
+
+
+    /**
+     * Streaming-Variante von findAllRunningCourses.
+     * @return Ein Stream der aktuell laufenden Kurse; muss geschlossen werden.
+     */
+    Stream<Course> streamAllRunningCourses();
+
+
+    /**
+     * Liest eine Seite aller Kurse mit Keyset-Pagination (ohne OFFSET).
+     * @param sort Die Sortierung der Kurse.
+     * @param after Der Cursor der vorherigen Seite (Page.getNextCursor()) oder null für die erste Seite.
+     * @param limit Die maximale Anzahl Kurse pro Seite.
+     * @return Die Seite mit dem Cursor für die nächste Seite.
+     */
+    Page<Course> getPage(CourseSort sort, PageCursor after, int limit);
+
+
+    /**
+     * Liest eine Seite aller Kurse, sortiert nach ID.
+     * @param afterId Die ID des letzten Kurses der vorherigen Seite oder null für die erste Seite.
+     * @param limit Die maximale Anzahl Kurse pro Seite.
+     * @return Die Seite mit dem Cursor für die nächste Seite.
+     */
+    default Page<Course> getPage(Long afterId, int limit)
+    {
+        return getPage(CourseSort.ID, afterId == null ? null : PageCursor.afterId(afterId), limit);
+    }
+
+
+    /**
+     * Seitenweise Variante von findAllCoursesByNameOrDescription.
+     * @param searchText Der Text, nach dem in Namen und Beschreibungen der Kurse gesucht wird.
+     * @param sort Die Sortierung der Kurse.
+     * @param after Der Cursor der vorherigen Seite oder null für die erste Seite.
+     * @param limit Die maximale Anzahl Kurse pro Seite.
+     * @return Die Seite mit dem Cursor für die nächste Seite.
+     */
+    Page<Course> findCoursesByNameOrDescriptionPage(String searchText, CourseSort sort, PageCursor after, int limit);
+
+
+    /**
+     * Seitenweise Variante von findAllRunningCourses.
+     * @param sort Die Sortierung der Kurse.
+     * @param after Der Cursor der vorherigen Seite oder null für die erste Seite.
+     * @param limit Die maximale Anzahl Kurse pro Seite.
+     * @return Die Seite mit dem Cursor für die nächste Seite.
+     */
+    Page<Course> findRunningCoursesPage(CourseSort sort, PageCursor after, int limit);
+
+
+    /**
+     * Wie findAllCoursesByNameOrDescription, liest aber nur die Spalten der Kurzform (ohne Beschreibung).
+     * @param searchText Der Text, nach dem in Namen und Beschreibungen der Kurse gesucht wird.
+     * @return Die Kurzformen der Kurse, die dem Suchtext entsprechen.
+     */
+    List<CourseSummary> findAllSummariesByNameOrDescription(String searchText);
+
+
+    /**
+     * Wie findAllRunningCourses, liest aber nur die Spalten der Kurzform (ohne Beschreibung).
+     * @return Die Kurzformen der aktuell laufenden Kurse.
+     */
+    List<CourseSummary> findAllRunningCourseSummaries();
+
+
+    /**
+     * Wie getPage, liest aber nur die Spalten der Kurzform (ohne Beschreibung).
+     * @param sort Die Sortierung der Kurse.
+     * @param after Der Cursor der vorherigen Seite oder null für die erste Seite.
+     * @param limit Die maximale Anzahl Kurse pro Seite.
+     * @return Die Seite mit dem Cursor für die nächste Seite.
+     */
+    Page<CourseSummary> getSummaryPage(CourseSort sort, PageCursor after, int limit);
 }
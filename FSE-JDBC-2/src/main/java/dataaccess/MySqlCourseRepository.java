@@ -1,32 +1,129 @@
 package dataaccess;
 
+import com.mysql.cj.jdbc.JdbcStatement;
 import domain.Course;
+import domain.CourseSummary;
 import domain.CourseType;
 import util.Assert;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Implementierung des MyCourseRepository, das speziell für die Interaktion mit einer MySQL-Datenbank konzipiert ist.
  */
 public class MySqlCourseRepository implements MyCourseRepository {
 
-    // Die Verbindung zur Datenbank.
-    private Connection con;
+    // Standardgröße eines Blocks (Chunks) bei den Batch-Operationen.
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    // Fetch-Size, mit der Connector/J die Zeilen einzeln vom Server streamt, statt die ganze Ergebnismenge zu laden.
+    // Mit useCursorFetch=true im URL kann stattdessen eine positive Fetch-Size (z.B. 1000) verwendet werden.
+    public static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    // tipp kopieren aus MySQL-DAtenbank um schreibfehler zu vermeiden!!
+    private static final String INSERT_SQL = "INSERT INTO `courses` (`name`, `description`, `hours`, `begindate`, `enddate`, `coursetype`) VALUES (?,?,?,?,?,?)";
+    // Optimistisches Sperren: die Zeile wird nur geändert, wenn ihre Version noch der gelesenen entspricht.
+    private static final String UPDATE_SQL = "UPDATE `courses` SET `name` = ?, `description` = ?, `hours` = ?, `begindate` = ?, `enddate` = ?, `coursetype` = ?, "
+            + "`version` = `version` + 1 WHERE `courses`.`id` = ? AND `version` = ?";
+    private static final String DELETE_SQL = "DELETE FROM `courses` WHERE `id` = ?";
+
+    // Der Dateiname wird bei LOCAL INFILE mit gesetztem InputStream ignoriert. IGNORE überspringt fehlerhafte Zeilen.
+    private static final String LOAD_DATA_SQL = "LOAD DATA LOCAL INFILE 'courses' IGNORE INTO TABLE `courses` CHARACTER SET utf8mb4 "
+            + "FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' "
+            + "(`name`, `description`, `hours`, `begindate`, `enddate`, `coursetype`)";
+
+    // Spalten der Kurzform (CourseSummary) für Listenansichten; die Beschreibung wird nicht übertragen.
+    private static final String SUMMARY_COLUMNS = "`id`, `name`, `coursetype`, `begindate`, `enddate`";
+
+    // UPDATE-Befehle von update() je Menge geänderter Felder; höchstens 63 Varianten, die der Statement-Cache wiederverwendet.
+    private static final Map<Set<Course.Field>, String> UPDATE_SQL_BY_FIELDS = new ConcurrentHashMap<>();
+
+    // Mögliche Längen der IN-Liste bei getAllById und readVersions. Ein Block wird mit der letzten ID auf die nächste Länge aufgefüllt,
+    // damit nur wenige verschiedene SQL-Befehle entstehen und der Statement-Cache greift.
+    private static final int[] IN_LIST_SHAPES = {1, 10, 50, 100, 500};
+
+    // Liefert die Verbindungen zur Datenbank; jede Methode leiht sich eine eigene Verbindung aus.
+    private final ConnectionProvider connectionProvider;
+
+    // Wenn true, lesen insert() und update() den geschriebenen Datensatz nach dem Schreiben erneut aus der Datenbank.
+    private final boolean reloadAfterWrite;
+
+    // Anzahl der Zeilen, die bei den Batch-Operationen gemeinsam gesendet und in einer Transaktion committet werden.
+    private final int batchSize;
+
+    // Fetch-Size für die Streaming-Methoden (streamAll, ...).
+    private final int fetchSize;
+
+    /**
+     * Konstruktor der MySqlCourseRepository-Klasse.
+     * insert() und update() liefern den Kurs aus den bereits im Speicher vorhandenen Werten (samt generierter ID),
+     * ohne ihn erneut aus der Datenbank zu lesen.
+     * @param connectionProvider Der Provider (z.B. ein Connection-Pool), über den die Verbindungen bezogen werden.
+     */
+    public MySqlCourseRepository(ConnectionProvider connectionProvider)
+    {
+        this(connectionProvider, false);
+    }
 
     /**
      * Konstruktor der MySqlCourseRepository-Klasse.
-     * Stellt eine Verbindung zur MySQL-Datenbank her.
-     * @throws SQLException bei einem Fehler während der Herstellung der Datenbankverbindung.
-     * @throws ClassNotFoundException wenn der JDBC-Treiber nicht gefunden wird.
+     * @param connectionProvider Der Provider (z.B. ein Connection-Pool), über den die Verbindungen bezogen werden.
+     * @param reloadAfterWrite Wenn true, wird der Kurs nach insert() und update() mit einer zusätzlichen Abfrage
+     *                         neu gelesen (z.B. wenn die Datenbank Werte per Trigger oder Default verändert).
      */
-    public MySqlCourseRepository() throws SQLException, ClassNotFoundException
+    public MySqlCourseRepository(ConnectionProvider connectionProvider, boolean reloadAfterWrite)
     {
-        // Herstellung der Verbindung zur Datenbank mit den angegebenen Zugangsdaten.
-        this.con = MySqlDatabaseConnection.getConnection("jdbc:mysql://localhost:3306/kurssystem","root","");
+        this(connectionProvider, reloadAfterWrite, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Konstruktor der MySqlCourseRepository-Klasse.
+     * @param connectionProvider Der Provider (z.B. ein Connection-Pool), über den die Verbindungen bezogen werden.
+     * @param reloadAfterWrite Wenn true, wird der Kurs nach insert() und update() neu aus der Datenbank gelesen.
+     * @param batchSize Anzahl der Zeilen pro Block und Transaktion bei insertAll, updateAll und deleteAllById.
+     */
+    public MySqlCourseRepository(ConnectionProvider connectionProvider, boolean reloadAfterWrite, int batchSize)
+    {
+        this(connectionProvider, reloadAfterWrite, batchSize, STREAMING_FETCH_SIZE);
+    }
+
+    /**
+     * Konstruktor der MySqlCourseRepository-Klasse.
+     * @param connectionProvider Der Provider (z.B. ein Connection-Pool), über den die Verbindungen bezogen werden.
+     * @param reloadAfterWrite Wenn true, wird der Kurs nach insert() und update() neu aus der Datenbank gelesen.
+     * @param batchSize Anzahl der Zeilen pro Block und Transaktion bei insertAll, updateAll und deleteAllById.
+     * @param fetchSize Fetch-Size für die Streaming-Methoden; STREAMING_FETCH_SIZE für zeilenweises Streaming in MySQL,
+     *                  eine positive Zahl für cursorbasiertes Lesen (useCursorFetch=true) oder andere Datenbanken.
+     */
+    public MySqlCourseRepository(ConnectionProvider connectionProvider, boolean reloadAfterWrite, int batchSize, int fetchSize)
+    {
+        Assert.notNull(connectionProvider);
+        if(batchSize < 1)
+        {
+            throw new IllegalArgumentException("Batch-Größe muss mindestens 1 sein!");
+        }
+        this.connectionProvider = connectionProvider;
+        this.reloadAfterWrite = reloadAfterWrite;
+        this.batchSize = batchSize;
+        this.fetchSize = fetchSize;
     }
 
     /**
@@ -38,6 +135,7 @@ public class MySqlCourseRepository implements MyCourseRepository {
      * 3. Ausführung und Überprüfung: Führt den SQL-Befehl aus und überprüft, ob die Einfügung erfolgreich war.
      *    Wenn keine Zeile betroffen ist, wird ein leeres Optional zurückgegeben.
      * 4. Rückgabe: Bei erfolgreicher Einfügung wird die generierte ID des Kurses abgerufen und der Kurs mit dieser ID zurückgegeben.
+     *    Nur wenn reloadAfterWrite gesetzt ist, wird der Kurs dafür erneut aus der Datenbank gelesen.
      * 5. Fehlerbehandlung: Bei SQL-Fehlern wird eine DatabaseException geworfen, um das Problem zu signalisieren.
      *
      * @param entity Das Kurs-Objekt, das eingefügt werden soll.
@@ -50,14 +148,14 @@ public class MySqlCourseRepository implements MyCourseRepository {
         //stellt sicher, dass das übergebene Objekt nicht null ist.
         Assert.notNull(entity);
 
-        try
-        {
-            // SQL-Befehl zum Einfügen eines neuen Kurses in die Datenbank.
-            // tipp kopieren aus MySQL-DAtenbank um schreibfehler zu vermeiden!!
-            String sql = "INSERT INTO `courses` (`name`, `description`, `hours`, `begindate`, `enddate`, `coursetype`) VALUES (?,?,?,?,?,?)";
+        // SQL-Befehl zum Einfügen eines neuen Kurses in die Datenbank.
+        String sql = INSERT_SQL;
 
-            // Vorbereiten des SQL-Befehls und Festlegen der Parameter.
-            PreparedStatement preparedStatement = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+        long generatedId;
+        // Vorbereiten des SQL-Befehls (aus dem Statement-Cache der Verbindung) und Festlegen der Parameter.
+        try(Connection con = connectionProvider.getConnection();
+            PreparedStatement preparedStatement = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS))
+        {
             preparedStatement.setString(1, entity.getName());
             preparedStatement.setString(2, entity.getDescription());
             preparedStatement.setInt(3, entity.getHours());
@@ -73,34 +171,69 @@ public class MySqlCourseRepository implements MyCourseRepository {
             }
 
             // Abrufen der generierten Schlüssel, um die ID des neu eingefügten Kurses zu erhalten.
-            ResultSet generatedKeys = preparedStatement.getGeneratedKeys();
-            if(generatedKeys.next())
-            {
-                // Rückgabe des eingefügten Kurses, basierend auf der generierten ID.
-                return this.getById(generatedKeys.getLong(1));
-            }
-            else
+            try(ResultSet generatedKeys = preparedStatement.getGeneratedKeys())
             {
-                return Optional.empty();
+                if(generatedKeys.next())
+                {
+                    generatedId = generatedKeys.getLong(1);
+                }
+                else
+                {
+                    return Optional.empty();
+                }
             }
         }
         catch(SQLException sqlException)
         {
             // Werfen einer benutzerdefinierten Datenbankausnahme bei einem SQL-Fehler.
-            throw new DatabaseException(sqlException.getMessage());
+            throw new DatabaseException(sqlException.getMessage(), sqlException);
+        }
+
+        // Rückgabe des eingefügten Kurses, basierend auf der generierten ID.
+        // Das Neuladen passiert erst nach dem Zurückgeben der Verbindung, damit nicht zwei Verbindungen gleichzeitig belegt werden.
+        if(reloadAfterWrite)
+        {
+            return this.getById(generatedId);
         }
+        return Optional.of(withId(entity, generatedId));
+    }
+
+    /**
+     * Erstellt eine Kopie des eingefügten Kurses mit der generierten ID, damit das übergebene Objekt unverändert bleibt.
+     * Neue Datensätze beginnen mit Version 0 (Default der Spalte).
+     */
+    private static Course withId(Course course, Long id)
+    {
+        return withVersion(course, id, 0);
+    }
+
+    /**
+     * Erstellt eine Kopie des Kurses mit der angegebenen ID und Version, die dem gespeicherten Stand entspricht
+     * (keine geänderten Felder).
+     */
+    private static Course withVersion(Course course, Long id, long version)
+    {
+        return Course.fromTrustedSource(
+                id,
+                course.getName(),
+                course.getDescription(),
+                course.getHours(),
+                course.getBeginDate(),
+                course.getEndDate(),
+                course.getCourseType(),
+                version
+        );
     }
 
     /**
      * Ruft einen Kurs anhand seiner ID aus der Datenbank ab.
      * Diese Methode übernimmt mehrere Schritte:
      * 1. Validierung: Überprüft, ob die übergebene ID nicht null ist.
-     * 2. Existenzüberprüfung: Überprüft zuerst, ob ein Kurs mit der angegebenen ID in der Datenbank existiert.
-     *    Wenn kein Kurs gefunden wird, gibt die Methode ein leeres Optional zurück.
-     * 3. Datenabruf: Wenn ein Kurs vorhanden ist, wird eine SQL-Abfrage durchgeführt, um die Kursdaten zu erhalten.
-     * 4. Kursobjekt-Erstellung: Die Daten aus dem ResultSet werden verwendet, um ein neues Course-Objekt zu erstellen.
-     * 5. Rückgabe: Gibt ein Optional des Kurses zurück, wenn er gefunden wird.
-     * 6. Fehlerbehandlung: Bei SQL-Fehlern wird eine DatabaseException geworfen.
+     * 2. Datenabruf: Eine einzige SQL-Abfrage liest den Kurs. Ist die Ergebnismenge leer, existiert kein Kurs mit der ID
+     *    und die Methode gibt ein leeres Optional zurück (keine separate COUNT-Abfrage).
+     * 3. Kursobjekt-Erstellung: Die Daten aus dem ResultSet werden verwendet, um ein neues Course-Objekt zu erstellen.
+     * 4. Rückgabe: Gibt ein Optional des Kurses zurück, wenn er gefunden wird.
+     * 5. Fehlerbehandlung: Bei SQL-Fehlern wird eine DatabaseException geworfen.
      *
      * @param id Die ID des Kurses, der abgerufen werden soll.
      * @return Ein Optional, das den abgerufenen Kurs enthält, falls er vorhanden ist, sonst ein leeres Optional.
@@ -112,246 +245,1223 @@ public class MySqlCourseRepository implements MyCourseRepository {
         //stellt sicher, dass das übergebene Objekt nicht null ist.
         Assert.notNull(id);
 
-        // Überprüft zuerst, ob ein Kurs mit der angegebenen ID in der Datenbank existiert.
-        if(countCoursesInDbWithId(id)==0)
+        String sql = "SELECT * FROM `courses` WHERE `id`=?";
+        try(Connection con = connectionProvider.getReadConnection();
+            PreparedStatement preparedStatement = con.prepareStatement(sql))
         {
-            // Wenn kein Kurs gefunden wird, wird ein leeres Optional zurückgegeben.
-            return Optional.empty();
-        }
-        else
-        {
-            // Wenn ein Kurs gefunden wird, wird versucht, diesen aus der Datenbank zu lesen.
-            try{
-                String sql = "SELECT * FROM `courses` WHERE `id`=?";
-                PreparedStatement preparedStatement = con.prepareStatement(sql);
-                preparedStatement.setLong(1,id);
-                ResultSet resultSet = preparedStatement.executeQuery();
-
-                // Verarbeitet das Ergebnis des SQL-Befehls.
-                resultSet.next();
+            preparedStatement.setLong(1,id);
+            try(ResultSet resultSet = preparedStatement.executeQuery())
+            {
+                // Wenn kein Kurs gefunden wird, wird ein leeres Optional zurückgegeben.
+                if(!resultSet.next())
+                {
+                    return Optional.empty();
+                }
                 // Erstellt ein Kurs-Objekt aus den Daten der Ergebnismenge.
-                Course course = new Course(
-                        resultSet.getLong("id"),
-                        resultSet.getString("name"),
-                        resultSet.getString("description"),
-                        resultSet.getInt("hours"),
-                        resultSet.getDate("begindate"),
-                        resultSet.getDate("enddate"),
-                        CourseType.valueOf(resultSet.getString("coursetype"))
-                );
+                Course course = CourseRowMapper.forResultSet(resultSet).mapRow(resultSet);
                 // Gibt ein Optional des Kurses zurück.
                 return Optional.of(course);
                 //return Optional.of(course.getId());
             }
-            catch(SQLException sqlException)
+        }
+        catch(SQLException sqlException)
+        {
+            throw new DatabaseException(sqlException.getMessage(), sqlException);
+        }
+    }
+
+    /**
+     * Lädt die Kurse blockweise mit WHERE `id` IN (...), alle Blöcke über dieselbe Verbindung.
+     * 1.000 IDs benötigen so zwei Abfragen statt 1.000.
+     */
+    @Override
+    public Map<Long, Course> getAllById(Collection<Long> ids)
+    {
+        Assert.notNull(ids);
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        for(Long id : distinctIds)
+        {
+            Assert.notNull(id);
+        }
+        Map<Long, Course> found = new HashMap<>();
+        if(distinctIds.isEmpty())
+        {
+            return new LinkedHashMap<>();
+        }
+
+        try(Connection con = connectionProvider.getReadConnection())
+        {
+            int offset = 0;
+            while(offset < distinctIds.size())
+            {
+                int shape = inListShape(distinctIds.size() - offset);
+                int chunkSize = Math.min(shape, distinctIds.size() - offset);
+                try(PreparedStatement preparedStatement = con.prepareStatement(inListSql("*", shape)))
+                {
+                    for(int i = 0; i < shape; i++)
+                    {
+                        // Überzählige Platzhalter werden mit der letzten ID des Blocks belegt.
+                        preparedStatement.setLong(i + 1, distinctIds.get(offset + Math.min(i, chunkSize - 1)));
+                    }
+                    try(ResultSet resultSet = preparedStatement.executeQuery())
+                    {
+                        RowMapper<Course> courseMapper = CourseRowMapper.forResultSet(resultSet);
+                        while(resultSet.next())
+                        {
+                            Course course = courseMapper.mapRow(resultSet);
+                            found.put(course.getId(), course);
+                        }
+                    }
+                }
+                offset += chunkSize;
+            }
+        }
+        catch(SQLException sqlException)
+        {
+            throw new DatabaseException(sqlException.getMessage(), sqlException);
+        }
+
+        Map<Long, Course> courses = new LinkedHashMap<>();
+        for(Long id : distinctIds)
+        {
+            Course course = found.get(id);
+            if(course != null)
             {
-                throw new DatabaseException(sqlException.getMessage());
+                courses.put(id, course);
             }
         }
-        //return Optional.empty();
+        return courses;
     }
 
-    private int countCoursesInDbWithId(Long id)
+    /**
+     * @return Die kleinste IN-Listen-Länge, die remaining IDs aufnimmt, höchstens die größte.
+     */
+    private static int inListShape(int remaining)
     {
-        try
+        for(int shape : IN_LIST_SHAPES)
         {
-            String countSql = "SELECT COUNT(*) FROM `courses` WHERE `id`=?";
-            PreparedStatement preparedStatementCount = con.prepareStatement(countSql);
-            preparedStatementCount.setLong(1,id);
-            ResultSet resultSetCount = preparedStatementCount.executeQuery();
-            resultSetCount.next();
-            int courseCount = resultSetCount.getInt(1);
-            return courseCount;
+            if(shape >= remaining)
+            {
+                return shape;
+            }
         }
-        catch(SQLException sqlException)
+        return IN_LIST_SHAPES[IN_LIST_SHAPES.length - 1];
+    }
+
+    private static String inListSql(String columns, int size)
+    {
+        StringBuilder sql = new StringBuilder("SELECT " + columns + " FROM `courses` WHERE `id` IN (");
+        for(int i = 0; i < size; i++)
         {
-            throw new DatabaseException(sqlException.getMessage());
+            sql.append(i == 0 ? "?" : ",?");
         }
+        return sql.append(')').toString();
     }
 
     @Override
     public List<Course> getAll() {
         String sql = "SELECT * FROM courses";
-        try
-        {
+        try(Connection con = connectionProvider.getReadConnection();
             PreparedStatement preparedStatement = con.prepareStatement(sql);
-            ResultSet resultSet = preparedStatement.executeQuery();
+            ResultSet resultSet = preparedStatement.executeQuery())
+        {
             ArrayList<Course> courseList = new ArrayList<>();
+            RowMapper<Course> courseMapper = CourseRowMapper.forResultSet(resultSet);
             while(resultSet.next())
             {
-                courseList.add(new Course(
-                        resultSet.getLong("id"),
-                        resultSet.getString("name"),
-                        resultSet.getString("description"),
-                        resultSet.getInt("hours"),
-                        resultSet.getDate("begindate"),
-                        resultSet.getDate("enddate"),
-                        CourseType.valueOf(resultSet.getString("coursetype"))
-                        )
-                );
+                courseList.add(courseMapper.mapRow(resultSet));
             }
             //System.out.println("XXXX");
             return courseList;
         }
         catch (SQLException e)
         {
-            throw new DatabaseException("Database error occured!");
+            throw new DatabaseException("Database error occured!", e);
         }
         //return null;
     }
 
+    /**
+     * Aktualisiert einen Kurs mit optimistischem Sperren.
+     * Es werden nur die Spalten geschrieben, die sich seit dem Laden geändert haben (Course.getDirtyFields());
+     * ein mit dem Konstruktor erzeugter Kurs gilt als vollständig geändert. Ist nichts geändert, wird nichts geschrieben,
+     * sondern nur die Version gelesen: Existenz und Version werden genauso geprüft wie bei einer Änderung,
+     * und der Kurs wird mit derselben Version zurückgegeben.
+     * @param entity Der Kurs mit ID und der beim Lesen erhaltenen Version.
+     * @return Der gespeicherte Kurs mit neuer Version oder ein leeres Optional, wenn es keinen Kurs mit der ID gibt.
+     * @throws OptimisticLockException wenn der Kurs seit dem Lesen geändert wurde.
+     * @throws DatabaseException bei Fehlern während der Ausführung des SQL-Befehls.
+     */
     @Override
     public Optional<Course> update(Course entity)
     {
         Assert.notNull(entity);
 
-        String sql = "UPDATE `courses` SET `name` = ?, `description` = ?, `hours` = ?, `begindate` = ?, `enddate` = ?, `coursetype` = ? WHERE `courses`.`id` = ?";
+        Assert.notNull(entity.getId());
+
+        Set<Course.Field> dirtyFields = entity.getDirtyFields();
+        if(dirtyFields.isEmpty())
+        {
+            return checkUnchanged(entity);
+        }
+        String sql = UPDATE_SQL_BY_FIELDS.computeIfAbsent(dirtyFields, MySqlCourseRepository::updateSql);
+
+        int affectedRows;
+        try(Connection con = connectionProvider.getConnection();
+            PreparedStatement preparedStatement = con.prepareStatement(sql))
+        {
+            int index = 1;
+            for(Course.Field field : dirtyFields)
+            {
+                bindField(preparedStatement, index++, field, entity);
+            }
+            preparedStatement.setLong(index++, entity.getId());
+            preparedStatement.setLong(index, entity.getVersion());
+
+            // Connector/J meldet standardmäßig die gefundenen (nicht nur die geänderten) Zeilen,
+            // 0 bedeutet daher, dass es keinen Kurs mit dieser ID oder keinen mit dieser Version gibt.
+            affectedRows = preparedStatement.executeUpdate();
+            if(affectedRows == 0)
+            {
+                Long currentVersion = readVersions(con, List.of(entity.getId())).get(entity.getId());
+                if(currentVersion != null)
+                {
+                    throw new OptimisticLockException(entity.getId(), entity.getVersion(), currentVersion);
+                }
+            }
+        }
+        catch(SQLException sqlException)
+        {
+            throw new DatabaseException(sqlException.getMessage(), sqlException);
+        }
 
-        if(countCoursesInDbWithId(entity.getId())==0)
+        if(affectedRows==0)
         {
             return Optional.empty();
         }
+        else if(reloadAfterWrite)
+        {
+            return this.getById(entity.getId());
+        }
         else
         {
-            try
-            {
-                PreparedStatement preparedStatement = con.prepareStatement(sql);
-                preparedStatement.setString(1, entity.getName());
-                preparedStatement.setString(2, entity.getDescription());
-                preparedStatement.setInt(3,entity.getHours());
-                preparedStatement.setDate(4,entity.getBeginDate());
-                preparedStatement.setDate(5,entity.getEndDate());
-                preparedStatement.setString(6,entity.getCourseType().toString());
-                preparedStatement.setLong(7,entity.getId());
+            return Optional.of(withVersion(entity, entity.getId(), entity.getVersion() + 1));
+        }
+    }
+
+    /**
+     * update() ohne geänderte Felder: liest nur die Version (vom Primary, damit keine veraltete Version eines Replikats
+     * einen Konflikt vortäuscht).
+     */
+    private Optional<Course> checkUnchanged(Course entity)
+    {
+        Long currentVersion;
+        try(Connection con = connectionProvider.getConnection())
+        {
+            currentVersion = readVersions(con, List.of(entity.getId())).get(entity.getId());
+        }
+        catch(SQLException sqlException)
+        {
+            throw new DatabaseException(sqlException.getMessage(), sqlException);
+        }
+
+        if(currentVersion == null)
+        {
+            return Optional.empty();
+        }
+        if(currentVersion != entity.getVersion())
+        {
+            throw new OptimisticLockException(entity.getId(), entity.getVersion(), currentVersion);
+        }
+        return Optional.of(withVersion(entity, entity.getId(), entity.getVersion()));
+    }
+
+    /**
+     * Erstellt den UPDATE-Befehl, der nur die angegebenen Spalten schreibt (in der Reihenfolge von Course.Field).
+     */
+    private static String updateSql(Set<Course.Field> fields)
+    {
+        StringBuilder sql = new StringBuilder("UPDATE `courses` SET ");
+        for(Course.Field field : fields)
+        {
+            sql.append('`').append(column(field)).append("` = ?, ");
+        }
+        return sql.append("`version` = `version` + 1 WHERE `courses`.`id` = ? AND `version` = ?").toString();
+    }
+
+    private static String column(Course.Field field)
+    {
+        switch(field)
+        {
+            case NAME: return "name";
+            case DESCRIPTION: return "description";
+            case HOURS: return "hours";
+            case BEGIN_DATE: return "begindate";
+            case END_DATE: return "enddate";
+            default: return "coursetype";
+        }
+    }
 
-                int affectedRows = preparedStatement.executeUpdate();
+    private static void bindField(PreparedStatement preparedStatement, int index, Course.Field field, Course course) throws SQLException
+    {
+        switch(field)
+        {
+            case NAME: preparedStatement.setString(index, course.getName()); break;
+            case DESCRIPTION: preparedStatement.setString(index, course.getDescription()); break;
+            case HOURS: preparedStatement.setInt(index, course.getHours()); break;
+            case BEGIN_DATE: preparedStatement.setDate(index, course.getBeginDate()); break;
+            case END_DATE: preparedStatement.setDate(index, course.getEndDate()); break;
+            default: preparedStatement.setString(index, course.getCourseType().toString());
+        }
+    }
 
-                if(affectedRows==0)
+    /**
+     * Liest die aktuellen Versionen der angegebenen Kurse über die übergebene Verbindung (also vom Primary).
+     * @return Die Versionen nach ID; nicht vorhandene Kurse fehlen in der Map.
+     */
+    private Map<Long, Long> readVersions(Connection con, List<Long> ids) throws SQLException
+    {
+        Map<Long, Long> versions = new HashMap<>();
+        int offset = 0;
+        while(offset < ids.size())
+        {
+            // Wie bei getAllById auf eine der IN_LIST_SHAPES aufgefüllt, damit der Statement-Cache greift.
+            int shape = inListShape(ids.size() - offset);
+            int chunkSize = Math.min(shape, ids.size() - offset);
+            try(PreparedStatement preparedStatement = con.prepareStatement(inListSql("`id`, `version`", shape)))
+            {
+                for(int i = 0; i < shape; i++)
                 {
-                    return Optional.empty();
+                    preparedStatement.setLong(i + 1, ids.get(offset + Math.min(i, chunkSize - 1)));
                 }
-                else
+                try(ResultSet resultSet = preparedStatement.executeQuery())
                 {
-                    return this.getById(entity.getId());
+                    while(resultSet.next())
+                    {
+                        versions.put(resultSet.getLong(1), resultSet.getLong(2));
+                    }
                 }
             }
-            catch(SQLException sqlException)
-            {
-                throw new DatabaseException(sqlException.getMessage());
-            }
+            offset += chunkSize;
         }
+        return versions;
     }
 
     @Override
     public boolean deleteById(Long id)
     {
         Assert.notNull(id);
-        String sql = "DELETE FROM `courses` WHERE `id` = ?";
+        String sql = DELETE_SQL;
 
-        //hier wäre noch besser einen boolschen wert (ja/nein) zurückzugeben um zu kontrollieren ob ein wert da ist zum löschen
-
-        try
+        // Die Anzahl der betroffenen Zeilen zeigt, ob ein Kurs zum Löschen da war; eine Vorab-Abfrage ist nicht nötig.
+        try(Connection con = connectionProvider.getConnection();
+            PreparedStatement preparedStatement = con.prepareStatement(sql))
         {
-            if(countCoursesInDbWithId(id)==1)
-            {
-                PreparedStatement preparedStatement = con.prepareStatement(sql);
-                preparedStatement.setLong(1,id);
-
-                //preparedStatement.executeUpdate();
+            preparedStatement.setLong(1,id);
 
-                int affectedRows = preparedStatement.executeUpdate(); // Gibt die Anzahl der betroffenen Zeilen zurück.
+            int affectedRows = preparedStatement.executeUpdate(); // Gibt die Anzahl der betroffenen Zeilen zurück.
 
-                // Wenn eine Zeile betroffen ist, wurde der Kurs erfolgreich gelöscht.
-                return affectedRows > 0;
-            }
+            // Wenn eine Zeile betroffen ist, wurde der Kurs erfolgreich gelöscht.
+            return affectedRows > 0;
         }
         catch(SQLException sqlException)
         {
-            throw new DatabaseException(sqlException.getMessage());
+            throw new DatabaseException(sqlException.getMessage(), sqlException);
         }
-        return false;
     }
 
+    /**
+     * Findet alle Kurse, deren Name den angegebenen Text enthält (ohne Beachtung der Groß-/Kleinschreibung),
+     * wie die übrigen Textsuchen. Eine Teilstringsuche kann keinen Index verwenden; der Index auf `name` dient nur
+     * der Sortierung. Für große Datenmengen ist eine CourseSearchEngine besser geeignet.
+     */
     @Override
-    public List<Course> findAllCoursesByName(String name) {
-        return null;
+    public List<Course> findAllCoursesByName(String name)
+    {
+        Assert.notNull(name);
+        return queryList("SELECT * FROM `courses` WHERE LOWER(`name`) LIKE LOWER(?) ORDER BY `name`, `id`", List.of(containsPattern(name)));
     }
 
+    /**
+     * Findet alle Kurse, deren Beschreibung den angegebenen Text enthält (ohne Beachtung der Groß-/Kleinschreibung).
+     * Die Abfrage durchsucht die ganze Tabelle; für die Suche nach Wörtern ist eine CourseSearchEngine besser geeignet.
+     */
     @Override
-    public List<Course> findAllCoursesByDescription(String description) {
-        return null;
+    public List<Course> findAllCoursesByDescription(String description)
+    {
+        Assert.notNull(description);
+        return queryList("SELECT * FROM `courses` WHERE LOWER(`description`) LIKE LOWER(?) ORDER BY `id`", List.of(containsPattern(description)));
     }
 
     @Override
     public List<Course> findAllCoursesByNameOrDescription(String searchText)
     {
-        try
+        Assert.notNull(searchText);
+        String sql = "SELECT * FROM `courses` WHERE LOWER(`description`) LIKE LOWER(?) OR LOWER(`name`) LIKE LOWER(?)";
+        try(Connection con = connectionProvider.getReadConnection();
+            PreparedStatement preparedStatement = con.prepareStatement(sql))
         {
-            String sql = "SELECT * FROM `courses` WHERE LOWER(`description`) LIKE LOWER(?) OR LOWER(`name`) LIKE LOWER(?)";
-            PreparedStatement preparedStatement = con.prepareStatement(sql);
-            preparedStatement.setString(1,"%"+searchText+"%");
-            preparedStatement.setString(2,"%"+searchText+"%");
-            ResultSet resultSet = preparedStatement.executeQuery();
-            ArrayList<Course> courseList = new ArrayList<>();
-            while(resultSet.next())
+            preparedStatement.setString(1, containsPattern(searchText));
+            preparedStatement.setString(2, containsPattern(searchText));
+            try(ResultSet resultSet = preparedStatement.executeQuery())
             {
-                courseList.add(new Course(
-                                resultSet.getLong("id"),
-                                resultSet.getString("name"),
-                                resultSet.getString("description"),
-                                resultSet.getInt("hours"),
-                                resultSet.getDate("begindate"),
-                                resultSet.getDate("enddate"),
-                                CourseType.valueOf(resultSet.getString("coursetype"))
-                        )
-                );
+                ArrayList<Course> courseList = new ArrayList<>();
+                RowMapper<Course> courseMapper = CourseRowMapper.forResultSet(resultSet);
+                while(resultSet.next())
+                {
+                    courseList.add(courseMapper.mapRow(resultSet));
+                }
+                return courseList;
             }
-            return courseList;
         }
         catch(SQLException sqlException)
         {
-            throw new DatabaseException(sqlException.getMessage());
+            throw new DatabaseException(sqlException.getMessage(), sqlException);
         }
     }
 
     @Override
-    public List<Course> findAllCoursesByCourseType(CourseType courseType) {
-        return null;
+    public List<Course> findAllCoursesByCourseType(CourseType courseType)
+    {
+        Assert.notNull(courseType);
+        return queryList("SELECT * FROM `courses` WHERE `coursetype` = ? ORDER BY `begindate`, `id`", List.of(courseType.toString()));
+    }
+
+    @Override
+    public List<Course> findAllCoursesByStartDate(Date startDate)
+    {
+        Assert.notNull(startDate);
+        return queryList("SELECT * FROM `courses` WHERE `begindate` = ? ORDER BY `id`", List.of(startDate));
     }
 
     @Override
-    public List<Course> findAllCoursesByStartDate(Date startDate) {
-        return null;
+    public List<Course> findAllCourses(CourseCriteria criteria)
+    {
+        Assert.notNull(criteria);
+        List<String> where = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        if(criteria.getCourseType() != null)
+        {
+            where.add("`coursetype` = ?");
+            parameters.add(criteria.getCourseType().toString());
+        }
+        if(criteria.getBeginFrom() != null)
+        {
+            where.add("`begindate` >= ?");
+            parameters.add(criteria.getBeginFrom());
+        }
+        if(criteria.getBeginUntil() != null)
+        {
+            where.add("`begindate` <= ?");
+            parameters.add(criteria.getBeginUntil());
+        }
+        if(criteria.getText() != null)
+        {
+            // Wird erst auf die über Typ und Datum (Index) eingegrenzten Zeilen angewendet.
+            where.add("(LOWER(`name`) LIKE LOWER(?) OR LOWER(`description`) LIKE LOWER(?))");
+            String pattern = containsPattern(criteria.getText());
+            parameters.add(pattern);
+            parameters.add(pattern);
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM `courses`");
+        if(!where.isEmpty())
+        {
+            sql.append(" WHERE ").append(String.join(" AND ", where));
+        }
+        sql.append(" ORDER BY `begindate`, `id`");
+        return queryList(sql.toString(), parameters);
+    }
+
+    /**
+     * Führt eine Abfrage aus und liest alle Kurse der Ergebnismenge in eine Liste.
+     */
+    private List<Course> queryList(String sql, List<Object> parameters)
+    {
+        return queryList(sql, parameters, CourseRowMapper::forResultSet);
+    }
+
+    /**
+     * Erstellt den RowMapper für ein ResultSet (z.B. CourseRowMapper::forResultSet).
+     * @param <T> Der Typ der erzeugten Objekte.
+     */
+    private interface RowMapperFactory<T>
+    {
+        RowMapper<T> create(ResultSet resultSet) throws SQLException;
+    }
+
+    /**
+     * Führt eine Abfrage aus und liest alle Zeilen der Ergebnismenge mit dem RowMapper der Factory in eine Liste.
+     */
+    private <T> List<T> queryList(String sql, List<Object> parameters, RowMapperFactory<T> mapperFactory)
+    {
+        try(Connection con = connectionProvider.getReadConnection();
+            PreparedStatement preparedStatement = con.prepareStatement(sql))
+        {
+            for(int i = 0; i < parameters.size(); i++)
+            {
+                preparedStatement.setObject(i + 1, parameters.get(i));
+            }
+            try(ResultSet resultSet = preparedStatement.executeQuery())
+            {
+                List<T> rows = new ArrayList<>();
+                RowMapper<T> mapper = mapperFactory.create(resultSet);
+                while(resultSet.next())
+                {
+                    rows.add(mapper.mapRow(resultSet));
+                }
+                return rows;
+            }
+        }
+        catch(SQLException sqlException)
+        {
+            throw new DatabaseException(sqlException.getMessage(), sqlException);
+        }
+    }
+
+    /**
+     * Maskiert die LIKE-Platzhalter % und _ (sowie das Escape-Zeichen), damit sie als normale Zeichen gesucht werden.
+     */
+    private static String escapeLike(String text)
+    {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * LIKE-Muster für "enthält den Text"; alle Textsuchen verwenden es, damit % und _ überall gleich behandelt werden.
+     */
+    private static String containsPattern(String text)
+    {
+        return "%" + escapeLike(text) + "%";
     }
 
     @Override
     public List<Course> findAllRunningCourses() {
 
         String sql = "SELECT * FROM `courses` WHERE NOW()<`enddate`";
-        try
-        {
+        try(Connection con = connectionProvider.getReadConnection();
             PreparedStatement preparedStatement = con.prepareStatement(sql);
-            ResultSet resultSet = preparedStatement.executeQuery();
+            ResultSet resultSet = preparedStatement.executeQuery())
+        {
             ArrayList<Course> courseList = new ArrayList<>();
-
+            RowMapper<Course> courseMapper = CourseRowMapper.forResultSet(resultSet);
             while(resultSet.next())
             {
-                courseList.add(new Course(
-                                resultSet.getLong("id"),
-                                resultSet.getString("name"),
-                                resultSet.getString("description"),
-                                resultSet.getInt("hours"),
-                                resultSet.getDate("begindate"),
-                                resultSet.getDate("enddate"),
-                                CourseType.valueOf(resultSet.getString("coursetype"))
-                        )
-                );
+                courseList.add(courseMapper.mapRow(resultSet));
             }
             return courseList;
         }
         catch(SQLException sqlException)
         {
-            throw new DatabaseException("Datenbankfehler: " +sqlException.getMessage());
+            throw new DatabaseException("Datenbankfehler: " +sqlException.getMessage(), sqlException);
+        }
+    }
+
+    @Override
+    public List<CourseSummary> findAllSummariesByNameOrDescription(String searchText)
+    {
+        Assert.notNull(searchText);
+        return queryList("SELECT " + SUMMARY_COLUMNS + " FROM `courses` WHERE LOWER(`description`) LIKE LOWER(?) OR LOWER(`name`) LIKE LOWER(?)",
+                List.of(containsPattern(searchText), containsPattern(searchText)), CourseSummaryRowMapper::forResultSet);
+    }
+
+    @Override
+    public List<CourseSummary> findAllRunningCourseSummaries()
+    {
+        return queryList("SELECT " + SUMMARY_COLUMNS + " FROM `courses` WHERE NOW()<`enddate`", List.of(), CourseSummaryRowMapper::forResultSet);
+    }
+
+    /**
+     * Fügt mehrere Kurse per JDBC-Batch ein.
+     * Die Kurse werden in Blöcken zu je batchSize Zeilen gesendet, jeder Block wird in einer eigenen Transaktion committet.
+     * Innerhalb einer UnitOfWork (siehe TransactionManager) wird nicht blockweise committet; das übernimmt die UnitOfWork.
+     * Die generierten IDs werden für den ganzen Block auf einmal abgerufen. Schlägt ein Block fehl, wird er zurückgerollt
+     * und Zeile für Zeile wiederholt, damit nur die fehlerhaften Zeilen als FAILED gemeldet werden.
+     * Für MySQL empfiehlt sich dazu rewriteBatchedStatements=true (siehe MySqlDatabaseConnection.withUrlProperty),
+     * damit der Treiber einen Block als ein einziges mehrzeiliges INSERT sendet.
+     *
+     * @param courses Die einzufügenden Kurse.
+     * @return Ein Ergebnis pro Kurs; erfolgreich eingefügte Kurse enthalten die generierte ID.
+     * @throws DatabaseException bei Fehlern, die nicht einer einzelnen Zeile zugeordnet werden können (z.B. Verbindungsabbruch).
+     */
+    @Override
+    public BatchResult<Course> insertAll(Collection<Course> courses)
+    {
+        return executeBatch(INSERT_SQL, courses, this::bindInsert, MySqlCourseRepository::withId);
+    }
+
+    /**
+     * Aktualisiert mehrere Kurse per JDBC-Batch, blockweise in je einer Transaktion.
+     * Wie bei update() wird jede Zeile nur mit passender Version geändert. Für die Zeilen ohne Treffer wird danach
+     * mit einer Abfrage geprüft, ob der Kurs noch existiert (Status CONFLICT) oder nicht (Status NOT_FOUND).
+     * @param courses Die zu aktualisierenden Kurse (mit ID).
+     * @return Ein Ergebnis pro Kurs; erfolgreich aktualisierte Kurse enthalten die neue Version.
+     * @throws DatabaseException bei Fehlern, die nicht einer einzelnen Zeile zugeordnet werden können.
+     */
+    @Override
+    public BatchResult<Course> updateAll(Collection<Course> courses)
+    {
+        BatchResult<Course> result = executeBatch(UPDATE_SQL, courses, this::bindUpdate, null);
+
+        List<Long> notFoundIds = new ArrayList<>();
+        for(BatchResult.RowResult<Course> row : result.getRows())
+        {
+            if(row.getStatus() == BatchResult.Status.NOT_FOUND)
+            {
+                notFoundIds.add(row.getValue().getId());
+            }
+        }
+        Map<Long, Long> currentVersions = Map.of();
+        if(!notFoundIds.isEmpty())
+        {
+            try(Connection con = connectionProvider.getConnection())
+            {
+                currentVersions = readVersions(con, notFoundIds);
+            }
+            catch(SQLException sqlException)
+            {
+                throw new DatabaseException(sqlException.getMessage(), sqlException);
+            }
+        }
+
+        BatchResult<Course> resolved = new BatchResult<>(result.getRows().size());
+        for(BatchResult.RowResult<Course> row : result.getRows())
+        {
+            Course course = row.getValue();
+            switch(row.getStatus())
+            {
+                case SUCCESS:
+                    resolved.success(row.getIndex(), withVersion(course, course.getId(), course.getVersion() + 1));
+                    break;
+                case NOT_FOUND:
+                    Long currentVersion = currentVersions.get(course.getId());
+                    if(currentVersion != null)
+                    {
+                        resolved.conflict(row.getIndex(), course,
+                                new OptimisticLockException(course.getId(), course.getVersion(), currentVersion).getMessage());
+                    }
+                    else
+                    {
+                        resolved.notFound(row.getIndex(), course);
+                    }
+                    break;
+                default:
+                    resolved.failed(row.getIndex(), course, row.getMessage());
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Löscht mehrere Kurse per JDBC-Batch, blockweise in je einer Transaktion.
+     * @param ids Die IDs der zu löschenden Kurse.
+     * @return Ein Ergebnis pro ID; nicht vorhandene IDs erhalten den Status NOT_FOUND.
+     * @throws DatabaseException bei Fehlern, die nicht einer einzelnen Zeile zugeordnet werden können.
+     */
+    @Override
+    public BatchResult<Long> deleteAllById(Collection<Long> ids)
+    {
+        return executeBatch(DELETE_SQL, ids, (preparedStatement, id) -> preparedStatement.setLong(1, id), null);
+    }
+
+    private void bindInsert(PreparedStatement preparedStatement, Course course) throws SQLException
+    {
+        preparedStatement.setString(1, course.getName());
+        preparedStatement.setString(2, course.getDescription());
+        preparedStatement.setInt(3, course.getHours());
+        preparedStatement.setDate(4, course.getBeginDate());
+        preparedStatement.setDate(5, course.getEndDate());
+        preparedStatement.setString(6, course.getCourseType().toString());
+    }
+
+    private void bindUpdate(PreparedStatement preparedStatement, Course course) throws SQLException
+    {
+        // Ohne ID kann der Kurs nicht aktualisiert werden; die Zeile wird als FAILED gemeldet.
+        Assert.notNull(course.getId());
+        bindInsert(preparedStatement, course);
+        preparedStatement.setLong(7, course.getId());
+        preparedStatement.setLong(8, course.getVersion());
+    }
+
+    /**
+     * Setzt die Parameter einer Zeile in einem PreparedStatement.
+     * @param <T> Der Typ der Zeile.
+     */
+    private interface RowBinder<T>
+    {
+        void bind(PreparedStatement preparedStatement, T row) throws SQLException;
+    }
+
+    /**
+     * Gemeinsame Implementierung der Batch-Operationen.
+     * @param sql Der SQL-Befehl für eine Zeile.
+     * @param rows Die zu verarbeitenden Zeilen.
+     * @param binder Setzt die Parameter einer Zeile.
+     * @param keyApplier Übernimmt die generierte ID in die Zeile; null, wenn keine IDs generiert werden.
+     * @return Ein Ergebnis pro Zeile.
+     */
+    private <T> BatchResult<T> executeBatch(String sql, Collection<T> rows, RowBinder<T> binder, BiFunction<T, Long, T> keyApplier)
+    {
+        Assert.notNull(rows);
+        List<T> rowList = new ArrayList<>(rows);
+        BatchResult<T> result = new BatchResult<>(rowList.size());
+        int generatedKeys = keyApplier != null ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS;
+
+        try(Connection con = connectionProvider.getConnection())
+        {
+            // Läuft der Aufruf bereits in einer Transaktion (z.B. einer UnitOfWork), committet der Aufrufer;
+            // die Blöcke werden dann nur über Savepoints abgesichert.
+            boolean ownTransaction = con.getAutoCommit();
+            if(ownTransaction)
+            {
+                con.setAutoCommit(false);
+            }
+            try(PreparedStatement preparedStatement = con.prepareStatement(sql, generatedKeys))
+            {
+                // Indizes der Zeilen, die im aktuellen Block stehen.
+                List<Integer> chunk = new ArrayList<>(Math.min(batchSize, rowList.size()));
+                for(int index = 0; index < rowList.size(); index++)
+                {
+                    T row = rowList.get(index);
+                    if(row == null)
+                    {
+                        result.failed(index, null, "Zeile darf nicht null sein!");
+                        continue;
+                    }
+                    try
+                    {
+                        binder.bind(preparedStatement, row);
+                    }
+                    catch(IllegalArgumentException illegalArgumentException)
+                    {
+                        result.failed(index, row, illegalArgumentException.getMessage());
+                        continue;
+                    }
+                    preparedStatement.addBatch();
+                    chunk.add(index);
+
+                    if(chunk.size() == batchSize)
+                    {
+                        executeChunk(con, ownTransaction, preparedStatement, chunk, rowList, binder, keyApplier, result);
+                        chunk.clear();
+                    }
+                }
+                if(!chunk.isEmpty())
+                {
+                    executeChunk(con, ownTransaction, preparedStatement, chunk, rowList, binder, keyApplier, result);
+                }
+            }
+            catch(SQLException | RuntimeException exception)
+            {
+                // Ohne Rollback würde setAutoCommit(true) den halb ausgeführten Block committen.
+                if(ownTransaction)
+                {
+                    try
+                    {
+                        con.rollback();
+                    }
+                    catch(SQLException rollbackException)
+                    {
+                        exception.addSuppressed(rollbackException);
+                    }
+                }
+                throw exception;
+            }
+            finally
+            {
+                if(ownTransaction)
+                {
+                    con.setAutoCommit(true);
+                }
+            }
+        }
+        catch(SQLException sqlException)
+        {
+            throw new DatabaseException(sqlException.getMessage(), sqlException);
+        }
+        return result;
+    }
+
+    /**
+     * Sendet einen Block und committet ihn. Schlägt der Block fehl, wird er zurückgerollt und zeilenweise wiederholt.
+     * In einer Transaktion des Aufrufers (ownTransaction == false) wird nicht committet, sondern nur bis zu einem
+     * Savepoint vor dem Block zurückgerollt; jede wiederholte Zeile erhält ebenfalls einen eigenen Savepoint.
+     */
+    private <T> void executeChunk(Connection con, boolean ownTransaction, PreparedStatement preparedStatement, List<Integer> chunk,
+                                  List<T> rowList, RowBinder<T> binder, BiFunction<T, Long, T> keyApplier, BatchResult<T> result) throws SQLException
+    {
+        Savepoint chunkStart = ownTransaction ? null : con.setSavepoint();
+        try
+        {
+            int[] updateCounts = preparedStatement.executeBatch();
+            List<Long> keys = keyApplier != null ? readGeneratedKeys(preparedStatement) : List.of();
+            if(ownTransaction)
+            {
+                con.commit();
+            }
+            else
+            {
+                con.releaseSavepoint(chunkStart);
+            }
+            for(int i = 0; i < chunk.size(); i++)
+            {
+                int index = chunk.get(i);
+                completeRow(result, index, rowList.get(index), updateCounts[i], i < keys.size() ? keys.get(i) : null, keyApplier);
+            }
+        }
+        catch(BatchUpdateException batchUpdateException)
+        {
+            if(ownTransaction)
+            {
+                con.rollback();
+            }
+            else
+            {
+                con.rollback(chunkStart);
+            }
+            preparedStatement.clearBatch();
+
+            // Zeilenweise wiederholen, um die fehlerhaften Zeilen zu ermitteln; die übrigen werden trotzdem gespeichert.
+            for(int index : chunk)
+            {
+                T row = rowList.get(index);
+                Savepoint rowStart = ownTransaction ? null : con.setSavepoint();
+                try
+                {
+                    binder.bind(preparedStatement, row);
+                    int updateCount = preparedStatement.executeUpdate();
+                    List<Long> keys = keyApplier != null ? readGeneratedKeys(preparedStatement) : List.of();
+                    completeRow(result, index, row, updateCount, keys.isEmpty() ? null : keys.get(0), keyApplier);
+                }
+                catch(SQLException rowException)
+                {
+                    if(rowStart != null)
+                    {
+                        con.rollback(rowStart);
+                    }
+                    result.failed(index, row, rowException.getMessage());
+                }
+            }
+            if(ownTransaction)
+            {
+                con.commit();
+            }
+        }
+        catch(SQLException | RuntimeException exception)
+        {
+            // Z.B. readGeneratedKeys nach erfolgreichem executeBatch: den Block in der äußeren Transaktion verwerfen;
+            // die eigene Transaktion rollt executeBatch zurück.
+            if(chunkStart != null)
+            {
+                try
+                {
+                    con.rollback(chunkStart);
+                }
+                catch(SQLException rollbackException)
+                {
+                    exception.addSuppressed(rollbackException);
+                }
+            }
+            throw exception;
+        }
+    }
+
+    private <T> void completeRow(BatchResult<T> result, int index, T row, int updateCount, Long key, BiFunction<T, Long, T> keyApplier)
+    {
+        // Statement.SUCCESS_NO_INFO (-2) bedeutet erfolgreich, aber ohne Zeilenanzahl (z.B. bei umgeschriebenen Batches).
+        if(updateCount == 0)
+        {
+            result.notFound(index, row);
+        }
+        else if(keyApplier != null && key != null)
+        {
+            result.success(index, keyApplier.apply(row, key));
+        }
+        else
+        {
+            result.success(index, row);
+        }
+    }
+
+    private List<Long> readGeneratedKeys(PreparedStatement preparedStatement) throws SQLException
+    {
+        List<Long> keys = new ArrayList<>();
+        try(ResultSet generatedKeys = preparedStatement.getGeneratedKeys())
+        {
+            while(generatedKeys.next())
+            {
+                keys.add(generatedKeys.getLong(1));
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Lädt viele Kurse per LOAD DATA LOCAL INFILE in die Tabelle 'courses'.
+     * Die Kurse werden erst beim Senden über einen InputStream (Connector/J: setLocalInfileInputStream) in das
+     * Textformat von LOAD DATA kodiert; es entsteht keine temporäre Datei und der Iterator wird nur einmal durchlaufen.
+     * Kurse, die die Regeln von Course verletzen, werden nicht gesendet, sondern als abgelehnt gezählt; MySQL würde
+     * ihre Werte wegen IGNORE sonst nur mit einer Warnung anpassen und sie als geladen melden.
+     * Zeilen, die der Server trotzdem nicht übernehmen kann, werden wegen IGNORE übersprungen und ebenfalls als abgelehnt gezählt.
+     * Die generierten IDs werden nicht zurückgeliefert.
+     * Ist der Treiber nicht Connector/J oder verbietet Client bzw. Server LOCAL INFILE
+     * (allowLoadLocalInfile bzw. local_infile), werden die Kurse stattdessen blockweise über insertAll() eingefügt.
+     * @param courses Die einzufügenden Kurse; null-Einträge und ungültige Kurse werden als abgelehnt gezählt.
+     * @return Anzahl der gesendeten, gespeicherten und abgelehnten Kurse sowie die Dauer.
+     * @throws DatabaseException bei Fehlern während der Übertragung.
+     */
+    public BulkLoadResult bulkLoad(Iterator<? extends Course> courses)
+    {
+        Assert.notNull(courses);
+        long start = System.nanoTime();
+        LoadDataInputStream input = new LoadDataInputStream(courses);
+        try(Connection con = connectionProvider.getConnection();
+            Statement statement = con.createStatement())
+        {
+            if(statement.isWrapperFor(JdbcStatement.class))
+            {
+                statement.unwrap(JdbcStatement.class).setLocalInfileInputStream(input);
+                try
+                {
+                    long loaded = statement.executeLargeUpdate(LOAD_DATA_SQL);
+                    long rejected = input.getRowsSent() - loaded + input.getRowsSkipped();
+                    return new BulkLoadResult(input.getRowsSent() + input.getRowsSkipped(), loaded, rejected,
+                            System.nanoTime() - start, true);
+                }
+                catch(SQLException sqlException)
+                {
+                    // Wurde schon ein Kurs gelesen, ist der Iterator nicht mehr vollständig; dann keine Ausweichlösung.
+                    if(!isLocalInfileDisabled(sqlException) || input.isStarted())
+                    {
+                        throw sqlException;
+                    }
+                }
+            }
+        }
+        catch(SQLException sqlException)
+        {
+            throw new DatabaseException(sqlException.getMessage(), sqlException);
+        }
+        return insertInChunks(courses, start);
+    }
+
+    /**
+     * @see #bulkLoad(Iterator)
+     */
+    public BulkLoadResult bulkLoad(Iterable<? extends Course> courses)
+    {
+        Assert.notNull(courses);
+        return bulkLoad(courses.iterator());
+    }
+
+    /**
+     * Erkennt die Fehler, mit denen Client oder Server LOAD DATA LOCAL INFILE ablehnen
+     * (1148 ER_NOT_ALLOWED_COMMAND, 3948 ER_CLIENT_LOCAL_FILES_DISABLED, 2068 CR_LOAD_DATA_LOCAL_INFILE_REJECTED).
+     */
+    private static boolean isLocalInfileDisabled(SQLException sqlException)
+    {
+        int code = sqlException.getErrorCode();
+        if(code == 1148 || code == 3948 || code == 2068)
+        {
+            return true;
+        }
+        String message = sqlException.getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains("local infile");
+    }
+
+    /**
+     * Ausweichlösung für bulkLoad: liest jeweils batchSize Kurse aus dem Iterator und fügt sie mit insertAll() ein.
+     * Ungültige Kurse werden wie bei LOAD DATA übersprungen.
+     */
+    private BulkLoadResult insertInChunks(Iterator<? extends Course> courses, long start)
+    {
+        long sent = 0;
+        long loaded = 0;
+        List<Course> chunk = new ArrayList<>(batchSize);
+        while(courses.hasNext())
+        {
+            Course course = courses.next();
+            sent++;
+            if(LoadDataInputStream.isLoadable(course))
+            {
+                chunk.add(course);
+            }
+            if(chunk.size() == batchSize || (!courses.hasNext() && !chunk.isEmpty()))
+            {
+                loaded += insertAll(chunk).getSuccessCount();
+                chunk.clear();
+            }
+        }
+        return new BulkLoadResult(sent, loaded, sent - loaded, System.nanoTime() - start, false);
+    }
+
+    /**
+     * Liefert alle Kurse als lazy befüllten Stream.
+     * Die Zeilen werden über ein forward-only ResultSet mit der konfigurierten Fetch-Size gelesen,
+     * der Speicherbedarf bleibt daher unabhängig von der Tabellengröße konstant.
+     * Verbindung, Statement und ResultSet werden beim Schließen des Streams freigegeben
+     * (und automatisch, sobald die letzte Zeile gelesen wurde).
+     * @return Ein Stream aller Kurse; muss geschlossen werden, wenn er nicht vollständig durchlaufen wird.
+     * @throws DatabaseException bei Fehlern während der Ausführung der SQL-Abfrage.
+     */
+    @Override
+    public Stream<Course> streamAll()
+    {
+        return streamQuery("SELECT * FROM courses", preparedStatement -> { });
+    }
+
+    @Override
+    public Stream<Course> streamAllCoursesByNameOrDescription(String searchText)
+    {
+        Assert.notNull(searchText);
+        String sql = "SELECT * FROM `courses` WHERE LOWER(`description`) LIKE LOWER(?) OR LOWER(`name`) LIKE LOWER(?)";
+        return streamQuery(sql, preparedStatement -> {
+            preparedStatement.setString(1, containsPattern(searchText));
+            preparedStatement.setString(2, containsPattern(searchText));
+        });
+    }
+
+    @Override
+    public Stream<Course> streamAllRunningCourses()
+    {
+        return streamQuery("SELECT * FROM `courses` WHERE NOW()<`enddate`", preparedStatement -> { });
+    }
+
+    /**
+     * Setzt die Parameter einer Abfrage.
+     */
+    private interface ParameterBinder
+    {
+        void bind(PreparedStatement preparedStatement) throws SQLException;
+    }
+
+    /**
+     * Führt eine Abfrage aus und liefert die Kurse als Stream, der das ResultSet zeilenweise liest.
+     * Die Verbindung bleibt bis zum Schließen des Streams ausgeliehen.
+     */
+    private Stream<Course> streamQuery(String sql, ParameterBinder binder)
+    {
+        Connection con = null;
+        PreparedStatement preparedStatement = null;
+        ResultSet resultSet = null;
+        RowMapper<Course> courseMapper;
+        try
+        {
+            con = connectionProvider.getReadConnection();
+            preparedStatement = con.prepareStatement(sql);
+            preparedStatement.setFetchSize(fetchSize);
+            binder.bind(preparedStatement);
+            resultSet = preparedStatement.executeQuery();
+            courseMapper = CourseRowMapper.forResultSet(resultSet);
+        }
+        catch(SQLException sqlException)
+        {
+            closeQuietly(resultSet, preparedStatement, con);
+            throw new DatabaseException(sqlException.getMessage(), sqlException);
+        }
+
+        CourseSpliterator spliterator = new CourseSpliterator(con, preparedStatement, resultSet, courseMapper);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    /**
+     * Spliterator, der bei jedem tryAdvance genau eine Zeile aus dem ResultSet liest.
+     */
+    private final class CourseSpliterator extends Spliterators.AbstractSpliterator<Course>
+    {
+        private final Connection con;
+        private final PreparedStatement preparedStatement;
+        private final ResultSet resultSet;
+        private final RowMapper<Course> courseMapper;
+        private boolean closed;
+
+        CourseSpliterator(Connection con, PreparedStatement preparedStatement, ResultSet resultSet, RowMapper<Course> courseMapper)
+        {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.con = con;
+            this.preparedStatement = preparedStatement;
+            this.resultSet = resultSet;
+            this.courseMapper = courseMapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Course> action)
+        {
+            if(closed)
+            {
+                return false;
+            }
+            try
+            {
+                if(!resultSet.next())
+                {
+                    // Alle Zeilen gelesen: Ressourcen sofort freigeben, auch wenn der Stream nicht geschlossen wird.
+                    close();
+                    return false;
+                }
+                action.accept(courseMapper.mapRow(resultSet));
+                return true;
+            }
+            catch(SQLException sqlException)
+            {
+                close();
+                throw new DatabaseException(sqlException.getMessage(), sqlException);
+            }
+        }
+
+        void close()
+        {
+            if(!closed)
+            {
+                closed = true;
+                closeQuietly(resultSet, preparedStatement, con);
+            }
+        }
+    }
+
+    /**
+     * Liest eine Seite aller Kurse.
+     * Die nächste Seite wird über den Cursor per WHERE-Bedingung gesucht ("Seek"), nicht per OFFSET übersprungen;
+     * mit einem Index auf der Sortierspalte kostet daher jede Seite gleich viel wie die erste.
+     * Ob es eine weitere Seite gibt, wird über eine zusätzlich gelesene Zeile festgestellt (kein COUNT).
+     * @throws IllegalArgumentException wenn das Limit kleiner als 1 ist oder der Cursor zu einer anderen Sortierung gehört.
+     * @throws DatabaseException bei Fehlern während der Ausführung der SQL-Abfrage.
+     */
+    @Override
+    public Page<Course> getPage(CourseSort sort, PageCursor after, int limit)
+    {
+        return queryPage("*", CourseRowMapper::forResultSet, PageCursor::after, List.of(), List.of(), sort, after, limit);
+    }
+
+    @Override
+    public Page<Course> findCoursesByNameOrDescriptionPage(String searchText, CourseSort sort, PageCursor after, int limit)
+    {
+        Assert.notNull(searchText);
+        return queryPage("*", CourseRowMapper::forResultSet, PageCursor::after,
+                List.of("(LOWER(`description`) LIKE LOWER(?) OR LOWER(`name`) LIKE LOWER(?))"),
+                List.of(containsPattern(searchText), containsPattern(searchText)),
+                sort, after, limit);
+    }
+
+    @Override
+    public Page<Course> findRunningCoursesPage(CourseSort sort, PageCursor after, int limit)
+    {
+        return queryPage("*", CourseRowMapper::forResultSet, PageCursor::after, List.of("NOW()<`enddate`"), List.of(), sort, after, limit);
+    }
+
+    /**
+     * Liest eine Seite mit den Kurzformen aller Kurse; wie getPage, aber ohne die Spalten description und hours.
+     */
+    @Override
+    public Page<CourseSummary> getSummaryPage(CourseSort sort, PageCursor after, int limit)
+    {
+        return queryPage(SUMMARY_COLUMNS, CourseSummaryRowMapper::forResultSet, PageCursor::after, List.of(), List.of(), sort, after, limit);
+    }
+
+    /**
+     * Gemeinsame Implementierung der seitenweisen Abfragen.
+     * @param columns Die gelesenen Spalten ("*" oder SUMMARY_COLUMNS); müssen id und die Sortierspalte enthalten.
+     * @param mapperFactory Erstellt den RowMapper für die gelesenen Spalten.
+     * @param cursorFactory Erstellt den Cursor hinter der letzten Zeile einer Seite.
+     * @param conditions Filterbedingungen, die mit AND verknüpft werden.
+     * @param conditionParameters Die Parameter der Filterbedingungen in der Reihenfolge der Platzhalter.
+     */
+    private <T> Page<T> queryPage(String columns, RowMapperFactory<T> mapperFactory, BiFunction<CourseSort, T, PageCursor> cursorFactory,
+                                  List<String> conditions, List<Object> conditionParameters, CourseSort sort, PageCursor after, int limit)
+    {
+        Assert.notNull(sort);
+        if(limit < 1)
+        {
+            throw new IllegalArgumentException("Seitengröße muss mindestens 1 sein!");
+        }
+        if(after != null && after.getSort() != sort)
+        {
+            throw new IllegalArgumentException("Cursor gehört zur Sortierung " + after.getSort() + ", nicht zu " + sort + "!");
+        }
+
+        List<String> where = new ArrayList<>(conditions);
+        List<Object> parameters = new ArrayList<>(conditionParameters);
+        String column = "`" + sort.getColumn() + "`";
+        if(after != null)
+        {
+            if(sort == CourseSort.ID)
+            {
+                where.add("`id` > ?");
+                parameters.add(after.getLastId());
+            }
+            else
+            {
+                // Entspricht (spalte, id) > (wert, id), ist aber so formuliert, dass MySQL einen Range-Scan auf dem Index macht.
+                where.add(column + " >= ? AND (" + column + " > ? OR `id` > ?)");
+                parameters.add(after.getLastValue());
+                parameters.add(after.getLastValue());
+                parameters.add(after.getLastId());
+            }
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT " + columns + " FROM `courses`");
+        if(!where.isEmpty())
+        {
+            sql.append(" WHERE ").append(String.join(" AND ", where));
+        }
+        sql.append(" ORDER BY ").append(column);
+        if(sort != CourseSort.ID)
+        {
+            sql.append(", `id`");
+        }
+        sql.append(" LIMIT ?");
+        // Eine Zeile mehr lesen, um festzustellen, ob es eine nächste Seite gibt.
+        parameters.add(limit + 1);
+
+        try(Connection con = connectionProvider.getReadConnection();
+            PreparedStatement preparedStatement = con.prepareStatement(sql.toString()))
+        {
+            for(int i = 0; i < parameters.size(); i++)
+            {
+                preparedStatement.setObject(i + 1, parameters.get(i));
+            }
+            List<T> rows = new ArrayList<>(limit + 1);
+            try(ResultSet resultSet = preparedStatement.executeQuery())
+            {
+                RowMapper<T> mapper = mapperFactory.create(resultSet);
+                while(resultSet.next())
+                {
+                    rows.add(mapper.mapRow(resultSet));
+                }
+            }
+
+            PageCursor nextCursor = null;
+            if(rows.size() > limit)
+            {
+                rows.remove(limit);
+                nextCursor = cursorFactory.apply(sort, rows.get(limit - 1));
+            }
+            return new Page<>(rows, nextCursor);
+        }
+        catch(SQLException sqlException)
+        {
+            throw new DatabaseException(sqlException.getMessage(), sqlException);
+        }
+    }
+
+    /**
+     * Schließt die übergebenen Ressourcen in der angegebenen Reihenfolge; null-Werte und Fehler werden ignoriert.
+     */
+    private static void closeQuietly(AutoCloseable... resources)
+    {
+        for(AutoCloseable resource : resources)
+        {
+            if(resource != null)
+            {
+                try
+                {
+                    resource.close();
+                }
+                catch(Exception ignored)
+                {
+                    // Beim Aufräumen ist nichts mehr zu retten.
+                }
+            }
         }
     }
 }
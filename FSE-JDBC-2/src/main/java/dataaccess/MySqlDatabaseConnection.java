@@ -6,13 +6,14 @@ import java.sql.SQLException;
 
 /**
  * Klasse für die Verbindung zur MySQL-Datenbank.
- * Verwendet das Singleton-Designmuster, um sicherzustellen, dass nur eine Instanz der Datenbankverbindung existiert.
+ * Öffnet physische Verbindungen zur Datenbank. Die Verwaltung und Wiederverwendung der Verbindungen
+ * übernimmt ein ConnectionProvider (z.B. PooledConnectionProvider), daher wird hier nichts zwischengespeichert.
  */
 
 public class MySqlDatabaseConnection
 {
-    // Statische Variable für die einzelne Instanz der Datenbankverbindung
-    private static Connection con = null;
+    // Name der Treiberklasse von MySQL Connector/J.
+    private static final String DRIVER_CLASS = "com.mysql.cj.jdbc.Driver";
 
     /**
      * Privater Konstruktor, um die direkte Instanzierung zu verhindern.
@@ -21,27 +22,38 @@ public class MySqlDatabaseConnection
     }
 
     /**
-     * Stellt eine Verbindung zur MySQL-Datenbank her oder gibt die bestehende Verbindung zurück.
+     * Stellt eine neue physische Verbindung zur MySQL-Datenbank her.
      * @param url Der URL zur Datenbank.
      * @param user Der Benutzername für die Datenbank.
      * @param pwd Das Passwort für den Datenbankbenutzer.
-     * @return Eine bestehende oder neu erstellte Verbindung.
-     * @throws ClassNotFoundException wenn der Datenbanktreiber nicht gefunden wird.
-     * @throws SQLException bei Fehlern beim Herstellen der Verbindung.
+     * @return Eine neu erstellte Verbindung.
+     * @throws SQLException bei Fehlern beim Herstellen der Verbindung oder wenn der Datenbanktreiber nicht gefunden wird.
      */
-    public static Connection getConnection(String url, String user, String pwd) throws ClassNotFoundException, SQLException {
-        if(con!=null)
+    public static Connection openConnection(String url, String user, String pwd) throws SQLException
+    {
+        try
         {
-            //Gibt die bestehende Verbindung zurück, falls vorhanden.
-            return con;
+            // Lädt den MySQL-Treiber, damit er beim DriverManager registriert ist.
+            Class.forName(DRIVER_CLASS);
         }
-        else
+        catch(ClassNotFoundException e)
         {
-            // Lädt den MySQL-Treiber und stellt eine neue Verbindung her.
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            con = DriverManager.getConnection(url,user,pwd);
-            // Gibt die neu hergestellte Verbindung zurück.
-            return con;
+            throw new SQLException("Datenbanktreiber nicht gefunden: " + e.getMessage(), e);
         }
+        return DriverManager.getConnection(url,user,pwd);
+    }
+
+    /**
+     * Hängt eine Treiber-Eigenschaft als Parameter an einen JDBC-URL an.
+     * Beispiel: withUrlProperty(url, "rewriteBatchedStatements", "true") lässt Connector/J JDBC-Batches
+     * als mehrzeilige INSERT-Befehle senden, was Batch-Einfügungen deutlich beschleunigt.
+     * @param url Der URL zur Datenbank.
+     * @param key Der Name der Eigenschaft.
+     * @param value Der Wert der Eigenschaft.
+     * @return Der URL mit der zusätzlichen Eigenschaft.
+     */
+    public static String withUrlProperty(String url, String key, String value)
+    {
+        return url + (url.contains("?") ? "&" : "?") + key + "=" + value;
     }
 }
@@ -0,0 +1,95 @@
+package dataaccess;
+
+import domain.Course;
+import util.Assert;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Volltextsuche über den FULLTEXT-Index von MySQL (MATCH ... AGAINST im Boolean Mode).
+ * Voraussetzung ist der Index aus db/migration/V1__add_fulltext_index_courses.sql.
+ * Jedes Suchwort wird als Präfix gesucht ("jav*"); die Relevanz liefert MySQL.
+ *
+ * Hinweis: InnoDB ignoriert Wörter unter innodb_ft_min_token_size (Standard 3) und Stoppwörter.
+ */
+public class MySqlFullTextCourseSearch implements CourseSearchEngine
+{
+    private static final String SEARCH_SQL =
+            "SELECT *, MATCH(`name`, `description`) AGAINST (? IN BOOLEAN MODE) AS `score` FROM `courses` " +
+            "WHERE MATCH(`name`, `description`) AGAINST (? IN BOOLEAN MODE) " +
+            "ORDER BY `score` DESC, `id` LIMIT ?";
+
+    private final ConnectionProvider connectionProvider;
+
+    /**
+     * @param connectionProvider Liefert die Verbindungen zur Datenbank.
+     */
+    public MySqlFullTextCourseSearch(ConnectionProvider connectionProvider)
+    {
+        Assert.notNull(connectionProvider);
+        this.connectionProvider = connectionProvider;
+    }
+
+    @Override
+    public List<SearchHit<Course>> search(String query, int limit)
+    {
+        Assert.notNull(query);
+        if(limit < 1)
+        {
+            throw new IllegalArgumentException("Limit muss mindestens 1 sein!");
+        }
+        String booleanQuery = toBooleanQuery(query);
+        if(booleanQuery.isEmpty())
+        {
+            return Collections.emptyList();
+        }
+
+        try(Connection con = connectionProvider.getReadConnection();
+            PreparedStatement preparedStatement = con.prepareStatement(SEARCH_SQL))
+        {
+            preparedStatement.setString(1, booleanQuery);
+            preparedStatement.setString(2, booleanQuery);
+            preparedStatement.setInt(3, limit);
+            try(ResultSet resultSet = preparedStatement.executeQuery())
+            {
+                List<SearchHit<Course>> hits = new ArrayList<>();
+                RowMapper<Course> courseMapper = CourseRowMapper.forResultSet(resultSet);
+                int scoreColumn = resultSet.findColumn("score");
+                while(resultSet.next())
+                {
+                    Course course = courseMapper.mapRow(resultSet);
+                    hits.add(new SearchHit<>(course, resultSet.getDouble(scoreColumn)));
+                }
+                return hits;
+            }
+        }
+        catch(SQLException sqlException)
+        {
+            throw new DatabaseException(sqlException.getMessage(), sqlException);
+        }
+    }
+
+    /**
+     * Wandelt die Eingabe in eine Boolean-Mode-Abfrage um: jedes Wort als Präfix ("wort*").
+     * Operatoren aus der Eingabe (+, -, ", ...) werden dabei entfernt, da nur Buchstaben und Ziffern übernommen werden.
+     */
+    static String toBooleanQuery(String query)
+    {
+        StringBuilder booleanQuery = new StringBuilder();
+        for(String term : InMemoryCourseSearchIndex.tokenize(query))
+        {
+            if(booleanQuery.length() > 0)
+            {
+                booleanQuery.append(' ');
+            }
+            booleanQuery.append(term).append('*');
+        }
+        return booleanQuery.toString();
+    }
+}
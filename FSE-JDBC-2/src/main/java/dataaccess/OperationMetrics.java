@@ -0,0 +1,177 @@
+package dataaccess;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Messwerte einer einzelnen Repository-Methode (z.B. "getById").
+ * Alle Zähler sind threadsicher und ohne Sperren.
+ */
+public class OperationMetrics implements OperationMetricsMXBean
+{
+    // SQLState-Bezeichnung für Fehler ohne SQLException als Ursache.
+    static final String NO_SQL_STATE = "none";
+
+    private final String operation;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram poolWait = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder roundTrips = new LongAdder();
+    private final LongAdder slowCalls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder> errorsBySqlState = new ConcurrentHashMap<>();
+
+    OperationMetrics(String operation)
+    {
+        this.operation = operation;
+    }
+
+    void recordCall(long nanos)
+    {
+        latency.record(nanos);
+    }
+
+    void recordRows(long count)
+    {
+        rows.add(count);
+    }
+
+    void recordRoundTrip()
+    {
+        roundTrips.increment();
+    }
+
+    void recordPoolWait(long nanos)
+    {
+        poolWait.record(nanos);
+    }
+
+    void recordSlowCall()
+    {
+        slowCalls.increment();
+    }
+
+    void recordError(String sqlState)
+    {
+        errors.increment();
+        errorsBySqlState.computeIfAbsent(sqlState == null ? NO_SQL_STATE : sqlState, key -> new LongAdder()).increment();
+    }
+
+    void reset()
+    {
+        latency.reset();
+        poolWait.reset();
+        rows.reset();
+        roundTrips.reset();
+        slowCalls.reset();
+        errors.reset();
+        errorsBySqlState.clear();
+    }
+
+    LatencyHistogram getLatency()
+    {
+        return latency;
+    }
+
+    LatencyHistogram getPoolWait()
+    {
+        return poolWait;
+    }
+
+    @Override
+    public String getOperation()
+    {
+        return operation;
+    }
+
+    @Override
+    public long getCalls()
+    {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getErrors()
+    {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRows()
+    {
+        return rows.sum();
+    }
+
+    @Override
+    public long getRoundTrips()
+    {
+        return roundTrips.sum();
+    }
+
+    @Override
+    public long getSlowCalls()
+    {
+        return slowCalls.sum();
+    }
+
+    @Override
+    public double getMeanMicros()
+    {
+        return latency.getMeanNanos() / 1000.0;
+    }
+
+    @Override
+    public long getP50Micros()
+    {
+        return TimeUnit.NANOSECONDS.toMicros(latency.getValueAtPercentile(50));
+    }
+
+    @Override
+    public long getP99Micros()
+    {
+        return TimeUnit.NANOSECONDS.toMicros(latency.getValueAtPercentile(99));
+    }
+
+    @Override
+    public long getP999Micros()
+    {
+        return TimeUnit.NANOSECONDS.toMicros(latency.getValueAtPercentile(99.9));
+    }
+
+    @Override
+    public long getMaxMicros()
+    {
+        return TimeUnit.NANOSECONDS.toMicros(latency.getMaxNanos());
+    }
+
+    @Override
+    public double getPoolWaitMeanMicros()
+    {
+        return poolWait.getMeanNanos() / 1000.0;
+    }
+
+    @Override
+    public long getPoolWaitP99Micros()
+    {
+        return TimeUnit.NANOSECONDS.toMicros(poolWait.getValueAtPercentile(99));
+    }
+
+    @Override
+    public Map<String, Long> getErrorsBySqlState()
+    {
+        Map<String, Long> snapshot = new TreeMap<>();
+        errorsBySqlState.forEach((sqlState, count) -> snapshot.put(sqlState, count.sum()));
+        return snapshot;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s: calls=%d errors=%d rows=%d roundTrips=%d p50=%dus p99=%dus p999=%dus max=%dus",
+                operation, getCalls(), getErrors(), getRows(), getRoundTrips(),
+                getP50Micros(), getP99Micros(), getP999Micros(), getMaxMicros());
+    }
+}
@@ -0,0 +1,41 @@
+package dataaccess;
+
+import java.util.Map;
+
+/**
+ * JMX-Sicht auf die Messwerte einer Repository-Methode (siehe RepositoryMetrics).
+ * Zeiten in Mikrosekunden.
+ */
+public interface OperationMetricsMXBean
+{
+    String getOperation();
+
+    long getCalls();
+
+    long getErrors();
+
+    long getRows();
+
+    long getRoundTrips();
+
+    long getSlowCalls();
+
+    double getMeanMicros();
+
+    long getP50Micros();
+
+    long getP99Micros();
+
+    long getP999Micros();
+
+    long getMaxMicros();
+
+    double getPoolWaitMeanMicros();
+
+    long getPoolWaitP99Micros();
+
+    /**
+     * @return Anzahl der Fehler je SQLState ("none" für Fehler ohne SQLState).
+     */
+    Map<String, Long> getErrorsBySqlState();
+}
@@ -0,0 +1,41 @@
+package dataaccess;
+
+/**
+ * Wird bei update() geworfen, wenn der Datensatz seit dem Lesen von jemand anderem geändert wurde,
+ * d.h. die Version in der Datenbank nicht mehr mit der Version der übergebenen Entität übereinstimmt.
+ * Der Aufrufer sollte den Datensatz neu laden und die Änderung erneut anwenden.
+ */
+public class OptimisticLockException extends DatabaseException
+{
+    private final long id;
+    private final long expectedVersion;
+    private final long actualVersion;
+
+    /**
+     * @param id Die ID des Datensatzes.
+     * @param expectedVersion Die Version der übergebenen Entität.
+     * @param actualVersion Die aktuelle Version in der Datenbank.
+     */
+    public OptimisticLockException(long id, long expectedVersion, long actualVersion)
+    {
+        super("Datensatz " + id + " wurde zwischenzeitlich geändert (Version " + expectedVersion + ", aktuell " + actualVersion + ")!");
+        this.id = id;
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+
+    public long getId()
+    {
+        return id;
+    }
+
+    public long getExpectedVersion()
+    {
+        return expectedVersion;
+    }
+
+    public long getActualVersion()
+    {
+        return actualVersion;
+    }
+}
@@ -0,0 +1,56 @@
+package dataaccess;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Eine Seite aus einer seitenweisen Abfrage.
+ * @param <T> Der Typ der Einträge.
+ */
+public class Page<T>
+{
+    private final List<T> items;
+    private final PageCursor nextCursor;
+
+    /**
+     * @param items Die Einträge der Seite.
+     * @param nextCursor Der Cursor für die nächste Seite oder null, wenn dies die letzte Seite ist.
+     */
+    public Page(List<T> items, PageCursor nextCursor)
+    {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems()
+    {
+        return items;
+    }
+
+    /**
+     * @return Der Cursor, mit dem die nächste Seite abgefragt wird, oder null, wenn es keine weitere Seite gibt.
+     */
+    public PageCursor getNextCursor()
+    {
+        return nextCursor;
+    }
+
+    public boolean hasNext()
+    {
+        return nextCursor != null;
+    }
+
+    public boolean isEmpty()
+    {
+        return items.isEmpty();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Page{" +
+                "items=" + items.size() +
+                ", nextCursor=" + nextCursor +
+                '}';
+    }
+}
@@ -0,0 +1,88 @@
+package dataaccess;
+
+import domain.Course;
+import domain.CourseSummary;
+import util.Assert;
+
+/**
+ * Position nach dem letzten Kurs einer Seite, von der aus die nächste Seite gelesen wird.
+ * Der Cursor enthält den Sortierwert und die ID des letzten Kurses. Die nächste Seite wird damit per
+ * WHERE-Bedingung auf den Index gesucht (Keyset-/Seek-Pagination) statt mit OFFSET übersprungen,
+ * daher kostet jede Seite gleich viel, egal wie weit hinten sie liegt.
+ */
+public final class PageCursor
+{
+    private final CourseSort sort;
+    private final Object lastValue;
+    private final long lastId;
+
+    private PageCursor(CourseSort sort, Object lastValue, long lastId)
+    {
+        this.sort = sort;
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+    }
+
+    /**
+     * Erstellt einen Cursor für die Sortierung nach ID.
+     * @param afterId Die ID, nach der die nächste Seite beginnt.
+     * @return Der Cursor.
+     */
+    public static PageCursor afterId(long afterId)
+    {
+        return new PageCursor(CourseSort.ID, afterId, afterId);
+    }
+
+    /**
+     * Erstellt einen Cursor, der hinter dem angegebenen Kurs steht.
+     * @param sort Die Sortierung der Seiten.
+     * @param course Der letzte Kurs der vorherigen Seite.
+     * @return Der Cursor.
+     */
+    public static PageCursor after(CourseSort sort, Course course)
+    {
+        Assert.notNull(sort);
+        Assert.notNull(course);
+        Assert.notNull(course.getId());
+        return new PageCursor(sort, sort.valueOf(course), course.getId());
+    }
+
+    /**
+     * Erstellt einen Cursor, der hinter der angegebenen Kurzform eines Kurses steht.
+     * @param sort Die Sortierung der Seiten.
+     * @param summary Die letzte Kurzform der vorherigen Seite.
+     * @return Der Cursor.
+     */
+    public static PageCursor after(CourseSort sort, CourseSummary summary)
+    {
+        Assert.notNull(sort);
+        Assert.notNull(summary);
+        Assert.notNull(summary.id());
+        return new PageCursor(sort, sort.valueOf(summary), summary.id());
+    }
+
+    public CourseSort getSort()
+    {
+        return sort;
+    }
+
+    public Object getLastValue()
+    {
+        return lastValue;
+    }
+
+    public long getLastId()
+    {
+        return lastId;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PageCursor{" +
+                "sort=" + sort +
+                ", lastValue=" + lastValue +
+                ", lastId=" + lastId +
+                '}';
+    }
+}
@@ -0,0 +1,238 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Eine physische Datenbankverbindung, die vom PooledConnectionProvider verwaltet wird.
+ * Nach außen wird nie die physische Verbindung selbst herausgegeben, sondern für jede Ausleihe ein
+ * eigener Proxy (Handle). Ein close() auf dem Handle gibt die Verbindung an den Pool zurück,
+ * ein zweites close() oder die Verwendung nach dem Zurückgeben hat keine Auswirkung auf die physische Verbindung.
+ */
+class PooledConnection
+{
+    // Die physische Verbindung zur Datenbank.
+    private final Connection connection;
+
+    // Der Pool, an den die Verbindung beim Schließen des Handles zurückgegeben wird.
+    private final PooledConnectionProvider pool;
+
+    // Zeitpunkt (System.nanoTime), zu dem die Verbindung zuletzt an den Pool zurückgegeben wurde.
+    private volatile long lastReturnedNanos;
+
+    // Wird gesetzt, wenn bei der Verwendung ein Verbindungsfehler aufgetreten ist.
+    private volatile boolean broken;
+
+    // Cache der auf dieser Verbindung vorbereiteten Statements.
+    private final StatementCache statementCache;
+
+    // Isolationsstufe und Katalog beim Öffnen; werden vor jeder Rückgabe an den Pool wiederhergestellt.
+    private final int initialIsolation;
+    private final String initialCatalog;
+
+    PooledConnection(Connection connection, PooledConnectionProvider pool, int statementCacheSize) throws SQLException
+    {
+        this.connection = connection;
+        this.initialIsolation = connection.getTransactionIsolation();
+        this.initialCatalog = connection.getCatalog();
+        this.pool = pool;
+        this.lastReturnedNanos = System.nanoTime();
+        this.statementCache = new StatementCache(this, statementCacheSize,
+                pool.statementCacheHitCounter(), pool.statementCacheMissCounter());
+    }
+
+    /**
+     * Erstellt ein neues Handle für eine Ausleihe dieser Verbindung.
+     * @return Ein Proxy, der alle Aufrufe an die physische Verbindung weiterleitet und close() abfängt.
+     */
+    Connection newHandle()
+    {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Handle()
+        );
+    }
+
+    /**
+     * Überprüft, ob die physische Verbindung noch verwendbar ist.
+     * @param timeoutSeconds Maximale Wartezeit für die Überprüfung.
+     * @return True, wenn die Verbindung gültig ist.
+     */
+    boolean isValid(int timeoutSeconds)
+    {
+        try
+        {
+            return !broken && connection.isValid(timeoutSeconds);
+        }
+        catch(SQLException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Setzt den Zustand der Verbindung zurück, bevor sie wieder im Pool landet.
+     * Nicht geschlossene Statements werden an den Cache zurückgegeben,
+     * offene Transaktionen werden zurückgerollt, Autocommit wieder aktiviert und Isolationsstufe sowie Katalog
+     * auf den Stand beim Öffnen gesetzt (z.B. nach einer UnitOfWork mit eigener Isolationsstufe).
+     * @return True, wenn die Verbindung wiederverwendet werden kann.
+     */
+    boolean resetForReuse()
+    {
+        statementCache.releaseAll();
+        try
+        {
+            if(!connection.getAutoCommit())
+            {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            if(connection.isReadOnly())
+            {
+                connection.setReadOnly(false);
+            }
+            if(connection.getTransactionIsolation() != initialIsolation)
+            {
+                connection.setTransactionIsolation(initialIsolation);
+            }
+            if(initialCatalog != null && !initialCatalog.equals(connection.getCatalog()))
+            {
+                connection.setCatalog(initialCatalog);
+            }
+            return true;
+        }
+        catch(SQLException e)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Schließt die physische Verbindung. Fehler beim Schließen werden ignoriert.
+     */
+    void closePhysically()
+    {
+        statementCache.closeAll();
+        try
+        {
+            connection.close();
+        }
+        catch(SQLException ignored)
+        {
+            // Die Verbindung wird ohnehin verworfen.
+        }
+    }
+
+    void touch()
+    {
+        this.lastReturnedNanos = System.nanoTime();
+    }
+
+    long getIdleNanos()
+    {
+        return System.nanoTime() - lastReturnedNanos;
+    }
+
+    boolean isBroken()
+    {
+        return broken;
+    }
+
+    void markBroken()
+    {
+        this.broken = true;
+    }
+
+    /**
+     * Prüft, ob eine SQLException auf eine unterbrochene Verbindung hinweist (SQLState-Klasse 08).
+     */
+    static boolean isConnectionError(SQLException e)
+    {
+        String sqlState = e.getSQLState();
+        return sqlState != null && sqlState.startsWith("08");
+    }
+
+    /**
+     * InvocationHandler für eine einzelne Ausleihe der Verbindung.
+     */
+    private final class Handle implements InvocationHandler
+    {
+        // Wird beim ersten close() gesetzt, danach sind keine Aufrufe mehr erlaubt.
+        private boolean closed;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+        {
+            switch(method.getName())
+            {
+                case "close":
+                    if(!closed)
+                    {
+                        closed = true;
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+
+                case "isClosed":
+                    return closed || connection.isClosed();
+
+                case "equals":
+                    return proxy == args[0];
+
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+
+                case "toString":
+                    return "PooledConnection[" + connection + (closed ? ", returned" : "") + "]";
+
+                default:
+                    break;
+            }
+
+            if(closed)
+            {
+                throw new SQLException("Verbindung wurde bereits an den Pool zurückgegeben!");
+            }
+
+            if("prepareStatement".equals(method.getName()) && isCacheableSignature(args))
+            {
+                int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                return statementCache.prepare(connection, (Connection) proxy, (String) args[0], autoGeneratedKeys);
+            }
+
+            if("commit".equals(method.getName()) || "rollback".equals(method.getName()))
+            {
+                RepositoryMetrics.recordRoundTrip(null);
+            }
+
+            try
+            {
+                return method.invoke(connection, args);
+            }
+            catch(InvocationTargetException e)
+            {
+                Throwable cause = e.getCause();
+                if(cause instanceof SQLException && isConnectionError((SQLException) cause))
+                {
+                    // Die Verbindung wird beim Zurückgeben verworfen statt wiederverwendet.
+                    broken = true;
+                }
+                throw cause;
+            }
+        }
+
+        /**
+         * Nur prepareStatement(String) und prepareStatement(String, int) werden über den Cache bedient.
+         */
+        private boolean isCacheableSignature(Object[] args)
+        {
+            return args.length == 1 || (args.length == 2 && args[1] instanceof Integer);
+        }
+    }
+}
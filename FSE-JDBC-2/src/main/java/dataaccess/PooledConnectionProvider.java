@@ -0,0 +1,373 @@
+package dataaccess;
+
+import util.Assert;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ein begrenzter, threadsicherer Connection-Pool.
+ * Der Pool hält mindestens minSize und höchstens maxSize physische Verbindungen. Maximal maxSize Verbindungen
+ * können gleichzeitig ausgeliehen sein; weitere Aufrufer warten höchstens acquireTimeoutMillis auf eine freie Verbindung.
+ * Unbenutzte Verbindungen werden nach idleTimeoutMillis geschlossen (aber nie unter minSize),
+ * länger nicht verwendete Verbindungen werden vor dem Ausleihen validiert.
+ * Jede physische Verbindung besitzt einen eigenen LRU-Cache für PreparedStatements (siehe StatementCache).
+ */
+public class PooledConnectionProvider implements ConnectionProvider
+{
+    public static final int DEFAULT_MIN_SIZE = 2;
+    public static final int DEFAULT_MAX_SIZE = 10;
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    public static final long DEFAULT_ACQUIRE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+
+    // Maximale Dauer der Validierung einer Verbindung vor dem Ausleihen.
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    // Verbindungen, die vor weniger als dieser Zeit zurückgegeben wurden, werden ohne Validierung ausgeliehen.
+    private static final long VALIDATION_BYPASS_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final String url;
+    private final String user;
+    private final String pwd;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long acquireTimeoutMillis;
+    private final int statementCacheSize;
+
+    // Begrenzt die Anzahl gleichzeitig ausgeliehener Verbindungen auf maxSize.
+    private final Semaphore permits;
+
+    // Freie Verbindungen; zuletzt zurückgegebene Verbindungen werden zuerst wieder ausgeliehen (LIFO).
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+
+    // Anzahl aller physischen Verbindungen (frei und ausgeliehen).
+    private final AtomicInteger totalConnections = new AtomicInteger();
+
+    // Treffer und Fehlschläge aller Statement-Caches des Pools.
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+
+    // Hintergrund-Thread für das Schließen unbenutzter Verbindungen.
+    private final ScheduledExecutorService housekeeper;
+
+    private volatile boolean closed;
+
+    /**
+     * Erstellt einen Pool mit den Standardwerten für Größe und Timeouts.
+     * @param url Der URL zur Datenbank.
+     * @param user Der Benutzername für die Datenbank.
+     * @param pwd Das Passwort für den Datenbankbenutzer.
+     * @throws SQLException wenn die initialen Verbindungen nicht hergestellt werden können.
+     */
+    public PooledConnectionProvider(String url, String user, String pwd) throws SQLException
+    {
+        this(url, user, pwd, DEFAULT_MIN_SIZE, DEFAULT_MAX_SIZE, DEFAULT_IDLE_TIMEOUT_MILLIS, DEFAULT_ACQUIRE_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Erstellt einen Pool mit der Standardgröße des Statement-Caches.
+     * @see #PooledConnectionProvider(String, String, String, int, int, long, long, int)
+     */
+    public PooledConnectionProvider(String url, String user, String pwd, int minSize, int maxSize,
+                                    long idleTimeoutMillis, long acquireTimeoutMillis) throws SQLException
+    {
+        this(url, user, pwd, minSize, maxSize, idleTimeoutMillis, acquireTimeoutMillis, DEFAULT_STATEMENT_CACHE_SIZE);
+    }
+
+    /**
+     * Erstellt einen Pool und stellt sofort minSize Verbindungen her.
+     * @param url Der URL zur Datenbank.
+     * @param user Der Benutzername für die Datenbank.
+     * @param pwd Das Passwort für den Datenbankbenutzer.
+     * @param minSize Anzahl der Verbindungen, die mindestens offen gehalten werden.
+     * @param maxSize Maximale Anzahl gleichzeitig ausgeliehener Verbindungen.
+     * @param idleTimeoutMillis Zeit, nach der eine unbenutzte Verbindung geschlossen wird.
+     * @param acquireTimeoutMillis Maximale Wartezeit in getConnection(), wenn alle Verbindungen ausgeliehen sind.
+     * @param statementCacheSize Maximale Anzahl gecachter PreparedStatements pro Verbindung (0 = kein Cache).
+     * @throws SQLException wenn die initialen Verbindungen nicht hergestellt werden können.
+     * @throws IllegalArgumentException wenn die Größen oder Timeouts ungültig sind.
+     */
+    public PooledConnectionProvider(String url, String user, String pwd, int minSize, int maxSize,
+                                    long idleTimeoutMillis, long acquireTimeoutMillis, int statementCacheSize) throws SQLException
+    {
+        Assert.notNull(url);
+        if(minSize < 0 || maxSize < 1 || minSize > maxSize)
+        {
+            throw new IllegalArgumentException("Ungültige Poolgröße: minSize=" + minSize + ", maxSize=" + maxSize);
+        }
+        if(idleTimeoutMillis <= 0 || acquireTimeoutMillis < 0)
+        {
+            throw new IllegalArgumentException("Timeouts müssen positiv sein!");
+        }
+        if(statementCacheSize < 0)
+        {
+            throw new IllegalArgumentException("Größe des Statement-Caches darf nicht negativ sein!");
+        }
+
+        this.url = url;
+        this.user = user;
+        this.pwd = pwd;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        try
+        {
+            fillToMinimum();
+        }
+        catch(SQLException e)
+        {
+            close();
+            throw e;
+        }
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        this.housekeeper.scheduleAtFixedRate(this::evictIdleConnections, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Leiht eine Verbindung aus dem Pool aus. Die Verbindung muss mit close() zurückgegeben werden.
+     * @return Eine validierte Verbindung.
+     * @throws SQLTimeoutException wenn innerhalb des Acquire-Timeouts keine Verbindung frei wird.
+     * @throws SQLException wenn der Pool geschlossen ist oder keine Verbindung hergestellt werden kann.
+     */
+    @Override
+    public Connection getConnection() throws SQLException
+    {
+        if(closed)
+        {
+            throw new SQLException("Connection-Pool ist bereits geschlossen!");
+        }
+
+        long start = System.nanoTime();
+        try
+        {
+            if(!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS))
+            {
+                throw new SQLTimeoutException("Keine freie Verbindung innerhalb von " + acquireTimeoutMillis
+                        + " ms verfügbar (maxSize=" + maxSize + ")");
+            }
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Warten auf eine freie Verbindung wurde unterbrochen!", e);
+        }
+
+        try
+        {
+            Connection connection = borrowValidConnection().newHandle();
+            // Wartezeit inklusive eventuellem Verbindungsaufbau (für RepositoryMetrics).
+            RepositoryMetrics.recordPoolWait(System.nanoTime() - start);
+            return connection;
+        }
+        catch(SQLException | RuntimeException e)
+        {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Nimmt eine freie Verbindung aus dem Pool oder stellt eine neue her.
+     * Ungültige Verbindungen werden dabei verworfen.
+     */
+    private PooledConnection borrowValidConnection() throws SQLException
+    {
+        PooledConnection pooled;
+        while((pooled = idle.pollFirst()) != null)
+        {
+            if(pooled.getIdleNanos() < VALIDATION_BYPASS_NANOS || pooled.isValid(VALIDATION_TIMEOUT_SECONDS))
+            {
+                return pooled;
+            }
+            destroy(pooled);
+        }
+        return createConnection();
+    }
+
+    /**
+     * Wird vom Handle einer ausgeliehenen Verbindung bei close() aufgerufen.
+     * @param pooled Die zurückgegebene Verbindung.
+     */
+    void release(PooledConnection pooled)
+    {
+        try
+        {
+            if(closed || pooled.isBroken() || !pooled.resetForReuse())
+            {
+                destroy(pooled);
+            }
+            else
+            {
+                pooled.touch();
+                idle.offerFirst(pooled);
+            }
+        }
+        finally
+        {
+            permits.release();
+        }
+    }
+
+    private PooledConnection createConnection() throws SQLException
+    {
+        Connection connection = MySqlDatabaseConnection.openConnection(url, user, pwd);
+        PooledConnection pooledConnection;
+        try
+        {
+            pooledConnection = new PooledConnection(connection, this, statementCacheSize);
+        }
+        catch(SQLException sqlException)
+        {
+            try
+            {
+                connection.close();
+            }
+            catch(SQLException closeException)
+            {
+                sqlException.addSuppressed(closeException);
+            }
+            throw sqlException;
+        }
+        totalConnections.incrementAndGet();
+        return pooledConnection;
+    }
+
+    private void destroy(PooledConnection pooled)
+    {
+        totalConnections.decrementAndGet();
+        pooled.closePhysically();
+    }
+
+    private void fillToMinimum() throws SQLException
+    {
+        while(!closed && totalConnections.get() < minSize)
+        {
+            idle.offerLast(createConnection());
+        }
+    }
+
+    /**
+     * Schließt Verbindungen, die länger als idleTimeoutMillis unbenutzt waren, solange mehr als minSize offen sind,
+     * und füllt den Pool danach wieder auf minSize auf.
+     */
+    private void evictIdleConnections()
+    {
+        long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        for(PooledConnection pooled : idle)
+        {
+            if(totalConnections.get() <= minSize)
+            {
+                break;
+            }
+            if(pooled.getIdleNanos() > idleTimeoutNanos && idle.remove(pooled))
+            {
+                destroy(pooled);
+            }
+        }
+
+        try
+        {
+            fillToMinimum();
+        }
+        catch(SQLException e)
+        {
+            // Die Datenbank ist gerade nicht erreichbar; beim nächsten Durchlauf wird es erneut versucht.
+        }
+    }
+
+    /**
+     * @return Die maximale Anzahl gleichzeitig ausgeliehener Verbindungen.
+     */
+    public int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    /**
+     * @return Anzahl aller physischen Verbindungen.
+     */
+    public int getTotalConnections()
+    {
+        return totalConnections.get();
+    }
+
+    /**
+     * @return Anzahl der freien Verbindungen im Pool.
+     */
+    public int getIdleConnections()
+    {
+        return idle.size();
+    }
+
+    /**
+     * @return Anzahl der aktuell ausgeliehenen Verbindungen.
+     */
+    public int getActiveConnections()
+    {
+        return maxSize - permits.availablePermits();
+    }
+
+    /**
+     * @return Anzahl der prepareStatement()-Aufrufe, die aus einem Statement-Cache bedient wurden.
+     */
+    public long getStatementCacheHits()
+    {
+        return statementCacheHits.sum();
+    }
+
+    /**
+     * @return Anzahl der prepareStatement()-Aufrufe, für die ein neues Statement vorbereitet werden musste.
+     */
+    public long getStatementCacheMisses()
+    {
+        return statementCacheMisses.sum();
+    }
+
+    LongAdder statementCacheHitCounter()
+    {
+        return statementCacheHits;
+    }
+
+    LongAdder statementCacheMissCounter()
+    {
+        return statementCacheMisses;
+    }
+
+    /**
+     * Schließt den Pool und alle freien Verbindungen. Ausgeliehene Verbindungen werden beim Zurückgeben geschlossen.
+     */
+    @Override
+    public void close()
+    {
+        closed = true;
+        if(housekeeper != null)
+        {
+            housekeeper.shutdownNow();
+        }
+        PooledConnection pooled;
+        while((pooled = idle.pollFirst()) != null)
+        {
+            destroy(pooled);
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package dataaccess;
+
+import util.Assert;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.logging.Logger;
+
+/**
+ * Sammelt Messwerte je Repository-Methode: Laufzeiten (Histogramm mit p50/p99/p999), Zeilen, Roundtrips zur Datenbank,
+ * Wartezeit auf eine Verbindung aus dem Pool und Fehler je SQLState.
+ *
+ * Während eine Methode gemessen wird, ist sie im aktuellen Thread als "laufende Operation" hinterlegt.
+ * Connection-Pool und Statement-Cache melden Wartezeiten und ausgeführte Statements dorthin,
+ * ohne die Repository-Methoden dafür ändern zu müssen.
+ *
+ * Die Werte sind über JMX (registerMBeans()) und als Prometheus-Text (toPrometheusText()) abrufbar.
+ * Methoden, die länger als die eingestellte Grenze dauern, werden mit dem zuletzt ausgeführten SQL geloggt.
+ */
+public class RepositoryMetrics implements RepositoryMetricsMXBean
+{
+    public static final long DEFAULT_SLOW_QUERY_THRESHOLD_MILLIS = 500;
+
+    private static final Logger SLOW_QUERY_LOG = Logger.getLogger("dataaccess.slowquery");
+
+    private static final String JMX_DOMAIN = "dataaccess";
+
+    // Die im aktuellen Thread laufende Operation oder null.
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private final String repositoryName;
+    private final ConcurrentHashMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private volatile long slowQueryThresholdNanos;
+    private volatile boolean jmxRegistered;
+
+    /**
+     * Zustand einer laufenden Operation im aktuellen Thread.
+     */
+    private static final class Scope
+    {
+        final OperationMetrics metrics;
+        final Scope outer;
+        String lastSql;
+
+        Scope(OperationMetrics metrics, Scope outer)
+        {
+            this.metrics = metrics;
+            this.outer = outer;
+        }
+    }
+
+    public RepositoryMetrics(String repositoryName)
+    {
+        this(repositoryName, DEFAULT_SLOW_QUERY_THRESHOLD_MILLIS);
+    }
+
+    /**
+     * @param repositoryName Name für JMX und das Label "repository" (z.B. "courses").
+     * @param slowQueryThresholdMillis Ab dieser Laufzeit wird ein Aufruf als langsam geloggt.
+     */
+    public RepositoryMetrics(String repositoryName, long slowQueryThresholdMillis)
+    {
+        Assert.notNull(repositoryName);
+        this.repositoryName = repositoryName;
+        setSlowQueryThresholdMillis(slowQueryThresholdMillis);
+    }
+
+    /**
+     * Führt einen Aufruf aus und misst ihn unter dem angegebenen Namen.
+     * @param operation Der Name der Operation (z.B. "getById").
+     * @param call Der auszuführende Aufruf.
+     * @param rowCounter Ermittelt aus dem Ergebnis die Anzahl der gelesenen bzw. geschriebenen Zeilen.
+     * @return Das Ergebnis des Aufrufs.
+     */
+    public <T> T record(String operation, Supplier<T> call, ToLongFunction<T> rowCounter)
+    {
+        OperationMetrics metrics = getOperation(operation);
+        Scope scope = new Scope(metrics, CURRENT.get());
+        CURRENT.set(scope);
+        long start = System.nanoTime();
+        try
+        {
+            T result = call.get();
+            metrics.recordRows(rowCounter.applyAsLong(result));
+            return result;
+        }
+        catch(DatabaseException databaseException)
+        {
+            metrics.recordError(databaseException.getSqlState());
+            throw databaseException;
+        }
+        catch(RuntimeException runtimeException)
+        {
+            metrics.recordError(null);
+            throw runtimeException;
+        }
+        finally
+        {
+            long nanos = System.nanoTime() - start;
+            if(scope.outer == null)
+            {
+                CURRENT.remove();
+            }
+            else
+            {
+                CURRENT.set(scope.outer);
+            }
+            metrics.recordCall(nanos);
+            if(nanos >= slowQueryThresholdNanos)
+            {
+                metrics.recordSlowCall();
+                SLOW_QUERY_LOG.warning(String.format("Langsame Operation %s.%s: %d ms (Grenze %d ms), zuletzt ausgeführt: %s",
+                        repositoryName, operation, TimeUnit.NANOSECONDS.toMillis(nanos),
+                        getSlowQueryThresholdMillis(), scope.lastSql));
+            }
+        }
+    }
+
+    /**
+     * Wird vom Statement-Cache bei jeder Ausführung eines Statements aufgerufen.
+     */
+    static void recordRoundTrip(String sql)
+    {
+        Scope scope = CURRENT.get();
+        if(scope != null)
+        {
+            scope.metrics.recordRoundTrip();
+            if(sql != null)
+            {
+                scope.lastSql = sql;
+            }
+        }
+    }
+
+    /**
+     * Wird vom Connection-Pool nach dem Ausleihen einer Verbindung aufgerufen.
+     */
+    static void recordPoolWait(long nanos)
+    {
+        Scope scope = CURRENT.get();
+        if(scope != null)
+        {
+            scope.metrics.recordPoolWait(nanos);
+        }
+    }
+
+    /**
+     * @return Die Messwerte der Operation; werden beim ersten Zugriff angelegt.
+     */
+    public OperationMetrics getOperation(String operation)
+    {
+        return operations.computeIfAbsent(operation, name -> {
+            OperationMetrics metrics = new OperationMetrics(name);
+            if(jmxRegistered)
+            {
+                register(operationObjectName(name), metrics);
+            }
+            return metrics;
+        });
+    }
+
+    /**
+     * @return Die Messwerte aller bisher aufgerufenen Operationen, sortiert nach Namen.
+     */
+    public Collection<OperationMetrics> getOperations()
+    {
+        return new TreeMap<>(operations).values();
+    }
+
+    @Override
+    public long getSlowQueryThresholdMillis()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(slowQueryThresholdNanos);
+    }
+
+    @Override
+    public void setSlowQueryThresholdMillis(long slowQueryThresholdMillis)
+    {
+        if(slowQueryThresholdMillis < 0)
+        {
+            throw new IllegalArgumentException("Grenze für langsame Abfragen darf nicht negativ sein!");
+        }
+        this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMillis);
+    }
+
+    @Override
+    public void reset()
+    {
+        for(OperationMetrics metrics : operations.values())
+        {
+            metrics.reset();
+        }
+    }
+
+    /**
+     * Registriert diese Messwerte und je Operation ein OperationMetricsMXBean beim Plattform-MBeanServer,
+     * z.B. dataaccess:type=RepositoryMetrics,repository=courses,operation=getById.
+     */
+    public void registerMBeans()
+    {
+        register(objectName(), this);
+        jmxRegistered = true;
+        for(Map.Entry<String, OperationMetrics> entry : operations.entrySet())
+        {
+            register(operationObjectName(entry.getKey()), entry.getValue());
+        }
+    }
+
+    /**
+     * Entfernt alle mit registerMBeans() registrierten MBeans wieder.
+     */
+    public void unregisterMBeans()
+    {
+        jmxRegistered = false;
+        List<String> names = new ArrayList<>();
+        names.add(objectName());
+        for(String operation : operations.keySet())
+        {
+            names.add(operationObjectName(operation));
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for(String name : names)
+        {
+            try
+            {
+                server.unregisterMBean(new ObjectName(name));
+            }
+            catch(InstanceNotFoundException ignored)
+            {
+                // War nicht (mehr) registriert.
+            }
+            catch(JMException jmException)
+            {
+                throw new IllegalStateException("MBean " + name + " konnte nicht entfernt werden", jmException);
+            }
+        }
+    }
+
+    @Override
+    public String getPrometheusText()
+    {
+        return toPrometheusText();
+    }
+
+    /**
+     * @return Alle Messwerte im Textformat von Prometheus (Laufzeiten als Summary in Sekunden).
+     */
+    public String toPrometheusText()
+    {
+        StringBuilder text = new StringBuilder();
+        Collection<OperationMetrics> all = getOperations();
+
+        header(text, "course_repository_latency_seconds", "summary", "Laufzeit der Repository-Methoden.");
+        for(OperationMetrics metrics : all)
+        {
+            LatencyHistogram latency = metrics.getLatency();
+            for(double quantile : new double[]{0.5, 0.99, 0.999})
+            {
+                sample(text, "course_repository_latency_seconds", metrics, "quantile=\"" + quantile + "\"",
+                        seconds(latency.getValueAtPercentile(quantile * 100)));
+            }
+            sample(text, "course_repository_latency_seconds_sum", metrics, null, seconds(latency.getTotalNanos()));
+            sample(text, "course_repository_latency_seconds_count", metrics, null, latency.getCount());
+        }
+
+        header(text, "course_repository_pool_wait_seconds", "summary", "Wartezeit auf eine Verbindung aus dem Pool.");
+        for(OperationMetrics metrics : all)
+        {
+            LatencyHistogram poolWait = metrics.getPoolWait();
+            sample(text, "course_repository_pool_wait_seconds", metrics, "quantile=\"0.99\"",
+                    seconds(poolWait.getValueAtPercentile(99)));
+            sample(text, "course_repository_pool_wait_seconds_sum", metrics, null, seconds(poolWait.getTotalNanos()));
+            sample(text, "course_repository_pool_wait_seconds_count", metrics, null, poolWait.getCount());
+        }
+
+        header(text, "course_repository_rows_total", "counter", "Gelesene bzw. geschriebene Zeilen.");
+        for(OperationMetrics metrics : all)
+        {
+            sample(text, "course_repository_rows_total", metrics, null, metrics.getRows());
+        }
+
+        header(text, "course_repository_round_trips_total", "counter", "Ausgeführte Statements (Roundtrips zur Datenbank).");
+        for(OperationMetrics metrics : all)
+        {
+            sample(text, "course_repository_round_trips_total", metrics, null, metrics.getRoundTrips());
+        }
+
+        header(text, "course_repository_slow_calls_total", "counter", "Aufrufe über der Grenze für langsame Abfragen.");
+        for(OperationMetrics metrics : all)
+        {
+            sample(text, "course_repository_slow_calls_total", metrics, null, metrics.getSlowCalls());
+        }
+
+        header(text, "course_repository_errors_total", "counter", "Fehler je SQLState.");
+        for(OperationMetrics metrics : all)
+        {
+            for(Map.Entry<String, Long> error : metrics.getErrorsBySqlState().entrySet())
+            {
+                sample(text, "course_repository_errors_total", metrics, "sql_state=\"" + error.getKey() + "\"", error.getValue());
+            }
+        }
+        return text.toString();
+    }
+
+    private static void header(StringBuilder text, String name, String type, String help)
+    {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private void sample(StringBuilder text, String name, OperationMetrics metrics, String extraLabel, double value)
+    {
+        text.append(name)
+                .append("{repository=\"").append(repositoryName)
+                .append("\",operation=\"").append(metrics.getOperation()).append('"');
+        if(extraLabel != null)
+        {
+            text.append(',').append(extraLabel);
+        }
+        text.append("} ");
+        if(value == Math.rint(value) && Math.abs(value) < 1e15)
+        {
+            text.append((long) value);
+        }
+        else
+        {
+            text.append(String.format(Locale.ROOT, "%.9f", value));
+        }
+        text.append('\n');
+    }
+
+    private static double seconds(long nanos)
+    {
+        return nanos / 1_000_000_000.0;
+    }
+
+    private String objectName()
+    {
+        return JMX_DOMAIN + ":type=RepositoryMetrics,repository=" + ObjectName.quote(repositoryName);
+    }
+
+    private String operationObjectName(String operation)
+    {
+        return objectName() + ",operation=" + ObjectName.quote(operation);
+    }
+
+    private static void register(String name, Object mbean)
+    {
+        try
+        {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, new ObjectName(name));
+        }
+        catch(InstanceAlreadyExistsException ignored)
+        {
+            // Bereits registriert, z.B. nach erneutem registerMBeans().
+        }
+        catch(JMException jmException)
+        {
+            throw new IllegalStateException("MBean " + name + " konnte nicht registriert werden", jmException);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder text = new StringBuilder("RepositoryMetrics{" + repositoryName + "}");
+        for(OperationMetrics metrics : getOperations())
+        {
+            text.append('\n').append("  ").append(metrics);
+        }
+        return text.toString();
+    }
+}
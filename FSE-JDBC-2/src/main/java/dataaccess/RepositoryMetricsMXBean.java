@@ -0,0 +1,21 @@
+package dataaccess;
+
+/**
+ * JMX-Sicht auf die gesamten RepositoryMetrics.
+ */
+public interface RepositoryMetricsMXBean
+{
+    long getSlowQueryThresholdMillis();
+
+    void setSlowQueryThresholdMillis(long slowQueryThresholdMillis);
+
+    /**
+     * @return Alle Messwerte im Textformat von Prometheus.
+     */
+    String getPrometheusText();
+
+    /**
+     * Setzt alle Messwerte auf 0 zurück.
+     */
+    void reset();
+}
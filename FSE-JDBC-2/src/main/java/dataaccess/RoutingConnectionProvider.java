@@ -0,0 +1,311 @@
+package dataaccess;
+
+import util.Assert;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ConnectionProvider mit Lese-/Schreibtrennung: getConnection() liefert immer eine Verbindung zum Primary,
+ * getReadConnection() eine Verbindung zu einem der Replikate (Round-Robin oder das am wenigsten belastete).
+ *
+ * Read-your-writes: Hat ein Thread gerade eine Verbindung zum Primary verwendet, liest er für stickyMillis
+ * ebenfalls vom Primary, damit er seine eigenen Änderungen auch bei verzögerter Replikation sieht.
+ * Das gilt nur pro Thread (lastPrimaryUse ist ein ThreadLocal): Laufen Schreiben und Lesen in verschiedenen Threads,
+ * z.B. über AsyncCourseRepository, kann das Lesen ein Replikat ohne die eigene Änderung treffen.
+ *
+ * Ein Hintergrund-Thread prüft die Replikate regelmäßig. Nicht erreichbare Replikate werden übersprungen,
+ * bis sie wieder antworten; ist kein Replikat verfügbar, wird vom Primary gelesen (Failover).
+ */
+public class RoutingConnectionProvider implements ConnectionProvider
+{
+    public static final long DEFAULT_STICKY_MILLIS = TimeUnit.SECONDS.toMillis(2);
+    public static final long DEFAULT_HEALTH_CHECK_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    // Maximale Wartezeit der Gesundheitsprüfung pro Replikat.
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    /**
+     * Auswahl des Replikats für einen Lesezugriff.
+     */
+    public enum SelectionStrategy
+    {
+        // Die Replikate werden der Reihe nach verwendet.
+        ROUND_ROBIN,
+        // Das Replikat mit den wenigsten gerade ausgeliehenen Verbindungen wird verwendet.
+        LEAST_LOADED
+    }
+
+    private final ConnectionProvider primary;
+    private final List<Replica> replicas;
+    private final SelectionStrategy strategy;
+    private final long stickyNanos;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    // Zeitpunkt (System.nanoTime) der letzten Verwendung des Primarys durch den jeweiligen Thread; null, wenn noch nie.
+    // Andere Threads (z.B. die Worker von AsyncCourseRepository) sehen diesen Zeitpunkt nicht.
+    private final ThreadLocal<long[]> lastPrimaryUse = new ThreadLocal<>();
+
+    private final ScheduledExecutorService healthChecker;
+
+    /**
+     * Erstellt einen Provider mit Round-Robin-Auswahl und den Standardwerten für Stickiness und Gesundheitsprüfung.
+     * @param primary Der Provider für den Primary (Schreibzugriffe).
+     * @param replicas Die Provider der Replikate (Lesezugriffe); darf leer sein.
+     */
+    public RoutingConnectionProvider(ConnectionProvider primary, List<? extends ConnectionProvider> replicas)
+    {
+        this(primary, replicas, SelectionStrategy.ROUND_ROBIN, DEFAULT_STICKY_MILLIS, DEFAULT_HEALTH_CHECK_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param primary Der Provider für den Primary (Schreibzugriffe).
+     * @param replicas Die Provider der Replikate (Lesezugriffe); darf leer sein.
+     * @param strategy Die Auswahl des Replikats.
+     * @param stickyMillis Wie lange ein Thread nach der Verwendung des Primarys auch vom Primary liest (0 = nie).
+     * @param healthCheckIntervalMillis Abstand der Gesundheitsprüfungen.
+     */
+    public RoutingConnectionProvider(ConnectionProvider primary, List<? extends ConnectionProvider> replicas, SelectionStrategy strategy,
+                                     long stickyMillis, long healthCheckIntervalMillis)
+    {
+        Assert.notNull(primary);
+        Assert.notNull(replicas);
+        Assert.notNull(strategy);
+        if(stickyMillis < 0 || healthCheckIntervalMillis <= 0)
+        {
+            throw new IllegalArgumentException("Ungültige Zeiten: stickyMillis=" + stickyMillis
+                    + ", healthCheckIntervalMillis=" + healthCheckIntervalMillis);
+        }
+        this.primary = primary;
+        this.strategy = strategy;
+        this.stickyNanos = TimeUnit.MILLISECONDS.toNanos(stickyMillis);
+        this.replicas = new ArrayList<>(replicas.size());
+        for(ConnectionProvider replica : replicas)
+        {
+            Assert.notNull(replica);
+            this.replicas.add(new Replica(replica));
+        }
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.healthChecker.scheduleWithFixedDelay(this::checkReplicas, healthCheckIntervalMillis, healthCheckIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Liefert eine Verbindung zum Primary. Bis stickyMillis nach dem Zurückgeben liest der Thread ebenfalls vom Primary.
+     */
+    @Override
+    public Connection getConnection() throws SQLException
+    {
+        long[] lastUse = lastPrimaryUse.get();
+        if(lastUse == null)
+        {
+            lastUse = new long[1];
+            lastPrimaryUse.set(lastUse);
+        }
+        lastUse[0] = System.nanoTime();
+        Connection connection = primary.getConnection();
+        long[] lastUseOfThread = lastUse;
+        return wrap(connection, () -> lastUseOfThread[0] = System.nanoTime());
+    }
+
+    /**
+     * Liefert eine Verbindung zu einem verfügbaren Replikat. Direkt nach einem Schreibzugriff des Threads,
+     * oder wenn kein Replikat erreichbar ist, wird eine Verbindung zum Primary geliefert.
+     */
+    @Override
+    public Connection getReadConnection() throws SQLException
+    {
+        long[] lastUse = lastPrimaryUse.get();
+        if(replicas.isEmpty() || (lastUse != null && System.nanoTime() - lastUse[0] < stickyNanos))
+        {
+            return primary.getConnection();
+        }
+
+        // Jedes Replikat höchstens einmal versuchen, beginnend mit dem von der Strategie gewählten.
+        int start = selectReplica();
+        for(int attempt = 0; attempt < replicas.size(); attempt++)
+        {
+            Replica replica = replicas.get((start + attempt) % replicas.size());
+            if(!replica.healthy)
+            {
+                continue;
+            }
+            try
+            {
+                Connection connection = replica.provider.getConnection();
+                replica.active.incrementAndGet();
+                return wrap(connection, replica.active::decrementAndGet);
+            }
+            catch(SQLException e)
+            {
+                // Bis zur nächsten erfolgreichen Gesundheitsprüfung wird das Replikat übersprungen.
+                replica.healthy = false;
+            }
+        }
+        return primary.getConnection();
+    }
+
+    private int selectReplica()
+    {
+        if(strategy == SelectionStrategy.ROUND_ROBIN)
+        {
+            return Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        }
+        int best = 0;
+        int bestLoad = Integer.MAX_VALUE;
+        for(int i = 0; i < replicas.size(); i++)
+        {
+            Replica replica = replicas.get(i);
+            int load = replica.active.get();
+            if(replica.healthy && load < bestLoad)
+            {
+                best = i;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Prüft alle Replikate mit einer kurzen Ausleihe und Connection.isValid().
+     */
+    private void checkReplicas()
+    {
+        for(Replica replica : replicas)
+        {
+            try(Connection connection = replica.provider.getConnection())
+            {
+                replica.healthy = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            }
+            catch(SQLException | RuntimeException e)
+            {
+                replica.healthy = false;
+            }
+        }
+    }
+
+    /**
+     * Führt sofort eine Gesundheitsprüfung aller Replikate aus, z.B. nach einem bekannten Ausfall.
+     */
+    public void checkReplicasNow()
+    {
+        checkReplicas();
+    }
+
+    /**
+     * @return Anzahl der Replikate, die bei der letzten Prüfung erreichbar waren.
+     */
+    public int getHealthyReplicaCount()
+    {
+        int healthy = 0;
+        for(Replica replica : replicas)
+        {
+            if(replica.healthy)
+            {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    /**
+     * @param index Position des Replikats in der Liste aus dem Konstruktor.
+     * @return Anzahl der gerade ausgeliehenen Verbindungen zu diesem Replikat.
+     */
+    public int getActiveReadConnections(int index)
+    {
+        return replicas.get(index).active.get();
+    }
+
+    /**
+     * Beendet die Gesundheitsprüfung und schließt Primary und Replikate.
+     */
+    @Override
+    public void close()
+    {
+        healthChecker.shutdownNow();
+        for(Replica replica : replicas)
+        {
+            replica.provider.close();
+        }
+        primary.close();
+    }
+
+    /**
+     * Umhüllt eine Verbindung so, dass beim ersten close() zusätzlich onClose ausgeführt wird.
+     */
+    private static Connection wrap(Connection connection, Runnable onClose)
+    {
+        InvocationHandler handler = new InvocationHandler()
+        {
+            private boolean closed;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+            {
+                switch(method.getName())
+                {
+                    case "close":
+                        if(!closed)
+                        {
+                            closed = true;
+                            onClose.run();
+                        }
+                        break;
+
+                    case "equals":
+                        return proxy == args[0];
+
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+
+                    default:
+                        break;
+                }
+                try
+                {
+                    return method.invoke(connection, args);
+                }
+                catch(InvocationTargetException e)
+                {
+                    throw e.getCause();
+                }
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                handler
+        );
+    }
+
+    /**
+     * Ein Replikat mit seinem Zustand.
+     */
+    private static final class Replica
+    {
+        private final ConnectionProvider provider;
+        private final AtomicInteger active = new AtomicInteger();
+        private volatile boolean healthy = true;
+
+        Replica(ConnectionProvider provider)
+        {
+            this.provider = provider;
+        }
+    }
+}
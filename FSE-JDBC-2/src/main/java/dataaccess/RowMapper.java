@@ -0,0 +1,18 @@
+package dataaccess;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Wandelt die aktuelle Zeile eines ResultSets in ein Objekt um.
+ * Eine Instanz gehört zu genau einem ResultSet und darf nicht zwischen mehreren geteilt werden.
+ * @param <T> Der Typ der erzeugten Objekte.
+ */
+public interface RowMapper<T>
+{
+    /**
+     * @param resultSet Das ResultSet, positioniert auf der zu lesenden Zeile.
+     * @return Das Objekt zur aktuellen Zeile.
+     */
+    T mapRow(ResultSet resultSet) throws SQLException;
+}
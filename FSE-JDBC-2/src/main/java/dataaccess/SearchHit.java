@@ -0,0 +1,36 @@
+package dataaccess;
+
+/**
+ * Ein Treffer einer Volltextsuche mit seiner Relevanz.
+ * @param <T> Der Typ des gefundenen Eintrags.
+ */
+public class SearchHit<T>
+{
+    private final T item;
+    private final double score;
+
+    public SearchHit(T item, double score)
+    {
+        this.item = item;
+        this.score = score;
+    }
+
+    public T getItem()
+    {
+        return item;
+    }
+
+    /**
+     * @return Die Relevanz des Treffers; höher ist besser. Werte verschiedener Suchmaschinen sind nicht vergleichbar.
+     */
+    public double getScore()
+    {
+        return score;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%.3f %s", score, item);
+    }
+}
@@ -0,0 +1,324 @@
+package dataaccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LRU-Cache für PreparedStatements einer einzelnen physischen Verbindung.
+ * Ein prepareStatement() mit bereits bekanntem SQL liefert das vorhandene Statement, statt es erneut vorzubereiten.
+ * Nach außen wird ein Proxy herausgegeben: close() schließt das Statement nicht, sondern setzt die Parameter zurück,
+ * schließt das zuletzt geöffnete ResultSet und gibt das Statement an den Cache zurück.
+ * Statements, die beim Zurückgeben der Verbindung noch nicht geschlossen wurden, werden dabei zwangsweise zurückgegeben.
+ */
+class StatementCache
+{
+    // Maximale Anzahl gecachter Statements; 0 schaltet den Cache ab.
+    private final int maxSize;
+
+    // Gecachte Statements in Zugriffsreihenfolge (das älteste zuerst).
+    private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Alle aktuell ausgegebenen Statements (gecacht oder nicht).
+    private final List<CachedStatement> checkedOut = new ArrayList<>();
+
+    // Die Verbindung, zu der der Cache gehört; wird bei Verbindungsfehlern als defekt markiert.
+    private final PooledConnection owner;
+
+    // Gemeinsame Zähler des Pools.
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    StatementCache(PooledConnection owner, int maxSize, LongAdder hits, LongAdder misses)
+    {
+        this.owner = owner;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    /**
+     * Liefert ein PreparedStatement für das SQL, aus dem Cache oder neu vorbereitet.
+     * @param physical Die physische Verbindung, auf der das Statement vorbereitet wird.
+     * @param handle Das Verbindungs-Handle, das über getConnection() des Statements zurückgegeben wird.
+     * @param sql Der SQL-Befehl.
+     * @param autoGeneratedKeys Statement.RETURN_GENERATED_KEYS oder Statement.NO_GENERATED_KEYS.
+     * @return Ein Proxy auf das Statement, dessen close() es an den Cache zurückgibt.
+     * @throws SQLException wenn das Statement nicht vorbereitet werden kann.
+     */
+    synchronized PreparedStatement prepare(Connection physical, Connection handle, String sql, int autoGeneratedKeys) throws SQLException
+    {
+        String key = autoGeneratedKeys + ":" + sql;
+        CachedStatement cached = statements.get(key);
+        if(cached != null && !cached.inUse)
+        {
+            hits.increment();
+            return cached.checkout(handle);
+        }
+
+        misses.increment();
+        PreparedStatement statement = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS
+                ? physical.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                : physical.prepareStatement(sql);
+
+        // Ist dasselbe SQL bereits ausgeliehen, wird ein ungecachtes Statement verwendet, das beim close() geschlossen wird.
+        boolean cacheable = maxSize > 0 && cached == null;
+        CachedStatement entry = new CachedStatement(statement, sql, cacheable);
+        if(cacheable)
+        {
+            statements.put(key, entry);
+            evictEldest();
+        }
+        return entry.checkout(handle);
+    }
+
+    /**
+     * Entfernt die am längsten nicht verwendeten Statements, solange der Cache zu groß ist.
+     * Gerade ausgeliehene Statements werden übersprungen und erst beim Zurückgeben geschlossen.
+     */
+    private void evictEldest()
+    {
+        Iterator<CachedStatement> iterator = statements.values().iterator();
+        while(statements.size() > maxSize && iterator.hasNext())
+        {
+            CachedStatement eldest = iterator.next();
+            iterator.remove();
+            eldest.cacheable = false;
+            if(!eldest.inUse)
+            {
+                eldest.closeQuietly();
+            }
+        }
+    }
+
+    /**
+     * Gibt alle noch ausgeliehenen Statements zurück. Wird aufgerufen, wenn die Verbindung an den Pool zurückgeht.
+     */
+    synchronized void releaseAll()
+    {
+        for(CachedStatement entry : new ArrayList<>(checkedOut))
+        {
+            entry.checkin();
+        }
+    }
+
+    /**
+     * Schließt alle Statements. Wird aufgerufen, bevor die physische Verbindung geschlossen wird.
+     */
+    synchronized void closeAll()
+    {
+        releaseAll();
+        for(CachedStatement entry : statements.values())
+        {
+            entry.closeQuietly();
+        }
+        statements.clear();
+    }
+
+    /**
+     * @return Anzahl der aktuell gecachten Statements.
+     */
+    synchronized int size()
+    {
+        return statements.size();
+    }
+
+    /**
+     * Ein Statement im Cache samt dem Zustand seiner aktuellen Ausleihe.
+     */
+    private final class CachedStatement
+    {
+        private final PreparedStatement statement;
+        private final String sql;
+
+        // False, wenn das Statement nicht (mehr) im Cache liegt und beim Zurückgeben geschlossen werden muss.
+        private boolean cacheable;
+
+        private boolean inUse;
+
+        // Das Handle der aktuellen Ausleihe.
+        private StatementHandle currentHandle;
+
+        // Das zuletzt über das Handle geöffnete ResultSet.
+        private ResultSet openResultSet;
+
+        // Wurde die Fetch-Size oder maxRows verändert, werden sie beim Zurückgeben zurückgesetzt.
+        private boolean settingsChanged;
+
+        CachedStatement(PreparedStatement statement, String sql, boolean cacheable)
+        {
+            this.statement = statement;
+            this.sql = sql;
+            this.cacheable = cacheable;
+        }
+
+        PreparedStatement checkout(Connection connectionHandle)
+        {
+            inUse = true;
+            checkedOut.add(this);
+            currentHandle = new StatementHandle(this, connectionHandle);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    currentHandle
+            );
+        }
+
+        void checkin()
+        {
+            synchronized(StatementCache.this)
+            {
+                if(!inUse)
+                {
+                    return;
+                }
+                inUse = false;
+                checkedOut.remove(this);
+                currentHandle.returned = true;
+                currentHandle = null;
+
+                try
+                {
+                    if(openResultSet != null)
+                    {
+                        openResultSet.close();
+                        openResultSet = null;
+                    }
+                    if(!cacheable)
+                    {
+                        statement.close();
+                        return;
+                    }
+                    statement.clearParameters();
+                    statement.clearBatch();
+                    if(settingsChanged)
+                    {
+                        statement.setFetchSize(0);
+                        statement.setMaxRows(0);
+                        settingsChanged = false;
+                    }
+                }
+                catch(SQLException e)
+                {
+                    // Ein Statement in unklarem Zustand wird nicht weiterverwendet.
+                    statements.values().remove(this);
+                    closeQuietly();
+                }
+            }
+        }
+
+        void closeQuietly()
+        {
+            try
+            {
+                statement.close();
+            }
+            catch(SQLException ignored)
+            {
+                // Das Statement wird ohnehin verworfen.
+            }
+        }
+    }
+
+    /**
+     * InvocationHandler für eine einzelne Ausleihe eines Statements.
+     */
+    private final class StatementHandle implements InvocationHandler
+    {
+        private final CachedStatement entry;
+        private final Connection connectionHandle;
+        private volatile boolean returned;
+
+        StatementHandle(CachedStatement entry, Connection connectionHandle)
+        {
+            this.entry = entry;
+            this.connectionHandle = connectionHandle;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+        {
+            switch(method.getName())
+            {
+                case "close":
+                    if(!returned)
+                    {
+                        entry.checkin();
+                    }
+                    return null;
+
+                case "isClosed":
+                    return returned || entry.statement.isClosed();
+
+                case "equals":
+                    return proxy == args[0];
+
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+
+                case "toString":
+                    return "CachedStatement[" + entry.statement + (returned ? ", returned" : "") + "]";
+
+                default:
+                    break;
+            }
+
+            if(returned)
+            {
+                throw new SQLException("Statement wurde bereits geschlossen!");
+            }
+
+            switch(method.getName())
+            {
+                case "getConnection":
+                    return connectionHandle;
+
+                case "setFetchSize":
+                case "setMaxRows":
+                    entry.settingsChanged = true;
+                    break;
+
+                default:
+                    break;
+            }
+
+            if(method.getName().startsWith("execute"))
+            {
+                // Jede Ausführung ist ein Roundtrip zur Datenbank (für RepositoryMetrics).
+                RepositoryMetrics.recordRoundTrip(entry.sql);
+            }
+
+            Object result;
+            try
+            {
+                result = method.invoke(entry.statement, args);
+            }
+            catch(InvocationTargetException e)
+            {
+                Throwable cause = e.getCause();
+                if(cause instanceof SQLException && PooledConnection.isConnectionError((SQLException) cause))
+                {
+                    owner.markBroken();
+                }
+                throw cause;
+            }
+
+            if(result instanceof ResultSet && "executeQuery".equals(method.getName()))
+            {
+                entry.openResultSet = (ResultSet) result;
+            }
+            return result;
+        }
+    }
+}
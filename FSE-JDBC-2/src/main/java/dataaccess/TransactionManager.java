@@ -0,0 +1,250 @@
+package dataaccess;
+
+import util.Assert;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * ConnectionProvider, der Transaktionen über mehrere Repository-Aufrufe hinweg ermöglicht.
+ * Mit begin() wird eine Verbindung aus dem umhüllten Provider an den aktuellen Thread gebunden;
+ * bis zum commit() oder rollback() der UnitOfWork liefert getConnection() auf diesem Thread immer diese Verbindung.
+ * Repositories, die diesen Provider verwenden, laufen dadurch ohne Änderung in der Transaktion mit.
+ *
+ * Außerhalb einer Transaktion wird jede Anfrage unverändert an den umhüllten Provider weitergereicht (Autocommit).
+ *
+ * Beispiel:
+ * <pre>
+ * try(UnitOfWork unitOfWork = transactionManager.begin())
+ * {
+ *     repository.insert(course);
+ *     repository.deleteById(oldId);
+ *     unitOfWork.commit();
+ * }   // ohne commit() wird beim Schließen zurückgerollt
+ * </pre>
+ */
+public class TransactionManager implements ConnectionProvider
+{
+    private final ConnectionProvider delegate;
+
+    // Die Transaktion des jeweiligen Threads; null, wenn keine aktiv ist.
+    private final ThreadLocal<UnitOfWork> current = new ThreadLocal<>();
+
+    /**
+     * @param delegate Der Provider, aus dem die Verbindungen für die Transaktionen geholt werden (z.B. ein Pool).
+     */
+    public TransactionManager(ConnectionProvider delegate)
+    {
+        Assert.notNull(delegate);
+        this.delegate = delegate;
+    }
+
+    /**
+     * Startet eine Transaktion mit den Standardeinstellungen der Verbindung.
+     * @return Die an den aktuellen Thread gebundene Transaktion.
+     * @throws IllegalStateException Wenn auf diesem Thread bereits eine Transaktion aktiv ist.
+     * @throws DatabaseException Wenn keine Verbindung bereitgestellt werden kann.
+     */
+    public UnitOfWork begin()
+    {
+        return begin(UnitOfWork.DEFAULT_ISOLATION, false);
+    }
+
+    /**
+     * Startet eine lesende Transaktion; der Treiber kann sie z.B. an ein Replikat weiterleiten oder
+     * auf Sperren verzichten.
+     */
+    public UnitOfWork beginReadOnly()
+    {
+        return begin(UnitOfWork.DEFAULT_ISOLATION, true);
+    }
+
+    /**
+     * Startet eine Transaktion.
+     * @param isolationLevel Eine der Konstanten Connection.TRANSACTION_*, oder UnitOfWork.DEFAULT_ISOLATION.
+     * @param readOnly Hinweis an den Treiber, dass nur gelesen wird.
+     * @return Die an den aktuellen Thread gebundene Transaktion.
+     * @throws IllegalStateException Wenn auf diesem Thread bereits eine Transaktion aktiv ist.
+     * @throws DatabaseException Wenn keine Verbindung bereitgestellt oder konfiguriert werden kann.
+     */
+    public UnitOfWork begin(int isolationLevel, boolean readOnly)
+    {
+        if(current.get() != null)
+        {
+            throw new IllegalStateException("Auf diesem Thread ist bereits eine Transaktion aktiv!");
+        }
+        Connection connection;
+        try
+        {
+            connection = delegate.getConnection();
+        }
+        catch(SQLException sqlException)
+        {
+            throw new DatabaseException(sqlException.getMessage(), sqlException);
+        }
+        UnitOfWork unitOfWork = new UnitOfWork(this, connection, isolationLevel, readOnly);
+        current.set(unitOfWork);
+        return unitOfWork;
+    }
+
+    /**
+     * Führt die Arbeit in einer Transaktion aus und committet sie, wenn keine Exception auftritt; sonst wird zurückgerollt.
+     * Ist auf dem Thread bereits eine Transaktion aktiv, läuft die Arbeit in dieser mit (ohne eigenen Commit).
+     * @param work Die Arbeit, z.B. mehrere Repository-Aufrufe.
+     * @return Das Ergebnis der Arbeit.
+     */
+    public <T> T inTransaction(Supplier<T> work)
+    {
+        return inTransaction(UnitOfWork.DEFAULT_ISOLATION, false, work);
+    }
+
+    /**
+     * Wie inTransaction(Supplier), mit Isolationsstufe und Read-only-Hinweis für eine neu gestartete Transaktion.
+     */
+    public <T> T inTransaction(int isolationLevel, boolean readOnly, Supplier<T> work)
+    {
+        Assert.notNull(work);
+        if(current.get() != null)
+        {
+            return work.get();
+        }
+        try(UnitOfWork unitOfWork = begin(isolationLevel, readOnly))
+        {
+            T result = work.get();
+            unitOfWork.commit();
+            return result;
+        }
+    }
+
+    /**
+     * @return Die Transaktion des aktuellen Threads oder null, wenn keine aktiv ist.
+     */
+    public UnitOfWork currentUnitOfWork()
+    {
+        return current.get();
+    }
+
+    /**
+     * @return True, wenn auf dem aktuellen Thread eine Transaktion aktiv ist.
+     */
+    public boolean isInTransaction()
+    {
+        return current.get() != null;
+    }
+
+    /**
+     * Liefert in einer Transaktion die gebundene Verbindung, sonst eine Verbindung des umhüllten Providers.
+     * Die gebundene Verbindung wird durch close() nicht freigegeben, das übernimmt die UnitOfWork.
+     */
+    @Override
+    public Connection getConnection() throws SQLException
+    {
+        UnitOfWork unitOfWork = current.get();
+        if(unitOfWork != null)
+        {
+            return unitOfWork.borrowConnection();
+        }
+        return delegate.getConnection();
+    }
+
+    /**
+     * Liefert in einer Transaktion die gebundene Verbindung (damit die Transaktion ihre eigenen Änderungen sieht),
+     * sonst eine Lese-Verbindung des umhüllten Providers.
+     */
+    @Override
+    public Connection getReadConnection() throws SQLException
+    {
+        UnitOfWork unitOfWork = current.get();
+        if(unitOfWork != null)
+        {
+            return unitOfWork.borrowConnection();
+        }
+        return delegate.getReadConnection();
+    }
+
+    /**
+     * Schließt den umhüllten Provider.
+     */
+    @Override
+    public void close()
+    {
+        delegate.close();
+    }
+
+    /**
+     * Wird von der UnitOfWork nach commit() oder rollback() aufgerufen.
+     */
+    void unbind(UnitOfWork unitOfWork)
+    {
+        if(current.get() == unitOfWork)
+        {
+            current.remove();
+        }
+    }
+
+    /**
+     * Erstellt ein Handle auf die Verbindung einer Transaktion für einen einzelnen Repository-Aufruf.
+     * close() ist wirkungslos, und Aufrufe, die die Transaktion beenden würden (commit, rollback, setAutoCommit(true)),
+     * werden abgelehnt; Savepoints bleiben erlaubt.
+     */
+    static Connection boundHandle(Connection connection)
+    {
+        InvocationHandler handler = (proxy, method, args) -> {
+            switch(method.getName())
+            {
+                case "close":
+                    return null;
+
+                case "isClosed":
+                    return connection.isClosed();
+
+                case "equals":
+                    return proxy == args[0];
+
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+
+                case "toString":
+                    return "Transaktion[" + connection + "]";
+
+                case "commit":
+                    throw new SQLException("Die Transaktion wird über die UnitOfWork committet!");
+
+                case "rollback":
+                    if(args == null || args.length == 0)
+                    {
+                        throw new SQLException("Die Transaktion wird über die UnitOfWork zurückgerollt!");
+                    }
+                    break;
+
+                case "setAutoCommit":
+                    if((Boolean) args[0])
+                    {
+                        throw new SQLException("Autocommit kann innerhalb einer Transaktion nicht aktiviert werden!");
+                    }
+                    return null;
+
+                default:
+                    break;
+            }
+            try
+            {
+                return method.invoke(connection, args);
+            }
+            catch(InvocationTargetException e)
+            {
+                throw e.getCause();
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                handler
+        );
+    }
+}
@@ -0,0 +1,280 @@
+package dataaccess;
+
+import util.Assert;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Eine Transaktion, die mit TransactionManager.begin() gestartet wurde und an den startenden Thread gebunden ist.
+ * Sie endet mit commit() oder rollback(); close() rollt zurück, falls keines von beiden aufgerufen wurde.
+ * Danach wird die Verbindung mit ihren ursprünglichen Einstellungen an den umhüllten Provider zurückgegeben.
+ */
+public class UnitOfWork implements AutoCloseable
+{
+    /**
+     * Isolationsstufe der Verbindung unverändert lassen.
+     */
+    public static final int DEFAULT_ISOLATION = -1;
+
+    private final TransactionManager manager;
+    private final Connection connection;
+    private final Connection handle;
+    private final Thread owner;
+
+    // Einstellungen der Verbindung vor begin(), werden beim Beenden wiederhergestellt.
+    private final int previousIsolation;
+    private final boolean previousReadOnly;
+
+    // Wird nach einem rollback() ausgeführt, z.B. um Caches mit nicht gespeicherten Änderungen zu leeren.
+    private final List<Runnable> rollbackListeners = new ArrayList<>();
+    // Wird nach einem erfolgreichen commit() ausgeführt, z.B. um zurückgehaltene Benachrichtigungen zu senden.
+    private final List<Runnable> commitListeners = new ArrayList<>();
+
+    private boolean active = true;
+
+    UnitOfWork(TransactionManager manager, Connection connection, int isolationLevel, boolean readOnly)
+    {
+        this.manager = manager;
+        this.connection = connection;
+        this.handle = TransactionManager.boundHandle(connection);
+        this.owner = Thread.currentThread();
+        try
+        {
+            this.previousIsolation = connection.getTransactionIsolation();
+            this.previousReadOnly = connection.isReadOnly();
+            // Die Hinweise müssen vor dem Start der Transaktion gesetzt werden.
+            if(readOnly)
+            {
+                connection.setReadOnly(true);
+            }
+            if(isolationLevel != DEFAULT_ISOLATION && isolationLevel != previousIsolation)
+            {
+                connection.setTransactionIsolation(isolationLevel);
+            }
+            connection.setAutoCommit(false);
+        }
+        catch(SQLException sqlException)
+        {
+            closeConnection();
+            throw new DatabaseException(sqlException.getMessage(), sqlException);
+        }
+    }
+
+    /**
+     * Schreibt alle Änderungen der Transaktion fest.
+     * @throws DatabaseException Wenn der Commit fehlschlägt; die Transaktion wird dann zurückgerollt.
+     */
+    public void commit()
+    {
+        checkActive();
+        try
+        {
+            connection.commit();
+        }
+        catch(SQLException sqlException)
+        {
+            rollback();
+            throw new DatabaseException(sqlException.getMessage(), sqlException);
+        }
+        finish();
+        fireCommit();
+    }
+
+    private void fireCommit()
+    {
+        for(Runnable listener : commitListeners)
+        {
+            listener.run();
+        }
+    }
+
+    /**
+     * Verwirft alle Änderungen der Transaktion.
+     */
+    public void rollback()
+    {
+        checkActive();
+        try
+        {
+            connection.rollback();
+        }
+        catch(SQLException sqlException)
+        {
+            // Die Verbindung wird trotzdem freigegeben; der Pool rollt beim Zurückgeben erneut zurück.
+            finish();
+            fireRollback();
+            throw new DatabaseException(sqlException.getMessage(), sqlException);
+        }
+        finish();
+        fireRollback();
+    }
+
+    private void fireRollback()
+    {
+        for(Runnable listener : rollbackListeners)
+        {
+            listener.run();
+        }
+    }
+
+    /**
+     * Setzt einen Savepoint, auf den später mit rollbackTo() zurückgerollt werden kann.
+     * @param name Der Name des Savepoints.
+     */
+    public Savepoint setSavepoint(String name)
+    {
+        Assert.notNull(name);
+        checkActive();
+        try
+        {
+            return connection.setSavepoint(name);
+        }
+        catch(SQLException sqlException)
+        {
+            throw new DatabaseException(sqlException.getMessage(), sqlException);
+        }
+    }
+
+    /**
+     * Verwirft alle Änderungen seit dem Savepoint; die Transaktion bleibt aktiv.
+     */
+    public void rollbackTo(Savepoint savepoint)
+    {
+        Assert.notNull(savepoint);
+        checkActive();
+        try
+        {
+            connection.rollback(savepoint);
+        }
+        catch(SQLException sqlException)
+        {
+            throw new DatabaseException(sqlException.getMessage(), sqlException);
+        }
+    }
+
+    /**
+     * Gibt einen nicht mehr benötigten Savepoint frei.
+     */
+    public void releaseSavepoint(Savepoint savepoint)
+    {
+        Assert.notNull(savepoint);
+        checkActive();
+        try
+        {
+            connection.releaseSavepoint(savepoint);
+        }
+        catch(SQLException sqlException)
+        {
+            throw new DatabaseException(sqlException.getMessage(), sqlException);
+        }
+    }
+
+    /**
+     * Registriert eine Aktion, die nach einem rollback() ausgeführt wird.
+     * Decorators mit Zustand (z.B. CachingCourseRepository::invalidateAll) sollten sich hier eintragen,
+     * da sie Änderungen aus der Transaktion bereits übernommen haben.
+     */
+    public void onRollback(Runnable listener)
+    {
+        Assert.notNull(listener);
+        checkActive();
+        rollbackListeners.add(listener);
+    }
+
+    /**
+     * Registriert eine Aktion, die nach einem erfolgreichen commit() ausgeführt wird, wenn die Verbindung bereits
+     * zurückgegeben ist. Schlägt der Commit fehl, werden stattdessen die Rollback-Aktionen ausgeführt.
+     */
+    public void onCommit(Runnable listener)
+    {
+        Assert.notNull(listener);
+        checkActive();
+        commitListeners.add(listener);
+    }
+
+    /**
+     * @return True, solange weder commit() noch rollback() aufgerufen wurde.
+     */
+    public boolean isActive()
+    {
+        return active;
+    }
+
+    /**
+     * Rollt die Transaktion zurück, falls sie noch aktiv ist.
+     */
+    @Override
+    public void close()
+    {
+        if(active)
+        {
+            rollback();
+        }
+    }
+
+    /**
+     * Liefert das Handle auf die gebundene Verbindung für einen Repository-Aufruf.
+     */
+    Connection borrowConnection() throws SQLException
+    {
+        if(!active)
+        {
+            throw new SQLException("Die Transaktion ist bereits beendet!");
+        }
+        return handle;
+    }
+
+    private void checkActive()
+    {
+        if(Thread.currentThread() != owner)
+        {
+            throw new IllegalStateException("Die Transaktion gehört zu einem anderen Thread!");
+        }
+        if(!active)
+        {
+            throw new IllegalStateException("Die Transaktion ist bereits beendet!");
+        }
+    }
+
+    /**
+     * Stellt die ursprünglichen Einstellungen wieder her, gibt die Verbindung zurück und löst die Bindung an den Thread.
+     */
+    private void finish()
+    {
+        active = false;
+        manager.unbind(this);
+        try
+        {
+            connection.setAutoCommit(true);
+            if(connection.getTransactionIsolation() != previousIsolation)
+            {
+                connection.setTransactionIsolation(previousIsolation);
+            }
+            if(connection.isReadOnly() != previousReadOnly)
+            {
+                connection.setReadOnly(previousReadOnly);
+            }
+        }
+        catch(SQLException ignored)
+        {
+            // Ein Pool setzt den Zustand beim Zurückgeben ohnehin zurück oder verwirft die Verbindung.
+        }
+        closeConnection();
+    }
+
+    private void closeConnection()
+    {
+        try
+        {
+            connection.close();
+        }
+        catch(SQLException ignored)
+        {
+            // Die Verbindung wird nicht mehr verwendet.
+        }
+    }
+}
@@ -0,0 +1,1171 @@
+package dataaccess;
+
+import domain.Course;
+import domain.CourseType;
+import util.Assert;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Decorator, der insert, update und deleteById nur puffert und später gesammelt in das umhüllte Repository schreibt
+ * (Write-Behind). Für Massendaten, bei denen einige Sekunden Verzögerung bis zur Datenbank akzeptabel sind.
+ *
+ * Mehrere Schreibzugriffe auf dieselbe ID werden zusammengefasst (der letzte gewinnt, ein Löschen ersetzt ein Update).
+ * Ein Hintergrund-Thread schreibt die gepufferten Zugriffe, sobald flushSize erreicht oder flushIntervalMillis
+ * vergangen ist, über insertAll, updateAll und deleteAllById. Ein Block wird in einer einzigen UnitOfWork des
+ * TransactionManagers geschrieben; schlägt er als Ganzes fehl, ist nichts davon in der Datenbank und er wird erneut versucht.
+ * Das umhüllte Repository muss seine Verbindungen daher über diesen TransactionManager beziehen.
+ * Sind maxPending Zugriffe gepuffert oder gerade in Arbeit, blockiert der Aufrufer, bis wieder Platz ist (Backpressure).
+ * close() schreibt alle verbleibenden Zugriffe.
+ *
+ * Jeder Zugriff wird vor der Rückkehr an ein Journal angehängt; nach einem erfolgreichen Flush folgt ein Checkpoint.
+ * Beim Start werden alle Zugriffe nach dem letzten Checkpoint wieder eingelesen und erneut geschrieben.
+ * Endet der Prozess zwischen dem Commit eines Blocks und seinem Checkpoint, wird dieser Block ein zweites Mal geschrieben:
+ * Änderungen scheitern dann am Versionskonflikt, Löschungen finden nichts mehr, Einfügungen entstehen doppelt.
+ * Mit forceEachWrite übersteht jeder Zugriff auch einen Stromausfall (fsync pro Zugriff, langsamer); ohne wird das Journal
+ * bei jedem Flush-Intervall synchronisiert, ein Absturz des Prozesses verliert dann keine Daten, ein Stromausfall
+ * höchstens das letzte Intervall.
+ *
+ * Da erst beim Flush geschrieben wird, gilt:
+ * - insert liefert den Kurs ohne ID; die ID wird erst in der Datenbank vergeben.
+ * - update liefert den Kurs mit der Version, die er nach dem Schreiben in der Datenbank hat; ob der Kurs existiert,
+ *   zeigt sich erst beim Flush. Mehrere gepufferte Änderungen derselben ID werden zu einem UPDATE und erhöhen die
+ *   Version daher nur einmal.
+ * - deleteById liefert true, sofern der Kurs nicht bereits zum Löschen vorgemerkt ist.
+ * Beim Flush abgelehnte Zeilen (z.B. Versionskonflikte) werden protokolliert, in getFailedWriteCount gezählt
+ * und den registrierten FailureListenern gemeldet.
+ * getById berücksichtigt die gepufferten Zugriffe; alle anderen Lesezugriffe lesen den Stand der Datenbank.
+ */
+public class WriteBehindCourseRepository extends ForwardingCourseRepository implements AutoCloseable
+{
+    public static final int DEFAULT_FLUSH_SIZE = 1000;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+    public static final int DEFAULT_MAX_PENDING = 10_000;
+
+    // Ab dieser Größe wird das Journal nach einem Flush auf die noch offenen Zugriffe verkleinert.
+    private static final long JOURNAL_COMPACT_BYTES = 64L << 20;
+
+    private static final Logger LOG = Logger.getLogger("dataaccess.writebehind");
+
+    /**
+     * Art eines gepufferten Zugriffs.
+     */
+    public enum Kind
+    {
+        INSERT, UPDATE, DELETE
+    }
+
+    /**
+     * Ein gepufferter Zugriff, den das umhüllte Repository beim Flush abgelehnt hat.
+     */
+    public static final class FailedWrite
+    {
+        private final Kind kind;
+        private final Long id;
+        private final Course course;
+        private final BatchResult.Status status;
+        private final String message;
+
+        FailedWrite(Kind kind, Long id, Course course, BatchResult.Status status, String message)
+        {
+            this.kind = kind;
+            this.id = id;
+            this.course = course;
+            this.status = status;
+            this.message = message;
+        }
+
+        public Kind getKind()
+        {
+            return kind;
+        }
+
+        /**
+         * @return Die ID des Kurses; null bei INSERT.
+         */
+        public Long getId()
+        {
+            return id;
+        }
+
+        /**
+         * @return Die Werte, die geschrieben werden sollten (mit der in der Datenbank erwarteten Version); null bei DELETE.
+         */
+        public Course getCourse()
+        {
+            return course;
+        }
+
+        /**
+         * @return NOT_FOUND, FAILED oder CONFLICT.
+         */
+        public BatchResult.Status getStatus()
+        {
+            return status;
+        }
+
+        /**
+         * @return Die Fehlermeldung der Datenbank oder null.
+         */
+        public String getMessage()
+        {
+            return message;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "FailedWrite{" +
+                    "kind=" + kind +
+                    ", id=" + id +
+                    ", status=" + status +
+                    ", message='" + message + '\'' +
+                    '}';
+        }
+    }
+
+    /**
+     * Wird nach jedem Flush für jeden abgelehnten Zugriff aufgerufen, im Thread des Flushs und ohne gehaltene Sperren.
+     */
+    public interface FailureListener
+    {
+        void writeFailed(FailedWrite failure);
+    }
+
+    /**
+     * Ein gepufferter Schreibzugriff.
+     */
+    private static final class PendingWrite
+    {
+        final Kind kind;
+        final long sequence;
+        final Long id;
+        // Die zu schreibenden Werte (bei INSERT und UPDATE); ihre Version wird nicht verwendet.
+        final Course course;
+        // Version, die beim Schreiben in der Datenbank erwartet wird (die des ersten zusammengefassten Zugriffs).
+        final long expectedVersion;
+
+        PendingWrite(Kind kind, long sequence, Long id, Course course, long expectedVersion)
+        {
+            this.kind = kind;
+            this.sequence = sequence;
+            this.id = id;
+            this.course = course;
+            this.expectedVersion = expectedVersion;
+        }
+
+        /**
+         * @return Die Version, die der Kurs nach dem Schreiben dieses (zusammengefassten) UPDATEs in der Datenbank hat.
+         */
+        long versionAfterFlush()
+        {
+            return expectedVersion + 1;
+        }
+    }
+
+    private final int flushSize;
+    private final int maxPending;
+    private final boolean forceEachWrite;
+
+    private final TransactionManager transactionManager;
+    private final List<FailureListener> failureListeners = new CopyOnWriteArrayList<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notFull = lock.newCondition();
+
+    // Gepufferte Zugriffe in Eingangsreihenfolge; Schlüssel ist die Kurs-ID bzw. bei INSERT die negative Sequenznummer.
+    private LinkedHashMap<Long, PendingWrite> pending = new LinkedHashMap<>();
+    // Der gerade geschriebene Block; bleibt für getById sichtbar und zählt für maxPending mit, bis er in der Datenbank ist.
+    private Map<Long, PendingWrite> inFlight = Map.of();
+    private long sequence;
+    private boolean flushRequested;
+    private boolean closed;
+    private long flushCount;
+    private long flushedWriteCount;
+    private long failedWriteCount;
+
+    // Es läuft immer nur ein Flush gleichzeitig.
+    private final Object flushLock = new Object();
+    private final ScheduledExecutorService flusher;
+    private final Journal journal;
+
+    /**
+     * Write-Behind mit den Standardwerten und einem Journal, das pro Flush-Intervall synchronisiert wird.
+     * @param delegate Das umhüllte Repository.
+     * @param transactionManager Der TransactionManager, über den das umhüllte Repository seine Verbindungen bezieht.
+     * @param journalFile Die Journal-Datei; vorhandene, noch nicht geschriebene Zugriffe werden übernommen.
+     * @throws DatabaseException wenn das Journal nicht gelesen oder angelegt werden kann.
+     */
+    public WriteBehindCourseRepository(MyCourseRepository delegate, TransactionManager transactionManager, Path journalFile)
+    {
+        this(delegate, transactionManager, journalFile, DEFAULT_FLUSH_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_MAX_PENDING, false);
+    }
+
+    /**
+     * @param delegate Das umhüllte Repository.
+     * @param transactionManager Der TransactionManager, über den das umhüllte Repository seine Verbindungen bezieht.
+     * @param journalFile Die Journal-Datei; vorhandene, noch nicht geschriebene Zugriffe werden übernommen.
+     * @param flushSize Anzahl gepufferter Zugriffe, ab der sofort geschrieben wird.
+     * @param flushIntervalMillis Spätestens nach dieser Zeit wird geschrieben.
+     * @param maxPending Maximale Anzahl gepufferter und gerade geschriebener Zugriffe; darüber blockieren die Aufrufer.
+     * @param forceEachWrite Wenn true, wird das Journal nach jedem Zugriff auf den Datenträger synchronisiert.
+     * @throws DatabaseException wenn das Journal nicht gelesen oder angelegt werden kann.
+     */
+    public WriteBehindCourseRepository(MyCourseRepository delegate, TransactionManager transactionManager, Path journalFile,
+                                       int flushSize, long flushIntervalMillis, int maxPending, boolean forceEachWrite)
+    {
+        super(delegate);
+        Assert.notNull(transactionManager);
+        Assert.notNull(journalFile);
+        if(flushSize < 1 || maxPending < flushSize)
+        {
+            throw new IllegalArgumentException("Es muss 1 <= flushSize <= maxPending gelten!");
+        }
+        if(flushIntervalMillis < 1)
+        {
+            throw new IllegalArgumentException("Flush-Intervall muss mindestens 1 ms sein!");
+        }
+        this.transactionManager = transactionManager;
+        this.flushSize = flushSize;
+        this.maxPending = maxPending;
+        this.forceEachWrite = forceEachWrite;
+
+        try
+        {
+            recover(journalFile);
+            this.journal = new Journal(journalFile, sequence);
+        }
+        catch(IOException ioException)
+        {
+            throw new DatabaseException("Journal " + journalFile + " kann nicht gelesen werden: " + ioException.getMessage(), ioException);
+        }
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "course-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::timedFlush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        if(!pending.isEmpty())
+        {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Puffert das Einfügen eines Kurses.
+     * @return Der Kurs ohne ID; die ID wird erst beim Schreiben in die Datenbank vergeben.
+     */
+    @Override
+    public Optional<Course> insert(Course entity)
+    {
+        Assert.notNull(entity);
+        Course course = entity.copy();
+        lock.lock();
+        try
+        {
+            enqueue(new PendingWrite(Kind.INSERT, sequence + 1, null, course, 0));
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        forceJournal();
+        Course inserted = entity.copy();
+        inserted.setId(null);
+        inserted.markClean();
+        return Optional.of(inserted);
+    }
+
+    /**
+     * Puffert die Änderung eines Kurses. Liegt für die ID bereits eine Änderung vor, werden beide zusammengefasst.
+     * @return Der Kurs mit der Version, die er nach dem Schreiben in der Datenbank hat; leer, wenn er zum Löschen vorgemerkt ist.
+     * @throws OptimisticLockException wenn die Version nicht zur zuletzt gepufferten Änderung passt.
+     */
+    @Override
+    public Optional<Course> update(Course entity)
+    {
+        Assert.notNull(entity);
+        Assert.notNull(entity.getId());
+        Course course = entity.copy();
+        PendingWrite stored;
+        lock.lock();
+        try
+        {
+            PendingWrite latest = latest(entity.getId());
+            if(latest != null && latest.kind == Kind.DELETE)
+            {
+                return Optional.empty();
+            }
+            if(latest != null && latest.versionAfterFlush() != entity.getVersion())
+            {
+                throw new OptimisticLockException(entity.getId(), entity.getVersion(), latest.versionAfterFlush());
+            }
+            stored = enqueue(new PendingWrite(Kind.UPDATE, sequence + 1, entity.getId(), course, entity.getVersion()));
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        forceJournal();
+        Course updated = entity.copy();
+        updated.setVersion(stored.versionAfterFlush());
+        updated.markClean();
+        return Optional.of(updated);
+    }
+
+    /**
+     * Puffert das Löschen eines Kurses.
+     * @return False, wenn der Kurs bereits zum Löschen vorgemerkt ist, sonst true.
+     */
+    @Override
+    public boolean deleteById(Long id)
+    {
+        Assert.notNull(id);
+        lock.lock();
+        try
+        {
+            PendingWrite latest = latest(id);
+            if(latest != null && latest.kind == Kind.DELETE)
+            {
+                return false;
+            }
+            enqueue(new PendingWrite(Kind.DELETE, sequence + 1, id, null, 0));
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        forceJournal();
+        return true;
+    }
+
+    /**
+     * Berücksichtigt gepufferte Änderungen und Löschungen; sonst wird aus dem umhüllten Repository gelesen.
+     */
+    @Override
+    public Optional<Course> getById(Long id)
+    {
+        Assert.notNull(id);
+        lock.lock();
+        try
+        {
+            PendingWrite latest = latest(id);
+            if(latest != null)
+            {
+                if(latest.kind == Kind.DELETE)
+                {
+                    return Optional.empty();
+                }
+                Course course = latest.course.copy();
+                course.setVersion(latest.versionAfterFlush());
+                course.markClean();
+                return Optional.of(course);
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        return delegate.getById(id);
+    }
+
+    /**
+     * Schreibt zuerst die gepufferten Zugriffe, damit die Reihenfolge erhalten bleibt (daher nicht innerhalb einer Transaktion).
+     */
+    @Override
+    public BatchResult<Course> insertAll(Collection<Course> courses)
+    {
+        flush();
+        return delegate.insertAll(courses);
+    }
+
+    /**
+     * Schreibt zuerst die gepufferten Zugriffe, damit die Reihenfolge erhalten bleibt (daher nicht innerhalb einer Transaktion).
+     */
+    @Override
+    public BatchResult<Course> updateAll(Collection<Course> courses)
+    {
+        flush();
+        return delegate.updateAll(courses);
+    }
+
+    /**
+     * Schreibt zuerst die gepufferten Zugriffe, damit die Reihenfolge erhalten bleibt (daher nicht innerhalb einer Transaktion).
+     */
+    @Override
+    public BatchResult<Long> deleteAllById(Collection<Long> ids)
+    {
+        flush();
+        return delegate.deleteAllById(ids);
+    }
+
+    /**
+     * Der zuletzt gepufferte Zugriff auf die ID (auch aus dem gerade geschriebenen Block) oder null.
+     * Muss mit gehaltenem lock aufgerufen werden.
+     */
+    private PendingWrite latest(Long id)
+    {
+        PendingWrite write = pending.get(id);
+        return write != null ? write : inFlight.get(id);
+    }
+
+    /**
+     * Nimmt einen Zugriff in den Puffer auf, fasst ihn mit einem vorhandenen Zugriff auf dieselbe ID zusammen
+     * und hängt ihn an das Journal an (ohne fsync, siehe forceJournal). Muss mit gehaltenem lock aufgerufen werden.
+     * @return Der gepufferte, ggf. zusammengefasste Zugriff.
+     */
+    private PendingWrite enqueue(PendingWrite write)
+    {
+        if(closed)
+        {
+            throw new IllegalStateException("Repository wurde bereits geschlossen!");
+        }
+        Long key = key(write);
+        while(pending.size() + inFlight.size() >= maxPending && !pending.containsKey(key))
+        {
+            requestFlush();
+            notFull.awaitUninterruptibly();
+            if(closed)
+            {
+                throw new IllegalStateException("Repository wurde bereits geschlossen!");
+            }
+        }
+        try
+        {
+            journal.append(encode(write), write.sequence);
+        }
+        catch(IOException ioException)
+        {
+            throw new DatabaseException("Journal kann nicht geschrieben werden: " + ioException.getMessage(), ioException);
+        }
+        sequence = Math.max(sequence, write.sequence);
+        PendingWrite stored = coalesce(pending.get(key), write);
+        pending.put(key, stored);
+        if(pending.size() >= flushSize)
+        {
+            requestFlush();
+        }
+        return stored;
+    }
+
+    /**
+     * Synchronisiert das Journal bei forceEachWrite auf den Datenträger. Wird ohne gehaltenes lock aufgerufen,
+     * damit gleichzeitige Aufrufer nicht aufeinander warten; ein fsync deckt dabei die Zeilen aller Aufrufer ab.
+     */
+    private void forceJournal()
+    {
+        if(!forceEachWrite)
+        {
+            return;
+        }
+        try
+        {
+            journal.force();
+        }
+        catch(IOException ioException)
+        {
+            throw new DatabaseException("Journal kann nicht synchronisiert werden: " + ioException.getMessage(), ioException);
+        }
+    }
+
+    private static Long key(PendingWrite write)
+    {
+        return write.kind == Kind.INSERT ? -write.sequence : write.id;
+    }
+
+    /**
+     * Fasst einen älteren und einen neueren Zugriff auf dieselbe ID zusammen.
+     */
+    private static PendingWrite coalesce(PendingWrite older, PendingWrite newer)
+    {
+        if(older == null || newer.kind != Kind.UPDATE)
+        {
+            return newer;
+        }
+        if(older.kind == Kind.DELETE)
+        {
+            return older;
+        }
+        // Neue Werte, aber die Version, die in der Datenbank steht, solange keiner der beiden geschrieben ist.
+        return new PendingWrite(Kind.UPDATE, newer.sequence, newer.id, newer.course, older.expectedVersion);
+    }
+
+    /**
+     * Startet einen Flush im Hintergrund, falls nicht bereits einer angefordert ist. Muss mit gehaltenem lock aufgerufen werden.
+     * Nach close() schreibt close() selbst die restlichen Zugriffe.
+     */
+    private void requestFlush()
+    {
+        if(!flushRequested && !closed)
+        {
+            flushRequested = true;
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    private void timedFlush()
+    {
+        if(!forceEachWrite)
+        {
+            try
+            {
+                journal.force();
+            }
+            catch(IOException ioException)
+            {
+                LOG.log(Level.WARNING, "Journal kann nicht synchronisiert werden", ioException);
+            }
+        }
+        flushQuietly();
+    }
+
+    private void flushQuietly()
+    {
+        try
+        {
+            flush();
+        }
+        catch(RuntimeException exception)
+        {
+            // Die Zugriffe bleiben gepuffert und im Journal; der nächste Flush versucht es erneut.
+            LOG.log(Level.WARNING, "Write-Behind-Flush fehlgeschlagen", exception);
+        }
+    }
+
+    /**
+     * Schreibt alle bisher gepufferten Zugriffe in einer eigenen UnitOfWork in das umhüllte Repository.
+     * Schlägt das Schreiben als Ganzes fehl (z.B. keine Verbindung), wird die Transaktion zurückgerollt
+     * und die Zugriffe bleiben gepuffert. Einzelne abgelehnte Zeilen erhalten die FailureListener.
+     * @throws IllegalStateException wenn auf dem Thread bereits eine Transaktion aktiv ist; der Checkpoint im Journal
+     *         wäre sonst geschrieben, bevor feststeht, ob diese Transaktion committet wird.
+     * @throws DatabaseException wenn das Schreiben fehlschlägt.
+     */
+    public void flush()
+    {
+        if(transactionManager.isInTransaction())
+        {
+            throw new IllegalStateException("Write-Behind kann nicht innerhalb einer Transaktion geschrieben werden!");
+        }
+        synchronized(flushLock)
+        {
+            LinkedHashMap<Long, PendingWrite> block;
+            long checkpoint;
+            lock.lock();
+            try
+            {
+                flushRequested = false;
+                if(pending.isEmpty())
+                {
+                    return;
+                }
+                block = pending;
+                checkpoint = sequence;
+                pending = new LinkedHashMap<>();
+                inFlight = block;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+
+            List<FailedWrite> failures;
+            try(UnitOfWork unitOfWork = transactionManager.begin())
+            {
+                failures = write(block.values());
+                unitOfWork.commit();
+            }
+            catch(RuntimeException exception)
+            {
+                lock.lock();
+                try
+                {
+                    // Nichts davon ist in der Datenbank: zurück in den Puffer, vor die inzwischen eingegangenen Zugriffe.
+                    LinkedHashMap<Long, PendingWrite> merged = new LinkedHashMap<>(block);
+                    for(Map.Entry<Long, PendingWrite> entry : pending.entrySet())
+                    {
+                        merged.put(entry.getKey(), coalesce(merged.get(entry.getKey()), entry.getValue()));
+                    }
+                    // Kein signalAll: Der Platz ist nicht frei geworden, wartende Aufrufer würden sofort den nächsten
+                    // Flush anfordern. Erneut versucht wird mit dem nächsten Flush-Intervall.
+                    pending = merged;
+                    inFlight = Map.of();
+                }
+                finally
+                {
+                    lock.unlock();
+                }
+                throw exception;
+            }
+
+            lock.lock();
+            try
+            {
+                inFlight = Map.of();
+                flushCount++;
+                flushedWriteCount += block.size() - failures.size();
+                failedWriteCount += failures.size();
+                notFull.signalAll();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+
+            checkpoint(checkpoint);
+            fireFailures(failures);
+        }
+    }
+
+    /**
+     * Vermerkt einen geschriebenen Block im Journal und verkleinert es bei Bedarf, ohne gehaltenes lock.
+     */
+    private void checkpoint(long checkpoint)
+    {
+        try
+        {
+            journal.appendCheckpoint(checkpoint);
+            journal.force();
+            if(!journal.truncateIfNoWritesAfter(checkpoint) && journal.size() > JOURNAL_COMPACT_BYTES)
+            {
+                List<String> lines;
+                long position;
+                lock.lock();
+                try
+                {
+                    // Alles bis position ist geschrieben oder in pending; spätere Zeilen übernimmt rewrite unverändert.
+                    lines = new ArrayList<>(pending.size());
+                    for(PendingWrite write : pending.values())
+                    {
+                        lines.add(encode(write));
+                    }
+                    position = journal.size();
+                }
+                finally
+                {
+                    lock.unlock();
+                }
+                journal.rewrite(lines, position);
+            }
+        }
+        catch(IOException ioException)
+        {
+            // Die Daten sind geschrieben; schlimmstenfalls werden sie nach einem Neustart ein zweites Mal geschrieben.
+            LOG.log(Level.WARNING, "Checkpoint im Journal fehlgeschlagen", ioException);
+        }
+    }
+
+    /**
+     * Schreibt einen Block über die Batch-Methoden des umhüllten Repositorys; läuft in der UnitOfWork von flush().
+     * @return Die abgelehnten Zugriffe.
+     */
+    private List<FailedWrite> write(Collection<PendingWrite> block)
+    {
+        List<PendingWrite> insertWrites = new ArrayList<>();
+        List<PendingWrite> updateWrites = new ArrayList<>();
+        List<PendingWrite> deleteWrites = new ArrayList<>();
+        List<Course> inserts = new ArrayList<>();
+        List<Course> updates = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        for(PendingWrite write : block)
+        {
+            switch(write.kind)
+            {
+                case INSERT:
+                    insertWrites.add(write);
+                    inserts.add(write.course);
+                    break;
+                case UPDATE:
+                    Course course = write.course.copy();
+                    course.setVersion(write.expectedVersion);
+                    updateWrites.add(write);
+                    updates.add(course);
+                    break;
+                default:
+                    deleteWrites.add(write);
+                    deletes.add(write.id);
+            }
+        }
+        List<FailedWrite> failures = new ArrayList<>();
+        if(!inserts.isEmpty())
+        {
+            collectFailures(insertWrites, delegate.insertAll(inserts), failures);
+        }
+        if(!updates.isEmpty())
+        {
+            collectFailures(updateWrites, delegate.updateAll(updates), failures);
+        }
+        if(!deletes.isEmpty())
+        {
+            collectFailures(deleteWrites, delegate.deleteAllById(deletes), failures);
+        }
+        return failures;
+    }
+
+    /**
+     * Übernimmt die nicht erfolgreichen Zeilen eines Batches; bereits gelöschte Kurse sind beim Löschen kein Fehler.
+     */
+    private static <T> void collectFailures(List<PendingWrite> writes, BatchResult<T> result, List<FailedWrite> failures)
+    {
+        for(BatchResult.RowResult<T> row : result.getRows())
+        {
+            PendingWrite write = writes.get(row.getIndex());
+            if(row.getStatus() == BatchResult.Status.SUCCESS
+                    || (write.kind == Kind.DELETE && row.getStatus() == BatchResult.Status.NOT_FOUND))
+            {
+                continue;
+            }
+            Course course = null;
+            if(write.course != null)
+            {
+                course = write.course.copy();
+                course.setVersion(write.expectedVersion);
+            }
+            FailedWrite failure = new FailedWrite(write.kind, write.id, course, row.getStatus(), row.getMessage());
+            LOG.warning("Write-Behind fehlgeschlagen: " + failure);
+            failures.add(failure);
+        }
+    }
+
+    private void fireFailures(List<FailedWrite> failures)
+    {
+        for(FailedWrite failure : failures)
+        {
+            for(FailureListener listener : failureListeners)
+            {
+                try
+                {
+                    listener.writeFailed(failure);
+                }
+                catch(RuntimeException exception)
+                {
+                    LOG.log(Level.WARNING, "FailureListener fehlgeschlagen", exception);
+                }
+            }
+        }
+    }
+
+    public void addFailureListener(FailureListener listener)
+    {
+        Assert.notNull(listener);
+        failureListeners.add(listener);
+    }
+
+    public void removeFailureListener(FailureListener listener)
+    {
+        failureListeners.remove(listener);
+    }
+
+    /**
+     * Liest die Zugriffe nach dem letzten Checkpoint aus dem Journal in den Puffer.
+     * Eine unvollständige letzte Zeile (Absturz während des Schreibens) wird ignoriert.
+     */
+    private void recover(Path journalFile) throws IOException
+    {
+        if(!Files.exists(journalFile))
+        {
+            return;
+        }
+        List<PendingWrite> writes = new ArrayList<>();
+        long checkpoint = 0;
+        try(BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8))
+        {
+            String line;
+            int lineNumber = 0;
+            while((line = reader.readLine()) != null)
+            {
+                lineNumber++;
+                try
+                {
+                    String[] fields = line.split("\t", -1);
+                    if(fields[0].equals("C"))
+                    {
+                        checkpoint = Math.max(checkpoint, Long.parseLong(fields[1]));
+                    }
+                    else
+                    {
+                        writes.add(decode(fields));
+                    }
+                }
+                catch(RuntimeException exception)
+                {
+                    LOG.warning("Journal " + journalFile + ": Zeile " + lineNumber + " unvollständig, Rest wird ignoriert");
+                    break;
+                }
+            }
+        }
+        for(PendingWrite write : writes)
+        {
+            sequence = Math.max(sequence, write.sequence);
+            if(write.sequence > checkpoint)
+            {
+                Long key = key(write);
+                pending.put(key, coalesce(pending.get(key), write));
+            }
+        }
+        sequence = Math.max(sequence, checkpoint);
+        if(!pending.isEmpty())
+        {
+            LOG.info("Journal " + journalFile + ": " + pending.size() + " Zugriffe werden erneut geschrieben");
+        }
+    }
+
+    /**
+     * Kodiert einen Zugriff als Journal-Zeile (Felder mit Tabulator getrennt, Sonderzeichen mit \ maskiert).
+     */
+    private static String encode(PendingWrite write)
+    {
+        StringBuilder line = new StringBuilder(128);
+        line.append(write.kind.name().charAt(0)).append('\t').append(write.sequence);
+        if(write.kind != Kind.INSERT)
+        {
+            line.append('\t').append(write.id);
+        }
+        if(write.kind == Kind.DELETE)
+        {
+            return line.toString();
+        }
+        Course course = write.course;
+        line.append('\t').append(write.expectedVersion);
+        line.append('\t').append(write.versionAfterFlush());
+        line.append('\t');
+        escape(course.getName(), line);
+        line.append('\t');
+        escape(course.getDescription(), line);
+        line.append('\t').append(course.getHours());
+        line.append('\t').append(course.getBeginDate());
+        line.append('\t').append(course.getEndDate());
+        line.append('\t').append(course.getCourseType().name());
+        return line.toString();
+    }
+
+    private static PendingWrite decode(String[] fields)
+    {
+        long writeSequence = Long.parseLong(fields[1]);
+        switch(fields[0])
+        {
+            case "D":
+                return new PendingWrite(Kind.DELETE, writeSequence, Long.parseLong(fields[2]), null, 0);
+            case "U":
+                return new PendingWrite(Kind.UPDATE, writeSequence, Long.parseLong(fields[2]), decodeCourse(fields, 3, Long.parseLong(fields[2])),
+                        Long.parseLong(fields[3]));
+            case "I":
+                return new PendingWrite(Kind.INSERT, writeSequence, null, decodeCourse(fields, 2, null), 0);
+            default:
+                throw new IllegalArgumentException("Unbekannter Eintrag " + fields[0]);
+        }
+    }
+
+    /**
+     * Liest die Kursfelder ab der Position der erwarteten Version (expectedVersion, version, name, ..., coursetype).
+     */
+    private static Course decodeCourse(String[] fields, int offset, Long id)
+    {
+        if(fields.length != offset + 8)
+        {
+            throw new IllegalArgumentException("Falsche Anzahl Felder");
+        }
+        // Die Werte wurden vor dem Schreiben ins Journal bereits geprüft.
+        return Course.fromTrustedSource(id, unescape(fields[offset + 2]), unescape(fields[offset + 3]), Integer.parseInt(fields[offset + 4]),
+                Date.valueOf(fields[offset + 5]), Date.valueOf(fields[offset + 6]), CourseType.valueOf(fields[offset + 7]),
+                Long.parseLong(fields[offset + 1]));
+    }
+
+    private static void escape(String value, StringBuilder out)
+    {
+        for(int i = 0; i < value.length(); i++)
+        {
+            char c = value.charAt(i);
+            switch(c)
+            {
+                case '\\': out.append("\\\\"); break;
+                case '\t': out.append("\\t"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                default: out.append(c);
+            }
+        }
+    }
+
+    private static String unescape(String value)
+    {
+        if(value.indexOf('\\') < 0)
+        {
+            return value;
+        }
+        StringBuilder out = new StringBuilder(value.length());
+        for(int i = 0; i < value.length(); i++)
+        {
+            char c = value.charAt(i);
+            if(c != '\\' || i + 1 == value.length())
+            {
+                out.append(c);
+                continue;
+            }
+            char escaped = value.charAt(++i);
+            switch(escaped)
+            {
+                case 't': out.append('\t'); break;
+                case 'n': out.append('\n'); break;
+                case 'r': out.append('\r'); break;
+                default: out.append(escaped);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * @return Anzahl der aktuell gepufferten (noch nicht geschriebenen) Zugriffe.
+     */
+    public int getPendingCount()
+    {
+        lock.lock();
+        try
+        {
+            return pending.size() + inFlight.size();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    public long getFlushCount()
+    {
+        lock.lock();
+        try
+        {
+            return flushCount;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Anzahl der zusammengefassten Zugriffe, die erfolgreich geschrieben wurden.
+     */
+    public long getFlushedWriteCount()
+    {
+        lock.lock();
+        try
+        {
+            return flushedWriteCount;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Anzahl der Zugriffe, die beim Schreiben abgelehnt wurden (z.B. Versionskonflikt, ungültige Werte).
+     */
+    public long getFailedWriteCount()
+    {
+        lock.lock();
+        try
+        {
+            return failedWriteCount;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Nimmt keine Zugriffe mehr an, beendet den Hintergrund-Thread und schreibt alle gepufferten Zugriffe.
+     * Aufrufer, die auf Platz im Puffer warten, erhalten eine IllegalStateException.
+     * Schlägt das Schreiben fehl, bleiben sie im Journal und werden beim nächsten Start geschrieben.
+     * Das umhüllte Repository wird nicht geschlossen.
+     */
+    @Override
+    public void close()
+    {
+        lock.lock();
+        try
+        {
+            if(closed)
+            {
+                return;
+            }
+            closed = true;
+            notFull.signalAll();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+        flusher.shutdown();
+        try
+        {
+            flusher.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        catch(InterruptedException interruptedException)
+        {
+            Thread.currentThread().interrupt();
+        }
+        try
+        {
+            flush();
+        }
+        catch(RuntimeException exception)
+        {
+            LOG.log(Level.WARNING, "Gepufferte Zugriffe konnten beim Schließen nicht geschrieben werden, sie bleiben im Journal", exception);
+        }
+        try
+        {
+            journal.close();
+        }
+        catch(IOException ioException)
+        {
+            LOG.log(Level.WARNING, "Journal kann nicht geschlossen werden", ioException);
+        }
+    }
+
+    /**
+     * Append-only Journal-Datei. Anhängen, Kürzen und Ersetzen sind synchronisiert; force() läuft ohne Sperre,
+     * damit ein fsync weder andere Schreiber noch das lock des Repositorys aufhält.
+     */
+    private static final class Journal
+    {
+        private final Path file;
+        private volatile FileChannel channel;
+        // Sequenznummer der zuletzt angehängten Zugriffszeile.
+        private long lastWriteSequence;
+
+        Journal(Path file, long lastWriteSequence) throws IOException
+        {
+            this.file = file;
+            this.channel = open(file);
+            this.lastWriteSequence = lastWriteSequence;
+        }
+
+        private static FileChannel open(Path file) throws IOException
+        {
+            return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+
+        synchronized void append(String line, long writeSequence) throws IOException
+        {
+            write(line);
+            lastWriteSequence = Math.max(lastWriteSequence, writeSequence);
+        }
+
+        synchronized void appendCheckpoint(long checkpoint) throws IOException
+        {
+            write("C\t" + checkpoint);
+        }
+
+        private void write(String line) throws IOException
+        {
+            ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+            while(buffer.hasRemaining())
+            {
+                channel.write(buffer);
+            }
+        }
+
+        void force() throws IOException
+        {
+            FileChannel current = channel;
+            try
+            {
+                current.force(false);
+            }
+            catch(ClosedChannelException closedChannelException)
+            {
+                // Inzwischen durch rewrite ersetzt; dann die neue Datei synchronisieren.
+                if(current == channel)
+                {
+                    throw closedChannelException;
+                }
+                channel.force(false);
+            }
+        }
+
+        synchronized long size() throws IOException
+        {
+            return channel.size();
+        }
+
+        /**
+         * Leert das Journal, wenn seit dem Checkpoint keine Zugriffe angehängt wurden. Ohne fsync: Tauchen die alten
+         * Zeilen nach einem Stromausfall wieder auf, enthalten sie den bereits synchronisierten Checkpoint.
+         * @return True, wenn geleert wurde.
+         */
+        synchronized boolean truncateIfNoWritesAfter(long checkpoint) throws IOException
+        {
+            if(lastWriteSequence > checkpoint)
+            {
+                return false;
+            }
+            channel.truncate(0);
+            return true;
+        }
+
+        /**
+         * Ersetzt das Journal atomar durch die übergebenen Zeilen und alle Zeilen ab position, die seither angehängt wurden.
+         * Die neuen Zeilen werden ohne Sperre geschrieben und synchronisiert.
+         */
+        void rewrite(List<String> lines, long position) throws IOException
+        {
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(temp, lines, StandardCharsets.UTF_8);
+            try(FileChannel tempChannel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.APPEND))
+            {
+                tempChannel.force(true);
+                synchronized(this)
+                {
+                    long end = channel.size();
+                    try(FileChannel source = FileChannel.open(file, StandardOpenOption.READ))
+                    {
+                        for(long copied = position; copied < end; )
+                        {
+                            copied += source.transferTo(copied, end - copied, tempChannel);
+                        }
+                    }
+                    if(end > position)
+                    {
+                        tempChannel.force(true);
+                    }
+                    channel.close();
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    channel = open(file);
+                }
+            }
+        }
+
+        synchronized void close() throws IOException
+        {
+            channel.force(false);
+            channel.close();
+        }
+    }
+}
@@ -4,11 +4,15 @@ import javax.management.InvalidAttributeValueException;
 
 /**
  * Eine abstrakte Basis-Klasse für alle Entitäten.
- * Definiert eine gemeinsame Eigenschaft für alle Entitäten, nämlich die ID.
+ * Definiert die gemeinsamen Eigenschaften aller Entitäten: die ID und die Version für das optimistische Sperren.
  */
 public abstract class BaseEntity {
     private Long id;
 
+    // Version des Datensatzes beim Lesen; wird bei jedem update() in der Datenbank um 1 erhöht.
+    // Ein update() mit veralteter Version schlägt fehl, statt die Änderungen eines anderen Benutzers zu überschreiben.
+    private long version;
+
     /**
      * Konstruktor für BaseEntity.
      * @param id Die eindeutige ID der Entität. Sollte null oder eine positive Zahl sein.
@@ -45,6 +49,32 @@ public abstract class BaseEntity {
         }
     }
 
+    /**
+     * Getter für die Version der Entität.
+     * @return Die Version, mit der die Entität zuletzt gelesen bzw. gespeichert wurde (0 für neue Entitäten).
+     */
+    public long getVersion()
+    {
+        return this.version;
+    }
+
+    /**
+     * Setter für die Version der Entität.
+     * @param version Die zu setzende Version.
+     * @throws InvalidValueException wenn die Version kleiner als 0 ist.
+     */
+    public void setVersion(long version)
+    {
+        if(version >= 0)
+        {
+            this.version = version;
+        }
+        else
+        {
+            throw new InvalidValueException("Version muss groeßer gleich 0 sein!");
+        }
+    }
+
     /**
      * Gibt eine String-Repräsentation der Entität zurück.
      * @return Eine String-Darstellung, die die ID der Entität enthält.
@@ -53,6 +83,7 @@ public abstract class BaseEntity {
     public String toString() {
         return "BaseEntity{" +
                 "id=" + id +
+                ", version=" + version +
                 '}';
     }
 }
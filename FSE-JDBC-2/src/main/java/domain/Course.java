@@ -1,13 +1,26 @@
 package domain;
 
 import java.sql.Date;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Diese Klasse repräsentiert einen Kurs in der Anwendung.
  * Sie erbt von BaseEntity und enthält verschiedene Attribute, die einen Kurs beschreiben.
+ * Der Kurs merkt sich, welche Felder seit dem Laden geändert wurden (getDirtyFields), damit das Repository
+ * nur diese Spalten aktualisiert. Ein mit den öffentlichen Konstruktoren erzeugter Kurs gilt als vollständig geändert.
  */
 public class Course extends BaseEntity{
 
+    /**
+     * Die änderbaren Felder eines Kurses.
+     */
+    public enum Field
+    {
+        NAME, DESCRIPTION, HOURS, BEGIN_DATE, END_DATE, COURSE_TYPE
+    }
+
     private String name;    //Name des Kurses
     private String description; // Beschreibung des Kurses
     private int hours; // Anzahl der Stunden
@@ -15,6 +28,9 @@ public class Course extends BaseEntity{
     private Date endDate; //Enddatum
     private CourseType courseType;  // Typ des Kurses, repräsentiert durch das Enum 'CourseType'.
 
+    // Felder, deren Wert sich seit dem Laden (bzw. dem letzten markClean) geändert hat.
+    private final EnumSet<Field> dirtyFields = EnumSet.noneOf(Field.class);
+
     // Getter für den Namen des Kurses.
     public String getName() {
         return name;
@@ -57,6 +73,96 @@ public class Course extends BaseEntity{
         this.setCourseType(courseType);
     }
 
+    /**
+     * Privater Konstruktor ohne Werte; die Felder setzt fromTrustedSource() direkt, ohne die Setter-Prüfungen.
+     */
+    private Course(Long id) {
+        super(id);
+    }
+
+    /**
+     * Erzeugt einen Kurs aus bereits geprüften Daten, z.B. einer Zeile aus der Datenbank, ohne die Setter-Prüfungen.
+     * Für Benutzereingaben immer die öffentlichen Konstruktoren verwenden.
+     * @return Der Kurs mit den übergebenen Werten.
+     */
+    public static Course fromTrustedSource(Long id, String name, String description, int hours, Date beginDate, Date endDate, CourseType courseType) {
+        Course course = new Course(id);
+        course.name = name;
+        course.description = description;
+        course.hours = hours;
+        course.beginDate = beginDate;
+        course.endDate = endDate;
+        course.courseType = courseType;
+        return course;
+    }
+
+    /**
+     * Wie fromTrustedSource, zusätzlich mit der gelesenen Version des Datensatzes.
+     * @return Der Kurs mit den übergebenen Werten.
+     */
+    public static Course fromTrustedSource(Long id, String name, String description, int hours, Date beginDate, Date endDate, CourseType courseType, long version) {
+        Course course = fromTrustedSource(id, name, description, hours, beginDate, endDate, courseType);
+        course.setVersion(version);
+        return course;
+    }
+
+    /**
+     * Erstellt eine Kopie mit denselben Werten, derselben Version und denselben geänderten Feldern.
+     * @return Die Kopie.
+     */
+    public Course copy() {
+        Course copy = fromTrustedSource(getId(), name, description, hours, beginDate, endDate, courseType, getVersion());
+        copy.dirtyFields.addAll(dirtyFields);
+        return copy;
+    }
+
+    /**
+     * @return Die Felder, die seit dem Laden geändert wurden; leer, wenn der Kurs unverändert ist.
+     */
+    public Set<Field> getDirtyFields() {
+        return EnumSet.copyOf(dirtyFields);
+    }
+
+    /**
+     * @return True, wenn mindestens ein Feld seit dem Laden geändert wurde.
+     */
+    public boolean isDirty() {
+        return !dirtyFields.isEmpty();
+    }
+
+    /**
+     * Markiert alle Felder als unverändert, z.B. nachdem der Kurs gespeichert wurde.
+     */
+    public void markClean() {
+        dirtyFields.clear();
+    }
+
+    private void markDirty(Field field, boolean changed) {
+        if (changed) {
+            dirtyFields.add(field);
+        }
+    }
+
+    /**
+     * Setzt Anfangs- und Enddatum gemeinsam, z.B. wenn ein Kurs in einen Zeitraum verschoben wird,
+     * der nach dem bisherigen Ende beginnt (einzeln würde setBeginDate dann fehlschlagen).
+     * @param beginDate Das neue Anfangsdatum.
+     * @param endDate Das neue Enddatum.
+     * @throws InvalidValueException Wenn ein Datum null ist oder der Beginn nicht vor dem Ende liegt.
+     */
+    public void setPeriod(Date beginDate, Date endDate) throws InvalidValueException {
+        if (beginDate == null || endDate == null) {
+            throw new InvalidValueException("Start- und Enddatum dürfen nicht null / leer sein!");
+        }
+        if (!beginDate.before(endDate)) {
+            throw new InvalidValueException("Kursbeginn muss VOR Kursende sein!");
+        }
+        markDirty(Field.BEGIN_DATE, !Objects.equals(this.beginDate, beginDate));
+        markDirty(Field.END_DATE, !Objects.equals(this.endDate, endDate));
+        this.beginDate = beginDate;
+        this.endDate = endDate;
+    }
+
     /**
      * Setzt den Namen des Kurses.
      * Überprüft, ob der Name gültig ist (nicht null und länger als 1 Zeichen).
@@ -65,6 +171,7 @@ public class Course extends BaseEntity{
      */
     public void setName(String name) throws InvalidValueException {
         if (name != null && name.length() > 1) {
+            markDirty(Field.NAME, !Objects.equals(this.name, name));
             this.name = name;
         } else {
             throw new InvalidValueException("Kursname muss mindestens 2 Zeichen lang sein!");
@@ -84,6 +191,7 @@ public class Course extends BaseEntity{
      */
     public void setDescription(String description) throws InvalidValueException {
         if (description != null && description.length() > 1) {
+            markDirty(Field.DESCRIPTION, !Objects.equals(this.description, description));
             this.description = description;
         } else {
             throw new InvalidValueException("Kursbeschreibung muss mindestens 10 Zeichen lang sein!");
@@ -103,6 +211,7 @@ public class Course extends BaseEntity{
      */
     public void setHours(int hours) throws InvalidValueException {
         if (hours > 0 && hours < 10) {
+            markDirty(Field.HOURS, this.hours != hours);
             this.hours = hours;
         } else {
             throw new InvalidValueException("Anzahl der Kursstunden pro Kurs darf nur zwischen 1 und 10 liegen!");
@@ -125,11 +234,13 @@ public class Course extends BaseEntity{
         if (beginDate != null) {
             if (this.endDate != null) {
                 if (beginDate.before(this.endDate)) {
+                    markDirty(Field.BEGIN_DATE, !Objects.equals(this.beginDate, beginDate));
                     this.beginDate = beginDate;
                 } else {
                     throw new InvalidValueException("Kursbeginn muss VOR Kursende sein!");
                 }
             } else {
+                markDirty(Field.BEGIN_DATE, !Objects.equals(this.beginDate, beginDate));
                 this.beginDate = beginDate;
             }
         } else {
@@ -155,11 +266,13 @@ public class Course extends BaseEntity{
         if (endDate != null) {
             if (this.beginDate != null) {
                 if (endDate.after(this.beginDate)) {
+                    markDirty(Field.END_DATE, !Objects.equals(this.endDate, endDate));
                     this.endDate = endDate;
                 } else {
                     throw new InvalidValueException("Kursende muss Nach Kursbeginn sein!");
                 }
             } else {
+                markDirty(Field.END_DATE, !Objects.equals(this.endDate, endDate));
                 this.endDate = endDate;
             }
         } else {
@@ -184,6 +297,7 @@ public class Course extends BaseEntity{
     public void setCourseType(CourseType courseType) throws InvalidValueException {
         if (courseType != null)
         {
+            markDirty(Field.COURSE_TYPE, !Objects.equals(this.courseType, courseType));
             this.courseType = courseType;
         }
         else
@@ -206,6 +320,7 @@ public class Course extends BaseEntity{
                 ", beginDate=" + beginDate +
                 ", endDate=" + endDate +
                 ", courseType=" + courseType +
+                ", version=" + this.getVersion() +
                 '}';
     }
 }
@@ -0,0 +1,31 @@
+package domain;
+
+import java.sql.Date;
+
+/**
+ * Kurzform eines Kurses für Listenansichten: enthält alles außer Beschreibung und Stundenanzahl.
+ * Wird direkt aus einer Abfrage der benötigten Spalten erstellt, die (lange) Beschreibung wird also gar nicht übertragen.
+ * Der vollständige Kurs wird erst bei Bedarf über getById(id()) geladen.
+ */
+public record CourseSummary(Long id, String name, CourseType courseType, Date beginDate, Date endDate)
+{
+    /**
+     * Erstellt die Kurzform eines bereits geladenen Kurses.
+     */
+    public static CourseSummary of(Course course)
+    {
+        return new CourseSummary(course.getId(), course.getName(), course.getCourseType(), course.getBeginDate(), course.getEndDate());
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CourseSummary{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", courseType=" + courseType +
+                ", beginDate=" + beginDate +
+                ", endDate=" + endDate +
+                '}';
+    }
+}
@@ -1,24 +1,85 @@
+import config.ConfigException;
+import config.Configuration;
+import config.DatabaseSettings;
+import dataaccess.CachingCourseRepository;
+import dataaccess.InMemoryCourseSearchIndex;
+import dataaccess.InMemoryRunningCourseIndex;
+import dataaccess.IndexedCourseRepository;
+import dataaccess.ListeningCourseRepository;
+import dataaccess.MetricsCourseRepository;
 import dataaccess.MySqlCourseRepository;
-import dataaccess.MySqlDatabaseConnection;
+import dataaccess.ConnectionProvider;
+import dataaccess.RepositoryMetrics;
+import dataaccess.TransactionManager;
+import domain.Course;
 import ui.Cli;
 
-import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.stream.Stream;
 
 public class main {
     public static void main(String[] args)
     {
         //System.out.println("Test");
 
-        // 'MySqlDatabaseConnection' kann hier nicht instanziiert werden (kein new),
-        // da ihr Konstruktor private ist.
-        //MySqlDatabaseConnection myConnection = new ..
-
+        // URL, Zugangsdaten, Pool- und Treiber-Einstellungen kommen aus application.properties,
+        // einer eigenen Datei (-Dkurssystem.config=...) oder Umgebungsvariablen (KURSSYSTEM_DB_URL, ...).
+        DatabaseSettings settings;
         try
+        {
+            settings = DatabaseSettings.from(Configuration.load());
+        }
+        catch (ConfigException e)
+        {
+            System.out.println("Konfigurationsfehler: " + e.getMessage());
+            return;
+        }
+
+        // Der Connection-Pool ersetzt die frühere Singleton-Verbindung aus 'MySqlDatabaseConnection'
+        // (bei konfigurierten Replikaten ein Pool pro Datenbank mit Lese-/Schreibtrennung).
+        // Mit try-with-resources werden beim Beenden alle Verbindungen geschlossen.
+        try (ConnectionProvider connectionPool = settings.createConnectionProvider();
+             InMemoryRunningCourseIndex runningCourses = new InMemoryRunningCourseIndex())
         {
             // Erstellung eines 'Cli'-Objekts (Command Line Interface), das mit einem 'MySqlCourseRepository' arbeitet.
             // Das 'MySqlCourseRepository' ist verantwortlich für die Interaktion mit der Datenbank.
-            Cli myCli = new Cli(new MySqlCourseRepository());
+            // Der 'CachingCourseRepository' davor beantwortet wiederholte getById-Aufrufe aus dem Speicher (cache.ttlMillis).
+            // Über den 'TransactionManager' laufen mehrere Repository-Aufrufe bei Bedarf in einer gemeinsamen Transaktion.
+            TransactionManager transactionManager = new TransactionManager(connectionPool);
+            MySqlCourseRepository courseRepository = settings.createRepository(transactionManager);
+
+            // Der Suchindex wird einmal aus der Datenbank aufgebaut und danach bei jedem Schreibzugriff aktualisiert.
+            // Alternativ sucht 'MySqlFullTextCourseSearch' direkt über den FULLTEXT-Index der Datenbank.
+            InMemoryCourseSearchIndex searchIndex = new InMemoryCourseSearchIndex();
+            try (Stream<Course> allCourses = courseRepository.streamAll())
+            {
+                searchIndex.rebuild(allCourses);
+            }
+
+            // Die laufenden Kurse liegen nach Enddatum sortiert im Speicher; abgelaufene Kurse entfernt ein Timer.
+            try (Stream<Course> running = courseRepository.streamAllRunningCourses())
+            {
+                runningCourses.rebuild(running);
+            }
+
+            // Misst Laufzeit, Zeilen, Roundtrips und Fehler jeder Datenbankoperation (auch per JMX abrufbar).
+            RepositoryMetrics metrics = new RepositoryMetrics("courses");
+            metrics.registerMBeans();
+
+            // Bei einem Rollback einer UnitOfWork leert sich der Cache, damit keine verworfenen Änderungen darin bleiben.
+            CachingCourseRepository cachingRepository = new CachingCourseRepository(
+                    new MetricsCourseRepository(courseRepository, metrics), settings.getCacheMaxSize(), settings.getCacheTtlMillis());
+            cachingRepository.setTransactionManager(transactionManager);
+
+            // Die Indizes erfahren Änderungen aus einer UnitOfWork erst nach deren Commit.
+            ListeningCourseRepository listeningRepository =
+                    new ListeningCourseRepository(cachingRepository, searchIndex, runningCourses);
+            listeningRepository.setTransactionManager(transactionManager);
+
+            Cli myCli = new Cli(
+                    new IndexedCourseRepository(listeningRepository, runningCourses),
+                    searchIndex,
+                    metrics);
 
             // Startet das CLI. Dies ist der Haupt-Einstiegspunkt für Benutzerinteraktionen.
             myCli.start();
@@ -29,11 +90,5 @@ public class main {
             // Gibt eine Fehlermeldung mit Details zur Ausnahme aus.
             System.out.println("Datenbankfehler:" + e.getMessage() + "SQL State:" + e.getSQLState());
         }
-        catch (ClassNotFoundException e)
-        {
-            // Diese Ausnahme wird geworfen, wenn eine benötigte Datenbanktreiberklasse nicht gefunden wird.
-            // Gibt eine Fehlermeldung aus, die auf das Problem mit dem Datenbanktreiber hinweist.
-            System.out.println("Datenbankfehler:" + e.getMessage());
-        }
     }
 }
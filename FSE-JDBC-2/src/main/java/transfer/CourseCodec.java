@@ -0,0 +1,460 @@
+package transfer;
+
+import domain.Course;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Kodiert Kurse als CSV bzw. JSON Lines und liest die Felder eines Datensatzes wieder ein.
+ * Beide Formate verwenden dieselben Feldnamen (FIELDS); Datumswerte im Format YYYY-MM-DD.
+ */
+final class CourseCodec
+{
+    // Feldnamen in der Reihenfolge der CSV-Spalten beim Export.
+    static final String[] FIELDS = {"id", "name", "description", "hours", "beginDate", "endDate", "courseType"};
+
+    static final int ID = 0;
+    static final int NAME = 1;
+    static final int DESCRIPTION = 2;
+    static final int HOURS = 3;
+    static final int BEGIN_DATE = 4;
+    static final int END_DATE = 5;
+    static final int COURSE_TYPE = 6;
+
+    private CourseCodec()
+    {
+    }
+
+    /**
+     * @return Die Position des Feldes in FIELDS (Groß-/Kleinschreibung egal) oder -1.
+     */
+    static int fieldIndex(String name)
+    {
+        String normalized = name.trim().toLowerCase(Locale.ROOT);
+        for(int i = 0; i < FIELDS.length; i++)
+        {
+            if(FIELDS[i].toLowerCase(Locale.ROOT).equals(normalized))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static void writeCsvHeader(Writer out) throws IOException
+    {
+        out.write(String.join(",", FIELDS));
+        out.write('\n');
+    }
+
+    static void writeCsv(Course course, Writer out) throws IOException
+    {
+        out.write(String.valueOf(course.getId()));
+        out.write(',');
+        writeCsvField(course.getName(), out);
+        out.write(',');
+        writeCsvField(course.getDescription(), out);
+        out.write(',');
+        out.write(Integer.toString(course.getHours()));
+        out.write(',');
+        out.write(course.getBeginDate().toString());
+        out.write(',');
+        out.write(course.getEndDate().toString());
+        out.write(',');
+        out.write(course.getCourseType().name());
+        out.write('\n');
+    }
+
+    private static void writeCsvField(String value, Writer out) throws IOException
+    {
+        boolean quote = false;
+        for(int i = 0; i < value.length() && !quote; i++)
+        {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if(!quote)
+        {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        for(int i = 0; i < value.length(); i++)
+        {
+            char c = value.charAt(i);
+            if(c == '"')
+            {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    static void writeJson(Course course, Writer out) throws IOException
+    {
+        out.write("{\"id\":");
+        out.write(String.valueOf(course.getId()));
+        out.write(",\"name\":");
+        writeJsonString(course.getName(), out);
+        out.write(",\"description\":");
+        writeJsonString(course.getDescription(), out);
+        out.write(",\"hours\":");
+        out.write(Integer.toString(course.getHours()));
+        out.write(",\"beginDate\":\"");
+        out.write(course.getBeginDate().toString());
+        out.write("\",\"endDate\":\"");
+        out.write(course.getEndDate().toString());
+        out.write("\",\"courseType\":\"");
+        out.write(course.getCourseType().name());
+        out.write("\"}\n");
+    }
+
+    private static void writeJsonString(String value, Writer out) throws IOException
+    {
+        out.write('"');
+        for(int i = 0; i < value.length(); i++)
+        {
+            char c = value.charAt(i);
+            switch(c)
+            {
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    if(c < 0x20)
+                    {
+                        out.write(String.format("\\u%04x", (int) c));
+                    }
+                    else
+                    {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+
+    /**
+     * Liest ein flaches JSON-Objekt (Werte: Zeichenketten, Zahlen, true/false, null) in ein Feld-Array nach FIELDS.
+     * Unbekannte Schlüssel werden ignoriert, fehlende Felder bleiben null.
+     * @throws IllegalArgumentException wenn die Zeile kein gültiges flaches JSON-Objekt ist.
+     */
+    static String[] parseJson(String line)
+    {
+        String[] fields = new String[FIELDS.length];
+        JsonCursor cursor = new JsonCursor(line);
+        cursor.expect('{');
+        if(!cursor.consumeIf('}'))
+        {
+            do
+            {
+                String key = cursor.readString();
+                cursor.expect(':');
+                String value = cursor.readValue();
+                int index = fieldIndex(key);
+                if(index >= 0)
+                {
+                    fields[index] = value;
+                }
+            }
+            while(cursor.consumeIf(','));
+            cursor.expect('}');
+        }
+        cursor.expectEnd();
+        return fields;
+    }
+
+    /**
+     * Position in einer JSON-Zeile.
+     */
+    private static final class JsonCursor
+    {
+        private final String text;
+        private int position;
+
+        JsonCursor(String text)
+        {
+            this.text = text;
+        }
+
+        void skipWhitespace()
+        {
+            while(position < text.length() && Character.isWhitespace(text.charAt(position)))
+            {
+                position++;
+            }
+        }
+
+        boolean consumeIf(char expected)
+        {
+            skipWhitespace();
+            if(position < text.length() && text.charAt(position) == expected)
+            {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(char expected)
+        {
+            if(!consumeIf(expected))
+            {
+                throw error("'" + expected + "' erwartet");
+            }
+        }
+
+        void expectEnd()
+        {
+            skipWhitespace();
+            if(position != text.length())
+            {
+                throw error("Zeilenende erwartet");
+            }
+        }
+
+        /**
+         * @return Der Wert als Text; null für JSON null.
+         */
+        String readValue()
+        {
+            skipWhitespace();
+            if(position < text.length() && text.charAt(position) == '"')
+            {
+                return readString();
+            }
+            int start = position;
+            while(position < text.length() && ",}".indexOf(text.charAt(position)) < 0 && !Character.isWhitespace(text.charAt(position)))
+            {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            if(literal.isEmpty() || literal.startsWith("{") || literal.startsWith("["))
+            {
+                throw error("Wert erwartet (verschachtelte Objekte und Listen werden nicht unterstützt)");
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        String readString()
+        {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while(position < text.length())
+            {
+                char c = text.charAt(position++);
+                if(c == '"')
+                {
+                    return value.toString();
+                }
+                if(c != '\\')
+                {
+                    value.append(c);
+                    continue;
+                }
+                if(position >= text.length())
+                {
+                    break;
+                }
+                char escaped = text.charAt(position++);
+                switch(escaped)
+                {
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'u':
+                        if(position + 4 > text.length())
+                        {
+                            throw error("Unvollständige Unicode-Escape-Sequenz");
+                        }
+                        try
+                        {
+                            value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        }
+                        catch(NumberFormatException e)
+                        {
+                            throw error("Ungültige Unicode-Escape-Sequenz");
+                        }
+                        position += 4;
+                        break;
+                    default: value.append(escaped);
+                }
+            }
+            throw error("Zeichenkette nicht abgeschlossen");
+        }
+
+        IllegalArgumentException error(String message)
+        {
+            return new IllegalArgumentException("Ungültiges JSON an Position " + position + ": " + message);
+        }
+    }
+
+    /**
+     * Liest CSV-Datensätze nach RFC 4180; Felder in Anführungszeichen dürfen Kommas und Zeilenumbrüche enthalten.
+     */
+    static final class CsvReader
+    {
+        private final Reader in;
+        private int lineNumber = 1;
+        private int pushedBack = -2;
+
+        // Zeile, in der der zuletzt gelesene Datensatz beginnt, und sein Originaltext (für die Fehlerdatei).
+        private int recordLine;
+        private final StringBuilder raw = new StringBuilder();
+
+        CsvReader(Reader in)
+        {
+            this.in = in;
+        }
+
+        /**
+         * @return Die Felder des nächsten Datensatzes oder null am Dateiende.
+         * @throws IllegalArgumentException bei einem nicht abgeschlossenen Feld in Anführungszeichen.
+         */
+        List<String> readRecord() throws IOException
+        {
+            raw.setLength(0);
+            recordLine = lineNumber;
+            int c = read();
+            if(c == -1)
+            {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean fieldWasQuoted = false;
+            while(true)
+            {
+                if(quoted)
+                {
+                    if(c == -1)
+                    {
+                        throw new IllegalArgumentException("Anführungszeichen ab Zeile " + recordLine + " nicht geschlossen");
+                    }
+                    if(c == '"')
+                    {
+                        int next = read();
+                        if(next == '"')
+                        {
+                            field.append('"');
+                        }
+                        else
+                        {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    }
+                    else
+                    {
+                        field.append((char) c);
+                    }
+                }
+                else if(c == ',')
+                {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    fieldWasQuoted = false;
+                }
+                else if(c == '\n' || c == '\r' || c == -1)
+                {
+                    if(c == '\r')
+                    {
+                        int next = read();
+                        if(next != '\n')
+                        {
+                            unread(next);
+                        }
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                }
+                else if(c == '"' && field.length() == 0 && !fieldWasQuoted)
+                {
+                    quoted = true;
+                    fieldWasQuoted = true;
+                }
+                else
+                {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        int getRecordLine()
+        {
+            return recordLine;
+        }
+
+        /**
+         * @return Der Originaltext des zuletzt gelesenen Datensatzes ohne abschließenden Zeilenumbruch.
+         */
+        String getRawRecord()
+        {
+            int end = raw.length();
+            while(end > 0 && (raw.charAt(end - 1) == '\n' || raw.charAt(end - 1) == '\r'))
+            {
+                end--;
+            }
+            return raw.substring(0, end);
+        }
+
+        private int read() throws IOException
+        {
+            int c;
+            if(pushedBack != -2)
+            {
+                c = pushedBack;
+                pushedBack = -2;
+            }
+            else
+            {
+                c = in.read();
+            }
+            if(c != -1)
+            {
+                raw.append((char) c);
+                if(c == '\n')
+                {
+                    lineNumber++;
+                }
+            }
+            return c;
+        }
+
+        private void unread(int c)
+        {
+            if(c != -1)
+            {
+                raw.setLength(raw.length() - 1);
+                if(c == '\n')
+                {
+                    lineNumber--;
+                }
+            }
+            pushedBack = c;
+        }
+    }
+}
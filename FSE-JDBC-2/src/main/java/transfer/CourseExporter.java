@@ -0,0 +1,87 @@
+package transfer;
+
+import dataaccess.MyCourseRepository;
+import domain.Course;
+import util.Assert;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportiert alle Kurse als CSV oder JSON Lines.
+ * Die Kurse werden über MyCourseRepository.streamAll() zeilenweise aus der Datenbank gelesen und direkt
+ * in einen gepufferten Writer auf einem FileChannel geschrieben; es liegt nie die ganze Tabelle im Speicher.
+ */
+public class CourseExporter
+{
+    // Größe des Schreibpuffers in Zeichen.
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final MyCourseRepository repository;
+
+    public CourseExporter(MyCourseRepository repository)
+    {
+        Assert.notNull(repository);
+        this.repository = repository;
+    }
+
+    /**
+     * Exportiert alle Kurse in eine Datei; das Format wird aus der Endung ermittelt (.csv oder .jsonl).
+     * @param output Die Zieldatei; wird überschrieben.
+     * @return Anzahl der geschriebenen Kurse.
+     * @throws IOException bei Fehlern beim Schreiben.
+     */
+    public TransferReport exportFile(Path output) throws IOException
+    {
+        Assert.notNull(output);
+        CourseFileFormat format = CourseFileFormat.fromPath(output);
+        try(FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+            Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BUFFER_SIZE))
+        {
+            return exportTo(writer, format);
+        }
+    }
+
+    /**
+     * Exportiert alle Kurse in einen Writer. Der Writer wird am Ende geleert, aber nicht geschlossen.
+     */
+    public TransferReport exportTo(Writer out, CourseFileFormat format) throws IOException
+    {
+        Assert.notNull(out);
+        Assert.notNull(format);
+        long start = System.nanoTime();
+        long count = 0;
+        if(format == CourseFileFormat.CSV)
+        {
+            CourseCodec.writeCsvHeader(out);
+        }
+        try(Stream<Course> courses = repository.streamAll())
+        {
+            Iterator<Course> iterator = courses.iterator();
+            while(iterator.hasNext())
+            {
+                Course course = iterator.next();
+                if(format == CourseFileFormat.CSV)
+                {
+                    CourseCodec.writeCsv(course, out);
+                }
+                else
+                {
+                    CourseCodec.writeJson(course, out);
+                }
+                count++;
+            }
+        }
+        out.flush();
+        return new TransferReport(count, count, 0, System.nanoTime() - start);
+    }
+}
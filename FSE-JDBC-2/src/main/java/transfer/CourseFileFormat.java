@@ -0,0 +1,33 @@
+package transfer;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Dateiformate für Import und Export von Kursen.
+ */
+public enum CourseFileFormat
+{
+    // Kommagetrennt mit Kopfzeile, Felder mit Komma, Anführungszeichen oder Zeilenumbruch in Anführungszeichen (RFC 4180).
+    CSV,
+    // Ein JSON-Objekt pro Zeile (JSON Lines).
+    JSON_LINES;
+
+    /**
+     * Ermittelt das Format aus der Dateiendung (.csv, .jsonl bzw. .ndjson).
+     * @throws IllegalArgumentException bei einer unbekannten Endung.
+     */
+    public static CourseFileFormat fromPath(Path path)
+    {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if(name.endsWith(".csv"))
+        {
+            return CSV;
+        }
+        if(name.endsWith(".jsonl") || name.endsWith(".ndjson"))
+        {
+            return JSON_LINES;
+        }
+        throw new IllegalArgumentException("Unbekanntes Dateiformat: " + name + " (erwartet .csv oder .jsonl)");
+    }
+}
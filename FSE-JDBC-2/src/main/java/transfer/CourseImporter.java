@@ -0,0 +1,477 @@
+package transfer;
+
+import dataaccess.BatchResult;
+import dataaccess.MyCourseRepository;
+import domain.Course;
+import domain.CourseType;
+import domain.InvalidValueException;
+import util.Assert;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Importiert Kurse aus CSV- oder JSON-Lines-Dateien.
+ * Der Import läuft in drei Stufen, die über Warteschlangen begrenzter Größe verbunden sind:
+ * 1. Lesen und Zerlegen der Datensätze (eigener Thread)
+ * 2. Prüfen über die Konstruktoren von Course, also mit denselben Regeln wie bei der Eingabe im CLI (eigener Thread)
+ * 3. Einfügen in Blöcken über MyCourseRepository.insertAll (aufrufender Thread)
+ * Ist eine Stufe langsamer, warten die vorherigen, sobald ihre Warteschlange voll ist; der Speicherbedarf
+ * bleibt dadurch unabhängig von der Dateigröße.
+ *
+ * Abgelehnte Datensätze werden mit Zeilennummer und Grund in die Fehlerdatei geschrieben
+ * (Tabulator-getrennt: zeile, fehler, datensatz). Die ID aus der Datei wird ignoriert; die Datenbank vergibt neue IDs.
+ */
+public class CourseImporter
+{
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+
+    // Markiert das Ende einer Warteschlange.
+    private static final Row END = new Row(-1, "");
+
+    private final MyCourseRepository repository;
+    private final int batchSize;
+    private final int queueCapacity;
+
+    public CourseImporter(MyCourseRepository repository)
+    {
+        this(repository, DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param repository Das Repository, in das importiert wird.
+     * @param batchSize Anzahl der Kurse pro insertAll-Aufruf.
+     * @param queueCapacity Maximale Anzahl von Datensätzen, die zwischen zwei Stufen warten.
+     */
+    public CourseImporter(MyCourseRepository repository, int batchSize, int queueCapacity)
+    {
+        Assert.notNull(repository);
+        if(batchSize < 1 || queueCapacity < 1)
+        {
+            throw new IllegalArgumentException("Ungültige Größen: batchSize=" + batchSize + ", queueCapacity=" + queueCapacity);
+        }
+        this.repository = repository;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Importiert eine Datei; das Format wird aus der Endung ermittelt (.csv oder .jsonl).
+     * @param input Die zu importierende Datei.
+     * @param errorFile Die Datei für abgelehnte Datensätze; wird überschrieben.
+     * @return Anzahl gelesener, gespeicherter und abgelehnter Datensätze.
+     * @throws IOException bei Fehlern beim Lesen oder Schreiben der Dateien.
+     * @throws dataaccess.DatabaseException wenn die Datenbank nicht erreichbar ist; bereits gespeicherte Blöcke bleiben erhalten.
+     */
+    public TransferReport importFile(Path input, Path errorFile) throws IOException
+    {
+        Assert.notNull(input);
+        Assert.notNull(errorFile);
+        CourseFileFormat format = CourseFileFormat.fromPath(input);
+        try(Reader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+            Writer errors = Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8))
+        {
+            return importFrom(reader, format, errors);
+        }
+    }
+
+    /**
+     * Importiert Datensätze aus einem Reader.
+     * @param input Die Datensätze im angegebenen Format.
+     * @param format Das Format der Datensätze.
+     * @param errors Ziel für abgelehnte Datensätze.
+     */
+    public TransferReport importFrom(Reader input, CourseFileFormat format, Writer errors) throws IOException
+    {
+        Assert.notNull(input);
+        Assert.notNull(format);
+        Assert.notNull(errors);
+        long start = System.nanoTime();
+
+        ErrorSink errorSink = new ErrorSink(errors);
+        errorSink.writeHeader();
+        BlockingQueue<Row> parsed = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Row> validated = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long[] rowsRead = new long[1];
+
+        ExecutorService stages = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "course-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long written = 0;
+        try
+        {
+            stages.execute(() -> runStage(failure, parsed, () -> rowsRead[0] = parse(input, format, parsed, errorSink)));
+            stages.execute(() -> runStage(failure, validated, () -> validate(parsed, validated, errorSink)));
+
+            List<Row> batch = new ArrayList<>(batchSize);
+            for(Row row = validated.take(); row != END; row = validated.take())
+            {
+                batch.add(row);
+                if(batch.size() == batchSize)
+                {
+                    written += insert(batch, errorSink);
+                    batch.clear();
+                }
+            }
+            if(!batch.isEmpty())
+            {
+                written += insert(batch, errorSink);
+            }
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import wurde unterbrochen!", e);
+        }
+        finally
+        {
+            stages.shutdownNow();
+        }
+
+        rethrow(failure.get());
+        errors.flush();
+        return new TransferReport(rowsRead[0], written, errorSink.getCount(), System.nanoTime() - start);
+    }
+
+    /**
+     * Führt eine Stufe aus und beendet ihre Ausgabe-Warteschlange in jedem Fall mit END.
+     */
+    private static void runStage(AtomicReference<Throwable> failure, BlockingQueue<Row> output, Stage stage)
+    {
+        try
+        {
+            stage.run();
+        }
+        catch(Throwable e)
+        {
+            failure.compareAndSet(null, e);
+        }
+        finally
+        {
+            try
+            {
+                output.put(END);
+            }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private interface Stage
+    {
+        void run() throws Exception;
+    }
+
+    private static void rethrow(Throwable failure) throws IOException
+    {
+        if(failure == null || failure instanceof InterruptedException)
+        {
+            return;
+        }
+        if(failure instanceof IOException)
+        {
+            throw (IOException) failure;
+        }
+        if(failure instanceof UncheckedIOException)
+        {
+            throw ((UncheckedIOException) failure).getCause();
+        }
+        if(failure instanceof RuntimeException)
+        {
+            throw (RuntimeException) failure;
+        }
+        if(failure instanceof Error)
+        {
+            throw (Error) failure;
+        }
+        throw new IOException(failure);
+    }
+
+    /**
+     * Stufe 1: zerlegt die Datensätze in Felder.
+     * @return Anzahl der gelesenen Datensätze.
+     */
+    private long parse(Reader input, CourseFileFormat format, BlockingQueue<Row> output, ErrorSink errorSink)
+            throws IOException, InterruptedException
+    {
+        return format == CourseFileFormat.CSV ? parseCsv(input, output, errorSink) : parseJsonLines(input, output, errorSink);
+    }
+
+    private long parseCsv(Reader input, BlockingQueue<Row> output, ErrorSink errorSink) throws IOException, InterruptedException
+    {
+        CourseCodec.CsvReader reader = new CourseCodec.CsvReader(input);
+        List<String> header = reader.readRecord();
+        if(header == null)
+        {
+            return 0;
+        }
+        // Spalte der Datei -> Position in CourseCodec.FIELDS (-1 = unbekannte Spalte).
+        int[] columns = new int[header.size()];
+        for(int i = 0; i < columns.length; i++)
+        {
+            columns[i] = CourseCodec.fieldIndex(i == 0 ? stripBom(header.get(i)) : header.get(i));
+        }
+
+        long count = 0;
+        while(true)
+        {
+            List<String> record;
+            try
+            {
+                record = reader.readRecord();
+            }
+            catch(IllegalArgumentException e)
+            {
+                count++;
+                errorSink.reject(reader.getRecordLine(), e.getMessage(), reader.getRawRecord());
+                break;
+            }
+            if(record == null)
+            {
+                break;
+            }
+            if(record.size() == 1 && record.get(0).isBlank())
+            {
+                continue;
+            }
+            count++;
+            Row row = new Row(reader.getRecordLine(), reader.getRawRecord());
+            if(record.size() != columns.length)
+            {
+                errorSink.reject(row.line, "Erwartet " + columns.length + " Spalten, gefunden " + record.size(), row.raw);
+                continue;
+            }
+            row.fields = new String[CourseCodec.FIELDS.length];
+            for(int i = 0; i < columns.length; i++)
+            {
+                if(columns[i] >= 0)
+                {
+                    row.fields[columns[i]] = record.get(i);
+                }
+            }
+            output.put(row);
+        }
+        return count;
+    }
+
+    private long parseJsonLines(Reader input, BlockingQueue<Row> output, ErrorSink errorSink) throws IOException, InterruptedException
+    {
+        BufferedReader reader = input instanceof BufferedReader ? (BufferedReader) input : new BufferedReader(input);
+        long count = 0;
+        int lineNumber = 0;
+        for(String line = reader.readLine(); line != null; line = reader.readLine())
+        {
+            lineNumber++;
+            if(lineNumber == 1)
+            {
+                line = stripBom(line);
+            }
+            if(line.isBlank())
+            {
+                continue;
+            }
+            count++;
+            Row row = new Row(lineNumber, line);
+            try
+            {
+                row.fields = CourseCodec.parseJson(line);
+            }
+            catch(IllegalArgumentException e)
+            {
+                errorSink.reject(lineNumber, e.getMessage(), line);
+                continue;
+            }
+            output.put(row);
+        }
+        return count;
+    }
+
+    private static String stripBom(String text)
+    {
+        return !text.isEmpty() && text.charAt(0) == '\uFEFF' ? text.substring(1) : text;
+    }
+
+    /**
+     * Stufe 2: erstellt die Kurse; ungültige Datensätze gehen in die Fehlerdatei.
+     */
+    private void validate(BlockingQueue<Row> input, BlockingQueue<Row> output, ErrorSink errorSink) throws IOException, InterruptedException
+    {
+        for(Row row = input.take(); row != END; row = input.take())
+        {
+            try
+            {
+                row.course = toCourse(row.fields);
+            }
+            catch(IllegalArgumentException | InvalidValueException e)
+            {
+                errorSink.reject(row.line, e.getMessage(), row.raw);
+                continue;
+            }
+            row.fields = null;
+            output.put(row);
+        }
+    }
+
+    /**
+     * Erstellt einen Kurs über den öffentlichen Konstruktor, damit dieselben Prüfungen wie bei der Eingabe gelten.
+     * @throws IllegalArgumentException bzw. InvalidValueException bei fehlenden oder ungültigen Werten.
+     */
+    static Course toCourse(String[] fields)
+    {
+        return new Course(
+                required(fields, CourseCodec.NAME),
+                required(fields, CourseCodec.DESCRIPTION),
+                parseHours(required(fields, CourseCodec.HOURS).trim()),
+                parseDate(fields, CourseCodec.BEGIN_DATE),
+                parseDate(fields, CourseCodec.END_DATE),
+                parseCourseType(required(fields, CourseCodec.COURSE_TYPE).trim())
+        );
+    }
+
+    private static int parseHours(String value)
+    {
+        try
+        {
+            return Integer.parseInt(value);
+        }
+        catch(NumberFormatException e)
+        {
+            throw new IllegalArgumentException("Stundenanzahl '" + value + "' ist keine Zahl");
+        }
+    }
+
+    private static Date parseDate(String[] fields, int index)
+    {
+        String value = required(fields, index).trim();
+        try
+        {
+            return Date.valueOf(value);
+        }
+        catch(IllegalArgumentException e)
+        {
+            throw new IllegalArgumentException("Feld " + CourseCodec.FIELDS[index] + ": '" + value + "' ist kein Datum (YYYY-MM-DD)");
+        }
+    }
+
+    private static CourseType parseCourseType(String value)
+    {
+        try
+        {
+            return CourseType.valueOf(value);
+        }
+        catch(IllegalArgumentException e)
+        {
+            throw new IllegalArgumentException("Unbekannter Kurstyp '" + value + "'");
+        }
+    }
+
+    private static String required(String[] fields, int index)
+    {
+        String value = fields[index];
+        if(value == null || value.isEmpty())
+        {
+            throw new IllegalArgumentException("Feld " + CourseCodec.FIELDS[index] + " fehlt");
+        }
+        return value;
+    }
+
+    /**
+     * Stufe 3: fügt einen Block ein und meldet abgelehnte Zeilen.
+     * @return Anzahl der gespeicherten Kurse.
+     */
+    private long insert(List<Row> batch, ErrorSink errorSink) throws IOException
+    {
+        List<Course> courses = new ArrayList<>(batch.size());
+        for(Row row : batch)
+        {
+            courses.add(row.course);
+        }
+        BatchResult<Course> result = repository.insertAll(courses);
+        for(BatchResult.RowResult<Course> rowResult : result.getRows())
+        {
+            if(rowResult.getStatus() != BatchResult.Status.SUCCESS)
+            {
+                Row row = batch.get(rowResult.getIndex());
+                errorSink.reject(row.line, "Datenbank: " + rowResult.getMessage(), row.raw);
+            }
+        }
+        return result.getSuccessCount();
+    }
+
+    /**
+     * Ein Datensatz auf dem Weg durch die Stufen.
+     */
+    private static final class Row
+    {
+        final int line;
+        final String raw;
+        String[] fields;
+        Course course;
+
+        Row(int line, String raw)
+        {
+            this.line = line;
+            this.raw = raw;
+        }
+    }
+
+    /**
+     * Schreibt abgelehnte Datensätze; wird von allen Stufen gleichzeitig verwendet.
+     */
+    private static final class ErrorSink
+    {
+        private final Writer out;
+        private long count;
+
+        ErrorSink(Writer out)
+        {
+            this.out = out;
+        }
+
+        synchronized void writeHeader() throws IOException
+        {
+            out.write("zeile\tfehler\tdatensatz\n");
+        }
+
+        synchronized void reject(int line, String reason, String raw) throws IOException
+        {
+            count++;
+            out.write(Integer.toString(line));
+            out.write('\t');
+            out.write(escape(String.valueOf(reason)));
+            out.write('\t');
+            out.write(escape(raw));
+            out.write('\n');
+        }
+
+        synchronized long getCount()
+        {
+            return count;
+        }
+
+        private static String escape(String text)
+        {
+            return text.replace("\\", "\\\\").replace("\t", "\\t").replace("\r", "\\r").replace("\n", "\\n");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package transfer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ergebnis eines Imports oder Exports.
+ */
+public class TransferReport
+{
+    private final long rowsRead;
+    private final long rowsWritten;
+    private final long rowsRejected;
+    private final long elapsedNanos;
+
+    public TransferReport(long rowsRead, long rowsWritten, long rowsRejected, long elapsedNanos)
+    {
+        this.rowsRead = rowsRead;
+        this.rowsWritten = rowsWritten;
+        this.rowsRejected = rowsRejected;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return Anzahl der gelesenen Datensätze (beim Import ohne Kopfzeile und Leerzeilen).
+     */
+    public long getRowsRead()
+    {
+        return rowsRead;
+    }
+
+    /**
+     * @return Anzahl der gespeicherten (Import) bzw. geschriebenen (Export) Kurse.
+     */
+    public long getRowsWritten()
+    {
+        return rowsWritten;
+    }
+
+    /**
+     * @return Anzahl der abgelehnten Datensätze; sie stehen in der Fehlerdatei.
+     */
+    public long getRowsRejected()
+    {
+        return rowsRejected;
+    }
+
+    public long getElapsedMillis()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * @return Geschriebene Zeilen pro Sekunde.
+     */
+    public double getRowsPerSecond()
+    {
+        return elapsedNanos == 0 ? 0 : rowsWritten * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%d gelesen, %d gespeichert, %d abgelehnt in %d ms (%.0f Zeilen/s)",
+                rowsRead, rowsWritten, rowsRejected, getElapsedMillis(), getRowsPerSecond());
+    }
+}
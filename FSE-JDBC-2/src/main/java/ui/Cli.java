@@ -1,11 +1,24 @@
 package ui;
 
+import dataaccess.CourseSearchEngine;
+import dataaccess.CourseSort;
 import dataaccess.DatabaseException;
 import dataaccess.MyCourseRepository;
+import dataaccess.OptimisticLockException;
+import dataaccess.Page;
+import dataaccess.RepositoryMetrics;
+import dataaccess.SearchHit;
 import domain.Course;
+import domain.CourseSummary;
 import domain.CourseType;
 import domain.InvalidValueException;
+import transfer.CourseExporter;
+import transfer.CourseImporter;
+import transfer.TransferReport;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -14,19 +27,52 @@ import java.sql.Date;
 
 public class Cli {
 
+    // Anzahl der Kurse, die in der Kursliste auf einmal angezeigt werden.
+    private static final int PAGE_SIZE = 20;
+
+    // Maximale Anzahl an Treffern bei der Kurssuche über eine Suchmaschine.
+    private static final int SEARCH_LIMIT = 20;
+
     Scanner scan;   // Scanner-Objekt für die Eingabe von der Konsole.
 
     MyCourseRepository repo;    // Repository-Objekt für den Zugriff auf Kursdaten.
 
+    CourseSearchEngine searchEngine;    // Volltextsuche für die Kurssuche; null = Suche über das Repository.
+
+    RepositoryMetrics metrics;  // Messwerte der Datenbankzugriffe; null = keine Anzeige im Menü.
+
     /**
      * Konstruktor für Cli.
      * Initialisiert den Scanner und setzt das Repository-Objekt.
      * @param repo Das Kurs-Repository-Objekt, das für Datenbankoperationen verwendet wird.
      */
     public Cli(MyCourseRepository repo)
+    {
+        this(repo, null);
+    }
+
+    /**
+     * Konstruktor für Cli mit Volltextsuche.
+     * @param repo Das Kurs-Repository-Objekt, das für Datenbankoperationen verwendet wird.
+     * @param searchEngine Die Suchmaschine für die Kurssuche oder null für die Suche über das Repository.
+     */
+    public Cli(MyCourseRepository repo, CourseSearchEngine searchEngine)
+    {
+        this(repo, searchEngine, null);
+    }
+
+    /**
+     * Konstruktor für Cli mit Volltextsuche und Anzeige der Messwerte.
+     * @param repo Das Kurs-Repository-Objekt, das für Datenbankoperationen verwendet wird.
+     * @param searchEngine Die Suchmaschine für die Kurssuche oder null für die Suche über das Repository.
+     * @param metrics Die Messwerte der Datenbankzugriffe oder null.
+     */
+    public Cli(MyCourseRepository repo, CourseSearchEngine searchEngine, RepositoryMetrics metrics)
     {
         this.scan = new Scanner(System.in);
         this.repo = repo;
+        this.searchEngine = searchEngine;
+        this.metrics = metrics;
     }
     /**
      * Startet das Command Line Interface.
@@ -69,6 +115,18 @@ public class Cli {
                     runningCourses();
                     break;
 
+                case "8":
+                    showMetrics();
+                    break;
+
+                case "9":
+                    importCourses();
+                    break;
+
+                case "10":
+                    exportCourses();
+                    break;
+
                 case "x":
                     System.out.println("Auf Wiedersehen");
                     break;
@@ -89,16 +147,15 @@ public class Cli {
         System.out.println("Aktuell laufende Kurse: ");
 
         // Erstellt eine leere Liste für Kurse.
-        List<Course> list = new ArrayList<>();
+        List<CourseSummary> list = new ArrayList<>();
         try
         {
-            // Ruft die Methode findAllRunningCourses des Repository auf, um alle laufenden Kurse zu erhalten.
-            list = repo.findAllRunningCourses();
+            // Für die Liste genügt die Kurzform; die Details zeigt der Menüpunkt Kursdetails.
+            list = repo.findAllRunningCourseSummaries();
 
             // Durchläuft die Liste der Kurse und gibt jeden Kurs auf der Konsole aus.
-            for(Course course : list)
+            for(CourseSummary course : list)
             {
-                // Hier wird die toString()-Methode von Course aufgerufen.
                 System.out.println(course);
             }
         }
@@ -120,14 +177,25 @@ public class Cli {
     {
         System.out.println("Geben Sie einen Suchbegriff an!");
         String searchString = scan.nextLine();
-        List<Course> courseList;
+        List<CourseSummary> courseList;
         try
         {
+            if(searchEngine != null)
+            {
+                // Die Suchmaschine liefert die besten Treffer nach Relevanz sortiert.
+                for(SearchHit<Course> hit : searchEngine.search(searchString, SEARCH_LIMIT))
+                {
+                    System.out.println(hit);
+                }
+                return;
+            }
+
             // Verwendet das Repository, um Kurse zu finden, deren Namen oder Beschreibung den Suchbegriff enthalten.
-            courseList = repo.findAllCoursesByNameOrDescription(searchString);
+            // Gelesen wird nur die Kurzform; die Beschreibung wird für die Trefferliste nicht übertragen.
+            courseList = repo.findAllSummariesByNameOrDescription(searchString);
 
             // Iteriert durch die Liste der gefundenen Kurse und gibt jeden auf der Konsole aus.
-            for(Course course : courseList)
+            for(CourseSummary course : courseList)
             {
                 System.out.println(course);
             }
@@ -218,18 +286,35 @@ public class Cli {
                 System.out.println("Kurstyp (ZA/BF/FF/OE)");
                 courseType = scan.nextLine();
 
-                // Aktualisiert den Kurs mit den neuen Werten oder behält die alten Werte bei, wenn keine Eingabe erfolgt.
-                Optional<Course> optionalCourseUpdated = repo.update(
-                        new Course(
-                                course.getId(),
-                                name.equals("") ? course.getName() : name,
-                                description.equals("") ? course.getDescription() : description,
-                                hours.equals("") ? course.getHours():Integer.parseInt(hours),
-                                dateFrom.equals("") ? course.getBeginDate():Date.valueOf(dateFrom),
-                                dateTo.equals("")?course.getEndDate():Date.valueOf(dateTo),
-                                courseType.equals("")?course.getCourseType():CourseType.valueOf(courseType)
-                        )
+                // Übernimmt nur die eingegebenen Werte in den gelesenen Kurs; das Repository schreibt nur diese Spalten.
+                // Die gelesene Version bleibt erhalten: hat jemand den Kurs während der Eingabe geändert, schlägt das Update fehl.
+                if(!name.equals(""))
+                {
+                    course.setName(name);
+                }
+                if(!description.equals(""))
+                {
+                    course.setDescription(description);
+                }
+                if(!hours.equals(""))
+                {
+                    course.setHours(Integer.parseInt(hours));
+                }
+                course.setPeriod(
+                        dateFrom.equals("") ? course.getBeginDate():Date.valueOf(dateFrom),
+                        dateTo.equals("")?course.getEndDate():Date.valueOf(dateTo)
                 );
+                if(!courseType.equals(""))
+                {
+                    course.setCourseType(CourseType.valueOf(courseType));
+                }
+
+                if(!course.isDirty())
+                {
+                    System.out.println("Keine Änderungen, Kurs nicht gespeichert.");
+                    return;
+                }
+                Optional<Course> optionalCourseUpdated = repo.update(course);
 
                 // Gibt Feedback, ob der Kurs erfolgreich aktualisiert wurde.
                 // (dass wirs mal gesehen haben in funktioneller programmierung)
@@ -249,6 +334,12 @@ public class Cli {
         {
             System.out.println("Kursdaten nicht korrekt angegeben: " +invalidValueException.getMessage());
         }
+        catch(OptimisticLockException optimisticLockException)
+        {
+            // Keine Änderung gespeichert; mit dem Menüpunkt erneut aufrufen, um den aktuellen Stand zu laden.
+            System.out.println("Der Kurs wurde während der Bearbeitung von jemand anderem geändert, Ihre Änderung wurde nicht gespeichert. "
+                    + "Bitte Kurs erneut bearbeiten: " + optimisticLockException.getMessage());
+        }
         catch(DatabaseException databaseException)
         {
             System.out.println("Datenbankfehler beim Einfügen: " + databaseException.getMessage());
@@ -355,32 +446,52 @@ public class Cli {
 
     /**
      * Zeigt eine Liste aller Kurse an.
-     * Diese Methode ruft das Kurs-Repository auf, um eine Liste aller vorhandenen Kurse zu erhalten und zeigt sie an.
+     * Die Kurse werden seitenweise (PAGE_SIZE Kurse pro Seite) als Kurzform aus dem Repository gelesen,
+     * die nächste Seite wird erst geladen, wenn der Benutzer sie anfordert.
+     * Gibt der Benutzer eine ID ein, wird nur dieser Kurs vollständig geladen und angezeigt.
      */
     private void showAllCourses()
     {
-        List<Course> list = null;
-
         try
         {
-            // Ruft die Methode getAll des Repository auf, um eine Liste aller Kurse zu erhalten.
-            list = repo.getAll();
-            //System.out.println("SSSS" + list.size());
+            // Ruft die erste Seite der Kurse ab, sortiert nach ID.
+            Page<CourseSummary> page = repo.getSummaryPage(CourseSort.ID, null, PAGE_SIZE);
 
             // Überprüft, ob die Kursliste Einträge enthält.
-            if(list.size()>0)
+            if(page.isEmpty())
             {
-                // Durchläuft die Liste der Kurse und gibt jeden Kurs auf der Konsole aus.
-                for(Course course : list)
+                // Informiert den Benutzer, wenn die Kursliste leer ist.
+                System.out.println("Kursliste leer!");
+                return;
+            }
+
+            while(true)
+            {
+                // Durchläuft die Kurse der Seite und gibt jeden Kurs auf der Konsole aus.
+                for(CourseSummary course : page.getItems())
                 {
-                    // Hier wird die toString()-Methode von Course aufgerufen.
                     System.out.println(course);
                 }
-            }
-            else
-            {
-                // Informiert den Benutzer, wenn die Kursliste leer ist.
-                System.out.println("Kursliste leer!");
+
+                String input;
+                while(true)
+                {
+                    System.out.println(page.hasNext()
+                            ? "Enter für weitere Kurse, ID für Kursdetails, x für zurück zum Menü"
+                            : "ID für Kursdetails, Enter oder x für zurück zum Menü");
+                    input = scan.nextLine().trim();
+                    if(input.isEmpty() || input.equals("x"))
+                    {
+                        break;
+                    }
+                    showCourseDetails(input);
+                }
+
+                if(!page.hasNext() || input.equals("x"))
+                {
+                    break;
+                }
+                page = repo.getSummaryPage(CourseSort.ID, page.getNextCursor(), PAGE_SIZE);
             }
         }
         catch(DatabaseException databaseException)
@@ -393,6 +504,103 @@ public class Cli {
         }
     }
 
+    /**
+     * Lädt den Kurs mit der eingegebenen ID vollständig aus dem Repository und zeigt ihn an.
+     */
+    private void showCourseDetails(String input)
+    {
+        long courseId;
+        try
+        {
+            courseId = Long.parseLong(input);
+        }
+        catch(NumberFormatException numberFormatException)
+        {
+            inputError();
+            return;
+        }
+        Optional<Course> courseOptional = repo.getById(courseId);
+        if(courseOptional.isPresent())
+        {
+            System.out.println(courseOptional.get());
+        }
+        else
+        {
+            System.out.println("Kurs mit der ID " + courseId + " nicht gefunden!");
+        }
+    }
+
+    /**
+     * Gibt die Messwerte der Datenbankzugriffe im Prometheus-Textformat aus.
+     */
+    private void showMetrics()
+    {
+        if(metrics == null)
+        {
+            inputError();
+            return;
+        }
+        System.out.println(metrics.toPrometheusText());
+    }
+
+    /**
+     * Importiert Kurse aus einer CSV- oder JSON-Lines-Datei.
+     * Abgelehnte Datensätze werden in eine Fehlerdatei neben der Importdatei geschrieben (Endung .errors.tsv).
+     */
+    private void importCourses()
+    {
+        System.out.println("Pfad der Importdatei (.csv oder .jsonl): ");
+        try
+        {
+            Path input = Paths.get(scan.nextLine().trim());
+            Path errorFile = input.resolveSibling(input.getFileName() + ".errors.tsv");
+            TransferReport report = new CourseImporter(repo).importFile(input, errorFile);
+            System.out.println("Import abgeschlossen: " + report);
+            if(report.getRowsRejected() > 0)
+            {
+                System.out.println("Abgelehnte Datensätze: " + errorFile);
+            }
+        }
+        catch(IOException ioException)
+        {
+            System.out.println("Dateifehler beim Import: " + ioException.getMessage());
+        }
+        catch(DatabaseException databaseException)
+        {
+            System.out.println("Datenbankfehler beim Import: " + databaseException.getMessage());
+        }
+        catch(IllegalArgumentException illegalArgumentException)
+        {
+            System.out.println("Eingabefehler: " + illegalArgumentException.getMessage());
+        }
+    }
+
+    /**
+     * Exportiert alle Kurse in eine CSV- oder JSON-Lines-Datei.
+     */
+    private void exportCourses()
+    {
+        System.out.println("Pfad der Exportdatei (.csv oder .jsonl): ");
+        try
+        {
+            Path output = Paths.get(scan.nextLine().trim());
+            TransferReport report = new CourseExporter(repo).exportFile(output);
+            System.out.println(report.getRowsWritten() + " Kurse exportiert in " + report.getElapsedMillis() + " ms");
+        }
+        catch(IOException ioException)
+        {
+            System.out.println("Dateifehler beim Export: " + ioException.getMessage());
+        }
+        catch(DatabaseException databaseException)
+        {
+            System.out.println("Datenbankfehler beim Export: " + databaseException.getMessage());
+        }
+        catch(IllegalArgumentException illegalArgumentException)
+        {
+            System.out.println("Eingabefehler: " + illegalArgumentException.getMessage());
+        }
+    }
+
     private void showMenue()
     {
         System.out.println("------------- KURSMANAGEMENT -------------");
@@ -403,6 +611,12 @@ public class Cli {
         System.out.println("(5) Kursdetails löschen \t DELETE");
         System.out.println("(6) Kurssuche \t \t \t \t READ");
         System.out.println("(7) Laufende Kurse \t \t \t READ");
+        if(metrics != null)
+        {
+            System.out.println("(8) Messwerte anzeigen \t \t STATS");
+        }
+        System.out.println("(9) Kurse importieren \t \t IMPORT");
+        System.out.println("(10) Kurse exportieren \t \t EXPORT");
         System.out.println("------------------------------------------");
         System.out.println("--------------   (x) ENDE   --------------");
     }
@@ -0,0 +1,3 @@
+-- Volltextindex für MySqlFullTextCourseSearch (MATCH ... AGAINST).
+-- Ersetzt die LIKE '%...%'-Suche über Name und Beschreibung, die jedes Mal die ganze Tabelle liest.
+ALTER TABLE `courses` ADD FULLTEXT INDEX `ft_courses_name_description` (`name`, `description`);
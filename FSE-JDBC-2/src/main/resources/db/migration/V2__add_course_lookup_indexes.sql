@@ -0,0 +1,9 @@
+-- Indizes für die Finder in MySqlCourseRepository.
+-- Sortierung nach Name in findAllCoursesByName und getPage.
+CREATE INDEX `idx_courses_name` ON `courses` (`name`);
+-- findAllCoursesByCourseType und findAllCourses mit Kurstyp + Zeitraum: ein Range-Scan auf (coursetype, begindate).
+CREATE INDEX `idx_courses_coursetype_begindate` ON `courses` (`coursetype`, `begindate`);
+-- findAllCoursesByStartDate, findAllCourses nur mit Zeitraum und die Sortierung nach Startdatum.
+CREATE INDEX `idx_courses_begindate_enddate` ON `courses` (`begindate`, `enddate`);
+-- findAllRunningCourses (NOW() < enddate).
+CREATE INDEX `idx_courses_enddate` ON `courses` (`enddate`);
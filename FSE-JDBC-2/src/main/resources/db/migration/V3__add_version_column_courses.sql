@@ -0,0 +1,3 @@
+-- Versionsspalte für das optimistische Sperren in MySqlCourseRepository.update/updateAll.
+-- Jedes UPDATE setzt `version` = `version` + 1 und gilt nur, wenn die gelesene Version noch aktuell ist (WHERE `id` = ? AND `version` = ?).
+ALTER TABLE `courses` ADD COLUMN `version` BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,49 @@
+package analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StringDictionaryTest
+{
+    @Test
+    void equalTextsGetTheSameCode()
+    {
+        StringDictionary dictionary = new StringDictionary();
+
+        assertEquals(0, dictionary.encode("Java"));
+        assertEquals(1, dictionary.encode("Python"));
+        assertEquals(0, dictionary.encode("Java"));
+        assertEquals(2, dictionary.encode(""));
+
+        assertEquals(3, dictionary.size());
+        assertEquals("Java", dictionary.decode(0));
+        assertEquals("", dictionary.decode(2));
+        assertEquals(1, dictionary.codeOf("Python"));
+        assertEquals(-1, dictionary.codeOf("Kotlin"));
+    }
+
+    @Test
+    void keepsAllTextsWhileGrowing()
+    {
+        StringDictionary dictionary = new StringDictionary();
+        int count = 20_000;
+        for(int i = 0; i < count; i++)
+        {
+            assertEquals(i, dictionary.encode(text(i)));
+        }
+        for(int i = 0; i < count; i++)
+        {
+            assertEquals(i, dictionary.encode(text(i)));
+            assertEquals(i, dictionary.codeOf(text(i)));
+            assertEquals(text(i), dictionary.decode(i));
+        }
+        assertEquals(count, dictionary.size());
+    }
+
+    private static String text(int i)
+    {
+        // Umlaute und unterschiedliche Längen, damit UTF-8 mit mehreren Bytes pro Zeichen vorkommt.
+        return "Kurs für Übungen Nr. " + i + "ä".repeat(i % 7);
+    }
+}
@@ -0,0 +1,204 @@
+package config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConfigurationTest
+{
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void nestedSectionsBecomeDottedKeys()
+    {
+        Map<String, String> values = Configuration.parseYaml(List.of(
+                "---",
+                "db:",
+                "  url: jdbc:mysql://localhost:3306/kurssystem",
+                "  pool:",
+                "    minSize: 2",
+                "    maxSize: 20",
+                "  user: root",
+                "cache:",
+                "  maxSize: 1000"), "test.yml");
+
+        assertEquals(Map.of(
+                "db.url", "jdbc:mysql://localhost:3306/kurssystem",
+                "db.pool.minSize", "2",
+                "db.pool.maxSize", "20",
+                "db.user", "root",
+                "cache.maxSize", "1000"), values);
+    }
+
+    @Test
+    void listEntriesAreMergedIntoOneCommaSeparatedValue()
+    {
+        Map<String, String> values = Configuration.parseYaml(List.of(
+                "db:",
+                "  replicas:",
+                "    - jdbc:mysql://replica1/kurssystem",
+                "    - \"jdbc:mysql://replica2/kurssystem\"",
+                "  empty:",
+                "  pool:",
+                "    maxSize: 20"), "test.yml");
+
+        assertEquals("jdbc:mysql://replica1/kurssystem,jdbc:mysql://replica2/kurssystem", values.get("db.replicas"));
+        assertEquals("20", values.get("db.pool.maxSize"));
+        assertFalse(values.containsKey("db.empty"));
+
+        Configuration configuration = Configuration.of(values);
+        assertEquals(List.of("jdbc:mysql://replica1/kurssystem", "jdbc:mysql://replica2/kurssystem"),
+                configuration.getList("db.replicas"));
+        assertTrue(configuration.getList("db.empty").isEmpty());
+    }
+
+    @Test
+    void commentsAreRemovedExceptInsideQuotes()
+    {
+        Map<String, String> values = Configuration.parseYaml(List.of(
+                "# Kommentarzeile",
+                "db:",
+                "  password: \"geheim # kein Kommentar\"   # Kommentar",
+                "  user: 'admin#1'",
+                "  url: jdbc:mysql://host/db#anker",
+                "  schema: kurse # Kommentar"), "test.yml");
+
+        assertEquals("geheim # kein Kommentar", values.get("db.password"));
+        assertEquals("admin#1", values.get("db.user"));
+        assertEquals("jdbc:mysql://host/db#anker", values.get("db.url"));
+        assertEquals("kurse", values.get("db.schema"));
+    }
+
+    @Test
+    void malformedYamlNamesSourceAndLine()
+    {
+        ConfigException missingColon = assertThrows(ConfigException.class,
+                () -> Configuration.parseYaml(List.of("db:", "  url"), "test.yml"));
+        assertEquals("test.yml:2: Erwartet 'schluessel: wert', gefunden 'url'", missingColon.getMessage());
+
+        ConfigException listWithoutKey = assertThrows(ConfigException.class,
+                () -> Configuration.parseYaml(List.of("- eintrag"), "test.yml"));
+        assertEquals("test.yml:1: Listeneintrag ohne Schlüssel", listWithoutKey.getMessage());
+    }
+
+    @Test
+    void systemPropertyWinsOverEnvironmentOverFile()
+    {
+        Properties systemProperties = new Properties();
+        systemProperties.setProperty("db.pool.maxSize", "30");
+        Map<String, String> environment = Map.of(
+                "KURSSYSTEM_DB_POOL_MAXSIZE", "20",
+                "KURSSYSTEM_DB_POOL_MINSIZE", "5");
+        Map<String, String> values = Map.of(
+                "db.pool.maxSize", "10",
+                "db.pool.minSize", "2",
+                "db.user", "root");
+        Configuration configuration = new Configuration(values, Map.of("db.user", "app.yml"), environment, systemProperties);
+
+        assertEquals(30, configuration.getInt("db.pool.maxSize", 1, 1, 100));
+        assertEquals("System-Property db.pool.maxSize", configuration.sourceOf("db.pool.maxSize"));
+        assertEquals(5, configuration.getInt("db.pool.minSize", 1, 1, 100));
+        assertEquals("Umgebungsvariable KURSSYSTEM_DB_POOL_MINSIZE", configuration.sourceOf("db.pool.minSize"));
+        assertEquals("root", configuration.getString("db.user", "sa"));
+        assertEquals("app.yml", configuration.sourceOf("db.user"));
+        assertEquals("sa", configuration.getString("db.password", "sa"));
+        assertEquals("Standardwert", configuration.sourceOf("db.password"));
+    }
+
+    @Test
+    void fileWinsOverClasspath() throws IOException
+    {
+        Path file = tempDir.resolve("kurssystem.yml");
+        Files.write(file, List.of(
+                "db:",
+                "  url: jdbc:mysql://db.example.org:3306/kurse",
+                "  pool:",
+                "    maxSize: 25"), StandardCharsets.UTF_8);
+
+        Configuration configuration = Configuration.load(file);
+
+        assertEquals("jdbc:mysql://db.example.org:3306/kurse", configuration.get("db.url"));
+        assertEquals(file.toString(), configuration.sourceOf("db.url"));
+        // Nicht in der Datei: der Wert aus application.properties im Klassenpfad.
+        assertEquals("2", configuration.get("db.pool.minSize"));
+        assertEquals("classpath:application.properties", configuration.sourceOf("db.pool.minSize"));
+    }
+
+    @Test
+    void missingFileIsReported()
+    {
+        Path file = tempDir.resolve("fehlt.properties");
+
+        ConfigException exception = assertThrows(ConfigException.class, () -> Configuration.load(file));
+        assertTrue(exception.getMessage().startsWith("Konfigurationsdatei " + file + " kann nicht gelesen werden"));
+    }
+
+    @Test
+    void longValuesMayContainUnderscores()
+    {
+        Configuration configuration = Configuration.of(Map.of("cache.ttlMillis", "1_800_000", "db.pool.maxSize", " 20 "));
+
+        assertEquals(1_800_000L, configuration.getLong("cache.ttlMillis", 0, 0, Long.MAX_VALUE));
+        assertEquals(20, configuration.getInt("db.pool.maxSize", 10, 1, 100));
+        assertEquals(10, configuration.getInt("db.pool.minSize", 10, 1, 100));
+    }
+
+    @Test
+    void outOfRangeAndMalformedNumbersAreRejected()
+    {
+        Configuration configuration = Configuration.of(Map.of("db.pool.maxSize", "500", "db.pool.minSize", "zwei"));
+
+        ConfigException tooLarge = assertThrows(ConfigException.class,
+                () -> configuration.getInt("db.pool.maxSize", 10, 1, 100));
+        assertEquals("Ungültiger Wert '500' für db.pool.maxSize (Parameter): erlaubt ist 1 bis 100", tooLarge.getMessage());
+
+        ConfigException notANumber = assertThrows(ConfigException.class,
+                () -> configuration.getInt("db.pool.minSize", 2, 1, 100));
+        assertEquals("Ungültiger Wert 'zwei' für db.pool.minSize (Parameter): keine ganze Zahl", notANumber.getMessage());
+
+        // Auch ein Standardwert außerhalb des Bereichs ist ein Fehler.
+        ConfigException badDefault = assertThrows(ConfigException.class,
+                () -> configuration.getLong("cache.maxSize", 0, 1, 100));
+        assertEquals("Ungültiger Wert '0' für cache.maxSize (Standardwert): erlaubt ist 1 bis 100", badDefault.getMessage());
+    }
+
+    @Test
+    void booleansEnumsAndRequiredValues()
+    {
+        Configuration configuration = Configuration.of(Map.of(
+                "db.driver.useCursorFetch", "On",
+                "cache.policy", "w-tiny-lfu",
+                "db.password", ""));
+
+        assertTrue(configuration.getBoolean("db.driver.useCursorFetch", false));
+        assertTrue(configuration.getBoolean("db.driver.cachePrepStmts", true));
+        assertEquals(Policy.W_TINY_LFU, configuration.getEnum("cache.policy", Policy.class, Policy.LRU));
+        assertNull(configuration.get("db.url"));
+
+        ConfigException required = assertThrows(ConfigException.class, () -> configuration.getRequiredString("db.password"));
+        assertEquals("Konfigurationswert db.password fehlt (oder KURSSYSTEM_DB_PASSWORD setzen)", required.getMessage());
+        ConfigException invalidEnum = assertThrows(ConfigException.class,
+                () -> Configuration.of(Map.of("cache.policy", "fifo")).getEnum("cache.policy", Policy.class, Policy.LRU));
+        assertEquals("Ungültiger Wert 'fifo' für cache.policy (Parameter): erlaubt ist [LRU, W_TINY_LFU]", invalidEnum.getMessage());
+    }
+
+    private enum Policy
+    {
+        LRU,
+        W_TINY_LFU
+    }
+}
@@ -0,0 +1,133 @@
+package dataaccess;
+
+import domain.Course;
+import domain.CourseType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft, dass CachingCourseRepository nach dem Rollback einer UnitOfWork keine Stände aus der Transaktion liefert.
+ */
+class CachingCourseRepositoryTest
+{
+    private PooledConnectionProvider connectionProvider;
+    private TransactionManager transactionManager;
+    private MySqlCourseRepository repository;
+    private CachingCourseRepository cache;
+
+    @BeforeEach
+    void setUp() throws SQLException
+    {
+        connectionProvider = new PooledConnectionProvider(
+                "jdbc:h2:mem:caching_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "", 1, 4, 60000, 5000);
+        try(Connection connection = connectionProvider.getConnection();
+            Statement statement = connection.createStatement())
+        {
+            statement.execute("DROP TABLE IF EXISTS courses");
+            statement.execute("CREATE TABLE courses (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(200) NOT NULL, "
+                    + "description TEXT NOT NULL, hours INT NOT NULL, begindate DATE NOT NULL, enddate DATE NOT NULL, "
+                    + "coursetype VARCHAR(2) NOT NULL, version BIGINT NOT NULL DEFAULT 0)");
+        }
+        transactionManager = new TransactionManager(connectionProvider);
+        repository = new MySqlCourseRepository(transactionManager);
+        cache = new CachingCourseRepository(repository, 100, 60000);
+        cache.setTransactionManager(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        connectionProvider.close();
+    }
+
+    @Test
+    void uncommittedRowsLoadedOnMissAreDroppedOnRollback()
+    {
+        Long id;
+        try(UnitOfWork unitOfWork = transactionManager.begin())
+        {
+            // Direkt über das Repository, damit der Cache den Kurs erst beim Lesen sieht.
+            id = repository.insert(newCourse("Java")).orElseThrow().getId();
+            assertTrue(cache.getById(id).isPresent());
+            assertEquals(1, cache.getAllById(List.of(id)).size());
+        }
+
+        assertFalse(cache.getById(id).isPresent());
+        assertTrue(cache.getAllById(List.of(id)).isEmpty());
+    }
+
+    @Test
+    void negativeEntryCachedAfterDeleteIsDroppedOnRollback()
+    {
+        Long id = repository.insert(newCourse("Java")).orElseThrow().getId();
+
+        try(UnitOfWork unitOfWork = transactionManager.begin())
+        {
+            assertTrue(cache.deleteById(id));
+            assertFalse(cache.getById(id).isPresent());
+        }
+
+        assertEquals("Java", cache.getById(id).orElseThrow().getName());
+    }
+
+    @Test
+    void rowsReloadedAfterBatchWritesAreDroppedOnRollback()
+    {
+        Course java = repository.insert(newCourse("Java")).orElseThrow();
+        Course python = repository.insert(newCourse("Python")).orElseThrow();
+
+        try(UnitOfWork unitOfWork = transactionManager.begin())
+        {
+            cache.updateAll(List.of(changed(java, "Java neu")));
+            cache.deleteAllById(List.of(python.getId()));
+            assertEquals("Java neu", cache.getById(java.getId()).orElseThrow().getName());
+            assertFalse(cache.getById(python.getId()).isPresent());
+        }
+
+        assertEquals("Java", cache.getById(java.getId()).orElseThrow().getName());
+        assertEquals("Python", cache.getById(python.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void everyUnitOfWorkIsEnlistedAgain()
+    {
+        Course java = repository.insert(newCourse("Java")).orElseThrow();
+
+        try(UnitOfWork unitOfWork = transactionManager.begin())
+        {
+            cache.update(changed(java, "Java 2"));
+            unitOfWork.commit();
+        }
+        assertEquals("Java 2", cache.getById(java.getId()).orElseThrow().getName());
+
+        try(UnitOfWork unitOfWork = transactionManager.begin())
+        {
+            cache.update(changed(cache.getById(java.getId()).orElseThrow(), "Java 3"));
+        }
+        assertEquals("Java 2", cache.getById(java.getId()).orElseThrow().getName());
+    }
+
+    private static Course changed(Course course, String name)
+    {
+        Course copy = course.copy();
+        copy.setName(name);
+        return copy;
+    }
+
+    private static Course newCourse(String name)
+    {
+        return new Course(name, "Grundlagen der Programmierung", 5,
+                Date.valueOf("2024-03-01"), Date.valueOf("2024-03-15"), CourseType.OE);
+    }
+}
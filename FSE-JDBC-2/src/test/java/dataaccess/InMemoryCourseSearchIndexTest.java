@@ -0,0 +1,152 @@
+package dataaccess;
+
+import domain.Course;
+import domain.CourseType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryCourseSearchIndexTest
+{
+    private InMemoryCourseSearchIndex index;
+
+    @BeforeEach
+    void setUp()
+    {
+        index = new InMemoryCourseSearchIndex();
+        index.rebuild(Stream.of(
+                course(1L, "Java Grundlagen", "Einstieg in die Programmierung"),
+                course(2L, "Datenbanken", "SQL und JDBC mit Java"),
+                course(3L, "Python", "Programmieren für Einsteiger"),
+                course(4L, "Javascript im Browser", "Webentwicklung")));
+    }
+
+    @Test
+    void nameMatchesRankAboveDescriptionMatches()
+    {
+        index.rebuild(Stream.of(
+                course(1L, "Datenbanken mit Java", "Ein Kurs über relationale Modelle"),
+                course(2L, "Datenbanken mit SQL", "Ein Kurs über Java Anwendungen")));
+
+        assertEquals(List.of(1L, 2L), ids(index.search("java", 10)));
+    }
+
+    @Test
+    void exactMatchesRankAbovePrefixMatches()
+    {
+        index.rebuild(Stream.of(
+                course(1L, "Javascript Kurs", "Webentwicklung im Browser"),
+                course(2L, "Java Kurs", "Webentwicklung im Browser")));
+
+        assertEquals(List.of(2L, 1L), ids(index.search("java", 10)));
+        assertEquals(List.of(1L), ids(index.search("javascript", 10)));
+    }
+
+    @Test
+    void rareTermsWeighMoreThanCommonTerms()
+    {
+        index.rebuild(Stream.of(
+                course(1L, "Kurs Alpha", "Allgemeiner Text"),
+                course(2L, "Kurs Beta", "Allgemeiner Text"),
+                course(3L, "Kurs Gamma", "Allgemeiner Text")));
+
+        List<SearchHit<Course>> hits = index.search("kurs gamma", 10);
+        assertEquals(3L, hits.get(0).getItem().getId());
+        assertEquals(3, hits.size());
+    }
+
+    @Test
+    void prefixFindsAllWordsStartingWithTheTerm()
+    {
+        assertEquals(List.of(1L, 3L), sorted(ids(index.search("programm", 10))));
+        assertEquals(List.of(1L, 3L), sorted(ids(index.search("EINST", 10))));
+        assertTrue(index.search("xyz", 10).isEmpty());
+        assertTrue(index.search(" - ", 10).isEmpty());
+    }
+
+    @Test
+    void allTermsContributeToTheScore()
+    {
+        List<SearchHit<Course>> hits = index.search("java jdbc", 10);
+
+        assertEquals(2L, hits.get(0).getItem().getId());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    void limitKeepsTheBestHits()
+    {
+        List<SearchHit<Course>> hits = index.search("jav", 1);
+
+        assertEquals(3, index.search("jav", 10).size());
+        assertEquals(1, hits.size());
+        assertEquals(ids(index.search("jav", 10)).get(0), hits.get(0).getItem().getId());
+        assertThrows(IllegalArgumentException.class, () -> index.search("java", 0));
+    }
+
+    @Test
+    void courseSavedReplacesTheTermsOfTheCourse()
+    {
+        index.courseSaved(course(3L, "Kotlin", "Programmieren für Einsteiger"));
+
+        assertTrue(index.search("python", 10).isEmpty());
+        assertEquals(List.of(3L), ids(index.search("kotlin", 10)));
+        assertEquals(4, index.size());
+
+        index.courseSaved(course(5L, "Python Aufbau", "Fortgeschrittene Themen"));
+        assertEquals(List.of(5L), ids(index.search("python", 10)));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void courseDeletedRemovesTheCourse()
+    {
+        index.courseDeleted(1L);
+        index.courseDeleted(99L);
+
+        assertEquals(List.of(2L, 4L), sorted(ids(index.search("java", 10))));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void changesOfTheCallerDoNotReachTheIndex()
+    {
+        Course saved = course(5L, "Rust", "Systemprogrammierung");
+        index.courseSaved(saved);
+        saved.setName("Go");
+
+        Course hit = index.search("rust", 10).get(0).getItem();
+        assertEquals("Rust", hit.getName());
+
+        hit.setName("Haskell");
+        assertEquals("Rust", index.search("rust", 10).get(0).getItem().getName());
+    }
+
+    private static List<Long> ids(List<SearchHit<Course>> hits)
+    {
+        List<Long> ids = new ArrayList<>();
+        for(SearchHit<Course> hit : hits)
+        {
+            ids.add(hit.getItem().getId());
+        }
+        return ids;
+    }
+
+    private static List<Long> sorted(List<Long> ids)
+    {
+        return ids.stream().sorted().toList();
+    }
+
+    private static Course course(Long id, String name, String description)
+    {
+        return new Course(id, name, description, 5, Date.valueOf("2024-03-01"), Date.valueOf("2024-03-15"), CourseType.OE);
+    }
+}
@@ -0,0 +1,122 @@
+package dataaccess;
+
+import domain.Course;
+import domain.CourseType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft, dass ListeningCourseRepository Schreibzugriffe einer UnitOfWork erst nach dem Commit meldet.
+ */
+class ListeningCourseRepositoryTest
+{
+    private PooledConnectionProvider connectionProvider;
+    private TransactionManager transactionManager;
+    private ListeningCourseRepository repository;
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SQLException
+    {
+        connectionProvider = new PooledConnectionProvider(
+                "jdbc:h2:mem:listening_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "", 1, 4, 60000, 5000);
+        try(Connection connection = connectionProvider.getConnection();
+            Statement statement = connection.createStatement())
+        {
+            statement.execute("DROP TABLE IF EXISTS courses");
+            statement.execute("CREATE TABLE courses (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(200) NOT NULL, "
+                    + "description TEXT NOT NULL, hours INT NOT NULL, begindate DATE NOT NULL, enddate DATE NOT NULL, "
+                    + "coursetype VARCHAR(2) NOT NULL, version BIGINT NOT NULL DEFAULT 0)");
+        }
+        transactionManager = new TransactionManager(connectionProvider);
+        repository = new ListeningCourseRepository(new MySqlCourseRepository(transactionManager), new CourseWriteListener()
+        {
+            @Override
+            public void courseSaved(Course course)
+            {
+                events.add("saved " + course.getName());
+            }
+
+            @Override
+            public void courseDeleted(Long id)
+            {
+                events.add("deleted " + id);
+            }
+        });
+        repository.setTransactionManager(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        connectionProvider.close();
+    }
+
+    @Test
+    void writesOutsideTransactionAreReportedImmediately()
+    {
+        Course stored = repository.insert(newCourse("Java")).orElseThrow();
+        assertEquals(List.of("saved Java"), events);
+
+        repository.deleteById(stored.getId());
+        assertEquals(List.of("saved Java", "deleted " + stored.getId()), events);
+    }
+
+    @Test
+    void writesInsideTransactionAreReportedInOrderAfterCommit()
+    {
+        try(UnitOfWork unitOfWork = transactionManager.begin())
+        {
+            Course stored = repository.insert(newCourse("Java")).orElseThrow();
+            repository.insertAll(List.of(newCourse("Python"), newCourse("Kotlin")));
+            repository.deleteById(stored.getId());
+            assertTrue(events.isEmpty());
+
+            unitOfWork.commit();
+            assertEquals(List.of("saved Java", "saved Python", "saved Kotlin", "deleted " + stored.getId()), events);
+        }
+    }
+
+    @Test
+    void writesInsideTransactionAreDiscardedOnRollback()
+    {
+        try(UnitOfWork unitOfWork = transactionManager.begin())
+        {
+            repository.insert(newCourse("Java"));
+            repository.insert(newCourse("Python"));
+        }
+        assertTrue(events.isEmpty());
+
+        // Die nächste Transaktion beginnt ohne zurückgehaltene Benachrichtigungen der vorigen.
+        transactionManager.inTransaction(() -> repository.insert(newCourse("Kotlin")));
+        assertEquals(List.of("saved Kotlin"), events);
+    }
+
+    @Test
+    void failedWorkInTransactionReportsNothing()
+    {
+        assertThrows(IllegalStateException.class, () -> transactionManager.inTransaction(() -> {
+            repository.insert(newCourse("Java"));
+            throw new IllegalStateException("Abbruch");
+        }));
+        assertTrue(events.isEmpty());
+    }
+
+    private static Course newCourse(String name)
+    {
+        return new Course(name, "Grundlagen der Programmierung", 5,
+                Date.valueOf("2024-03-01"), Date.valueOf("2024-03-15"), CourseType.OE);
+    }
+}
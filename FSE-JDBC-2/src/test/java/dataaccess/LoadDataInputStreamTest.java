@@ -0,0 +1,48 @@
+package dataaccess;
+
+import domain.Course;
+import domain.CourseType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LoadDataInputStreamTest
+{
+    private static final Date BEGIN = Date.valueOf("2024-03-01");
+    private static final Date END = Date.valueOf("2024-03-15");
+
+    @Test
+    void encodesValidCoursesAndEscapesSpecialCharacters() throws IOException
+    {
+        Course course = new Course("Java\tBasics", "Zeile 1\nZeile 2 mit \\", 5, BEGIN, END, CourseType.OE);
+        LoadDataInputStream input = new LoadDataInputStream(Arrays.asList(course).iterator());
+
+        String text = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+
+        assertEquals("Java\\tBasics\tZeile 1\\nZeile 2 mit \\\\\t5\t2024-03-01\t2024-03-15\tOE\n", text);
+        assertEquals(1, input.getRowsSent());
+        assertEquals(0, input.getRowsSkipped());
+    }
+
+    @Test
+    void skipsNullAndInvalidCourses() throws IOException
+    {
+        Course valid = new Course("Java", "Grundlagen", 5, BEGIN, END, CourseType.OE);
+        Course tooManyHours = Course.fromTrustedSource(null, "Java", "Grundlagen", 40, BEGIN, END, CourseType.OE);
+        Course endBeforeBegin = Course.fromTrustedSource(null, "Java", "Grundlagen", 5, END, BEGIN, CourseType.OE);
+        Course withoutType = Course.fromTrustedSource(null, "Java", "Grundlagen", 5, BEGIN, END, null);
+        LoadDataInputStream input = new LoadDataInputStream(
+                Arrays.asList(tooManyHours, valid, null, endBeforeBegin, withoutType, valid).iterator());
+
+        String text = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+
+        assertEquals(2, text.split("\n").length);
+        assertEquals(2, input.getRowsSent());
+        assertEquals(4, input.getRowsSkipped());
+    }
+}
@@ -0,0 +1,131 @@
+package dataaccess;
+
+import domain.Course;
+import domain.CourseType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft MySqlCourseRepository gegen eine H2-Datenbank im MySQL-Modus.
+ */
+class MySqlCourseRepositoryTest
+{
+    private PooledConnectionProvider connectionProvider;
+    private MySqlCourseRepository repository;
+
+    @BeforeEach
+    void setUp() throws SQLException
+    {
+        connectionProvider = new PooledConnectionProvider(
+                "jdbc:h2:mem:courses_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "", 1, 4, 60000, 5000);
+        try(Connection connection = connectionProvider.getConnection();
+            Statement statement = connection.createStatement())
+        {
+            statement.execute("DROP TABLE IF EXISTS courses");
+            statement.execute("CREATE TABLE courses (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(200) NOT NULL, "
+                    + "description TEXT NOT NULL, hours INT NOT NULL, begindate DATE NOT NULL, enddate DATE NOT NULL, "
+                    + "coursetype VARCHAR(2) NOT NULL, version BIGINT NOT NULL DEFAULT 0)");
+        }
+        repository = new MySqlCourseRepository(connectionProvider);
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        connectionProvider.close();
+    }
+
+    @Test
+    void updateWithoutChangesKeepsVersion()
+    {
+        Course stored = repository.insert(newCourse()).orElseThrow();
+        Course loaded = repository.getById(stored.getId()).orElseThrow();
+
+        Optional<Course> result = repository.update(loaded);
+
+        assertTrue(result.isPresent());
+        assertEquals(loaded.getVersion(), result.get().getVersion());
+        assertEquals(loaded.getVersion(), repository.getById(stored.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void updateWithoutChangesOfMissingCourseIsEmpty()
+    {
+        Course missing = Course.fromTrustedSource(4711L, "Java", "Grundlagen", 5,
+                Date.valueOf("2024-03-01"), Date.valueOf("2024-03-15"), CourseType.OE);
+
+        assertFalse(repository.update(missing).isPresent());
+    }
+
+    @Test
+    void updateWithoutChangesDetectsStaleVersion()
+    {
+        Course stored = repository.insert(newCourse()).orElseThrow();
+        Course stale = repository.getById(stored.getId()).orElseThrow();
+        Course fresh = repository.getById(stored.getId()).orElseThrow();
+        fresh.setHours(7);
+        repository.update(fresh);
+
+        OptimisticLockException exception = assertThrows(OptimisticLockException.class, () -> repository.update(stale));
+        assertEquals(stale.getVersion() + 1, exception.getActualVersion());
+    }
+
+    @Test
+    void updateWritesChangedFieldsAndIncrementsVersion()
+    {
+        Course stored = repository.insert(newCourse()).orElseThrow();
+        Course loaded = repository.getById(stored.getId()).orElseThrow();
+        loaded.setName("Java für Fortgeschrittene");
+
+        Course updated = repository.update(loaded).orElseThrow();
+
+        assertEquals(loaded.getVersion() + 1, updated.getVersion());
+        assertEquals("Java für Fortgeschrittene", repository.getById(stored.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void updateAllSeparatesConflictsFromMissingRows()
+    {
+        // 12 nicht aktualisierte Zeilen: readVersions füllt die IN-Liste mit der letzten ID auf 50 Plätze auf.
+        List<Course> stale = new ArrayList<>();
+        for(int i = 0; i < 11; i++)
+        {
+            Course stored = repository.insert(newCourse()).orElseThrow();
+            stale.add(repository.getById(stored.getId()).orElseThrow());
+            Course fresh = repository.getById(stored.getId()).orElseThrow();
+            fresh.setHours(7);
+            repository.update(fresh);
+        }
+        stale.add(Course.fromTrustedSource(4711L, "Java", "Grundlagen", 5,
+                Date.valueOf("2024-03-01"), Date.valueOf("2024-03-15"), CourseType.OE));
+
+        BatchResult<Course> result = repository.updateAll(stale);
+
+        assertEquals(12, result.getRows().size());
+        for(BatchResult.RowResult<Course> row : result.getRows())
+        {
+            BatchResult.Status expected = row.getIndex() < 11 ? BatchResult.Status.CONFLICT : BatchResult.Status.NOT_FOUND;
+            assertEquals(expected, row.getStatus());
+        }
+    }
+
+    private static Course newCourse()
+    {
+        return new Course("Java", "Grundlagen der Programmierung", 5,
+                Date.valueOf("2024-03-01"), Date.valueOf("2024-03-15"), CourseType.OE);
+    }
+}
@@ -0,0 +1,181 @@
+package dataaccess;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prüft das Routing von RoutingConnectionProvider gegen drei getrennte H2-Datenbanken im Speicher
+ * (ein Primary, zwei Replikate). Welche Datenbank eine Verbindung erreicht, wird über ihre URL erkannt.
+ */
+class RoutingConnectionProviderTest
+{
+    private static final long STICKY_MILLIS = 200;
+    // Lang genug, dass die Hintergrundprüfung während eines Tests nicht dazwischenkommt.
+    private static final long HEALTH_CHECK_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private SwitchableProvider primary;
+    private SwitchableProvider replica1;
+    private SwitchableProvider replica2;
+    private RoutingConnectionProvider router;
+
+    @BeforeEach
+    void setUp()
+    {
+        primary = new SwitchableProvider("routing_primary");
+        replica1 = new SwitchableProvider("routing_replica1");
+        replica2 = new SwitchableProvider("routing_replica2");
+        router = new RoutingConnectionProvider(primary, List.of(replica1, replica2),
+                RoutingConnectionProvider.SelectionStrategy.ROUND_ROBIN, STICKY_MILLIS, HEALTH_CHECK_INTERVAL_MILLIS);
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        router.close();
+    }
+
+    @Test
+    void readsAreDistributedOverReplicas() throws SQLException
+    {
+        assertEquals("routing_replica1", readDatabase());
+        assertEquals("routing_replica2", readDatabase());
+        assertEquals("routing_replica1", readDatabase());
+    }
+
+    @Test
+    void writesGoToPrimary() throws SQLException
+    {
+        try(Connection connection = router.getConnection())
+        {
+            assertEquals("routing_primary", databaseOf(connection));
+        }
+    }
+
+    @Test
+    void readAfterWriteSticksToPrimaryUntilStickyTimeExpires() throws Exception
+    {
+        try(Connection connection = router.getConnection())
+        {
+            assertEquals("routing_primary", databaseOf(connection));
+        }
+        assertEquals("routing_primary", readDatabase());
+
+        Thread.sleep(STICKY_MILLIS * 2);
+        assertEquals("routing_replica1", readDatabase());
+    }
+
+    @Test
+    void stickinessIsPerThread() throws Exception
+    {
+        try(Connection connection = router.getConnection())
+        {
+            assertEquals("routing_primary", databaseOf(connection));
+        }
+        // Ein anderer Thread sieht den Schreibzugriff nicht und liest vom Replikat.
+        String otherThread = CompletableFuture.supplyAsync(() -> {
+            try
+            {
+                return readDatabase();
+            }
+            catch(SQLException e)
+            {
+                throw new RuntimeException(e);
+            }
+        }).get(5, TimeUnit.SECONDS);
+        assertEquals("routing_replica1", otherThread);
+    }
+
+    @Test
+    void failedReplicaIsSkippedUntilHealthCheckSucceeds() throws SQLException
+    {
+        replica1.down = true;
+        assertEquals("routing_replica2", readDatabase());
+        assertEquals(1, router.getHealthyReplicaCount());
+        assertEquals("routing_replica2", readDatabase());
+
+        replica1.down = false;
+        assertEquals("routing_replica2", readDatabase());
+        router.checkReplicasNow();
+        assertEquals(2, router.getHealthyReplicaCount());
+    }
+
+    @Test
+    void readsFailOverToPrimaryWhenNoReplicaIsAvailable() throws SQLException
+    {
+        replica1.down = true;
+        replica2.down = true;
+        assertEquals("routing_primary", readDatabase());
+        assertEquals(0, router.getHealthyReplicaCount());
+
+        replica2.down = false;
+        router.checkReplicasNow();
+        assertEquals(1, router.getHealthyReplicaCount());
+        assertEquals("routing_replica2", readDatabase());
+    }
+
+    @Test
+    void activeReadConnectionsAreCountedUntilClose() throws SQLException
+    {
+        try(Connection connection = router.getReadConnection())
+        {
+            assertEquals("routing_replica1", databaseOf(connection));
+            assertEquals(1, router.getActiveReadConnections(0));
+        }
+        assertEquals(0, router.getActiveReadConnections(0));
+    }
+
+    private String readDatabase() throws SQLException
+    {
+        try(Connection connection = router.getReadConnection())
+        {
+            return databaseOf(connection);
+        }
+    }
+
+    private static String databaseOf(Connection connection) throws SQLException
+    {
+        String url = connection.getMetaData().getURL();
+        String name = url.substring("jdbc:h2:mem:".length());
+        int options = name.indexOf(';');
+        return options < 0 ? name : name.substring(0, options);
+    }
+
+    /**
+     * Provider für eine H2-Datenbank im Speicher, der auf Wunsch einen Ausfall vortäuscht.
+     */
+    private static final class SwitchableProvider implements ConnectionProvider
+    {
+        private final String url;
+        private volatile boolean down;
+
+        SwitchableProvider(String database)
+        {
+            this.url = "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1";
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException
+        {
+            if(down)
+            {
+                throw new SQLException("Datenbank nicht erreichbar: " + url);
+            }
+            return DriverManager.getConnection(url, "sa", "");
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
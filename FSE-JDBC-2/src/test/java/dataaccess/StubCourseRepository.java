@@ -0,0 +1,104 @@
+package dataaccess;
+
+import domain.Course;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Repository im Speicher für Tests ohne Datenbank; unterstützt nur insertAll und streamAll.
+ * Kurse, auf die das Prädikat zutrifft, lehnt insertAll wie eine Datenbank mit FAILED ab.
+ */
+public class StubCourseRepository extends ForwardingCourseRepository
+{
+    private final List<Course> courses = new CopyOnWriteArrayList<>();
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final Predicate<Course> rejected;
+    private final String rejectionMessage;
+    private long nextId = 1;
+
+    public StubCourseRepository()
+    {
+        this(course -> false, null);
+    }
+
+    /**
+     * @param rejected Kurse, die insertAll ablehnt.
+     * @param rejectionMessage Die Meldung der abgelehnten Zeilen.
+     */
+    public StubCourseRepository(Predicate<Course> rejected, String rejectionMessage)
+    {
+        super(unsupported());
+        this.rejected = rejected;
+        this.rejectionMessage = rejectionMessage;
+    }
+
+    /**
+     * Legt einen Kurs mit der nächsten ID ab, z.B. als Quelle für einen Export.
+     */
+    public synchronized Course add(Course course)
+    {
+        Course stored = Course.fromTrustedSource(nextId++, course.getName(), course.getDescription(), course.getHours(),
+                course.getBeginDate(), course.getEndDate(), course.getCourseType());
+        courses.add(stored);
+        return stored;
+    }
+
+    @Override
+    public synchronized BatchResult<Course> insertAll(Collection<Course> batch)
+    {
+        batchSizes.add(batch.size());
+        BatchResult<Course> result = new BatchResult<>(batch.size());
+        int index = 0;
+        for(Course course : batch)
+        {
+            if(rejected.test(course))
+            {
+                result.failed(index, course, rejectionMessage);
+            }
+            else
+            {
+                result.success(index, add(course));
+            }
+            index++;
+        }
+        return result;
+    }
+
+    @Override
+    public Stream<Course> streamAll()
+    {
+        return courses.stream();
+    }
+
+    /**
+     * @return Die gespeicherten Kurse in der Reihenfolge des Einfügens.
+     */
+    public List<Course> getCourses()
+    {
+        return new ArrayList<>(courses);
+    }
+
+    /**
+     * @return Die Größe jedes insertAll-Aufrufs.
+     */
+    public List<Integer> getBatchSizes()
+    {
+        return new ArrayList<>(batchSizes);
+    }
+
+    private static MyCourseRepository unsupported()
+    {
+        return (MyCourseRepository) Proxy.newProxyInstance(
+                MyCourseRepository.class.getClassLoader(),
+                new Class<?>[]{MyCourseRepository.class},
+                (proxy, method, args) -> {
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,287 @@
+package dataaccess;
+
+import domain.Course;
+import domain.CourseType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft WriteBehindCourseRepository gegen eine H2-Datenbank im MySQL-Modus.
+ * Der Hintergrund-Flush ist auf ein langes Intervall gestellt; die Tests rufen flush() selbst auf.
+ */
+class WriteBehindCourseRepositoryTest
+{
+    private static final long FLUSH_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    @TempDir
+    Path tempDir;
+
+    private PooledConnectionProvider connectionProvider;
+    private TransactionManager transactionManager;
+    private MySqlCourseRepository repository;
+    private WriteBehindCourseRepository writeBehind;
+
+    @BeforeEach
+    void setUp() throws SQLException
+    {
+        connectionProvider = new PooledConnectionProvider(
+                "jdbc:h2:mem:write_behind_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "", 1, 4, 60000, 5000);
+        try(Connection connection = connectionProvider.getConnection();
+            Statement statement = connection.createStatement())
+        {
+            statement.execute("DROP TABLE IF EXISTS courses");
+            statement.execute("CREATE TABLE courses (id BIGINT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(200) NOT NULL, "
+                    + "description TEXT NOT NULL, hours INT NOT NULL, begindate DATE NOT NULL, enddate DATE NOT NULL, "
+                    + "coursetype VARCHAR(2) NOT NULL, version BIGINT NOT NULL DEFAULT 0)");
+        }
+        transactionManager = new TransactionManager(connectionProvider);
+        repository = new MySqlCourseRepository(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown()
+    {
+        if(writeBehind != null)
+        {
+            writeBehind.close();
+        }
+        connectionProvider.close();
+    }
+
+    @Test
+    void coalescedUpdatesReturnTheVersionWrittenToTheDatabase()
+    {
+        writeBehind = writeBehind(repository, 100, 1000);
+        Course stored = repository.insert(newCourse("Java")).orElseThrow();
+
+        Course first = writeBehind.update(changed(stored, "Java 1")).orElseThrow();
+        Course second = writeBehind.update(changed(first, "Java 2")).orElseThrow();
+        writeBehind.flush();
+
+        Course inDatabase = repository.getById(stored.getId()).orElseThrow();
+        assertEquals("Java 2", inDatabase.getName());
+        assertEquals(inDatabase.getVersion(), first.getVersion());
+        assertEquals(inDatabase.getVersion(), second.getVersion());
+
+        Course third = writeBehind.update(changed(second, "Java 3")).orElseThrow();
+        writeBehind.flush();
+
+        assertEquals(repository.getById(stored.getId()).orElseThrow().getVersion(), third.getVersion());
+        assertEquals(0, writeBehind.getFailedWriteCount());
+    }
+
+    @Test
+    void failedBlockIsRolledBackAndWrittenOnceOnRetry()
+    {
+        AtomicBoolean failUpdates = new AtomicBoolean(true);
+        MyCourseRepository failing = new ForwardingCourseRepository(repository)
+        {
+            @Override
+            public BatchResult<Course> updateAll(Collection<Course> courses)
+            {
+                if(failUpdates.get())
+                {
+                    throw new DatabaseException("Verbindung verloren");
+                }
+                return delegate.updateAll(courses);
+            }
+        };
+        writeBehind = writeBehind(failing, 100, 1000);
+        Course stored = repository.insert(newCourse("Java")).orElseThrow();
+
+        writeBehind.insert(newCourse("Python"));
+        writeBehind.update(changed(stored, "Java neu"));
+        assertThrows(DatabaseException.class, writeBehind::flush);
+
+        // Das INSERT vor dem fehlgeschlagenen updateAll wurde mit zurückgerollt.
+        assertEquals(1, countCourses());
+        assertEquals(2, writeBehind.getPendingCount());
+
+        failUpdates.set(false);
+        writeBehind.flush();
+
+        assertEquals(2, countCourses());
+        assertEquals("Java neu", repository.getById(stored.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void rejectedRowsAreReportedToFailureListeners()
+    {
+        writeBehind = writeBehind(repository, 100, 1000);
+        List<WriteBehindCourseRepository.FailedWrite> failures = new CopyOnWriteArrayList<>();
+        writeBehind.addFailureListener(failures::add);
+        Course stored = repository.insert(newCourse("Java")).orElseThrow();
+        repository.update(changed(stored, "Java (anderer Benutzer)"));
+
+        writeBehind.update(changed(stored, "Java veraltet"));
+        writeBehind.deleteById(4711L);
+        writeBehind.flush();
+
+        assertEquals(1, failures.size());
+        assertEquals(WriteBehindCourseRepository.Kind.UPDATE, failures.get(0).getKind());
+        assertEquals(stored.getId(), failures.get(0).getId());
+        assertEquals(BatchResult.Status.CONFLICT, failures.get(0).getStatus());
+        assertEquals(1, writeBehind.getFailedWriteCount());
+    }
+
+    @Test
+    void flushInsideTransactionIsRejected()
+    {
+        writeBehind = writeBehind(repository, 100, 1000);
+        writeBehind.insert(newCourse("Java"));
+
+        try(UnitOfWork unitOfWork = transactionManager.begin())
+        {
+            assertThrows(IllegalStateException.class, writeBehind::flush);
+        }
+        assertEquals(1, writeBehind.getPendingCount());
+    }
+
+    @Test
+    void writesInFlightCountTowardsMaxPending() throws Exception
+    {
+        CountDownLatch flushStarted = new CountDownLatch(1);
+        CountDownLatch releaseFlush = new CountDownLatch(1);
+        MyCourseRepository blocking = new ForwardingCourseRepository(repository)
+        {
+            @Override
+            public BatchResult<Course> insertAll(Collection<Course> courses)
+            {
+                flushStarted.countDown();
+                try
+                {
+                    releaseFlush.await(10, TimeUnit.SECONDS);
+                }
+                catch(InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                return delegate.insertAll(courses);
+            }
+        };
+        writeBehind = writeBehind(blocking, 2, 2);
+        writeBehind.insert(newCourse("Java"));
+        writeBehind.insert(newCourse("Python"));
+        assertTrue(flushStarted.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> third = CompletableFuture.runAsync(() -> writeBehind.insert(newCourse("Kotlin")));
+        Thread.sleep(200);
+        assertFalse(third.isDone());
+
+        releaseFlush.countDown();
+        third.get(10, TimeUnit.SECONDS);
+        writeBehind.flush();
+        assertEquals(3, countCourses());
+    }
+
+    @Test
+    void closeReleasesBlockedWriters() throws Exception
+    {
+        AtomicBoolean failInserts = new AtomicBoolean(true);
+        MyCourseRepository failing = new ForwardingCourseRepository(repository)
+        {
+            @Override
+            public BatchResult<Course> insertAll(Collection<Course> courses)
+            {
+                if(failInserts.get())
+                {
+                    throw new DatabaseException("Verbindung verloren");
+                }
+                return delegate.insertAll(courses);
+            }
+        };
+        writeBehind = writeBehind(failing, 1, 1);
+        writeBehind.insert(newCourse("Java"));
+
+        // Der Puffer bleibt voll, weil jeder Flush fehlschlägt.
+        CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> writeBehind.insert(newCourse("Python")));
+        Thread.sleep(200);
+        assertFalse(blocked.isDone());
+
+        failInserts.set(false);
+        writeBehind.close();
+        writeBehind = null;
+
+        assertTrue(blocked.isDone());
+        assertEquals(1, countCourses());
+    }
+
+    @Test
+    void unwrittenAccessesAreReplayedFromJournalAfterRestart()
+    {
+        MyCourseRepository failing = new ForwardingCourseRepository(repository)
+        {
+            @Override
+            public BatchResult<Course> insertAll(Collection<Course> courses)
+            {
+                throw new DatabaseException("Verbindung verloren");
+            }
+        };
+        writeBehind = writeBehind(failing, 100, 1000);
+        writeBehind.insert(newCourse("Java"));
+        writeBehind.insert(newCourse("Python"));
+        writeBehind.close();
+
+        writeBehind = writeBehind(repository, 100, 1000);
+        assertEquals(2, writeBehind.getPendingCount() + countCourses());
+        writeBehind.flush();
+
+        assertEquals(2, countCourses());
+        assertEquals(0, writeBehind.getPendingCount());
+    }
+
+    private WriteBehindCourseRepository writeBehind(MyCourseRepository delegate, int flushSize, int maxPending)
+    {
+        return new WriteBehindCourseRepository(delegate, transactionManager, tempDir.resolve("courses.journal"),
+                flushSize, FLUSH_INTERVAL_MILLIS, maxPending, false);
+    }
+
+    private long countCourses()
+    {
+        try(Connection connection = connectionProvider.getConnection();
+            Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM courses"))
+        {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+        catch(SQLException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Course changed(Course course, String name)
+    {
+        Course copy = course.copy();
+        copy.setName(name);
+        return copy;
+    }
+
+    private static Course newCourse(String name)
+    {
+        return new Course(name, "Grundlagen der Programmierung", 5,
+                Date.valueOf("2024-03-01"), Date.valueOf("2024-03-15"), CourseType.OE);
+    }
+}
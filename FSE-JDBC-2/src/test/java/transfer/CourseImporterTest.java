@@ -0,0 +1,209 @@
+package transfer;
+
+import dataaccess.StubCourseRepository;
+import domain.Course;
+import domain.CourseType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prüft Export und Import von Kursen (CourseExporter, CourseCodec, CourseImporter) ohne Datenbank.
+ * Nicht-ASCII-Zeichen stehen als Unicode-Escapes im Quelltext, damit der Test unabhängig von der Quellkodierung ist.
+ */
+class CourseImporterTest
+{
+    private static final String HEADER = "id,name,description,hours,beginDate,endDate,courseType\n";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void csvRoundTripKeepsSpecialCharacters() throws IOException
+    {
+        StubCourseRepository source = sourceWithSpecialCourses();
+        StringWriter exported = new StringWriter();
+        TransferReport exportReport = new CourseExporter(source).exportTo(exported, CourseFileFormat.CSV);
+        assertEquals(4, exportReport.getRowsWritten());
+
+        StubCourseRepository target = new StubCourseRepository();
+        StringWriter errors = new StringWriter();
+        TransferReport report = new CourseImporter(target, 3, 2)
+                .importFrom(new StringReader("\ufeff" + exported), CourseFileFormat.CSV, errors);
+
+        assertEquals(List.of(4L, 4L, 0L), counts(report));
+        assertEquals("zeile\tfehler\tdatensatz\n", errors.toString());
+        assertEquals(describe(source.getCourses()), describe(target.getCourses()));
+        assertEquals(List.of(3, 1), target.getBatchSizes());
+    }
+
+    @Test
+    void jsonLinesRoundTripThroughFilesKeepsSpecialCharacters() throws IOException
+    {
+        StubCourseRepository source = sourceWithSpecialCourses();
+        Path exported = tempDir.resolve("kurse.jsonl");
+        assertEquals(4, new CourseExporter(source).exportFile(exported).getRowsWritten());
+        // Mit BOM, wie manche Editoren UTF-8 speichern.
+        Path input = tempDir.resolve("kurse-bom.jsonl");
+        Files.writeString(input, "\ufeff" + Files.readString(exported, StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+
+        StubCourseRepository target = new StubCourseRepository();
+        Path errorFile = tempDir.resolve("fehler.tsv");
+        TransferReport report = new CourseImporter(target).importFile(input, errorFile);
+
+        assertEquals(List.of(4L, 4L, 0L), counts(report));
+        assertEquals("zeile\tfehler\tdatensatz\n", Files.readString(errorFile, StandardCharsets.UTF_8));
+        assertEquals(describe(source.getCourses()), describe(target.getCourses()));
+    }
+
+    @Test
+    void rejectedCsvRecordsAreWrittenToTheErrorFile() throws IOException
+    {
+        String csv = HEADER
+                + "1,Java,Grundlagen der Programmierung,5,2024-03-01,2024-03-15,OE\n"   // Zeile 2
+                + "2,Python,zu wenige Spalten\n"                                          // Zeile 3
+                + "3,X,Einzelner Buchstabe,5,2024-03-01,2024-03-15,OE\n"               // Zeile 4
+                + "4,Kotlin,Grundlagen,zehn,2024-03-01,2024-03-15,OE\n"                // Zeile 5
+                + "5,Doppelt,\"Zeile eins\nZeile zwei\",5,2024-03-01,2024-03-15,OE\n"  // Zeilen 6-7
+                + "6,Rust,Grundlagen,5,2024-03-15,2024-03-01,FS\n"                     // Zeile 8
+                + "7,Go,Grundlagen,5,2024-03-01,2024-03-15,ZZ\n"                       // Zeile 9
+                + "\n"                                                                   // Zeile 10
+                + "9,Scala,Grundlagen,5,2024-03-01,2024-03-15,BF\n"                    // Zeile 11
+                + "10,C#,\"Offen,5,2024-03-01,2024-03-15,OE\n";                        // Zeile 12
+        StubCourseRepository target = new StubCourseRepository(
+                course -> course.getName().equals("Doppelt"), "Duplicate entry 'Doppelt'");
+        StringWriter errors = new StringWriter();
+
+        TransferReport report = new CourseImporter(target, 2, 2).importFrom(new StringReader(csv), CourseFileFormat.CSV, errors);
+
+        assertEquals(List.of(9L, 2L, 7L), counts(report));
+        assertEquals(List.of("Java", "Scala"), names(target.getCourses()));
+        assertEquals(List.of(2, 1), target.getBatchSizes());
+
+        Map<Integer, String[]> rejected = parseErrors(errors.toString());
+        assertEquals(List.of(3, 4, 5, 6, 8, 9, 12), new ArrayList<>(rejected.keySet()));
+        assertEquals("Erwartet 7 Spalten, gefunden 3", rejected.get(3)[0]);
+        assertEquals("2,Python,zu wenige Spalten", rejected.get(3)[1]);
+        assertEquals("Kursname muss mindestens 2 Zeichen lang sein!", rejected.get(4)[0]);
+        assertEquals("Stundenanzahl 'zehn' ist keine Zahl", rejected.get(5)[0]);
+        assertEquals("Datenbank: Duplicate entry 'Doppelt'", rejected.get(6)[0]);
+        // Zeilenumbrüche im Datensatz werden in der Fehlerdatei maskiert.
+        assertEquals("5,Doppelt,\"Zeile eins\\nZeile zwei\",5,2024-03-01,2024-03-15,OE", rejected.get(6)[1]);
+        assertEquals("6,Rust,Grundlagen,5,2024-03-15,2024-03-01,FS", rejected.get(8)[1]);
+        assertEquals("Unbekannter Kurstyp 'ZZ'", rejected.get(9)[0]);
+        assertTrue(rejected.get(12)[0].endsWith("ab Zeile 12 nicht geschlossen"), rejected.get(12)[0]);
+        assertEquals("10,C#,\"Offen,5,2024-03-01,2024-03-15,OE", rejected.get(12)[1]);
+    }
+
+    @Test
+    void rejectedJsonLinesAreWrittenToTheErrorFile() throws IOException
+    {
+        String jsonLines = "{\"id\":1,\"name\":\"Java\",\"description\":\"Grundlagen\",\"hours\":5,"
+                + "\"beginDate\":\"2024-03-01\",\"endDate\":\"2024-03-15\",\"courseType\":\"OE\",\"extra\":true}\n"
+                + "{\"name\":\"Java\"\n"
+                + "{\"name\":\"Python\",\"description\":\"Grundlagen\",\"hours\":12,"
+                + "\"beginDate\":\"2024-03-01\",\"endDate\":\"2024-03-15\",\"courseType\":\"OE\"}\n"
+                + "{\"name\":\"Kotlin\",\"hours\":5,\"beginDate\":\"2024-03-01\",\"endDate\":\"2024-03-15\",\"courseType\":\"OE\"}\n"
+                + "\n"
+                + "[1,2]\n";
+        StubCourseRepository target = new StubCourseRepository();
+        StringWriter errors = new StringWriter();
+
+        TransferReport report = new CourseImporter(target).importFrom(new StringReader(jsonLines), CourseFileFormat.JSON_LINES, errors);
+
+        assertEquals(List.of(5L, 1L, 4L), counts(report));
+        assertEquals(List.of("Java"), names(target.getCourses()));
+
+        Map<Integer, String[]> rejected = parseErrors(errors.toString());
+        assertEquals(List.of(2, 3, 4, 6), new ArrayList<>(rejected.keySet()));
+        assertTrue(rejected.get(2)[0].endsWith("'}' erwartet"), rejected.get(2)[0]);
+        assertEquals("{\"name\":\"Java\"", rejected.get(2)[1]);
+        assertEquals("Anzahl der Kursstunden pro Kurs darf nur zwischen 1 und 10 liegen!", rejected.get(3)[0]);
+        assertEquals("Feld description fehlt", rejected.get(4)[0]);
+        assertTrue(rejected.get(6)[0].endsWith("'{' erwartet"), rejected.get(6)[0]);
+    }
+
+    @Test
+    void emptyInputImportsNothing() throws IOException
+    {
+        StubCourseRepository target = new StubCourseRepository();
+        StringWriter errors = new StringWriter();
+
+        TransferReport report = new CourseImporter(target).importFrom(new StringReader(""), CourseFileFormat.CSV, errors);
+
+        assertEquals(List.of(0L, 0L, 0L), counts(report));
+        assertTrue(target.getBatchSizes().isEmpty());
+    }
+
+    private static StubCourseRepository sourceWithSpecialCourses()
+    {
+        StubCourseRepository source = new StubCourseRepository();
+        source.add(course("Datenbanken, SQL & \"JDBC\"", "Zeile 1\nZeile 2\r\nZeile 3, mit Komma", CourseType.OE));
+        source.add(course("Gr\u00fc\u00dfe aus K\u00f6ln \u20ac", "Tab\tund Backslash \\ und \uD83D\uDE00 \u4e2d\u6587", CourseType.BF));
+        source.add(course("\"Zitat\" am Anfang", "Leerzeichen am Ende ", CourseType.ZA));
+        source.add(course("Java", "Grundlagen der Programmierung", CourseType.FS));
+        return source;
+    }
+
+    private static Course course(String name, String description, CourseType type)
+    {
+        return new Course(name, description, 5, Date.valueOf("2024-03-01"), Date.valueOf("2024-03-15"), type);
+    }
+
+    private static List<Long> counts(TransferReport report)
+    {
+        return List.of(report.getRowsRead(), report.getRowsWritten(), report.getRowsRejected());
+    }
+
+    private static List<String> names(List<Course> courses)
+    {
+        List<String> names = new ArrayList<>();
+        for(Course course : courses)
+        {
+            names.add(course.getName());
+        }
+        return names;
+    }
+
+    private static List<String> describe(List<Course> courses)
+    {
+        List<String> descriptions = new ArrayList<>();
+        for(Course course : courses)
+        {
+            descriptions.add(course.getName() + "|" + course.getDescription() + "|" + course.getHours() + "|"
+                    + course.getBeginDate() + "|" + course.getEndDate() + "|" + course.getCourseType());
+        }
+        return descriptions;
+    }
+
+    /**
+     * @return Grund und Datensatz je Zeilennummer aus der Fehlerdatei (nach Zeile sortiert).
+     */
+    private static Map<Integer, String[]> parseErrors(String errorFile)
+    {
+        String[] lines = errorFile.split("\n");
+        assertEquals("zeile\tfehler\tdatensatz", lines[0]);
+        Map<Integer, String[]> rejected = new TreeMap<>();
+        for(int i = 1; i < lines.length; i++)
+        {
+            String[] columns = lines[i].split("\t", 3);
+            assertEquals(3, columns.length, lines[i]);
+            rejected.put(Integer.parseInt(columns[0]), new String[]{columns[1], columns[2]});
+        }
+        return rejected;
+    }
+}
@@ -17,15 +17,24 @@ public class JDBC_Aufgabe1
         findAllByNameLike("kirsch");
     }
 
+    /**
+     * Öffnet eine Verbindung zur Demo-Datenbank.
+     * URL, Benutzer und Passwort können über die Umgebungsvariablen JDBC_URL, JDBC_USER und JDBC_PASSWORD
+     * gesetzt werden; ohne diese wird die lokale Datenbank 'jdbcdemo' mit dem Benutzer root verwendet.
+     */
+    private static Connection openConnection() throws SQLException
+    {
+        String connectionURL = System.getenv().getOrDefault("JDBC_URL", "jdbc:mysql://localhost:3306/jdbcdemo");
+        String user = System.getenv().getOrDefault("JDBC_USER", "root");
+        String pwd = System.getenv().getOrDefault("JDBC_PASSWORD", "");
+        return DriverManager.getConnection(connectionURL, user, pwd);
+    }
+
     private static void findAllByNameLike(String pattern)
     {
         System.out.println("FIND ALL BY NAME");
         //StringselectAllPersonString="SELECT*FROM`student`";
-        String connectionURL = "jdbc:mysql://localhost:3306/jdbcdemo";
-        String user = "root";
-        String pwd = "";
-
-        try (Connection conn=DriverManager.getConnection(connectionURL,user,pwd))
+        try (Connection conn=openConnection())
         {
             System.out.println("VerbindungzurDatenbankhergestelltJuhuu:-)");
 
@@ -54,11 +63,7 @@ public class JDBC_Aufgabe1
     {
         System.out.println("DELETE Demo mit JDBC:");
         //String selectAllPersonString = "SELECT * FROM `student`";
-        String connectionURL = "jdbc:mysql://localhost:3306/jdbcdemo";
-        String user = "root";
-        String pwd = "";
-
-        try (Connection conn = DriverManager.getConnection(connectionURL, user, pwd)) {
+        try (Connection conn = openConnection()) {
             System.out.println("Verbindung zur Datenbank hergestellt Juhuu :-)");
 
             PreparedStatement preparedStatement = conn.prepareStatement(
@@ -89,11 +94,7 @@ public class JDBC_Aufgabe1
     {
         System.out.println("UPDATE Demo mit JDBC:");
         //String selectAllPersonString = "SELECT * FROM `student`";
-        String connectionURL = "jdbc:mysql://localhost:3306/jdbcdemo";
-        String user = "root";
-        String pwd = "";
-
-        try (Connection conn = DriverManager.getConnection(connectionURL, user, pwd)) {
+        try (Connection conn = openConnection()) {
             System.out.println("Verbindung zur Datenbank hergestellt Juhuu :-)");
 
             PreparedStatement preparedStatement = conn.prepareStatement(
@@ -127,11 +128,7 @@ public class JDBC_Aufgabe1
     {
         System.out.println("Select Demo mit JDBC:");
         //String selectAllPersonString = "SELECT * FROM `student`";
-        String connectionURL = "jdbc:mysql://localhost:3306/jdbcdemo";
-        String user = "root";
-        String pwd = "";
-
-        try (Connection conn = DriverManager.getConnection(connectionURL, user, pwd)) {
+        try (Connection conn = openConnection()) {
             System.out.println("Verbindung zur Datenbank hergestellt Juhuu :-)");
 
             PreparedStatement preparedStatement = conn.prepareStatement(
@@ -163,11 +160,7 @@ public class JDBC_Aufgabe1
     {
         System.out.println("SelectDemomitJDBC:");
         //StringselectAllPersonString="SELECT*FROM`student`";
-        String connectionURL = "jdbc:mysql://localhost:3306/jdbcdemo";
-        String user = "root";
-        String pwd = "";
-
-        try (Connection conn=DriverManager.getConnection(connectionURL,user,pwd))
+        try (Connection conn=openConnection())
         {
             System.out.println("VerbindungzurDatenbankhergestelltJuhuu:-)");
 